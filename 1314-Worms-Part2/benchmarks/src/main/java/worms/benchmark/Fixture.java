@@ -0,0 +1,218 @@
+package worms.benchmark;
+
+import java.io.File;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.gui.Level;
+import worms.model.Terrain;
+import worms.model.World;
+
+/**
+ * A class of fixtures on which benchmarks are run, involving a world created from
+ * a level or from a synthetic terrain, random query points in that world, and
+ * random adjacent locations in that world at which worms can be placed.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class Fixture {
+
+	/**
+	 * Create a new fixture with the given name for a world with the given dimensions and terrain.
+	 *
+	 * @param 	name
+	 * 			The name of this fixture.
+	 * @param 	width
+	 * 			The width of the world (in meter).
+	 * @param 	height
+	 * 			The height of the world (in meter).
+	 * @param 	terrain
+	 * 			The terrain of the world.
+	 * @param 	seed
+	 * 			The seed from which the world and the query points are derived.
+	 */
+	public Fixture(String name, double width, double height, Terrain terrain, long seed){
+		this.name = name;
+		this.terrain = new Terrain(terrain);
+		this.world = new World(width, height, terrain, new Random(seed));
+		Random random = new Random(seed);
+		this.points = new double[NB_POINTS][];
+		for(int i = 0; i < NB_POINTS; i++)
+			points[i] = new double[] {random.nextDouble() * width, random.nextDouble() * height};
+		this.spawnPoints = new double[NB_POINTS][];
+		for(int i = 0; i < NB_POINTS; i++)
+			spawnPoints[i] = world.getSpawnPointFinder().findSpawnPoint(WORM_RADIUS);
+		this.directions = new double[NB_POINTS];
+		for(int i = 0; i < NB_POINTS; i++)
+			directions[i] = random.nextDouble() * Math.PI;
+	}
+
+	/**
+	 * Return a new fixture for the level in the given file.
+	 *
+	 * @param 	file
+	 * 			The file of the level.
+	 * @param 	seed
+	 * 			The seed from which the world and the query points are derived.
+	 */
+	public static Fixture fromLevel(File file, long seed){
+		Level level = new Level(file);
+		level.load();
+		return new Fixture(level.getName(), level.getWorldWidth(), level.getWorldHeight(),
+				level.getTerrain(), seed);
+	}
+
+	/**
+	 * Return a new fixture with the given name: a synthetic terrain if the name has the form
+	 * Synthetic-<columns>x<rows>, and the level with that name in the folder of levels otherwise.
+	 * 	The folder of levels is given by the system property worms.levels, and defaults to
+	 * 	the folder levels in the working directory.
+	 *
+	 * @param 	name
+	 * 			The name of the fixture.
+	 * @param 	seed
+	 * 			The seed from which the world and the query points are derived.
+	 * @throws	IllegalArgumentException("No level with the given name.")
+	 * 			| the name is not that of a synthetic terrain, and there is no such level
+	 */
+	public static Fixture named(String name, long seed)
+			throws IllegalArgumentException{
+		if(name.startsWith(SYNTHETIC_PREFIX)){
+			String[] dimensions = name.substring(SYNTHETIC_PREFIX.length()).split("x");
+			return synthetic(Integer.parseInt(dimensions[1]), Integer.parseInt(dimensions[0]), seed);
+		}
+		File file = new File(System.getProperty("worms.levels", "levels"), name + ".lvl");
+		if(!file.isFile())
+			throw new IllegalArgumentException("No level with the given name.");
+		return fromLevel(file, seed);
+	}
+
+	/**
+	 * Final class variable registering the prefix of the names of synthetic fixtures.
+	 */
+	private static final String SYNTHETIC_PREFIX = "Synthetic-";
+
+	/**
+	 * Return a new fixture for a synthetic terrain with the given number of rows and columns,
+	 * with 0.02 meter per pixel, consisting of rolling hills with floating islands above them.
+	 *
+	 * @param 	nbRows
+	 * 			The number of rows of the terrain.
+	 * @param 	nbColumns
+	 * 			The number of columns of the terrain.
+	 * @param 	seed
+	 * 			The seed from which the terrain, the world and the query points are derived.
+	 */
+	public static Fixture synthetic(int nbRows, int nbColumns, long seed){
+		Random random = new Random(seed);
+		Terrain terrain = new Terrain(nbRows, nbColumns);
+		double[] phases = {random.nextDouble() * 6.28, random.nextDouble() * 6.28, random.nextDouble() * 6.28};
+		for(int column = 0; column < nbColumns; column++){
+			double t = (double)column / nbColumns;
+			double ground = 0.3 + 0.1 * Math.sin(6.28 * 2 * t + phases[0]) +
+					0.05 * Math.sin(6.28 * 7 * t + phases[1]) + 0.02 * Math.sin(6.28 * 23 * t + phases[2]);
+			int firstImpassableRow = (int)(nbRows * (1 - ground));
+			for(int row = firstImpassableRow; row < nbRows; row++)
+				terrain.setPassable(row, column, false);
+		}
+		int nbIslands = nbRows * nbColumns / 40000;
+		for(int island = 0; island < nbIslands; island++){
+			int centerRow = (int)(nbRows * 0.1 + random.nextDouble() * nbRows * 0.4);
+			int centerColumn = random.nextInt(nbColumns);
+			int radius = 5 + random.nextInt(40);
+			for(int row = Math.max(0, centerRow - radius); row <= Math.min(nbRows - 1, centerRow + radius); row++)
+				for(int column = Math.max(0, centerColumn - radius); column <= Math.min(nbColumns - 1, centerColumn + radius); column++)
+					if((row - centerRow) * (row - centerRow) + (column - centerColumn) * (column - centerColumn) <= radius * radius)
+						terrain.setPassable(row, column, false);
+		}
+		return new Fixture(SYNTHETIC_PREFIX + nbColumns + "x" + nbRows, nbColumns * 0.02, nbRows * 0.02, terrain, seed);
+	}
+
+
+
+	/**
+	 * Return the name of this fixture.
+	 */
+	@Basic @Immutable
+	public String getName(){
+		return this.name;
+	}
+
+	/**
+	 * Variable registering the name of this fixture.
+	 */
+	private final String name;
+
+	/**
+	 * Return the world of this fixture.
+	 */
+	@Basic
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Variable referencing the world of this fixture.
+	 */
+	private final World world;
+
+	/**
+	 * Return a copy of the terrain of this fixture as it was before any benchmark ran.
+	 */
+	public Terrain getOriginalTerrain(){
+		return new Terrain(this.terrain);
+	}
+
+	/**
+	 * Variable referencing the original terrain of this fixture.
+	 */
+	private final Terrain terrain;
+
+	/**
+	 * Return the random query point with the given index, modulo the number of points.
+	 */
+	public double[] getPoint(int index){
+		return this.points[index % NB_POINTS];
+	}
+
+	/**
+	 * Variable referencing the random query points.
+	 */
+	private final double[][] points;
+
+	/**
+	 * Return the adjacent location with the given index, modulo the number of locations.
+	 */
+	public double[] getSpawnPoint(int index){
+		return this.spawnPoints[index % NB_POINTS];
+	}
+
+	/**
+	 * Variable referencing the adjacent locations.
+	 */
+	private final double[][] spawnPoints;
+
+	/**
+	 * Return the random direction between 0 and pi with the given index, modulo the number of directions.
+	 */
+	public double getDirection(int index){
+		return this.directions[index % NB_POINTS];
+	}
+
+	/**
+	 * Variable referencing the random directions.
+	 */
+	private final double[] directions;
+
+	/**
+	 * Final class variable registering the number of query points, locations and directions.
+	 */
+	public static final int NB_POINTS = 1024;
+
+	/**
+	 * Final class variable registering the radius of the worms used in the benchmarks.
+	 */
+	public static final double WORM_RADIUS = 0.25;
+}
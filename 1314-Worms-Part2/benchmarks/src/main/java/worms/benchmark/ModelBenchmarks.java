@@ -0,0 +1,271 @@
+package worms.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import worms.model.Projectile;
+import worms.model.Worm;
+import worms.model.World;
+import worms.model.WorldSnapshot;
+
+/**
+ * A class collecting the JMH benchmarks of the hot paths of the model:
+ * the terrain queries of a world, the collision checks between worms,
+ * the computation of jumps, moves and falls of worms, the computation of the
+ * trajectory of projectiles, the placement of new worms and the restoration
+ * of a world from a snapshot.
+ * 	Every benchmark runs on each fixture named by the fixture parameter: the shipped
+ * 	levels and a synthetic terrain. Other synthetic terrains are chosen on the command
+ * 	line, for example with -p fixture=Synthetic-40000x10000.
+ * 	Operations that change the state of a worm are run on a new worm
+ * 	for each operation, which is removed from the world afterwards.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmarks {
+
+	/**
+	 * A class of states holding the fixture on which a benchmark runs, and the
+	 * index of the next operation, used to vary the inputs of the operations.
+	 */
+	@State(Scope.Thread)
+	public static class FixtureState {
+
+		/**
+		 * The name of the fixture, as understood by Fixture.named.
+		 */
+		@Param({"Simple", "Skulls", "Skulls-lowres", "Synthetic-4096x2048"})
+		public String fixture;
+
+		/**
+		 * Create the fixture of this state.
+		 */
+		@Setup(Level.Trial)
+		public void setUp(){
+			this.currentFixture = Fixture.named(fixture, SEED);
+			prepare();
+		}
+
+		/**
+		 * Prepare the fixture of this state for the benchmark that uses it.
+		 */
+		protected void prepare(){
+		}
+
+		/**
+		 * Return the fixture of this state.
+		 */
+		public Fixture getFixture(){
+			return this.currentFixture;
+		}
+
+		/**
+		 * Variable referencing the fixture of this state.
+		 */
+		private Fixture currentFixture;
+
+		/**
+		 * Return the index of the next operation, modulo the number of inputs of a fixture.
+		 */
+		public int nextIndex(){
+			int result = this.index;
+			this.index = (this.index + 1) % Fixture.NB_POINTS;
+			return result;
+		}
+
+		/**
+		 * Variable registering the index of the next operation.
+		 */
+		private int index = 0;
+	}
+
+	/**
+	 * A class of states of which the world holds NB_WORMS worms, and a snapshot
+	 * of that world taken once these worms were added.
+	 */
+	public static class PopulatedState extends FixtureState {
+
+		@Override
+		protected void prepare(){
+			World world = getFixture().getWorld();
+			while(world.getWorms().size() < NB_WORMS)
+				world.addNewWorm();
+			this.snapshot = world.createSnapshot();
+		}
+
+		/**
+		 * Return the snapshot of the world of this state.
+		 */
+		public WorldSnapshot getSnapshot(){
+			return this.snapshot;
+		}
+
+		/**
+		 * Variable referencing the snapshot of the world of this state.
+		 */
+		private WorldSnapshot snapshot;
+	}
+
+
+
+	@Benchmark
+	public boolean worldIsImpassable(FixtureState state){
+		double[] point = state.getFixture().getPoint(state.nextIndex());
+		return state.getFixture().getWorld().isImpassable(point[0], point[1], Fixture.WORM_RADIUS);
+	}
+
+	@Benchmark
+	public boolean worldIsAdjacent(FixtureState state){
+		double[] point = state.getFixture().getPoint(state.nextIndex());
+		return state.getFixture().getWorld().isAdjacent(point[0], point[1], Fixture.WORM_RADIUS);
+	}
+
+	@Benchmark
+	public Worm worldHitAnyWorm(PopulatedState state){
+		double[] point = state.getFixture().getPoint(state.nextIndex());
+		return state.getFixture().getWorld().hitAnyWorm(point[0], point[1], Fixture.WORM_RADIUS);
+	}
+
+	@Benchmark
+	public int worldAddNewWorm(FixtureState state){
+		World world = state.getFixture().getWorld();
+		world.addNewWorm();
+		List<Worm> worms = new ArrayList<Worm>(world.getWorms());
+		if(worms.size() > 2 * NB_WORMS)
+			for(int i = NB_WORMS; i < worms.size(); i++)
+				world.removeAsWorm(worms.get(i));
+		return worms.size();
+	}
+
+	@Benchmark
+	public double wormPositionGetJumpTime(FixtureState state){
+		Fixture fixture = state.getFixture();
+		int index = state.nextIndex();
+		Worm worm = addWorm(fixture, fixture.getSpawnPoint(index), fixture.getDirection(index));
+		double result;
+		try{
+			result = worm.getWormPosition().getJumpTime();
+		}
+		catch(RuntimeException exc){
+			result = 0;
+		}
+		removeWorm(fixture, worm);
+		return result;
+	}
+
+	@Benchmark
+	public double wormPositionMove(FixtureState state){
+		Fixture fixture = state.getFixture();
+		int index = state.nextIndex();
+		Worm worm = addWorm(fixture, fixture.getSpawnPoint(index), fixture.getDirection(index));
+		try{
+			worm.getWormPosition().move();
+		}
+		catch(RuntimeException exc){}
+		double result = worm.getWormPosition().getX();
+		removeWorm(fixture, worm);
+		return result;
+	}
+
+	@Benchmark
+	public double wormPositionFall(FixtureState state){
+		Fixture fixture = state.getFixture();
+		int index = state.nextIndex();
+		double[] point = fixture.getPoint(index);
+		if(fixture.getWorld().isImpassable(point[0], point[1], Fixture.WORM_RADIUS))
+			return 0;
+		Worm worm = addWorm(fixture, point, fixture.getDirection(index));
+		try{
+			worm.getWormPosition().fall();
+		}
+		catch(RuntimeException exc){}
+		double result = worm.getWormPosition().getY();
+		removeWorm(fixture, worm);
+		return result;
+	}
+
+	@Benchmark
+	public double projectileGetJumpTime(FixtureState state){
+		Fixture fixture = state.getFixture();
+		int index = state.nextIndex();
+		Worm worm = addWorm(fixture, fixture.getSpawnPoint(index), fixture.getDirection(index));
+		worm.getWeapon().selectNextWeapon();
+		worm.getWeapon().shoot(50);
+		Projectile projectile = fixture.getWorld().getProjectile();
+		double result = 0;
+		if(projectile != null){
+			try{
+				result = projectile.getJumpTime(PROJECTILE_TIME_STEP);
+			}
+			catch(RuntimeException exc){}
+			projectile.deactivate();
+		}
+		removeWorm(fixture, worm);
+		return result;
+	}
+
+	@Benchmark
+	public int worldRestore(PopulatedState state){
+		World world = state.getFixture().getWorld();
+		Worm worm = world.getWorms().iterator().next();
+		worm.reduceCurrentHitPoints(1 + state.nextIndex() % 10);
+		world.restore(state.getSnapshot());
+		return worm.getCurrentHitPoints();
+	}
+
+
+
+	/**
+	 * Add a new worm at the given location facing the given direction
+	 * to the world of the given fixture, and return it.
+	 */
+	private static Worm addWorm(Fixture fixture, double[] location, double direction){
+		Worm worm = new Worm(location[0], location[1], direction, Fixture.WORM_RADIUS, "Benchmark");
+		fixture.getWorld().addAsWorm(worm);
+		return worm;
+	}
+
+	/**
+	 * Remove the given worm from the world of the given fixture, if it is still part of it.
+	 */
+	private static void removeWorm(Fixture fixture, Worm worm){
+		if(fixture.getWorld().hasAsWorm(worm))
+			fixture.getWorld().removeAsWorm(worm);
+	}
+
+	/**
+	 * Final class variable registering the number of worms in the world
+	 * when checking for collisions between worms.
+	 */
+	private static final int NB_WORMS = 50;
+
+	/**
+	 * Final class variable registering the time step used to compute the trajectory of projectiles.
+	 */
+	private static final double PROJECTILE_TIME_STEP = 0.0001;
+
+	/**
+	 * Final class variable registering the seed from which the fixtures are derived.
+	 */
+	private static final long SEED = 0;
+}
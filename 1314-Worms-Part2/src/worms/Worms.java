@@ -22,6 +22,8 @@ public class Worms {
 				options.randomSeed = randomSeed;
 			} else if ("-clickselect".equals(arg)) {
 				options.enableClickToSelect = true;
+			} else if ("-record".equals(arg)) {
+				options.recordFile = args[++i];
 			}
 		}
 
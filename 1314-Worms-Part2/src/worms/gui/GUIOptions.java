@@ -25,4 +25,14 @@ public class GUIOptions {
 	 * Can also be enabled from the command line with the -clickselect argument
 	 */
 	public boolean enableClickToSelect = false;
-}
\ No newline at end of file
+
+	/**
+	 * File to which the replay log of each game is written, overwriting the
+	 * log of the previous game. The log can be played with
+	 * worms.simulation.ReplayRunner.
+	 * Default: null (no log is written)
+	 * 
+	 * Can also be set from the command line with the -record argument
+	 */
+	public String recordFile = null;
+}
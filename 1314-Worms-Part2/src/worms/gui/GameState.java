@@ -7,6 +7,7 @@ import java.util.Random;
 import worms.gui.game.commands.Command;
 import worms.gui.game.commands.CommandProcessor;
 import worms.model.IFacade;
+import worms.model.Terrain;
 import worms.model.World;
 import worms.model.Worm;
 
@@ -28,8 +29,8 @@ public class GameState {
 
 	public void createWorld() {
 		level.load();
-		world = facade.createWorld(level.getWorldWidth(),
-				level.getWorldHeight(), level.getPassableMap(), random);
+		world = facade.createWorldFromTerrain(level.getWorldWidth(),
+				level.getWorldHeight(), new Terrain(level.getTerrain()), random);
 	}
 
 	public IFacade getFacade() {
@@ -0,0 +1,588 @@
+package worms.gui;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import worms.model.Terrain;
+
+public class Level {
+
+	private static final String LEVEL_FILE_EXTENSION = ".lvl";
+	private static final String COMPILED_LEVEL_FILE_EXTENSION = ".lvlc";
+	private static final int COMPILED_LEVEL_MAGIC = 0x574c564c; // "WLVL"
+	private static final int COMPILED_LEVEL_VERSION = 2;
+	private static final int COMPILED_LEVEL_HEADER_SIZE = 24;
+	private static final int COMPILE_STRIP_ROWS = 64;
+	private static final String LEVELS_DIRECTORY = "levels";
+
+	private static class LoadException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		public LoadException(String message, Exception cause) {
+			super(message, cause);
+		}
+
+	}
+
+	public static Level[] getAvailableLevels() {
+		File[] files = getLevelFiles();
+		Level[] levels = new Level[files.length];
+		for (int i = 0; i < files.length; i++) {
+			levels[i] = new Level(files[i]);
+		}
+		return levels;
+	}
+
+	private static File[] getLevelFiles() {
+		File levelsDir = new File(LEVELS_DIRECTORY);
+		if (!levelsDir.exists() || !levelsDir.isDirectory()) {
+			throw new RuntimeException("levels directory not found");
+		}
+		File[] levelFiles = levelsDir.listFiles(new FilenameFilter() {
+
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.endsWith(LEVEL_FILE_EXTENSION);
+			}
+		});
+		Arrays.sort(levelFiles);
+		return levelFiles;
+	}
+
+	private final File file;
+	private File mapFile;
+	private BufferedImage mapImage;
+	private int mapWidth;
+	private int mapHeight;
+	private Terrain terrain;
+
+	private double scale;
+
+	public Level(File file) {
+		this.file = file;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public String getName() {
+		return file.getName().substring(0, file.getName().length() - 4);
+	}
+
+	/**
+	 * Load the map and scale of this level from its file. A level is only
+	 * loaded once, so the terrain decoded from it can be shared by all worlds
+	 * created for this level.
+	 * 
+	 * The terrain and its distance field are read from the compiled level file
+	 * next to the level file if that file is newer than the level file and the
+	 * map image. Otherwise only the dimensions are read from the map image, and
+	 * the compiled level file is written for the next time. The terrain is
+	 * decoded from the alpha channel of the map image a row at a time. A level
+	 * with more than Terrain.MAXIMAL_NB_PIXELS_WITH_DISTANCES pixels is compiled
+	 * a strip of rows at a time and then mapped from its compiled level file, so
+	 * neither its map image nor its terrain is ever in the heap as a whole. The
+	 * map image itself is only decoded when it is asked for.
+	 * 
+	 * Loading is synchronized, so a level that is being loaded on another
+	 * thread is loaded completely before this method returns.
+	 */
+	public synchronized void load() {
+		if (mapFile != null) {
+			return;
+		}
+		try {
+			BufferedReader reader = new BufferedReader(new FileReader(file));
+			readFile(reader);
+			reader.close();
+		} catch (Exception e) {
+			mapFile = null;
+			throw new LoadException("Could not load world from file "
+					+ file.getAbsolutePath(), e);
+		}
+	}
+
+	protected void readFile(BufferedReader reader) throws IOException {
+		File mapFile = new File(file.getParentFile(), readAsKeyVal(reader,
+				"map"));
+		File compiledFile = getCompiledFile();
+		if (compiledFile.lastModified() > file.lastModified()
+				&& compiledFile.lastModified() > mapFile.lastModified()
+				&& readCompiledFile(compiledFile)) {
+			this.mapFile = mapFile;
+			return;
+		}
+		readMapDimensions(mapFile);
+		this.mapImage = null;
+		this.terrain = null;
+		try {
+			double height = Double.parseDouble(readAsKeyVal(reader, "height"));
+			this.scale = height / mapHeight;
+		} catch (IllegalArgumentException e) {
+			double width = Double.parseDouble(readAsKeyVal(reader, "width"));
+			this.scale = width / mapWidth;
+		}
+		this.mapFile = mapFile;
+		if ((long) mapWidth * mapHeight > Terrain.MAXIMAL_NB_PIXELS_WITH_DISTANCES) {
+			if (compileInStrips(compiledFile)) {
+				readCompiledFile(compiledFile);
+			}
+		} else {
+			writeCompiledFile(compiledFile);
+		}
+	}
+
+	/**
+	 * Read the width and height of the given map image from its header,
+	 * without decoding the image.
+	 */
+	private void readMapDimensions(File mapFile) throws IOException {
+		ImageInputStream input = ImageIO.createImageInputStream(mapFile);
+		if (input == null) {
+			throw new IOException("Could not open map image "
+					+ mapFile.getAbsolutePath());
+		}
+		try {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			if (!readers.hasNext()) {
+				throw new IOException("Unsupported map image "
+						+ mapFile.getAbsolutePath());
+			}
+			ImageReader imageReader = readers.next();
+			try {
+				imageReader.setInput(input, true, true);
+				this.mapWidth = imageReader.getWidth(0);
+				this.mapHeight = imageReader.getHeight(0);
+			} finally {
+				imageReader.dispose();
+			}
+		} finally {
+			input.close();
+		}
+	}
+
+	private File getCompiledFile() {
+		String name = file.getName();
+		return new File(file.getParentFile(), name.substring(0,
+				name.length() - LEVEL_FILE_EXTENSION.length())
+				+ COMPILED_LEVEL_FILE_EXTENSION);
+	}
+
+	/**
+	 * Read the dimensions, scale and terrain of this level from the given
+	 * compiled level file. The terrain of a level of which the distance field
+	 * is too large to keep as a whole stays mapped in tiles, and the file stays
+	 * open for as long as that terrain is used. Any other terrain is read into
+	 * the heap and the file is closed, without ever being mapped, so it can be
+	 * replaced later on, even on platforms where a mapped file cannot be
+	 * deleted or renamed.
+	 * 
+	 * @return true if the file could be read, false if it has another format.
+	 */
+	private boolean readCompiledFile(File compiledFile) {
+		try {
+			RandomAccessFile input = new RandomAccessFile(compiledFile, "r");
+			boolean mapped = false, keepOpen = false;
+			try {
+				FileChannel channel = input.getChannel();
+				ByteBuffer header = ByteBuffer
+						.allocate(COMPILED_LEVEL_HEADER_SIZE);
+				if (!readFully(channel, header, 0)) {
+					return false;
+				}
+				header.flip();
+				if (header.getInt() != COMPILED_LEVEL_MAGIC
+						|| header.getInt() != COMPILED_LEVEL_VERSION) {
+					return false;
+				}
+				int width = header.getInt();
+				int height = header.getInt();
+				double scale = header.getDouble();
+				Terrain terrain;
+				if ((long) width * height > Terrain.MAXIMAL_NB_PIXELS_WITH_DISTANCES) {
+					terrain = Terrain.map(channel, COMPILED_LEVEL_HEADER_SIZE);
+					mapped = true;
+				} else {
+					long size = channel.size() - COMPILED_LEVEL_HEADER_SIZE;
+					if (size > Integer.MAX_VALUE) {
+						return false;
+					}
+					ByteBuffer body = ByteBuffer.allocate((int) size);
+					if (!readFully(channel, body, COMPILED_LEVEL_HEADER_SIZE)) {
+						return false;
+					}
+					body.flip();
+					terrain = Terrain.read(body);
+				}
+				if (terrain.getNbRows() != height
+						|| terrain.getNbColumns() != width) {
+					return false;
+				}
+				this.mapWidth = width;
+				this.mapHeight = height;
+				this.scale = scale;
+				this.terrain = terrain;
+				this.mapImage = null;
+				keepOpen = mapped;
+				return true;
+			} finally {
+				if (!keepOpen) {
+					input.close();
+				}
+			}
+		} catch (IOException e) {
+			return false;
+		} catch (RuntimeException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Read the given file from the given position on until the given buffer
+	 * is full.
+	 * 
+	 * @return true if the buffer is full, false if the file ends before that.
+	 */
+	private static boolean readFully(FileChannel channel, ByteBuffer buffer,
+			long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compile the map image of this level into the given compiled level file a
+	 * strip of COMPILE_STRIP_ROWS rows at a time, without a distance field, in
+	 * the same format as writeCompiledFile. Only the current strip of the
+	 * terrain is in the heap at any time. The file is written under another
+	 * name first and then renamed, so it is never read while it is incomplete.
+	 * 
+	 * @return true if the file was written, false if the map image cannot be
+	 *         read row by row or the file could not be written.
+	 */
+	private boolean compileInStrips(File compiledFile) {
+		File temporaryFile = new File(compiledFile.getPath() + ".tmp");
+		try {
+			PngAlphaReader alphaReader = new PngAlphaReader(mapFile);
+			try {
+				if (alphaReader.getWidth() != mapWidth
+						|| alphaReader.getHeight() != mapHeight) {
+					return false;
+				}
+				RandomAccessFile output = new RandomAccessFile(temporaryFile,
+						"rw");
+				try {
+					output.setLength(0);
+					FileChannel channel = output.getChannel();
+					ByteBuffer header = ByteBuffer
+							.allocate(COMPILED_LEVEL_HEADER_SIZE
+									+ Terrain.HEADER_SIZE);
+					header.putInt(COMPILED_LEVEL_MAGIC).putInt(
+							COMPILED_LEVEL_VERSION);
+					header.putInt(mapWidth).putInt(mapHeight).putDouble(scale);
+					Terrain.writeHeader(header, mapHeight, mapWidth,
+							getWorldWidth(), getWorldHeight());
+					header.flip();
+					writeFully(channel, header);
+					for (int row = 0; row < mapHeight; row += COMPILE_STRIP_ROWS) {
+						Terrain strip = new Terrain(Math.min(COMPILE_STRIP_ROWS,
+								mapHeight - row), mapWidth);
+						decodeRows(alphaReader, strip);
+						ByteBuffer buffer = ByteBuffer.allocate(8
+								* strip.getNbRows() * ((mapWidth + 63) >>> 6));
+						strip.writePixels(buffer);
+						buffer.flip();
+						writeFully(channel, buffer);
+					}
+				} finally {
+					output.close();
+				}
+			} finally {
+				alphaReader.close();
+			}
+			compiledFile.delete();
+			if (!temporaryFile.renameTo(compiledFile)) {
+				temporaryFile.delete();
+				return false;
+			}
+			return true;
+		} catch (IOException e) {
+			temporaryFile.delete();
+			return false;
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Write the dimensions, scale and terrain of this level, together with the
+	 * distance field of the terrain if it is kept as a whole, to the given
+	 * compiled level file. The file is written under another name first and
+	 * then renamed, so it is never read while it is incomplete. It is written
+	 * from the heap rather than through a mapping, since a file that is still
+	 * mapped cannot be renamed on every platform. Failing to write the file is
+	 * not an error.
+	 */
+	private void writeCompiledFile(File compiledFile) {
+		Terrain terrain = getTerrain();
+		long size = COMPILED_LEVEL_HEADER_SIZE + terrain.getCompiledSize();
+		if (size > Integer.MAX_VALUE) {
+			return;
+		}
+		File temporaryFile = new File(compiledFile.getPath() + ".tmp");
+		try {
+			RandomAccessFile output = new RandomAccessFile(temporaryFile, "rw");
+			try {
+				output.setLength(0);
+				ByteBuffer buffer = ByteBuffer.allocate((int) size);
+				buffer.putInt(COMPILED_LEVEL_MAGIC).putInt(
+						COMPILED_LEVEL_VERSION);
+				buffer.putInt(mapWidth).putInt(mapHeight).putDouble(scale);
+				terrain.write(buffer, getWorldWidth(), getWorldHeight());
+				buffer.flip();
+				writeFully(output.getChannel(), buffer);
+			} finally {
+				output.close();
+			}
+			compiledFile.delete();
+			if (!temporaryFile.renameTo(compiledFile)) {
+				temporaryFile.delete();
+			}
+		} catch (IOException e) {
+			temporaryFile.delete();
+		}
+	}
+
+	protected String readAsKeyVal(BufferedReader reader, String expectedKey)
+			throws IOException {
+		String line = reader.readLine();
+		while (line.isEmpty() || line.indexOf("#") == 0) {
+			line = reader.readLine();
+		}
+		if (line.indexOf("#") > 0) {
+			line = line.substring(0, line.indexOf("#")).trim();
+		}
+		int split = line.indexOf(":");
+		String key = line.substring(0, split);
+		String value = line.substring(split + 1);
+		if (!expectedKey.equals(key)) {
+			throw new IllegalArgumentException("Expected key " + expectedKey
+					+ ", got " + key);
+		}
+		return value;
+	}
+
+	/**
+	 * Drop the terrain and the map image of this level, so they can be garbage
+	 * collected once no world uses them any more. The level is loaded again
+	 * the first time its terrain or map image is asked for.
+	 */
+	public synchronized void unload() {
+		mapFile = null;
+		mapImage = null;
+		terrain = null;
+	}
+
+	public synchronized boolean isLoaded() {
+		return mapFile != null;
+	}
+
+	/**
+	 * The map image of this level, decoded the first time it is asked for if
+	 * the level was loaded from its compiled level file.
+	 */
+	public synchronized BufferedImage getMapImage() {
+		load();
+		if (mapImage == null) {
+			try {
+				mapImage = ImageIO.read(mapFile);
+			} catch (IOException e) {
+				throw new LoadException("Could not load map image from file "
+						+ mapFile.getAbsolutePath(), e);
+			}
+		}
+		return mapImage;
+	}
+
+	/**
+	 * The map image of this level with only one pixel out of every given
+	 * number of pixels in each direction. The map image is decoded a row at a
+	 * time into the smaller image, so it is never in the heap as a whole, and
+	 * neither image is kept by this level.
+	 */
+	public BufferedImage readSubsampledMapImage(int subsampling) {
+		File mapFile;
+		synchronized (this) {
+			load();
+			mapFile = this.mapFile;
+		}
+		try {
+			ImageInputStream input = ImageIO.createImageInputStream(mapFile);
+			if (input == null) {
+				throw new IOException("Could not open map image "
+						+ mapFile.getAbsolutePath());
+			}
+			try {
+				Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+				if (!readers.hasNext()) {
+					throw new IOException("Unsupported map image "
+							+ mapFile.getAbsolutePath());
+				}
+				ImageReader imageReader = readers.next();
+				try {
+					imageReader.setInput(input, true, true);
+					ImageReadParam param = imageReader.getDefaultReadParam();
+					param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+					return imageReader.read(0, param);
+				} finally {
+					imageReader.dispose();
+				}
+			} finally {
+				input.close();
+			}
+		} catch (IOException e) {
+			throw new LoadException("Could not load map image from file "
+					+ mapFile.getAbsolutePath(), e);
+		}
+	}
+
+	public int getMapHeight() {
+		return mapHeight;
+	}
+
+	public int getMapWidth() {
+		return mapWidth;
+	}
+
+	/**
+	 * Scale of the world (in worm-meter per map pixel)
+	 * 
+	 * @return
+	 */
+	public double getScale() {
+		return scale;
+	}
+
+	public double getWorldWidth() {
+		return scale * mapWidth;
+	}
+
+	public double getWorldHeight() {
+		return scale * mapHeight;
+	}
+
+	/**
+	 * The terrain of this level, decoded from the alpha channel of the map
+	 * image the first time it is asked for after loading. The alpha channel is
+	 * read a row at a time, so the map image is not decoded as a whole, unless
+	 * its format cannot be read row by row.
+	 */
+	public synchronized Terrain getTerrain() {
+		load();
+		if (terrain == null) {
+			terrain = createTerrain();
+		}
+		return terrain;
+	}
+
+	private Terrain createTerrain() {
+		Terrain result = new Terrain(getMapHeight(), getMapWidth());
+		try {
+			PngAlphaReader alphaReader = new PngAlphaReader(mapFile);
+			try {
+				if (alphaReader.getWidth() == getMapWidth()
+						&& alphaReader.getHeight() == getMapHeight()) {
+					decodeRows(alphaReader, result);
+					return result;
+				}
+			} finally {
+				alphaReader.close();
+			}
+		} catch (IOException e) {
+			// decoded as a whole below
+		}
+		return createTerrain(getMapImage());
+	}
+
+	/**
+	 * Decode the next rows of the map image, as many as the given terrain has,
+	 * into the given terrain.
+	 */
+	private static void decodeRows(PngAlphaReader alphaReader, Terrain terrain)
+			throws IOException {
+		final int w = terrain.getNbColumns();
+		final byte[] alpha = new byte[w];
+		for (int row = 0; row < terrain.getNbRows(); row++) {
+			alphaReader.readRow(alpha);
+			for (int col = 0; col < w; col++) {
+				// alpha < 128 ((alpha & 0xf) == 0) => passable
+				// alpha >= 128 ((alpha & 0xf) != 0) => impassable
+				if (((int) alpha[col] & 0xf0) != 0) {
+					terrain.setPassable(row, col, false);
+				}
+			}
+		}
+	}
+
+	private static Terrain createTerrain(BufferedImage image) {
+		final int w = image.getWidth();
+		final int h = image.getHeight();
+		final Terrain result = new Terrain(h, w);
+		final int[] argb = new int[w];
+		for (int row = 0; row < h; row++) {
+			image.getRGB(0, row, w, 1, argb, 0, w);
+			for (int col = 0; col < w; col++) {
+				if (((argb[col] >>> 24) & 0xf0) != 0) {
+					result.setPassable(row, col, false);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compatibility view on the terrain of this level, as a newly allocated
+	 * matrix.
+	 */
+	public boolean[][] getPassableMap() {
+		return getTerrain().toPassableMap();
+	}
+
+	/**
+	 * map width / map height
+	 */
+	public double getMapAspectRatio() {
+		return (double) getMapWidth() / getMapHeight();
+	}
+
+	/**
+	 * world width / world height
+	 */
+	public double getWorldAspectRatio() {
+		return getWorldWidth() / getWorldHeight();
+	}
+}
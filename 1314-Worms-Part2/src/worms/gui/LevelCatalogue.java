@@ -0,0 +1,185 @@
+package worms.gui;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A catalogue of the available levels, which prepares levels on a background
+ * thread while a menu is shown.
+ *
+ * Listing the catalogue only lists the level files; the key/value header of a
+ * level file is read the first time that level is preloaded. Preloading a
+ * level reads its header, its compiled level file (compiling it first if
+ * needed), its terrain and the distance field of that terrain, so creating a
+ * world for a preloaded level does not wait for any of these. Thumbnails of
+ * the map images are made on the same background thread, from a subsampled
+ * decoding of the map image, so the map image is never decoded as a whole.
+ *
+ * At most MAXIMAL_NB_PRELOADED_LEVELS levels are kept preloaded. When another
+ * level is preloaded, the level that was least recently highlighted is
+ * unloaded, so browsing the levels does not keep the terrain of every level
+ * that was ever highlighted. Its thumbnail is kept, and it is preloaded again
+ * when it is highlighted again.
+ *
+ * A level that is still being preloaded when it is chosen is simply loaded
+ * further on the thread that chose it, since loading a level is synchronized
+ * and only done once.
+ */
+public class LevelCatalogue {
+
+	public static final int THUMBNAIL_WIDTH = 240;
+	public static final int THUMBNAIL_HEIGHT = 160;
+	public static final int MAXIMAL_NB_PRELOADED_LEVELS = 3;
+
+	/**
+	 * Listener that is notified on the background thread when a level has been
+	 * preloaded or its thumbnail has been made.
+	 */
+	public static interface Listener {
+		public void levelPrepared(Level level);
+	}
+
+	private final Level[] levels;
+	private final ExecutorService executor;
+	private final Set<Level> scheduled = new HashSet<Level>();
+	private final Map<Level, Boolean> preloaded = new LinkedHashMap<Level, Boolean>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Level, Boolean> eldest) {
+			if (size() <= MAXIMAL_NB_PRELOADED_LEVELS) {
+				return false;
+			}
+			scheduled.remove(eldest.getKey());
+			eldest.getKey().unload();
+			return true;
+		}
+	};
+	private final Map<Level, BufferedImage> thumbnails = new HashMap<Level, BufferedImage>();
+	private volatile Listener listener;
+
+	public LevelCatalogue() {
+		this(Level.getAvailableLevels());
+	}
+
+	public LevelCatalogue(Level[] levels) {
+		this.levels = levels.clone();
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Level preloader");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+	}
+
+	public Level[] getLevels() {
+		return levels.clone();
+	}
+
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Preload the given level and make its thumbnail on the background thread,
+	 * unless that has already been asked for.
+	 */
+	public synchronized void preload(final Level level) {
+		if (!scheduled.add(level)) {
+			// mark the level as the most recently highlighted one
+			preloaded.get(level);
+			return;
+		}
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				prepare(level);
+			}
+		});
+	}
+
+	public synchronized boolean isPreloaded(Level level) {
+		return preloaded.containsKey(level);
+	}
+
+	/**
+	 * The thumbnail of the map image of the given level, or null if it has not
+	 * been made yet. Asking for a thumbnail that has not been made preloads the
+	 * level.
+	 */
+	public BufferedImage getThumbnail(Level level) {
+		synchronized (this) {
+			BufferedImage thumbnail = thumbnails.get(level);
+			if (thumbnail != null) {
+				return thumbnail;
+			}
+		}
+		preload(level);
+		return null;
+	}
+
+	private void prepare(Level level) {
+		BufferedImage thumbnail;
+		try {
+			level.load();
+			level.getTerrain().createDistanceField(level.getWorldWidth(),
+					level.getWorldHeight());
+			synchronized (this) {
+				thumbnail = thumbnails.get(level);
+			}
+			if (thumbnail == null) {
+				thumbnail = createThumbnail(level);
+			}
+		} catch (RuntimeException e) {
+			// the error is reported again when the level is chosen
+			return;
+		}
+		synchronized (this) {
+			preloaded.put(level, Boolean.TRUE);
+			thumbnails.put(level, thumbnail);
+		}
+		Listener listener = this.listener;
+		if (listener != null) {
+			listener.levelPrepared(level);
+		}
+	}
+
+	/**
+	 * Make the thumbnail of the given level from its map image, decoded with
+	 * only as many pixels as the thumbnail needs.
+	 */
+	private static BufferedImage createThumbnail(Level level) {
+		double ratio = Math.min((double) THUMBNAIL_WIDTH / level.getMapWidth(),
+				(double) THUMBNAIL_HEIGHT / level.getMapHeight());
+		int subsampling = Math.max(1, (int) (1 / ratio));
+		return createThumbnail(level.readSubsampledMapImage(subsampling));
+	}
+
+	private static BufferedImage createThumbnail(BufferedImage image) {
+		double ratio = Math.min((double) THUMBNAIL_WIDTH / image.getWidth(),
+				(double) THUMBNAIL_HEIGHT / image.getHeight());
+		int width = Math.max(1, (int) (ratio * image.getWidth()));
+		int height = Math.max(1, (int) (ratio * image.getHeight()));
+		BufferedImage result = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = result.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(image, 0, 0, width, height, null);
+		g.dispose();
+		return result;
+	}
+}
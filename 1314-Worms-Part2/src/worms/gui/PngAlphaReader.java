@@ -0,0 +1,305 @@
+package worms.gui;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A reader of the alpha channel of a PNG image, one row at a time.
+ *
+ * Only the current and the previous row of the image are kept in memory, so
+ * the alpha channel of a map image can be read without decoding the whole
+ * image, however large it is. Non-interlaced images with 8 bits per sample
+ * are supported in every color type; a pixel of an image without an alpha
+ * channel is opaque, unless it has the transparent color of the image.
+ * Reading any other image fails with an IOException, after which the image
+ * can still be decoded as a whole with ImageIO.
+ */
+class PngAlphaReader {
+
+	private static final long PNG_SIGNATURE = 0x89504e470d0a1a0aL;
+	private static final int IHDR = 0x49484452;
+	private static final int TRNS = 0x74524e53;
+	private static final int IDAT = 0x49444154;
+
+	private static final int GRAYSCALE = 0;
+	private static final int TRUECOLOR = 2;
+	private static final int INDEXED = 3;
+	private static final int GRAYSCALE_ALPHA = 4;
+	private static final int TRUECOLOR_ALPHA = 6;
+
+	private final DataInputStream input;
+	private final Inflater inflater = new Inflater();
+	private final byte[] compressed = new byte[8192];
+	private int remainingInChunk;
+
+	private int width;
+	private int height;
+	private int colorType;
+	private int bytesPerPixel;
+	private byte[] paletteAlpha;
+	private int[] transparentColor;
+
+	private final byte[] filterType = new byte[1];
+	private byte[] previousRow;
+	private byte[] currentRow;
+	private int nextRow = 0;
+
+	/**
+	 * Open the given PNG image and read its header, up to the first chunk of
+	 * image data.
+	 *
+	 * @throws IOException
+	 *             The file could not be read, is not a PNG image, or has a
+	 *             format that is not supported.
+	 */
+	public PngAlphaReader(File file) throws IOException {
+		this.input = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+		try {
+			readHeader();
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	private void readHeader() throws IOException {
+		if (input.readLong() != PNG_SIGNATURE) {
+			throw new IOException("Not a PNG image");
+		}
+		boolean hasHeader = false;
+		while (true) {
+			int length = input.readInt();
+			int type = input.readInt();
+			if (type == IDAT) {
+				if (!hasHeader) {
+					throw new IOException("PNG image without header");
+				}
+				this.remainingInChunk = length;
+				break;
+			}
+			byte[] data = new byte[length];
+			input.readFully(data);
+			input.readInt(); // CRC
+			if (type == IHDR) {
+				readImageHeader(data);
+				hasHeader = true;
+			} else if (type == TRNS && hasHeader) {
+				readTransparency(data);
+			}
+		}
+		int rowLength = width * bytesPerPixel;
+		this.previousRow = new byte[rowLength];
+		this.currentRow = new byte[rowLength];
+	}
+
+	private void readImageHeader(byte[] data) throws IOException {
+		DataInputStream header = new DataInputStream(
+				new ByteArrayInputStream(data));
+		this.width = header.readInt();
+		this.height = header.readInt();
+		int bitDepth = header.readUnsignedByte();
+		this.colorType = header.readUnsignedByte();
+		int compression = header.readUnsignedByte();
+		int filter = header.readUnsignedByte();
+		int interlace = header.readUnsignedByte();
+		if (width <= 0 || height <= 0 || bitDepth != 8 || compression != 0
+				|| filter != 0 || interlace != 0) {
+			throw new IOException("Unsupported PNG image format");
+		}
+		switch (colorType) {
+		case GRAYSCALE:
+		case INDEXED:
+			this.bytesPerPixel = 1;
+			break;
+		case GRAYSCALE_ALPHA:
+			this.bytesPerPixel = 2;
+			break;
+		case TRUECOLOR:
+			this.bytesPerPixel = 3;
+			break;
+		case TRUECOLOR_ALPHA:
+			this.bytesPerPixel = 4;
+			break;
+		default:
+			throw new IOException("Unsupported PNG color type");
+		}
+		if (colorType == INDEXED) {
+			this.paletteAlpha = new byte[256];
+			Arrays.fill(paletteAlpha, (byte) 0xff);
+		}
+	}
+
+	private void readTransparency(byte[] data) {
+		if (colorType == INDEXED) {
+			System.arraycopy(data, 0, paletteAlpha, 0,
+					Math.min(data.length, paletteAlpha.length));
+		} else if (colorType == GRAYSCALE || colorType == TRUECOLOR) {
+			// the samples of the transparent color are stored in 16 bits
+			this.transparentColor = new int[data.length / 2];
+			for (int i = 0; i < transparentColor.length; i++) {
+				transparentColor[i] = ((data[2 * i] & 0xff) << 8)
+						| (data[2 * i + 1] & 0xff);
+			}
+		}
+	}
+
+	/**
+	 * Read the alpha values of the next row of the image into the given array,
+	 * which must have at least getWidth() elements.
+	 *
+	 * @throws IOException
+	 *             All rows have been read, or the image data is corrupt.
+	 */
+	public void readRow(byte[] alpha) throws IOException {
+		if (nextRow == height) {
+			throw new IOException("No more rows in PNG image");
+		}
+		byte[] row = previousRow;
+		this.previousRow = currentRow;
+		this.currentRow = row;
+		inflateFully(filterType);
+		inflateFully(row);
+		unfilter(filterType[0], row, previousRow, nextRow == 0);
+		nextRow++;
+		for (int column = 0; column < width; column++) {
+			alpha[column] = getAlpha(row, column);
+		}
+	}
+
+	private byte getAlpha(byte[] row, int column) {
+		int offset = column * bytesPerPixel;
+		switch (colorType) {
+		case TRUECOLOR_ALPHA:
+			return row[offset + 3];
+		case GRAYSCALE_ALPHA:
+			return row[offset + 1];
+		case INDEXED:
+			return paletteAlpha[row[offset] & 0xff];
+		default:
+			if (transparentColor != null
+					&& transparentColor.length == bytesPerPixel) {
+				for (int i = 0; i < bytesPerPixel; i++) {
+					if ((row[offset + i] & 0xff) != transparentColor[i]) {
+						return (byte) 0xff;
+					}
+				}
+				return 0;
+			}
+			return (byte) 0xff;
+		}
+	}
+
+	private void unfilter(int filterType, byte[] row, byte[] previous,
+			boolean isFirstRow) throws IOException {
+		int bpp = bytesPerPixel;
+		switch (filterType) {
+		case 0:
+			return;
+		case 1:
+			for (int i = bpp; i < row.length; i++) {
+				row[i] += row[i - bpp];
+			}
+			return;
+		case 2:
+			if (!isFirstRow) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] += previous[i];
+				}
+			}
+			return;
+		case 3:
+			for (int i = 0; i < row.length; i++) {
+				int left = (i >= bpp) ? row[i - bpp] & 0xff : 0;
+				int up = isFirstRow ? 0 : previous[i] & 0xff;
+				row[i] += (left + up) >>> 1;
+			}
+			return;
+		case 4:
+			for (int i = 0; i < row.length; i++) {
+				int left = (i >= bpp) ? row[i - bpp] & 0xff : 0;
+				int up = isFirstRow ? 0 : previous[i] & 0xff;
+				int upLeft = (i >= bpp && !isFirstRow) ? previous[i - bpp] & 0xff
+						: 0;
+				row[i] += paeth(left, up, upLeft);
+			}
+			return;
+		default:
+			throw new IOException("Invalid PNG filter type");
+		}
+	}
+
+	private static int paeth(int left, int up, int upLeft) {
+		int estimate = left + up - upLeft;
+		int distanceLeft = Math.abs(estimate - left);
+		int distanceUp = Math.abs(estimate - up);
+		int distanceUpLeft = Math.abs(estimate - upLeft);
+		if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+			return left;
+		}
+		if (distanceUp <= distanceUpLeft) {
+			return up;
+		}
+		return upLeft;
+	}
+
+	private void inflateFully(byte[] buffer) throws IOException {
+		int offset = 0;
+		try {
+			while (offset < buffer.length) {
+				int length = inflater.inflate(buffer, offset, buffer.length
+						- offset);
+				offset += length;
+				if (length == 0) {
+					if (inflater.finished() || inflater.needsDictionary()) {
+						throw new IOException("Truncated PNG image data");
+					}
+					if (inflater.needsInput()) {
+						fillInflater();
+					}
+				}
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt PNG image data");
+		}
+	}
+
+	/**
+	 * Give the inflater the next bytes of the image data, which may continue
+	 * in a next chunk of image data.
+	 */
+	private void fillInflater() throws IOException {
+		while (remainingInChunk == 0) {
+			input.readInt(); // CRC
+			int length = input.readInt();
+			if (input.readInt() != IDAT) {
+				throw new IOException("Truncated PNG image data");
+			}
+			this.remainingInChunk = length;
+		}
+		int length = Math.min(remainingInChunk, compressed.length);
+		input.readFully(compressed, 0, length);
+		remainingInChunk -= length;
+		inflater.setInput(compressed, 0, length);
+	}
+
+	public void close() throws IOException {
+		inflater.end();
+		input.close();
+	}
+}
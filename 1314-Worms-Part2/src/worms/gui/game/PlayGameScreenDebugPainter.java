@@ -1,21 +1,22 @@
 package worms.gui.game;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D.Double;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
-import worms.gui.GUIConstants;
 import worms.gui.GUIUtils;
 import worms.gui.Level;
 import worms.gui.game.commands.Command;
 import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.WormSprite;
 import worms.model.ModelException;
+import worms.model.TerrainListener;
 import worms.model.World;
 
 public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
@@ -26,7 +27,16 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 
 	private static final boolean PAINT_PASSABLE = true;
 
-	private Image passableImage;
+	private BufferedImage passableImage;
+
+	private BufferedImage areaImage;
+
+	private BufferedImage adjacencyImage;
+
+	private double dirtyMinX = java.lang.Double.POSITIVE_INFINITY;
+	private double dirtyMinY = java.lang.Double.POSITIVE_INFINITY;
+	private double dirtyMaxX = java.lang.Double.NEGATIVE_INFINITY;
+	private double dirtyMaxY = java.lang.Double.NEGATIVE_INFINITY;
 
 	public PlayGameScreenDebugPainter(PlayGameScreen screen) {
 		super(screen);
@@ -55,58 +65,28 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 		Level level = getState().getLevel();
 		World world = getState().getWorld();
 		if (passableImage == null) {
-			BufferedImage image = new BufferedImage(getScreen()
-					.getScreenWidth(), getScreen().getScreenHeight(),
-					BufferedImage.TYPE_4BYTE_ABGR);
-			BufferedImage adjacencyImage = new BufferedImage(getScreen()
-					.getScreenWidth(), getScreen().getScreenHeight(),
-					BufferedImage.TYPE_4BYTE_ABGR);
-			Graphics2D imGfx = image.createGraphics();
-			imGfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-					RenderingHints.VALUE_ANTIALIAS_ON);
-			Graphics2D imAdjacencyGfx = adjacencyImage.createGraphics();
-			imAdjacencyGfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-					RenderingHints.VALUE_ANTIALIAS_ON);
-
-			double testRadius = getScreen().screenToWorldDistance(10); // 10
-																		// screen
-																		// pixels
-			double stepSize = getScreen().screenToWorldDistance(3); // 3 screen
-																	// pixels
-			for (double x = testRadius; x <= level.getWorldWidth() - testRadius; x += stepSize) {
-				for (double y = testRadius; y <= level.getWorldHeight()
-						- testRadius; y += stepSize) {
-					double randomizedX = x + (-0.5 + Math.random()) * stepSize
-							* 2;
-					double randomizedY = y + (-0.5 + Math.random()) * stepSize
-							* 2;
-					Graphics2D targetGraphics = imGfx;
-					boolean isPassable = false;
-					if (getFacade().isImpassable(world, randomizedX,
-							randomizedY, testRadius)) {
-						targetGraphics.setColor(new Color(255, 0, 0, 4));
-					} else if (getFacade().isAdjacent(world, randomizedX,
-							randomizedY, testRadius)) {
-						targetGraphics = imAdjacencyGfx;
-						targetGraphics.setColor(new Color(0, 255, 0, 64));
-					} else {
-						isPassable = true;
-						targetGraphics.setColor(new Color(0, 0, 255, 4));
-					}
-					if (!isPassable || PAINT_PASSABLE) {
-						Double circle = GUIUtils.circleAt(
-								getScreenX(randomizedX),
-								getScreenY(randomizedY), getScreen()
-										.worldToScreenDistance(testRadius));
-						targetGraphics.fill(circle);
-					}
+			passableImage = createScreenImage();
+			areaImage = createScreenImage();
+			adjacencyImage = createScreenImage();
+			getFacade().addTerrainListener(world, new TerrainListener() {
+				@Override
+				public void terrainChanged(World world, double minX,
+						double minY, double maxX, double maxY) {
+					dirtyMinX = Math.min(dirtyMinX, minX);
+					dirtyMinY = Math.min(dirtyMinY, minY);
+					dirtyMaxX = Math.max(dirtyMaxX, maxX);
+					dirtyMaxY = Math.max(dirtyMaxY, maxY);
 				}
-			}
-			imGfx.drawImage(adjacencyImage, 0, 0, null);
-			imAdjacencyGfx.dispose();
-			imGfx.dispose();
-			this.passableImage = image;
+			});
+			paintPassableRegion(world, 0, 0, level.getWorldWidth(),
+					level.getWorldHeight());
+		} else if (dirtyMinX <= dirtyMaxX) {
+			// only the region in which the terrain changed is sampled again
+			paintPassableRegion(world, dirtyMinX, dirtyMinY, dirtyMaxX,
+					dirtyMaxY);
 		}
+		dirtyMinX = dirtyMinY = java.lang.Double.POSITIVE_INFINITY;
+		dirtyMaxX = dirtyMaxY = java.lang.Double.NEGATIVE_INFINITY;
 
 		currentGraphics.drawImage(passableImage, 0, 0, null);
 
@@ -119,6 +99,87 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 				getScreenY(getLevel().getWorldHeight()), 10, Color.BLUE);
 	}
 
+	private BufferedImage createScreenImage() {
+		return new BufferedImage(getScreen().getScreenWidth(), getScreen()
+				.getScreenHeight(), BufferedImage.TYPE_4BYTE_ABGR);
+	}
+
+	/**
+	 * Sample the given rectangle of the world (in world coordinates) again,
+	 * leaving the passable image outside that rectangle untouched.
+	 */
+	private void paintPassableRegion(World world, double minX, double minY,
+			double maxX, double maxY) {
+		Level level = getState().getLevel();
+		int screenMinX = (int) Math.floor(getScreenX(minX)) - 1;
+		int screenMinY = (int) Math.floor(getScreenY(maxY)) - 1;
+		int screenMaxX = (int) Math.ceil(getScreenX(maxX)) + 1;
+		int screenMaxY = (int) Math.ceil(getScreenY(minY)) + 1;
+		Rectangle clip = new Rectangle(screenMinX, screenMinY, screenMaxX
+				- screenMinX, screenMaxY - screenMinY);
+
+		Graphics2D imGfx = createClearedGraphics(areaImage, clip);
+		Graphics2D imAdjacencyGfx = createClearedGraphics(adjacencyImage, clip);
+
+		double testRadius = getScreen().screenToWorldDistance(10); // 10
+																	// screen
+																	// pixels
+		double stepSize = getScreen().screenToWorldDistance(3); // 3 screen
+																// pixels
+		double margin = testRadius + stepSize;
+		for (double x = testRadius; x <= level.getWorldWidth() - testRadius; x += stepSize) {
+			if (x < minX - margin || x > maxX + margin)
+				continue;
+			for (double y = testRadius; y <= level.getWorldHeight()
+					- testRadius; y += stepSize) {
+				if (y < minY - margin || y > maxY + margin)
+					continue;
+				double randomizedX = x + (-0.5 + Math.random()) * stepSize
+						* 2;
+				double randomizedY = y + (-0.5 + Math.random()) * stepSize
+						* 2;
+				Graphics2D targetGraphics = imGfx;
+				boolean isPassable = false;
+				if (getFacade().isImpassable(world, randomizedX,
+						randomizedY, testRadius)) {
+					targetGraphics.setColor(new Color(255, 0, 0, 4));
+				} else if (getFacade().isAdjacent(world, randomizedX,
+						randomizedY, testRadius)) {
+					targetGraphics = imAdjacencyGfx;
+					targetGraphics.setColor(new Color(0, 255, 0, 64));
+				} else {
+					isPassable = true;
+					targetGraphics.setColor(new Color(0, 0, 255, 4));
+				}
+				if (!isPassable || PAINT_PASSABLE) {
+					Double circle = GUIUtils.circleAt(
+							getScreenX(randomizedX),
+							getScreenY(randomizedY), getScreen()
+									.worldToScreenDistance(testRadius));
+					targetGraphics.fill(circle);
+				}
+			}
+		}
+		imAdjacencyGfx.dispose();
+		imGfx.dispose();
+
+		Graphics2D passableGfx = createClearedGraphics(passableImage, clip);
+		passableGfx.drawImage(areaImage, 0, 0, null);
+		passableGfx.drawImage(adjacencyImage, 0, 0, null);
+		passableGfx.dispose();
+	}
+
+	private Graphics2D createClearedGraphics(BufferedImage image, Rectangle clip) {
+		Graphics2D gfx = image.createGraphics();
+		gfx.setClip(clip);
+		gfx.setComposite(AlphaComposite.Clear);
+		gfx.fill(clip);
+		gfx.setComposite(AlphaComposite.SrcOver);
+		gfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+				RenderingHints.VALUE_ANTIALIAS_ON);
+		return gfx;
+	}
+
 	@Override
 	protected void paintWorm(WormSprite sprite) {
 
@@ -144,12 +205,8 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 
 			double[] prevXY = new double[] { currentWormX, currentWormY };
 
-			double time = getFacade().getJumpTime(sprite.getWorm(),
-					GUIConstants.JUMP_TIME_STEP);
-			int n = 1 + (int) (time / JUMP_MARKER_TIME_DISTANCE);
-			for (int i = 1; i <= n; i++) {
-				double dt = i * time / n;
-				double[] xy = getFacade().getJumpStep(sprite.getWorm(), dt);
+			double[][] polyline = getFacade().getJumpPolyline(sprite.getWorm());
+			for (double[] xy : polyline) {
 				if (xy != null && prevXY != null) {
 					double jumpX = getScreenX(xy[0]);
 					double jumpY = getScreenY(xy[1]);
@@ -8,12 +8,12 @@ import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
 
 import worms.gui.AbstractPainter;
-import worms.gui.GUIConstants;
 import worms.gui.GUIUtils;
 import worms.gui.GameState;
 import worms.gui.Level;
@@ -22,6 +22,7 @@ import worms.gui.game.sprites.ProjectileSprite;
 import worms.gui.game.sprites.WormSprite;
 import worms.model.IFacade;
 import worms.model.ModelException;
+import worms.model.TerrainListener;
 import worms.model.World;
 import worms.model.Worm;
 
@@ -63,12 +64,16 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 	protected static final Color JUMP_MARKER_COLOR = Color.GRAY;
 
 	protected static final int JUMP_MARKER_SIZE = 1;
-	protected static final double JUMP_MARKER_TIME_DISTANCE = 0.1; // worm-seconds
 	protected static final double DIRECTION_INDICATOR_SIZE = 10;
 
 	protected Graphics2D currentGraphics;
 	private Image scaledImage;
 
+	private double craterMinX = Double.POSITIVE_INFINITY;
+	private double craterMinY = Double.POSITIVE_INFINITY;
+	private double craterMaxX = Double.NEGATIVE_INFINITY;
+	private double craterMaxY = Double.NEGATIVE_INFINITY;
+
 	public PlayGameScreenPainter(PlayGameScreen screen) {
 		super(screen);
 	}
@@ -78,6 +83,59 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 			scaledImage = GUIUtils.scaleTo(getState().getLevel().getMapImage(),
 					getScreen().getScreenWidth(),
 					getScreen().getScreenHeight(), Image.SCALE_SMOOTH);
+			getFacade().addTerrainListener(getWorld(), new TerrainListener() {
+				@Override
+				public void terrainChanged(World world, double minX,
+						double minY, double maxX, double maxY) {
+					craterMinX = Math.min(craterMinX, minX);
+					craterMinY = Math.min(craterMinY, minY);
+					craterMaxX = Math.max(craterMaxX, maxX);
+					craterMaxY = Math.max(craterMaxY, maxY);
+				}
+			});
+		}
+		if (craterMinX <= craterMaxX) {
+			eraseCraters(craterMinX, craterMinY, craterMaxX, craterMaxY);
+			craterMinX = craterMinY = Double.POSITIVE_INFINITY;
+			craterMaxX = craterMaxY = Double.NEGATIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * Make the pixels of the background image that have become passable
+	 * within the given rectangle (in world coordinates) transparent.
+	 */
+	private void eraseCraters(double minX, double minY, double maxX,
+			double maxY) {
+		if (!(scaledImage instanceof BufferedImage)) {
+			BufferedImage image = new BufferedImage(
+					scaledImage.getWidth(null), scaledImage.getHeight(null),
+					BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = image.createGraphics();
+			g.drawImage(scaledImage, 0, 0, null);
+			g.dispose();
+			scaledImage = image;
+		}
+		BufferedImage image = (BufferedImage) scaledImage;
+		double left = getScreenX(0);
+		double top = getScreenY(getLevel().getWorldHeight());
+		double halfPixel = getScreen().screenToWorldDistance(0.5);
+		int fromX = Math.max(0, (int) Math.floor(getScreenX(minX) - left));
+		int toX = Math.min(image.getWidth() - 1,
+				(int) Math.ceil(getScreenX(maxX) - left));
+		int fromY = Math.max(0, (int) Math.floor(getScreenY(maxY) - top));
+		int toY = Math.min(image.getHeight() - 1,
+				(int) Math.ceil(getScreenY(minY) - top));
+		for (int x = fromX; x <= toX; x++) {
+			for (int y = fromY; y <= toY; y++) {
+				double worldX = getScreen().screenToWorldDistance(x + 0.5);
+				double worldY = getLevel().getWorldHeight()
+						- getScreen().screenToWorldDistance(y + 0.5);
+				if (!getFacade().isImpassable(getWorld(), worldX, worldY,
+						halfPixel)) {
+					image.setRGB(x, y, 0);
+				}
+			}
 		}
 	}
 
@@ -307,12 +365,8 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 
 	protected void drawJumpMarkers(WormSprite sprite) {
 		try {
-			double time = getFacade().getJumpTime(sprite.getWorm(),
-					GUIConstants.JUMP_TIME_STEP);
-			int n = 1 + (int) (time / JUMP_MARKER_TIME_DISTANCE);
-			for (int i = 1; i <= n; i++) {
-				double dt = i * time / n;
-				double[] xy = getFacade().getJumpStep(sprite.getWorm(), dt);
+			double[][] polyline = getFacade().getJumpPolyline(sprite.getWorm());
+			for (double[] xy : polyline) {
 				if (xy != null) {
 					double jumpX = getScreenX(xy[0]);
 					double jumpY = getScreenY(xy[1]);
@@ -0,0 +1,97 @@
+package worms.gui.menu;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import worms.gui.Level;
+import worms.gui.LevelCatalogue;
+import worms.gui.WormsGUI;
+
+class ChooseLevelScreen extends AbstractMenuScreen<Level> {
+
+	private static final int THUMBNAIL_MARGIN = 20;
+
+	/**
+	 * The catalogue is kept for all level choices of the program, so the
+	 * levels that were last preloaded for an earlier game stay loaded.
+	 */
+	private static LevelCatalogue catalogue;
+
+	static synchronized LevelCatalogue getCatalogue() {
+		if (catalogue == null) {
+			catalogue = new LevelCatalogue();
+		}
+		return catalogue;
+	}
+
+	public ChooseLevelScreen(WormsGUI gui) {
+		super(gui);
+	}
+
+	@Override
+	protected Level[] getChoices() {
+		return getCatalogue().getLevels();
+	}
+
+	@Override
+	protected String getDisplayName(Level level) {
+		return level.getName();
+	}
+
+	@Override
+	protected String getInstructions() {
+		return "Choose the level you want to play";
+	}
+
+	private Level getHighlightedLevel() {
+		return choices[selectedIndex];
+	}
+
+	@Override
+	public void selectNext() {
+		super.selectNext();
+		getCatalogue().preload(getHighlightedLevel());
+	}
+
+	@Override
+	public void selectPrevious() {
+		super.selectPrevious();
+		getCatalogue().preload(getHighlightedLevel());
+	}
+
+	@Override
+	public void screenStarted() {
+		getCatalogue().setListener(new LevelCatalogue.Listener() {
+			@Override
+			public void levelPrepared(Level level) {
+				if (level == getHighlightedLevel()) {
+					repaint();
+				}
+			}
+		});
+		if (choices.length > 0) {
+			getCatalogue().preload(getHighlightedLevel());
+		}
+	}
+
+	@Override
+	public void screenStopped() {
+		getCatalogue().setListener(null);
+		super.screenStopped();
+	}
+
+	@Override
+	protected void paintScreen(Graphics2D g) {
+		super.paintScreen(g);
+		if (choices.length == 0) {
+			return;
+		}
+		BufferedImage thumbnail = getCatalogue().getThumbnail(
+				getHighlightedLevel());
+		if (thumbnail != null) {
+			g.drawImage(thumbnail, getScreenWidth() - thumbnail.getWidth()
+					- THUMBNAIL_MARGIN, getScreenHeight()
+					- thumbnail.getHeight() - THUMBNAIL_MARGIN, null);
+		}
+	}
+}
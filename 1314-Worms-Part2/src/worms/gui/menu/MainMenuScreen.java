@@ -1,10 +1,16 @@
 package worms.gui.menu;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import worms.gui.GUIOptions;
 import worms.gui.GameState;
 import worms.gui.Level;
 import worms.gui.WormsGUI;
 import worms.gui.game.PlayGameScreen;
 import worms.gui.messages.MessageType;
+import worms.model.IFacade;
+import worms.simulation.RecordingFacade;
 
 enum MainMenuOption {
 	Play("Play worms"), PlayDebug("Play worms (debug mode)"), Exit("Exit");
@@ -72,7 +78,7 @@ public class MainMenuScreen extends AbstractMenuScreen<MainMenuOption> {
 					MessageType.NORMAL);
 		}
 
-		GameState gameState = new GameState(gui.getFacade(),
+		GameState gameState = new GameState(createFacade(level),
 				gui.getOptions().randomSeed, level);
 
 		PlayGameScreen playGameScreen = PlayGameScreen.create(gui, gameState,
@@ -83,4 +89,23 @@ public class MainMenuScreen extends AbstractMenuScreen<MainMenuOption> {
 		getGUI().switchToScreen(playGameScreen);
 	}
 
+	/**
+	 * The facade of the GUI, or a facade that records the game in the record
+	 * file of the options if one is given.
+	 */
+	private IFacade createFacade(Level level) {
+		GUIOptions options = getGUI().getOptions();
+		if (options.recordFile == null) {
+			return getGUI().getFacade();
+		}
+		try {
+			return new RecordingFacade(new FileOutputStream(options.recordFile),
+					level.getFile(), options.randomSeed);
+		} catch (IOException e) {
+			addMessage("Cannot record the game: " + e.getMessage(),
+					MessageType.ERROR);
+			return getGUI().getFacade();
+		}
+	}
+
 }
@@ -0,0 +1,185 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of stencils sampling the circumference of a circle in the pixels of a terrain.
+ * 	The circumference is sampled once per degree, starting at angle zero. The offsets
+ * 	of the samples from the center of the circle are computed once, from a shared table
+ * 	of the unit circle, and are expressed in columns and rows of pixels, so checking
+ * 	a circle against a terrain does not compute any sine or cosine.
+ * 	The offsets are not rounded to whole pixels, because the center of a circle does not
+ * 	lie in the center of a pixel: the pixel of each sample is found by rounding the sum
+ * 	of the center and the offset.
+ *
+ * @invar	| getRadius() > 0
+ * @invar	| getColumnsPerMeter() > 0 && getRowsPerMeter() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class CircleStencil {
+
+	/**
+	 * Create a new stencil for a circle with the given radius, on a terrain
+	 * with the given number of columns and rows of pixels per meter.
+	 *
+	 * @param 	radius
+	 * 			The radius of the circle (in meter).
+	 * @param 	columnsPerMeter
+	 * 			The number of columns of pixels per meter.
+	 * @param 	rowsPerMeter
+	 * 			The number of rows of pixels per meter.
+	 * @post	| new.getRadius() == radius
+	 * @post	| new.getColumnsPerMeter() == columnsPerMeter
+	 * @post	| new.getRowsPerMeter() == rowsPerMeter
+	 * @post	| for each sample in 0..NB_SAMPLES-1:
+	 * 			|	new.getColumnOffset(sample) == getCos(sample) * radius * columnsPerMeter &&
+	 * 			|	new.getRowOffset(sample) == getSin(sample) * radius * rowsPerMeter
+	 * @throws	IllegalArgumentException("The given radius or scale is not valid.")
+	 * 			| !(radius > 0) || !(columnsPerMeter > 0) || !(rowsPerMeter > 0)
+	 */
+	public CircleStencil(double radius, double columnsPerMeter, double rowsPerMeter)
+			throws IllegalArgumentException{
+		if(!(radius > 0) || !(columnsPerMeter > 0) || !(rowsPerMeter > 0))
+			throw new IllegalArgumentException("The given radius or scale is not valid.");
+		this.radius = radius;
+		this.columnsPerMeter = columnsPerMeter;
+		this.rowsPerMeter = rowsPerMeter;
+		double columnRadius = radius * columnsPerMeter;
+		double rowRadius = radius * rowsPerMeter;
+		for(int sample = 0; sample < NB_SAMPLES; sample++){
+			this.columnOffsets[sample] = COS[sample] * columnRadius;
+			this.rowOffsets[sample] = SIN[sample] * rowRadius;
+			this.columnOffsets[sample + NB_SAMPLES] = this.columnOffsets[sample];
+			this.rowOffsets[sample + NB_SAMPLES] = this.rowOffsets[sample];
+		}
+	}
+
+
+
+	/**
+	 * Return the radius of the circle of this stencil (in meter).
+	 */
+	@Basic @Immutable
+	public double getRadius(){
+		return this.radius;
+	}
+
+	/**
+	 * Variable registering the radius of the circle of this stencil.
+	 */
+	private final double radius;
+
+	/**
+	 * Return the number of columns of pixels per meter of this stencil.
+	 */
+	@Basic @Immutable
+	public double getColumnsPerMeter(){
+		return this.columnsPerMeter;
+	}
+
+	/**
+	 * Variable registering the number of columns of pixels per meter.
+	 */
+	private final double columnsPerMeter;
+
+	/**
+	 * Return the number of rows of pixels per meter of this stencil.
+	 */
+	@Basic @Immutable
+	public double getRowsPerMeter(){
+		return this.rowsPerMeter;
+	}
+
+	/**
+	 * Variable registering the number of rows of pixels per meter.
+	 */
+	private final double rowsPerMeter;
+
+	/**
+	 * Check whether this stencil is the stencil for a circle with the given radius,
+	 * on a terrain with the given number of columns and rows of pixels per meter.
+	 *
+	 * @return	| result == (getRadius() == radius && getColumnsPerMeter() == columnsPerMeter
+	 * 			|	&& getRowsPerMeter() == rowsPerMeter)
+	 */
+	public boolean matches(double radius, double columnsPerMeter, double rowsPerMeter){
+		return this.radius == radius && this.columnsPerMeter == columnsPerMeter &&
+				this.rowsPerMeter == rowsPerMeter;
+	}
+
+	/**
+	 * Return the horizontal offset of the given sample from the center of the circle (in columns).
+	 *
+	 * @param 	sample
+	 * 			The index of the sample.
+	 */
+	@Basic @Immutable
+	public double getColumnOffset(int sample){
+		return this.columnOffsets[sample];
+	}
+
+	/**
+	 * Return the vertical offset of the given sample from the center of the circle
+	 * (in rows, upwards).
+	 *
+	 * @param 	sample
+	 * 			The index of the sample.
+	 */
+	@Basic @Immutable
+	public double getRowOffset(int sample){
+		return this.rowOffsets[sample];
+	}
+
+	/**
+	 * Arrays registering the offsets of the samples from the center of the circle, twice
+	 * in a row, so that all samples can be visited starting from any sample without wrapping.
+	 */
+	final double[] columnOffsets = new double[2*NB_SAMPLES], rowOffsets = new double[2*NB_SAMPLES];
+
+
+
+	/**
+	 * Return the cosine of the angle of the given sample.
+	 *
+	 * @param 	sample
+	 * 			The index of the sample.
+	 * @return	| result == Math.cos(sample * 2 * Math.PI / NB_SAMPLES)
+	 */
+	public static double getCos(int sample){
+		return COS[sample];
+	}
+
+	/**
+	 * Return the sine of the angle of the given sample.
+	 *
+	 * @param 	sample
+	 * 			The index of the sample.
+	 * @return	| result == Math.sin(sample * 2 * Math.PI / NB_SAMPLES)
+	 */
+	public static double getSin(int sample){
+		return SIN[sample];
+	}
+
+	/**
+	 * Final class variable registering the number of samples on the circumference of a circle.
+	 */
+	public static final int NB_SAMPLES = 360;
+
+	/**
+	 * Final class variables registering the cosine and sine of the angle of each sample.
+	 */
+	private static final double[] COS = new double[NB_SAMPLES], SIN = new double[NB_SAMPLES];
+
+	static{
+		for(int sample = 0; sample < NB_SAMPLES; sample++){
+			double angle = sample * 2 * Math.PI / NB_SAMPLES;
+			COS[sample] = Math.cos(angle);
+			SIN[sample] = Math.sin(angle);
+		}
+	}
+}
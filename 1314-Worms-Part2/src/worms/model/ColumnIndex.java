@@ -0,0 +1,265 @@
+package worms.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of run-length indices of the columns of a terrain.
+ * 	For each column of pixels the index registers, in increasing order, the rows at which
+ * 	the column changes from passable to impassable or back, counting from a passable
+ * 	row above the top of the terrain. A pixel is impassable if and only if an odd number
+ * 	of these transitions lies at or above its row, so vertical queries such as finding
+ * 	the ground below a point are answered by a binary search in a single column.
+ * 	Copies of an index share its transitions until either of them is updated.
+ *
+ * @invar	| getNbRows() > 0 && getNbColumns() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class ColumnIndex {
+
+	/**
+	 * Create a new column index for the given terrain.
+	 * 	The terrain is read a row of words at a time: the bits that differ from
+	 * 	the previous row mark the transitions of their columns in this row.
+	 *
+	 * @param 	terrain
+	 * 			The terrain from which this index is derived.
+	 * @post	| new.getNbRows() == terrain.getNbRows()
+	 * @post	| new.getNbColumns() == terrain.getNbColumns()
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column) == terrain.isPassable(row, column)
+	 */
+	public ColumnIndex(Terrain terrain){
+		this.nbRows = terrain.getNbRows();
+		this.nbColumns = terrain.getNbColumns();
+		int[][] transitions = new int[nbColumns][4];
+		int[] nbTransitions = new int[nbColumns];
+		int wordsPerRow = (nbColumns + 63) >>> 6;
+		long[] previous = new long[wordsPerRow];
+		for(int row = 0; row < nbRows; row++){
+			for(int index = 0; index < wordsPerRow; index++){
+				long word = terrain.getWord(row, index);
+				for(long changes = word ^ previous[index]; changes != 0; changes &= changes - 1){
+					int column = (index << 6) + Long.numberOfTrailingZeros(changes);
+					if(nbTransitions[column] == transitions[column].length)
+						transitions[column] = Arrays.copyOf(transitions[column], 2 * nbTransitions[column]);
+					transitions[column][nbTransitions[column]++] = row;
+				}
+				previous[index] = word;
+			}
+		}
+		for(int column = 0; column < nbColumns; column++)
+			transitions[column] = Arrays.copyOf(transitions[column], nbTransitions[column]);
+		this.transitions = transitions;
+	}
+
+	/**
+	 * Create a new column index with the same transitions as the given column index.
+	 * 	The transitions are not copied until one of both indices is updated.
+	 *
+	 * @param 	other
+	 * 			The column index to copy.
+	 * @post	| new.getNbRows() == other.getNbRows()
+	 * @post	| new.getNbColumns() == other.getNbColumns()
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column) == other.isPassable(row, column)
+	 */
+	public ColumnIndex(ColumnIndex other){
+		this.nbRows = other.nbRows;
+		this.nbColumns = other.nbColumns;
+		if(!other.shared)
+			other.shared = true;
+		this.transitions = other.transitions;
+		this.shared = true;
+	}
+
+
+
+	/**
+	 * Return the number of rows of this column index.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of this column index.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of this column index.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * Variable registering the number of columns of this column index.
+	 */
+	private final int nbColumns;
+
+
+
+	/**
+	 * Return the number of transitions registered for the given column.
+	 *
+	 * @param 	column
+	 * 			The column of which the transitions are counted.
+	 */
+	@Basic
+	public int getNbTransitions(int column){
+		return this.transitions[column].length;
+	}
+
+	/**
+	 * Check whether the pixel at the given row and column is passable.
+	 *
+	 * @param 	row
+	 * 			The row of the pixel to check.
+	 * @param 	column
+	 * 			The column of the pixel to check.
+	 * @return	| result == (the number of transitions of the given column at or above
+	 * 			|	the given row is even)
+	 */
+	public boolean isPassable(int row, int column){
+		return (getNbTransitionsUpTo(this.transitions[column], row) & 1) == 0;
+	}
+
+	/**
+	 * Return the first impassable row of the given column between the given rows,
+	 * scanning downwards.
+	 *
+	 * @param 	column
+	 * 			The column to scan.
+	 * @param 	firstRow
+	 * 			The first row to scan.
+	 * @param 	lastRow
+	 * 			The last row to scan (inclusive).
+	 * @return	The smallest row r with firstRow <= r <= lastRow and !isPassable(r, column),
+	 * 			or lastRow + 1 if there is no such row.
+	 */
+	public int getNextImpassableRow(int column, int firstRow, int lastRow){
+		int[] columnTransitions = this.transitions[column];
+		int count = getNbTransitionsUpTo(columnTransitions, firstRow);
+		int result;
+		if((count & 1) != 0)
+			result = firstRow;
+		else if(count < columnTransitions.length)
+			result = columnTransitions[count];
+		else
+			result = nbRows;
+		return Math.min(result, lastRow + 1);
+	}
+
+	/**
+	 * Return the number of the given transitions that lie at or above the given row.
+	 */
+	@Model
+	private static int getNbTransitionsUpTo(int[] transitions, int row){
+		int low = 0, high = transitions.length;
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(transitions[middle] <= row)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Arrays registering the transitions of each column, in increasing order.
+	 * 	The array of a column is never changed, but replaced when the column is updated.
+	 */
+	private int[][] transitions;
+
+	/**
+	 * Variable registering whether the array of columns may be shared with a copy of this index.
+	 */
+	private boolean shared = false;
+
+
+
+	/**
+	 * Update the transitions of this index after the pixels of the given terrain
+	 * in the given rectangle of rows and columns have changed.
+	 * 	For each changed column, only the transitions at the changed rows and
+	 * 	the row just below them are computed again.
+	 *
+	 * @param 	terrain
+	 * 			The changed terrain from which this index is derived.
+	 * @param 	firstRow
+	 * 			The first changed row.
+	 * @param 	firstColumn
+	 * 			The first changed column.
+	 * @param 	lastRow
+	 * 			The last changed row.
+	 * @param 	lastColumn
+	 * 			The last changed column.
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column) == terrain.isPassable(row, column)
+	 * @throws	IllegalArgumentException("The given terrain does not match this column index.")
+	 * 			| terrain.getNbRows() != getNbRows() || terrain.getNbColumns() != getNbColumns()
+	 */
+	public void update(Terrain terrain, int firstRow, int firstColumn, int lastRow, int lastColumn)
+			throws IllegalArgumentException{
+		if(terrain.getNbRows() != nbRows || terrain.getNbColumns() != nbColumns)
+			throw new IllegalArgumentException("The given terrain does not match this column index.");
+		if(shared){
+			this.transitions = this.transitions.clone();
+			this.shared = false;
+		}
+		int lastChangedRow = Math.min(nbRows - 1, lastRow + 1);
+		for(int column = firstColumn; column <= lastColumn; column++){
+			int[] old = this.transitions[column];
+			int before = getNbTransitionsUpTo(old, firstRow - 1);
+			int after = getNbTransitionsUpTo(old, lastChangedRow);
+			int[] changed = new int[lastChangedRow - firstRow + 1];
+			int nbChanged = 0;
+			boolean passable = (firstRow == 0) || terrain.isPassable(firstRow - 1, column);
+			for(int row = firstRow; row <= lastChangedRow; row++){
+				if(terrain.isPassable(row, column) != passable){
+					changed[nbChanged++] = row;
+					passable = !passable;
+				}
+			}
+			int[] result = new int[before + nbChanged + old.length - after];
+			System.arraycopy(old, 0, result, 0, before);
+			System.arraycopy(changed, 0, result, before, nbChanged);
+			System.arraycopy(old, after, result, before + nbChanged, old.length - after);
+			this.transitions[column] = result;
+		}
+	}
+
+	/**
+	 * Give this column index the same transitions as the given column index.
+	 * 	The transitions are not copied until one of both indices is updated.
+	 *
+	 * @param 	other
+	 * 			The column index of which the transitions are taken over.
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column) == other.isPassable(row, column)
+	 * @throws	IllegalArgumentException("The given column index does not match this column index.")
+	 * 			| other.getNbRows() != getNbRows() || other.getNbColumns() != getNbColumns()
+	 */
+	public void setTransitions(ColumnIndex other)
+			throws IllegalArgumentException{
+		if(other.nbRows != nbRows || other.nbColumns != nbColumns)
+			throw new IllegalArgumentException("The given column index does not match this column index.");
+		if(other == this)
+			return;
+		if(!other.shared)
+			other.shared = true;
+		this.transitions = other.transitions;
+		this.shared = true;
+	}
+}
@@ -0,0 +1,629 @@
+package worms.model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of signed distance fields derived from a terrain.
+ * 	For each pixel of the map the field registers the distance (in meter) from
+ * 	the center of that pixel to the center of the nearest pixel of the other kind.
+ * 	The distance is positive for passable pixels (distance to the nearest impassable
+ * 	pixel) and negative for impassable pixels (distance to the nearest passable pixel).
+ * 	Distances are clamped to getMaximalDistance(), which allows the field to be
+ * 	updated locally when a part of the terrain changes.
+ * 	Copies of a distance field share its distances until either of them is updated.
+ * 	The distances of a distance field for a very large terrain can instead be computed
+ * 	in square tiles, each time one of them is needed: at most MAXIMAL_NB_TILES tiles are
+ * 	kept, of which the least recently used tile is dropped first.
+ *
+ * @invar	| getMaximalDistance() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class DistanceField {
+
+	/**
+	 * Create a new distance field for the given terrain, which covers
+	 * a rectangular area with the given width and height.
+	 *
+	 * @param 	terrain
+	 * 			The terrain from which this distance field is derived.
+	 * @param 	width
+	 * 			The width of the area covered by the terrain (in meter).
+	 * @param 	height
+	 * 			The height of the area covered by the terrain (in meter).
+	 * @post	| new.getNbRows() == terrain.getNbRows()
+	 * @post	| new.getNbColumns() == terrain.getNbColumns()
+	 * @post	| new.getCellWidth() == width / terrain.getNbColumns()
+	 * @post	| new.getCellHeight() == height / terrain.getNbRows()
+	 */
+	public DistanceField(Terrain terrain, double width, double height){
+		this(terrain.getNbRows(), terrain.getNbColumns(), width, height,
+				new float[terrain.getNbRows() * terrain.getNbColumns()], null);
+		compute(terrain, 0, 0, nbRows - 1, nbColumns - 1, 0, 0, nbRows - 1, nbColumns - 1, distances, 0, 0, nbColumns);
+	}
+
+	/**
+	 * Return a new distance field for the given terrain, which covers a rectangular area
+	 * with the given width and height, and which computes its distances in tiles
+	 * each time they are needed.
+	 *
+	 * @param 	terrain
+	 * 			The terrain from which the distance field is derived, which must only be changed
+	 * 			as long as the distance field is updated accordingly.
+	 * @param 	width
+	 * 			The width of the area covered by the terrain (in meter).
+	 * @param 	height
+	 * 			The height of the area covered by the terrain (in meter).
+	 * @return	| for each row, column:
+	 * 			|	result.getDistanceAt(row, column) == new DistanceField(terrain, width, height).getDistanceAt(row, column)
+	 */
+	public static DistanceField createTiled(Terrain terrain, double width, double height){
+		return new DistanceField(terrain.getNbRows(), terrain.getNbColumns(), width, height, null, terrain);
+	}
+
+	/**
+	 * Create a new distance field with the given number of rows and columns,
+	 * which covers a rectangular area with the given width and height and
+	 * registers the given distances, or computes its distances in tiles from
+	 * the given terrain if that terrain is effective.
+	 */
+	@Model
+	private DistanceField(int nbRows, int nbColumns, double width, double height, float[] distances, Terrain terrain){
+		this.nbRows = nbRows;
+		this.nbColumns = nbColumns;
+		this.cellWidth = width / nbColumns;
+		this.cellHeight = height / nbRows;
+		this.width = width;
+		this.height = height;
+		this.maximalDistance = MAXIMAL_DISTANCE_IN_CELLS * Math.max(cellWidth, cellHeight);
+		this.distances = distances;
+		this.terrain = terrain;
+		this.tiles = (terrain == null) ? null : createTiles();
+	}
+
+	/**
+	 * Create a new distance field with the same distances as the given distance field.
+	 * 	The distances are not copied until one of both fields is updated.
+	 *
+	 * @param 	other
+	 * 			The distance field to copy.
+	 * @post	| new.getNbRows() == other.getNbRows()
+	 * @post	| new.getNbColumns() == other.getNbColumns()
+	 * @post	| new.getCellWidth() == other.getCellWidth()
+	 * @post	| new.getCellHeight() == other.getCellHeight()
+	 * @post	| for each row, column:
+	 * 			|	new.getDistanceAt(row, column) == other.getDistanceAt(row, column)
+	 */
+	public DistanceField(DistanceField other){
+		this.nbRows = other.nbRows;
+		this.nbColumns = other.nbColumns;
+		this.cellWidth = other.cellWidth;
+		this.cellHeight = other.cellHeight;
+		this.width = other.width;
+		this.height = other.height;
+		this.maximalDistance = other.maximalDistance;
+		this.terrain = other.terrain;
+		this.tiles = (terrain == null) ? null : createTiles();
+		if(terrain != null)
+			return;
+		if(!other.shared)
+			other.shared = true;
+		this.distances = other.distances;
+		this.shared = true;
+	}
+
+
+
+	/**
+	 * Return the number of rows of this distance field.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of this distance field.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of this distance field.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * Variable registering the number of columns of this distance field.
+	 */
+	private final int nbColumns;
+
+	/**
+	 * Return the width of a single pixel of this distance field (in meter).
+	 */
+	@Basic @Raw @Immutable
+	public double getCellWidth(){
+		return this.cellWidth;
+	}
+
+	/**
+	 * Variable registering the width of a single pixel (in meter).
+	 */
+	private final double cellWidth;
+
+	/**
+	 * Return the height of a single pixel of this distance field (in meter).
+	 */
+	@Basic @Raw @Immutable
+	public double getCellHeight(){
+		return this.cellHeight;
+	}
+
+	/**
+	 * Variable registering the height of a single pixel (in meter).
+	 */
+	private final double cellHeight;
+
+	/**
+	 * Variables registering the width and height of the area covered by this field (in meter).
+	 */
+	private final double width, height;
+
+	/**
+	 * Check whether this distance field covers a rectangular area with the given width and height.
+	 *
+	 * @param 	width
+	 * 			The width of the area (in meter).
+	 * @param 	height
+	 * 			The height of the area (in meter).
+	 */
+	public boolean covers(double width, double height){
+		return this.width == width && this.height == height;
+	}
+
+
+
+	/**
+	 * Return the tolerance to take into account when comparing a distance
+	 * looked up in this field with the distance of an arbitrary point.
+	 * 	A point lies at most half a diagonal from the center of its own pixel, and
+	 * 	the nearest pixel of the other kind extends at most half a diagonal
+	 * 	around its own center.
+	 *
+	 * @return	| result == Math.sqrt(getCellWidth()*getCellWidth() + getCellHeight()*getCellHeight())
+	 */
+	public double getTolerance(){
+		return Math.sqrt(getCellWidth()*getCellWidth() + getCellHeight()*getCellHeight());
+	}
+
+	/**
+	 * Return the maximal distance registered in this distance field (in meter).
+	 * 	Pixels further away from a pixel of the other kind register this distance.
+	 */
+	@Basic @Raw @Immutable
+	public double getMaximalDistance(){
+		return this.maximalDistance;
+	}
+
+	/**
+	 * Variable registering the maximal distance registered in this field (in meter).
+	 */
+	private final double maximalDistance;
+
+	/**
+	 * Final class variable registering the maximal distance in this field, expressed in pixels.
+	 */
+	private static final int MAXIMAL_DISTANCE_IN_CELLS = 64;
+
+
+
+	/**
+	 * Return the signed distance registered for the pixel containing the given point.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate of the point (in meter).
+	 * @param 	y
+	 * 			The y-coordinate of the point (in meter).
+	 * @return	The distance registered for the pixel in which the given point lies, using the
+	 * 			same conversion from coordinates to pixels as World.isImpassable.
+	 * 			Points outside the covered area are mapped on the nearest pixel at the border.
+	 */
+	public double getDistance(double x, double y){
+		return getDistanceAt(getRow(y), getColumn(x));
+	}
+
+	/**
+	 * Return the signed distance registered for the pixel at the given row and column.
+	 *
+	 * @param 	row
+	 * 			The row of the pixel.
+	 * @param 	column
+	 * 			The column of the pixel.
+	 */
+	@Basic
+	public double getDistanceAt(int row, int column){
+		if(tiles != null){
+			int tile = (row / TILE_SIZE) * nbTileColumns() + column / TILE_SIZE;
+			if(tile != this.lastTile){
+				this.lastTileDistances = tiles.get(tile);
+				this.lastTile = tile;
+			}
+			return this.lastTileDistances[(row % TILE_SIZE) * TILE_SIZE + column % TILE_SIZE];
+		}
+		return distances[row * nbColumns + column];
+	}
+
+	/**
+	 * Return the row of the pixel containing the given y-coordinate.
+	 *
+	 * @param 	y
+	 * 			The y-coordinate to convert (in meter).
+	 * @return	| result == max(0, min(getNbRows() - 1, getNbRows() - ceil(y * getNbRows() / height)))
+	 */
+	@Model
+	private int getRow(double y){
+		int row = nbRows - (int)Math.ceil(y * nbRows / height);
+		if(row >= nbRows)
+			return nbRows - 1;
+		if(row < 0)
+			return 0;
+		return row;
+	}
+
+	/**
+	 * Return the column of the pixel containing the given x-coordinate.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate to convert (in meter).
+	 * @return	| result == max(0, min(getNbColumns() - 1, floor(x * getNbColumns() / width)))
+	 */
+	@Model
+	private int getColumn(double x){
+		int column = (int)Math.floor(x * nbColumns / width);
+		if(column >= nbColumns)
+			return nbColumns - 1;
+		if(column < 0)
+			return 0;
+		return column;
+	}
+
+	/**
+	 * Write the distances of this field to the given buffer, row by row.
+	 *
+	 * @param 	buffer
+	 * 			The buffer to write to, which must have getNbRows() * getNbColumns() * 4 bytes remaining.
+	 */
+	void write(ByteBuffer buffer){
+		if(tiles != null){
+			for(int row = 0; row < nbRows; row++)
+				for(int column = 0; column < nbColumns; column++)
+					buffer.putFloat((float)getDistanceAt(row, column));
+			return;
+		}
+		buffer.asFloatBuffer().put(this.distances);
+		buffer.position(buffer.position() + 4 * this.distances.length);
+	}
+
+	/**
+	 * Return a new distance field for the given terrain, which covers a rectangular area
+	 * with the given width and height, of which the distances are read from the given buffer.
+	 *
+	 * @param 	buffer
+	 * 			The buffer to read from, in the format written by write(ByteBuffer).
+	 * @param 	terrain
+	 * 			The terrain from which the distances were derived.
+	 * @param 	width
+	 * 			The width of the area covered by the terrain (in meter).
+	 * @param 	height
+	 * 			The height of the area covered by the terrain (in meter).
+	 * @throws	BufferUnderflowException
+	 * 			The buffer does not hold all distances.
+	 */
+	static DistanceField read(ByteBuffer buffer, Terrain terrain, double width, double height)
+			throws BufferUnderflowException{
+		float[] distances = new float[terrain.getNbRows() * terrain.getNbColumns()];
+		buffer.asFloatBuffer().get(distances);
+		buffer.position(buffer.position() + 4 * distances.length);
+		return new DistanceField(terrain.getNbRows(), terrain.getNbColumns(), width, height, distances, null);
+	}
+
+	/**
+	 * Update the distances of this field after the pixels of the given terrain
+	 * in the given rectangle of rows and columns have changed.
+	 * 	Because distances are clamped to getMaximalDistance(), only the pixels lying
+	 * 	within that distance from the changed rectangle can have a different distance,
+	 * 	and those distances only depend on the pixels lying within that distance from them.
+	 * 	Only that part of the terrain is transformed again, or for a field that computes
+	 * 	its distances in tiles, only the tiles overlapping that part are dropped.
+	 *
+	 * @param 	terrain
+	 * 			The changed terrain from which this distance field is derived.
+	 * @param 	firstRow
+	 * 			The first changed row.
+	 * @param 	firstColumn
+	 * 			The first changed column.
+	 * @param 	lastRow
+	 * 			The last changed row.
+	 * @param 	lastColumn
+	 * 			The last changed column.
+	 * @post	The distances of this field are the same as the distances of a new
+	 * 			distance field for the given terrain with the same dimensions.
+	 * @throws	IllegalArgumentException("The given terrain does not match this distance field.")
+	 * 			| terrain.getNbRows() != getNbRows() || terrain.getNbColumns() != getNbColumns()
+	 */
+	public void update(Terrain terrain, int firstRow, int firstColumn, int lastRow, int lastColumn)
+			throws IllegalArgumentException{
+		if(terrain.getNbRows() != nbRows || terrain.getNbColumns() != nbColumns)
+			throw new IllegalArgumentException("The given terrain does not match this distance field.");
+		int marginRows = getMarginRows();
+		int marginColumns = getMarginColumns();
+		int outFirstRow = Math.max(0, firstRow - marginRows);
+		int outLastRow = Math.min(nbRows - 1, lastRow + marginRows);
+		int outFirstColumn = Math.max(0, firstColumn - marginColumns);
+		int outLastColumn = Math.min(nbColumns - 1, lastColumn + marginColumns);
+		if(tiles != null){
+			for(int tileRow = outFirstRow / TILE_SIZE; tileRow <= outLastRow / TILE_SIZE; tileRow++)
+				for(int tileColumn = outFirstColumn / TILE_SIZE; tileColumn <= outLastColumn / TILE_SIZE; tileColumn++)
+					tiles.invalidate(tileRow * nbTileColumns() + tileColumn);
+			this.lastTile = -1;
+			this.lastTileDistances = null;
+			return;
+		}
+		if(shared){
+			this.distances = this.distances.clone();
+			this.shared = false;
+		}
+		compute(terrain, Math.max(0, outFirstRow - marginRows), Math.max(0, outFirstColumn - marginColumns),
+				Math.min(nbRows - 1, outLastRow + marginRows), Math.min(nbColumns - 1, outLastColumn + marginColumns),
+				outFirstRow, outFirstColumn, outLastRow, outLastColumn, distances, 0, 0, nbColumns);
+	}
+
+	/**
+	 * Give this distance field the same distances as the given distance field.
+	 * 	The distances are not copied until one of both fields is updated.
+	 * 	A field that computes its distances in tiles forgets its tiles instead,
+	 * 	so they are computed again from its terrain when they are needed.
+	 *
+	 * @param 	other
+	 * 			The distance field of which the distances are taken over.
+	 * @post	| for each row, column:
+	 * 			|	new.getDistanceAt(row, column) == other.getDistanceAt(row, column)
+	 * @throws	IllegalArgumentException("The given distance field does not match this distance field.")
+	 * 			| other.getNbRows() != getNbRows() || other.getNbColumns() != getNbColumns()
+	 */
+	public void setDistances(DistanceField other)
+			throws IllegalArgumentException{
+		if(other.nbRows != nbRows || other.nbColumns != nbColumns)
+			throw new IllegalArgumentException("The given distance field does not match this distance field.");
+		if(other == this)
+			return;
+		if(tiles != null){
+			tiles.clear();
+			this.lastTile = -1;
+			this.lastTileDistances = null;
+			return;
+		}
+		if(!other.shared)
+			other.shared = true;
+		this.distances = other.distances;
+		this.shared = true;
+	}
+
+	/**
+	 * Return the number of rows within the maximal distance from a pixel.
+	 */
+	@Model
+	private int getMarginRows(){
+		return (int)Math.ceil(getMaximalDistance() / cellHeight);
+	}
+
+	/**
+	 * Return the number of columns within the maximal distance from a pixel.
+	 */
+	@Model
+	private int getMarginColumns(){
+		return (int)Math.ceil(getMaximalDistance() / cellWidth);
+	}
+
+	/**
+	 * Return the number of columns of tiles.
+	 */
+	@Model
+	private int nbTileColumns(){
+		return (nbColumns + TILE_SIZE - 1) / TILE_SIZE;
+	}
+
+	/**
+	 * Return a new cache of tiles of which the distances are computed from the terrain of this field.
+	 * 	Each tile registers the distances of TILE_SIZE by TILE_SIZE pixels, row by row.
+	 */
+	@Model
+	private TileCache<float[]> createTiles(){
+		return new TileCache<float[]>(MAXIMAL_NB_TILES) {
+			@Override
+			protected float[] load(int tile){
+				int firstRow = (tile / nbTileColumns()) * TILE_SIZE;
+				int firstColumn = (tile % nbTileColumns()) * TILE_SIZE;
+				int lastRow = Math.min(nbRows - 1, firstRow + TILE_SIZE - 1);
+				int lastColumn = Math.min(nbColumns - 1, firstColumn + TILE_SIZE - 1);
+				float[] result = new float[TILE_SIZE * TILE_SIZE];
+				compute(terrain, Math.max(0, firstRow - getMarginRows()), Math.max(0, firstColumn - getMarginColumns()),
+						Math.min(nbRows - 1, lastRow + getMarginRows()), Math.min(nbColumns - 1, lastColumn + getMarginColumns()),
+						firstRow, firstColumn, lastRow, lastColumn, result, firstRow, firstColumn, TILE_SIZE);
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Variable referencing the terrain from which the tiles of this field are computed,
+	 * or null if this field registers all its distances.
+	 */
+	private final Terrain terrain;
+
+	/**
+	 * Check whether this distance field computes its distances in tiles, each time one of them is needed.
+	 */
+	@Basic @Immutable
+	public boolean isTiled(){
+		return this.tiles != null;
+	}
+
+	/**
+	 * Variable referencing the cache of tiles of this field, or null if this field registers all its distances.
+	 */
+	private final TileCache<float[]> tiles;
+
+	/**
+	 * Variables referencing the tile of which distances were last looked up, and its index.
+	 */
+	private int lastTile = -1;
+	private float[] lastTileDistances = null;
+
+	/**
+	 * Final class variable registering the number of rows and columns of pixels in a tile.
+	 */
+	public static final int TILE_SIZE = 256;
+
+	/**
+	 * Final class variable registering the maximal number of tiles kept at the same time.
+	 */
+	public static final int MAXIMAL_NB_TILES = 64;
+
+	/**
+	 * Compute the distances of the pixels in the given output rectangle from the pixels of
+	 * the given terrain in the given input rectangle, which contains the output rectangle.
+	 * 	Both the distances to impassable pixels and to passable pixels are computed
+	 * 	with an exact euclidean distance transform (Felzenszwalb and Huttenlocher),
+	 * 	which first transforms every column and then every row of the input rectangle.
+	 *
+	 * 	The distance of the pixel at row r and column c is registered in the given target
+	 * 	at index (r - targetFirstRow) * targetColumns + (c - targetFirstColumn).
+	 *
+	 * @param 	terrain
+	 * 			The terrain to compute the distances from.
+	 */
+	@Model
+	private void compute(Terrain terrain, int inFirstRow, int inFirstColumn, int inLastRow, int inLastColumn,
+			int outFirstRow, int outFirstColumn, int outLastRow, int outLastColumn,
+			float[] target, int targetFirstRow, int targetFirstColumn, int targetColumns){
+		int rows = inLastRow - inFirstRow + 1;
+		int columns = inLastColumn - inFirstColumn + 1;
+		double[] toImpassable = new double[rows * columns];
+		double[] toPassable = new double[rows * columns];
+		for(int row = 0; row < rows; row++){
+			for(int column = 0; column < columns; column++){
+				boolean passable = terrain.isPassable(inFirstRow + row, inFirstColumn + column);
+				toImpassable[row * columns + column] = passable ? FAR : 0;
+				toPassable[row * columns + column] = passable ? 0 : FAR;
+			}
+		}
+		transform(toImpassable, rows, columns);
+		transform(toPassable, rows, columns);
+		float maximum = (float)getMaximalDistance();
+		for(int row = outFirstRow; row <= outLastRow; row++){
+			for(int column = outFirstColumn; column <= outLastColumn; column++){
+				int i = (row - inFirstRow) * columns + (column - inFirstColumn);
+				int j = (row - targetFirstRow) * targetColumns + (column - targetFirstColumn);
+				if(toImpassable[i] > 0)
+					target[j] = (float)Math.min(Math.sqrt(toImpassable[i]), maximum);
+				else
+					target[j] = (float)-Math.min(Math.sqrt(toPassable[i]), maximum);
+			}
+		}
+	}
+
+	/**
+	 * Transform the given squared distances of a rectangle with the given number of rows
+	 * and columns in place, first along the columns and then along the rows.
+	 */
+	@Model
+	private void transform(double[] squaredDistances, int rows, int columns){
+		int size = Math.max(rows, columns);
+		double[] line = new double[size];
+		double[] result = new double[size];
+		int[] parabolas = new int[size];
+		double[] boundaries = new double[size + 1];
+		for(int column = 0; column < columns; column++){
+			for(int row = 0; row < rows; row++)
+				line[row] = squaredDistances[row * columns + column];
+			transformLine(line, rows, cellHeight, result, parabolas, boundaries);
+			for(int row = 0; row < rows; row++)
+				squaredDistances[row * columns + column] = result[row];
+		}
+		for(int row = 0; row < rows; row++){
+			System.arraycopy(squaredDistances, row * columns, line, 0, columns);
+			transformLine(line, columns, cellWidth, result, parabolas, boundaries);
+			System.arraycopy(result, 0, squaredDistances, row * columns, columns);
+		}
+	}
+
+	/**
+	 * Compute the one-dimensional squared distance transform of the first n values of the
+	 * given line, in which consecutive samples lie the given spacing apart, by computing
+	 * the lower envelope of the parabolas rooted at each sample.
+	 */
+	@Model
+	private static void transformLine(double[] line, int n, double spacing, double[] result,
+			int[] parabolas, double[] boundaries){
+		int k = 0;
+		parabolas[0] = 0;
+		boundaries[0] = Double.NEGATIVE_INFINITY;
+		boundaries[1] = Double.POSITIVE_INFINITY;
+		for(int q = 1; q < n; q++){
+			double intersection = intersection(line, spacing, q, parabolas[k]);
+			while(intersection <= boundaries[k]){
+				k--;
+				intersection = intersection(line, spacing, q, parabolas[k]);
+			}
+			k++;
+			parabolas[k] = q;
+			boundaries[k] = intersection;
+			boundaries[k+1] = Double.POSITIVE_INFINITY;
+		}
+		k = 0;
+		for(int q = 0; q < n; q++){
+			while(boundaries[k+1] < q * spacing)
+				k++;
+			double offset = (q - parabolas[k]) * spacing;
+			result[q] = offset * offset + line[parabolas[k]];
+		}
+	}
+
+	/**
+	 * Return the position at which the parabolas rooted at the samples q and p intersect.
+	 */
+	@Model
+	private static double intersection(double[] line, double spacing, int q, int p){
+		double positionQ = q * spacing;
+		double positionP = p * spacing;
+		return ((line[q] + positionQ * positionQ) - (line[p] + positionP * positionP)) /
+				(2 * (positionQ - positionP));
+	}
+
+	/**
+	 * Variable registering the signed distances of all pixels, row by row.
+	 */
+	private float[] distances;
+
+	/**
+	 * Variable registering whether the distances of this field may be shared with other fields,
+	 * in which case they must be copied before this field is updated.
+	 */
+	private boolean shared = false;
+
+	/**
+	 * Final class variable registering the squared distance used for pixels
+	 * that are not (yet) known to be near a pixel of the other kind.
+	 */
+	private static final double FAR = 1e20;
+}
@@ -82,6 +82,40 @@ public class Facade implements IFacade {
 		}
 	}
 
+	@Override
+	public World createWorldFromTerrain(double width, double height,
+			Terrain terrain, Random random) 
+					throws ModelException{
+		try{
+			World world = new World(width, height, terrain, random);
+			return world;
+		}
+		catch(IllegalArgumentException x){
+			throw new ModelException("IllegalArgumentException");
+		}
+	}
+
+	@Override
+	public long getTerrainVersion(World world) {
+		return world.getTerrainVersion();
+	}
+
+	@Override
+	public void addTerrainListener(World world, TerrainListener listener) 
+			throws ModelException{
+		try{
+			world.addTerrainListener(listener);
+		}
+		catch(IllegalArgumentException x){
+			throw new ModelException("IllegalArgumentException");
+		}
+	}
+
+	@Override
+	public void removeTerrainListener(World world, TerrainListener listener) {
+		world.removeTerrainListener(listener);
+	}
+
 	@Override
 	public Worm createWorm(World world, double x, double y, double direction,
 			double radius, String name) throws ModelException{
@@ -180,6 +214,20 @@ public class Facade implements IFacade {
 		}
 	}
 
+	@Override
+	public double[][] getJumpPolyline(Worm worm) 
+			throws ModelException{
+		try{
+			return worm.getWormPosition().getJumpTrajectory().getPoints();
+		}
+		catch(IllegalActionPointsException x){
+			throw new ModelException("IllegalActionPointsException");
+		}
+		catch(IllegalDirectionException x){
+			throw new ModelException("IllegalDirectionException");
+		}
+	}
+
 	@Override
 	public double getMass(Worm worm) {
 		return worm.getMass();
@@ -150,4 +150,48 @@ public class Food extends Position{
 		return x>RADIUS && x<this.getWorld().getWidth() - RADIUS &&
 				y>RADIUS && y<this.getWorld().getHeight() - RADIUS;
 	}
+	
+	
+	
+	/**
+	 * A class registering the state of a food ration, so that it can be restored
+	 * when its world is restored from a snapshot.
+	 */
+	static class State {
+
+		State(Food food){
+			this.x = food.getX();
+			this.y = food.getY();
+			this.isActive = food.isActive;
+		}
+
+		private final double x, y;
+
+		private final boolean isActive;
+	}
+	
+	/**
+	 * Give this food ration the given state, and attach it to the given world.
+	 * 
+	 * @param 	state
+	 * 			The state to restore.
+	 * @param 	world
+	 * 			The world to which this food ration is attached, or null.
+	 */
+	@Raw
+	void restore(State state, World world){
+		restorePosition(state.x, state.y);
+		this.isActive = state.isActive;
+		this.world = world;
+	}
+	
+	/**
+	 * Detach this food ration from its world without any checks.
+	 * 	This is only used for food rations that did not belong to a world yet
+	 * 	when the snapshot from which that world is restored was taken.
+	 */
+	@Raw
+	void detach(){
+		this.world = null;
+	}
 }
@@ -133,6 +133,40 @@ public interface IFacade {
 	public World createWorld(double width, double height,
 			boolean[][] passableMap, Random random);
 
+	/**
+	 * Creates a new world with the given terrain.
+	 * 
+	 * @param width The width of the world (in meter)
+	 * 
+	 * @param height The height of the world (in meter)
+	 * 
+	 * @param terrain The terrain of the world, with the same row and column conventions as a passable map.
+	 * 
+	 * @param random A random number generator, seeded with the value obtained from the command line or from GUIOptions,
+	 *  that can be used to randomize aspects of the world in a repeatable way.
+	 * 
+	 * @return The world.
+	 */
+	public World createWorldFromTerrain(double width, double height,
+			Terrain terrain, Random random);
+
+	/**
+	 * Returns the version of the terrain of the given world.
+	 * The version increases each time the terrain of the world changes.
+	 */
+	public long getTerrainVersion(World world);
+
+	/**
+	 * Registers the given listener to be notified of the rectangular regions
+	 * in which the terrain of the given world changes.
+	 */
+	public void addTerrainListener(World world, TerrainListener listener);
+
+	/**
+	 * Stops notifying the given listener of changes in the terrain of the given world.
+	 */
+	public void removeTerrainListener(World world, TerrainListener listener);
+
 	/**
 	 * Create a new worm that is positioned at the given location in the given world,
 	 * looks in the given direction, has the given radius and the given name.
@@ -229,6 +263,16 @@ public interface IFacade {
 	 */
 	double getJumpTime(Worm worm, double timeStep);
 
+	/**
+	 * Returns the positions of the given worm at evenly spaced times during a jump
+	 * in its current state, as {x, y} pairs ending at the position where the jump ends.
+	 * Consecutive positions lie at most 0.1 worm-seconds apart.
+	 * 
+	 * The result is computed once for each state of the worm, so it can be asked for
+	 * every time the screen is drawn.
+	 */
+	double[][] getJumpPolyline(Worm worm);
+
 	/**
 	 * Returns the mass of the given worm.
 	 */
@@ -0,0 +1,221 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of jump trajectories, registering the outcome of a jump computed for a worm
+ * in a given state: the time the jump takes and a polyline through the positions
+ * of the worm during the jump, or the exception signaling that the jump is not possible.
+ * 	The state of the worm consists of its position, direction, current amount of action
+ * 	points, mass, radius, world and the version of the terrain of that world. A trajectory
+ * 	only applies to a worm in exactly that state.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class JumpTrajectory {
+
+	/**
+	 * Create a new jump trajectory for the given worm position in its current state.
+	 *
+	 * @param 	position
+	 * 			The worm position for which the trajectory is computed.
+	 * @param 	time
+	 * 			The time needed for the jump.
+	 * @param 	points
+	 * 			The positions of the worm at evenly spaced times during the jump.
+	 * @param 	failure
+	 * 			The exception signaling that the jump is not possible, or null.
+	 * @post	| new.appliesTo(position)
+	 * @post	| new.isPossible() == (failure == null)
+	 * @throws	IllegalArgumentException("The given failure is not valid.")
+	 * 			| failure != null && !(failure instanceof IllegalActionPointsException)
+	 * 			|	&& !(failure instanceof IllegalDirectionException)
+	 */
+	JumpTrajectory(WormPosition position, double time, double[][] points, RuntimeException failure)
+			throws IllegalArgumentException{
+		Worm worm = position.getWorm();
+		this.x = position.getX();
+		this.y = position.getY();
+		this.direction = worm.getDirection();
+		this.actionPoints = worm.getCurrentActionPoints();
+		this.mass = worm.getMass();
+		this.radius = worm.getRadius();
+		this.world = worm.getWorld();
+		this.terrainVersion = (world == null) ? 0 : world.getTerrainVersion();
+		this.time = time;
+		this.points = points;
+		if(failure == null){
+			this.failure = Failure.NONE;
+			this.failureActionPoints = 0;
+			this.failureDirection = 0;
+			this.failureWorm = null;
+		}
+		else if(failure instanceof IllegalActionPointsException){
+			IllegalActionPointsException exc = (IllegalActionPointsException) failure;
+			this.failure = Failure.ACTION_POINTS;
+			this.failureActionPoints = exc.getActionPoints();
+			this.failureDirection = 0;
+			this.failureWorm = exc.getWorm();
+		}
+		else if(failure instanceof IllegalDirectionException){
+			IllegalDirectionException exc = (IllegalDirectionException) failure;
+			this.failure = Failure.DIRECTION;
+			this.failureActionPoints = 0;
+			this.failureDirection = exc.getDirection();
+			this.failureWorm = exc.getWorm();
+		}
+		else
+			throw new IllegalArgumentException("The given failure is not valid.");
+	}
+
+
+
+	/**
+	 * Check whether this trajectory applies to the given worm position in its current state.
+	 *
+	 * @param 	position
+	 * 			The worm position to check.
+	 * @return	True if and only if the position and the worm to which it belongs are in
+	 * 			the same state as when this trajectory was computed.
+	 */
+	public boolean appliesTo(WormPosition position){
+		Worm worm = position.getWorm();
+		return position.getX() == x && position.getY() == y &&
+				worm.getDirection() == direction &&
+				worm.getCurrentActionPoints() == actionPoints &&
+				worm.getMass() == mass && worm.getRadius() == radius &&
+				worm.getWorld() == world &&
+				(world == null || world.getTerrainVersion() == terrainVersion);
+	}
+
+	/**
+	 * Variables registering the state of the worm for which this trajectory was computed.
+	 */
+	private final double x, y, direction, mass, radius;
+
+	/**
+	 * Variable registering the amount of action points of the worm for which this trajectory was computed.
+	 */
+	private final int actionPoints;
+
+	/**
+	 * Variable referencing the world of the worm for which this trajectory was computed.
+	 */
+	private final World world;
+
+	/**
+	 * Variable registering the version of the terrain of the world when this trajectory was computed.
+	 */
+	private final long terrainVersion;
+
+
+
+	/**
+	 * Return the time needed for the jump.
+	 *
+	 * @throws	IllegalActionPointsException
+	 * 			A new exception like the one registered when this trajectory was computed,
+	 * 			if the jump is not possible for lack of action points.
+	 * @throws	IllegalDirectionException
+	 * 			A new exception like the one registered when this trajectory was computed,
+	 * 			if the jump is not possible in the direction of the worm.
+	 */
+	@Raw @Immutable
+	public double getTime()
+			throws IllegalActionPointsException, IllegalDirectionException{
+		checkPossible();
+		return this.time;
+	}
+
+	/**
+	 * Variable registering the time needed for the jump.
+	 */
+	private final double time;
+
+	/**
+	 * Return a polyline through the positions of the worm during the jump,
+	 * as an array of {x, y} pairs ending at the position where the jump ends.
+	 * 	The array and its pairs are new, so changing them does not change this trajectory.
+	 *
+	 * @throws	IllegalActionPointsException
+	 * 			A new exception like the one registered when this trajectory was computed,
+	 * 			if the jump is not possible for lack of action points.
+	 * @throws	IllegalDirectionException
+	 * 			A new exception like the one registered when this trajectory was computed,
+	 * 			if the jump is not possible in the direction of the worm.
+	 */
+	@Raw @Immutable
+	public double[][] getPoints()
+			throws IllegalActionPointsException, IllegalDirectionException{
+		checkPossible();
+		double[][] result = new double[this.points.length][];
+		for(int i = 0; i < result.length; i++)
+			result[i] = this.points[i].clone();
+		return result;
+	}
+
+	/**
+	 * Variable registering the positions of the worm during the jump.
+	 */
+	private final double[][] points;
+
+	/**
+	 * Check whether the jump is possible.
+	 */
+	@Basic @Raw @Immutable
+	public boolean isPossible(){
+		return this.failure == Failure.NONE;
+	}
+
+	/**
+	 * Throw a new exception like the one registered when this trajectory was computed,
+	 * if the jump is not possible.
+	 * 	A new exception is thrown each time, so its stack trace shows the caller.
+	 *
+	 * @throws	IllegalActionPointsException(failureActionPoints, failureWorm)
+	 * 			| failure == Failure.ACTION_POINTS
+	 * @throws	IllegalDirectionException(failureDirection, failureWorm)
+	 * 			| failure == Failure.DIRECTION
+	 */
+	@Model
+	private void checkPossible()
+			throws IllegalActionPointsException, IllegalDirectionException{
+		if(this.failure == Failure.ACTION_POINTS)
+			throw new IllegalActionPointsException(this.failureActionPoints, this.failureWorm);
+		if(this.failure == Failure.DIRECTION)
+			throw new IllegalDirectionException(this.failureDirection, this.failureWorm);
+	}
+
+	/**
+	 * An enumeration of the reasons why a jump is not possible.
+	 */
+	private static enum Failure {
+		NONE, ACTION_POINTS, DIRECTION
+	}
+
+	/**
+	 * Variable registering why the jump is not possible, if it is not.
+	 */
+	private final Failure failure;
+
+	/**
+	 * Variable registering the amount of action points of the exception signaling that
+	 * the jump is not possible for lack of action points.
+	 */
+	private final int failureActionPoints;
+
+	/**
+	 * Variable registering the direction of the exception signaling that the jump
+	 * is not possible in the direction of the worm.
+	 */
+	private final double failureDirection;
+
+	/**
+	 * Variable referencing the worm of the exception signaling that the jump is not possible.
+	 */
+	private final Worm failureWorm;
+}
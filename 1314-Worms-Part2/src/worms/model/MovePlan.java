@@ -0,0 +1,170 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of move plans, registering the outcome of a move computed for a worm
+ * in a given state: the direction in which the worm moves, the distance it covers
+ * and the position where it ends, or the fact that the worm cannot move.
+ * 	The state of the worm consists of its position, direction, current amount of action
+ * 	points, radius, world and the version of the terrain of that world. A plan only
+ * 	applies to a worm in exactly that state.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class MovePlan {
+
+	/**
+	 * Create a new move plan for the given worm position in its current state.
+	 *
+	 * @param 	position
+	 * 			The worm position for which the plan is computed.
+	 * @param 	direction
+	 * 			The direction in which the worm moves.
+	 * @param 	distance
+	 * 			The distance the worm covers, or a negative number if the worm cannot move.
+	 * @param 	endX
+	 * 			The x-coordinate of the position where the worm ends.
+	 * @param 	endY
+	 * 			The y-coordinate of the position where the worm ends.
+	 * @post	| new.appliesTo(position)
+	 */
+	MovePlan(WormPosition position, double direction, double distance, double endX, double endY){
+		Worm worm = position.getWorm();
+		this.x = position.getX();
+		this.y = position.getY();
+		this.wormDirection = worm.getDirection();
+		this.actionPoints = worm.getCurrentActionPoints();
+		this.radius = worm.getRadius();
+		this.world = worm.getWorld();
+		this.terrainVersion = (world == null) ? 0 : world.getTerrainVersion();
+		this.direction = direction;
+		this.distance = distance;
+		this.endX = endX;
+		this.endY = endY;
+	}
+
+
+
+	/**
+	 * Check whether this plan applies to the given worm position in its current state.
+	 *
+	 * @param 	position
+	 * 			The worm position to check.
+	 * @return	True if and only if the position and the worm to which it belongs are in
+	 * 			the same state as when this plan was computed.
+	 */
+	public boolean appliesTo(WormPosition position){
+		Worm worm = position.getWorm();
+		return position.getX() == x && position.getY() == y &&
+				worm.getDirection() == wormDirection &&
+				worm.getCurrentActionPoints() == actionPoints &&
+				worm.getRadius() == radius &&
+				worm.getWorld() == world &&
+				(world == null || world.getTerrainVersion() == terrainVersion);
+	}
+
+	/**
+	 * Variables registering the state of the worm for which this plan was computed.
+	 */
+	private final double x, y, wormDirection, radius;
+
+	/**
+	 * Variable registering the amount of action points of the worm for which this plan was computed.
+	 */
+	private final int actionPoints;
+
+	/**
+	 * Variable referencing the world of the worm for which this plan was computed.
+	 */
+	private final World world;
+
+	/**
+	 * Variable registering the version of the terrain of the world when this plan was computed.
+	 */
+	private final long terrainVersion;
+
+
+
+	/**
+	 * Check whether the worm can move.
+	 */
+	@Basic @Raw @Immutable
+	public boolean isPossible(){
+		return this.distance >= 0;
+	}
+
+	/**
+	 * Return the direction in which the worm moves.
+	 *
+	 * @throws	IllegalStateException("The worm cannot move.")
+	 * 			| !isPossible()
+	 */
+	@Raw @Immutable
+	public double getDirection()
+			throws IllegalStateException{
+		if(!isPossible())
+			throw new IllegalStateException("The worm cannot move.");
+		return this.direction;
+	}
+
+	/**
+	 * Variable registering the direction in which the worm moves.
+	 */
+	private final double direction;
+
+	/**
+	 * Return the distance the worm covers.
+	 *
+	 * @throws	IllegalStateException("The worm cannot move.")
+	 * 			| !isPossible()
+	 */
+	@Raw @Immutable
+	public double getDistance()
+			throws IllegalStateException{
+		if(!isPossible())
+			throw new IllegalStateException("The worm cannot move.");
+		return this.distance;
+	}
+
+	/**
+	 * Variable registering the distance the worm covers.
+	 */
+	private final double distance;
+
+	/**
+	 * Return the x-coordinate of the position where the worm ends.
+	 *
+	 * @throws	IllegalStateException("The worm cannot move.")
+	 * 			| !isPossible()
+	 */
+	@Raw @Immutable
+	public double getEndX()
+			throws IllegalStateException{
+		if(!isPossible())
+			throw new IllegalStateException("The worm cannot move.");
+		return this.endX;
+	}
+
+	/**
+	 * Return the y-coordinate of the position where the worm ends.
+	 *
+	 * @throws	IllegalStateException("The worm cannot move.")
+	 * 			| !isPossible()
+	 */
+	@Raw @Immutable
+	public double getEndY()
+			throws IllegalStateException{
+		if(!isPossible())
+			throw new IllegalStateException("The worm cannot move.");
+		return this.endY;
+	}
+
+	/**
+	 * Variables registering the position where the worm ends.
+	 */
+	private final double endX, endY;
+}
@@ -0,0 +1,352 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of occupancy maps of a terrain, registering for square blocks of pixels
+ * whether they are entirely passable, entirely impassable or mixed.
+ * 	The map is a pyramid of levels: the blocks of the first level are BLOCK_SIZE pixels
+ * 	wide and high, and each block of a next level covers four blocks of the previous level.
+ * 	A rectangle of pixels is classified from the lowest level at which it overlaps at most
+ * 	two blocks in each direction downwards, so rectangles in the open air or deep in the
+ * 	terrain are classified by a few blocks, and only the mixed blocks at the edge of the
+ * 	rectangle are looked at pixel by pixel.
+ * 	Copies of an occupancy map share its blocks until either of them is updated.
+ *
+ * @invar	| getNbRows() > 0 && getNbColumns() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class OccupancyMap {
+
+	/**
+	 * Create a new occupancy map for the given terrain.
+	 *
+	 * @param 	terrain
+	 * 			The terrain from which this occupancy map is derived.
+	 * @post	| new.getNbRows() == terrain.getNbRows()
+	 * @post	| new.getNbColumns() == terrain.getNbColumns()
+	 * @post	| for each firstRow, firstColumn, lastRow, lastColumn:
+	 * 			|	new.getOccupancy(terrain, firstRow, firstColumn, lastRow, lastColumn) is the
+	 * 			|	occupancy of the pixels of the given terrain in that rectangle
+	 */
+	public OccupancyMap(Terrain terrain){
+		this.nbRows = terrain.getNbRows();
+		this.nbColumns = terrain.getNbColumns();
+		int nbLevels = 1;
+		while(Math.max(nbRows, nbColumns) > (BLOCK_SIZE << (nbLevels - 1)))
+			nbLevels++;
+		this.blocks = new byte[nbLevels][];
+		for(int level = 0; level < nbLevels; level++)
+			this.blocks[level] = new byte[getNbBlockRows(level) * getNbBlockColumns(level)];
+		compute(terrain, 0, 0, getNbBlockRows(0) - 1, getNbBlockColumns(0) - 1);
+	}
+
+	/**
+	 * Create a new occupancy map with the same blocks as the given occupancy map.
+	 * 	The blocks are not copied until one of both maps is updated.
+	 *
+	 * @param 	other
+	 * 			The occupancy map to copy.
+	 * @post	| new.getNbRows() == other.getNbRows()
+	 * @post	| new.getNbColumns() == other.getNbColumns()
+	 */
+	public OccupancyMap(OccupancyMap other){
+		this.nbRows = other.nbRows;
+		this.nbColumns = other.nbColumns;
+		if(!other.shared)
+			other.shared = true;
+		this.blocks = other.blocks;
+		this.shared = true;
+	}
+
+
+
+	/**
+	 * Return the number of rows of this occupancy map.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of this occupancy map.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of this occupancy map.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * Variable registering the number of columns of this occupancy map.
+	 */
+	private final int nbColumns;
+
+
+
+	/**
+	 * Return the occupancy of the pixels in the given rectangle of rows and columns.
+	 *
+	 * @param 	terrain
+	 * 			The terrain from which this map is derived, of which the pixels
+	 * 			in mixed blocks at the edge of the rectangle are looked at.
+	 * @param 	firstRow
+	 * 			The first row of the rectangle.
+	 * @param 	firstColumn
+	 * 			The first column of the rectangle.
+	 * @param 	lastRow
+	 * 			The last row of the rectangle (inclusive).
+	 * @param 	lastColumn
+	 * 			The last column of the rectangle (inclusive).
+	 * @return	EMPTY if all pixels in the rectangle are passable, FULL if all of them
+	 * 			are impassable, and MIXED otherwise.
+	 */
+	public int getOccupancy(Terrain terrain, int firstRow, int firstColumn, int lastRow, int lastColumn){
+		// start at the lowest level at which the rectangle overlaps at most two blocks in each direction
+		int level = 0;
+		while(level < blocks.length - 1 && ((lastRow >> getShift(level)) - (firstRow >> getShift(level)) > 1 ||
+				(lastColumn >> getShift(level)) - (firstColumn >> getShift(level)) > 1))
+			level++;
+		// the blocks one level down that lie entirely in the rectangle are looked at first, so that
+		// a rectangle that is mixed is mostly found to be so without looking at its edges
+		if(level > 0 && getContainedOccupancy(level - 1, firstRow, firstColumn, lastRow, lastColumn) == MIXED)
+			return MIXED;
+		int result = -1;
+		for(int blockRow = firstRow >> getShift(level); blockRow <= lastRow >> getShift(level); blockRow++){
+			for(int blockColumn = firstColumn >> getShift(level); blockColumn <= lastColumn >> getShift(level); blockColumn++){
+				result = combine(result, getBlockOccupancy(terrain, level, blockRow, blockColumn,
+						firstRow, firstColumn, lastRow, lastColumn));
+				if(result == MIXED)
+					return MIXED;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the occupancy of the blocks at the given level that lie entirely in the given
+	 * rectangle, or a negative number if there are no such blocks.
+	 */
+	@Model
+	private int getContainedOccupancy(int level, int firstRow, int firstColumn, int lastRow, int lastColumn){
+		int shift = getShift(level);
+		int firstBlockRow = (firstRow + (1 << shift) - 1) >> shift;
+		int lastBlockRow = ((lastRow + 1) >> shift) - 1;
+		int firstBlockColumn = (firstColumn + (1 << shift) - 1) >> shift;
+		int lastBlockColumn = ((lastColumn + 1) >> shift) - 1;
+		int result = -1;
+		for(int blockRow = firstBlockRow; blockRow <= lastBlockRow; blockRow++){
+			for(int blockColumn = firstBlockColumn; blockColumn <= lastBlockColumn; blockColumn++){
+				result = combine(result, blocks[level][blockRow * getNbBlockColumns(level) + blockColumn]);
+				if(result == MIXED)
+					return MIXED;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the occupancy of the pixels of the given block that lie in the given rectangle.
+	 */
+	@Model
+	private int getBlockOccupancy(Terrain terrain, int level, int blockRow, int blockColumn,
+			int firstRow, int firstColumn, int lastRow, int lastColumn){
+		int occupancy = blocks[level][blockRow * getNbBlockColumns(level) + blockColumn];
+		if(occupancy != MIXED)
+			return occupancy;
+		int shift = getShift(level);
+		int blockFirstRow = blockRow << shift;
+		int blockLastRow = Math.min(nbRows - 1, ((blockRow + 1) << shift) - 1);
+		int blockFirstColumn = blockColumn << shift;
+		int blockLastColumn = Math.min(nbColumns - 1, ((blockColumn + 1) << shift) - 1);
+		// a mixed block that lies entirely in the rectangle is mixed in the rectangle
+		if(firstRow <= blockFirstRow && blockLastRow <= lastRow &&
+				firstColumn <= blockFirstColumn && blockLastColumn <= lastColumn)
+			return MIXED;
+		blockFirstRow = Math.max(blockFirstRow, firstRow);
+		blockLastRow = Math.min(blockLastRow, lastRow);
+		blockFirstColumn = Math.max(blockFirstColumn, firstColumn);
+		blockLastColumn = Math.min(blockLastColumn, lastColumn);
+		if(level == 0)
+			return getPixelOccupancy(terrain, blockFirstRow, blockFirstColumn, blockLastRow, blockLastColumn);
+		int result = -1;
+		for(int row = blockFirstRow >> (shift - 1); row <= blockLastRow >> (shift - 1); row++){
+			for(int column = blockFirstColumn >> (shift - 1); column <= blockLastColumn >> (shift - 1); column++){
+				result = combine(result, getBlockOccupancy(terrain, level - 1, row, column,
+						blockFirstRow, blockFirstColumn, blockLastRow, blockLastColumn));
+				if(result == MIXED)
+					return MIXED;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the occupancy of the pixels of the given terrain in the given rectangle,
+	 * which lies within a single block of the first level.
+	 */
+	@Model
+	private static int getPixelOccupancy(Terrain terrain, int firstRow, int firstColumn, int lastRow, int lastColumn){
+		long mask = (-1L >>> (63 - (lastColumn & 63))) & (-1L << firstColumn);
+		boolean passable = false, impassable = false;
+		for(int row = firstRow; row <= lastRow; row++){
+			long word = terrain.getWord(row, firstColumn >>> 6) & mask;
+			passable |= word != mask;
+			impassable |= word != 0;
+		}
+		return passable ? (impassable ? MIXED : EMPTY) : FULL;
+	}
+
+	/**
+	 * Return the occupancy of a union of pixels, of which a part has the first given
+	 * occupancy, or none if it is negative, and the other part the second occupancy.
+	 */
+	@Model
+	private static int combine(int occupancy, int other){
+		if(occupancy < 0 || occupancy == other)
+			return other;
+		return MIXED;
+	}
+
+	/**
+	 * Final class variables registering the occupancies of a rectangle of pixels.
+	 */
+	public static final int EMPTY = 0, FULL = 1, MIXED = 2;
+
+
+
+	/**
+	 * Update the blocks of this map after the pixels of the given terrain
+	 * in the given rectangle of rows and columns have changed.
+	 * 	Only the blocks covering the changed pixels are classified again.
+	 *
+	 * @param 	terrain
+	 * 			The changed terrain from which this map is derived.
+	 * @param 	firstRow
+	 * 			The first changed row.
+	 * @param 	firstColumn
+	 * 			The first changed column.
+	 * @param 	lastRow
+	 * 			The last changed row.
+	 * @param 	lastColumn
+	 * 			The last changed column.
+	 * @post	The occupancies given by this map are those of the pixels of the given terrain.
+	 * @throws	IllegalArgumentException("The given terrain does not match this occupancy map.")
+	 * 			| terrain.getNbRows() != getNbRows() || terrain.getNbColumns() != getNbColumns()
+	 */
+	public void update(Terrain terrain, int firstRow, int firstColumn, int lastRow, int lastColumn)
+			throws IllegalArgumentException{
+		if(terrain.getNbRows() != nbRows || terrain.getNbColumns() != nbColumns)
+			throw new IllegalArgumentException("The given terrain does not match this occupancy map.");
+		if(shared){
+			byte[][] copy = new byte[blocks.length][];
+			for(int level = 0; level < blocks.length; level++)
+				copy[level] = blocks[level].clone();
+			this.blocks = copy;
+			this.shared = false;
+		}
+		compute(terrain, firstRow >> getShift(0), firstColumn >> getShift(0),
+				lastRow >> getShift(0), lastColumn >> getShift(0));
+	}
+
+	/**
+	 * Give this occupancy map the same blocks as the given occupancy map.
+	 * 	The blocks are not copied until one of both maps is updated.
+	 *
+	 * @param 	other
+	 * 			The occupancy map of which the blocks are taken over.
+	 * @throws	IllegalArgumentException("The given occupancy map does not match this occupancy map.")
+	 * 			| other.getNbRows() != getNbRows() || other.getNbColumns() != getNbColumns()
+	 */
+	public void setBlocks(OccupancyMap other)
+			throws IllegalArgumentException{
+		if(other.nbRows != nbRows || other.nbColumns != nbColumns)
+			throw new IllegalArgumentException("The given occupancy map does not match this occupancy map.");
+		if(other == this)
+			return;
+		if(!other.shared)
+			other.shared = true;
+		this.blocks = other.blocks;
+		this.shared = true;
+	}
+
+	/**
+	 * Classify the given rectangle of blocks of the first level from the pixels of the
+	 * given terrain, and the blocks of the next levels covering them from their blocks.
+	 */
+	@Model
+	private void compute(Terrain terrain, int firstBlockRow, int firstBlockColumn,
+			int lastBlockRow, int lastBlockColumn){
+		for(int blockRow = firstBlockRow; blockRow <= lastBlockRow; blockRow++)
+			for(int blockColumn = firstBlockColumn; blockColumn <= lastBlockColumn; blockColumn++)
+				blocks[0][blockRow * getNbBlockColumns(0) + blockColumn] = (byte)getPixelOccupancy(terrain,
+						blockRow * BLOCK_SIZE, blockColumn * BLOCK_SIZE,
+						Math.min(nbRows, (blockRow + 1) * BLOCK_SIZE) - 1,
+						Math.min(nbColumns, (blockColumn + 1) * BLOCK_SIZE) - 1);
+		for(int level = 1; level < blocks.length; level++){
+			firstBlockRow >>= 1;
+			firstBlockColumn >>= 1;
+			lastBlockRow >>= 1;
+			lastBlockColumn >>= 1;
+			for(int blockRow = firstBlockRow; blockRow <= lastBlockRow; blockRow++){
+				for(int blockColumn = firstBlockColumn; blockColumn <= lastBlockColumn; blockColumn++){
+					int result = -1;
+					for(int row = 2 * blockRow; row <= Math.min(2 * blockRow + 1, getNbBlockRows(level - 1) - 1); row++)
+						for(int column = 2 * blockColumn; column <= Math.min(2 * blockColumn + 1, getNbBlockColumns(level - 1) - 1); column++)
+							result = combine(result, blocks[level - 1][row * getNbBlockColumns(level - 1) + column]);
+					blocks[level][blockRow * getNbBlockColumns(level) + blockColumn] = (byte)result;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the number of rows of blocks at the given level.
+	 */
+	@Model
+	private int getNbBlockRows(int level){
+		return ((nbRows - 1) >> getShift(level)) + 1;
+	}
+
+	/**
+	 * Return the number of columns of blocks at the given level.
+	 */
+	@Model
+	private int getNbBlockColumns(int level){
+		return ((nbColumns - 1) >> getShift(level)) + 1;
+	}
+
+	/**
+	 * Return the base 2 logarithm of the size of the blocks at the given level (in pixels).
+	 */
+	@Model
+	private static int getShift(int level){
+		return BLOCK_SHIFT + level;
+	}
+
+	/**
+	 * Final class variables registering the size of the blocks of the first level (in pixels),
+	 * and its base 2 logarithm.
+	 */
+	private static final int BLOCK_SHIFT = 3, BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+	/**
+	 * Arrays registering the occupancy of each block, per level, row by row.
+	 */
+	private byte[][] blocks;
+
+	/**
+	 * Variable registering whether the blocks may be shared with a copy of this map.
+	 */
+	private boolean shared = false;
+}
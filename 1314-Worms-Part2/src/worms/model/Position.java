@@ -1,5 +1,7 @@
  package worms.model;
 
+import java.util.ArrayList;
+
 import be.kuleuven.cs.som.annotate.*;
 
 /**
@@ -61,6 +63,7 @@ public abstract class Position{
 		if(!isValidPosition(x, getY()))
 			throw new IllegalPositionException(x, getY());
 		this.x = x;
+		firePositionChanged();
 	}
 
 	/**
@@ -87,6 +90,7 @@ public abstract class Position{
 		if(!isValidPosition(getX(), y))
 			throw new IllegalPositionException(getX(), y);
 		this.y = y;
+		firePositionChanged();
 	}
 	
 	/**
@@ -123,8 +127,69 @@ public abstract class Position{
 			throw new IllegalPositionException(x, y);
 		this.x = x;
 		this.y = y;
+		firePositionChanged();
+	}
+	
+	/**
+	 * Set the x-coordinate and y-coordinate to the given coordinates, without
+	 * checking them and without notifying the listeners of this position.
+	 * 	This is only used to restore the state of a world from a snapshot,
+	 * 	in which the coordinates were valid.
+	 * 
+	 * @param 	x
+	 * 			The new x-coordinate (in meter).
+	 * @param 	y
+	 * 			The new y-coordinate (in meter).
+	 * @post	| new.getX() == x
+	 * @post	| new.getY() == y
+	 */
+	@Raw
+	void restorePosition(double x, double y){
+		this.x = x;
+		this.y = y;
 	}
 	
+	/**
+	 * Register the given listener as a listener of this position.
+	 * 
+	 * @param 	listener
+	 * 			The listener to register.
+	 * @post	The given listener is notified of each later change of this position.
+	 */
+	public void addListener(PositionListener listener){
+		if(this.listeners == null)
+			this.listeners = new ArrayList<PositionListener>(1);
+		this.listeners.add(listener);
+	}
+	
+	/**
+	 * Unregister the given listener as a listener of this position.
+	 * 
+	 * @param 	listener
+	 * 			The listener to unregister.
+	 * @post	The given listener is no longer notified of changes of this position.
+	 */
+	public void removeListener(PositionListener listener){
+		if(this.listeners != null)
+			this.listeners.remove(listener);
+	}
+	
+	/**
+	 * Notify all listeners of this position that this position has changed.
+	 */
+	@Model
+	protected void firePositionChanged(){
+		if(this.listeners == null)
+			return;
+		for(int i = 0; i < this.listeners.size(); i++)
+			this.listeners.get(i).positionChanged(this);
+	}
+	
+	/**
+	 * List referencing the listeners of this position, or null if there are none.
+	 */
+	private ArrayList<PositionListener> listeners = null;
+	
 	/**
 	 * Variable registering the x-coordinate of a position in meters.
 	 */
@@ -0,0 +1,20 @@
+package worms.model;
+
+/**
+ * An interface for listeners that want to be notified whenever
+ * the region occupied by a position changes.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public interface PositionListener {
+
+	/**
+	 * Notify this listener that the given position has changed its coordinates,
+	 * or that the object to which it belongs has changed its size.
+	 *
+	 * @param 	position
+	 * 			The position that has changed.
+	 */
+	void positionChanged(Position position);
+}
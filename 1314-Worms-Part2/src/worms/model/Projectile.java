@@ -35,7 +35,7 @@ public class Projectile extends Position{
 	 * 			|	this.setInitialPosition(worm.getPosition().getX(), 
 	 * 			|	worm.getPosition().getY(), worm.getRadius())
 	 * 			| )
-	 * 			| catch(IllegalArgumentException exc)(
+	 * 			| catch(IllegalArgumentException, IllegalPositionException exc)(
 	 * 			| 	this.deactivate();
 	 * 			| 	throw exc;
 	 * 			| )
@@ -44,6 +44,32 @@ public class Projectile extends Position{
 	 */
 	public Projectile(Worm worm, double initialVelocity, double radius, int damage) 
 			throws IllegalRadiusException, IllegalArgumentException, IllegalPositionException{
+		this(worm, initialVelocity, radius, damage, 0);
+	}
+	
+	/**
+	 * Create a new projectile with the given arguments, that carves a crater
+	 * with the given radius into the terrain where it lands.
+	 * 
+	 * @param 	worm
+	 * 			The worm that 'shoots' this projectile.
+	 * @param 	initialVelocity
+	 * 			The initial velocity for the shot of this projectile.
+	 * @param 	radius
+	 * 			The radius of this projectile.
+	 * @param 	damage
+	 * 			The damage of this projectile.
+	 * @param 	craterRadius
+	 * 			The radius of the crater this projectile carves.
+	 * @pre		| isValidDirection(worm.getDirection())
+	 * @post	| new.getCraterRadius() == craterRadius
+	 * @effect	The projectile is initialized as by Projectile(worm, initialVelocity, radius, damage).
+	 * @throws 	IllegalRadiusException(radius)
+	 * 			| !canHaveAsRadius(radius)
+	 */
+	public Projectile(Worm worm, double initialVelocity, double radius, int damage, double craterRadius) 
+			throws IllegalRadiusException, IllegalArgumentException, IllegalPositionException{
+		this.craterRadius = craterRadius;
 		this.direction = worm.getDirection();
 		this.initialVelocity = initialVelocity;
 		if(!canHaveAsRadius(radius))
@@ -60,6 +86,10 @@ public class Projectile extends Position{
 			this.deactivate();
 			throw exc;
 		}
+		catch(IllegalPositionException exc){
+			this.deactivate();
+			throw exc;
+		}
 	}
 	
 	
@@ -142,7 +172,23 @@ public class Projectile extends Position{
 		return position;
 	}
 	
-	//TODO documentation
+	/**
+	 * Return the time after which the shot of this projectile ends, because it
+	 * hits impassable terrain, leaves the world or hits a worm.
+	 * 	The projectile first leaves the terrain adjacent to the worm that shot it,
+	 * 	in steps of the given time step. The remainder of its flight is solved by
+	 * 	getFlightTime(double, double).
+	 * 
+	 * @param 	timeStep
+	 * 	 	 	An elementary time interval during which you may assume
+	 *        	that the projectile will not completely move through a piece of impassable terrain.
+	 * @post	| new.getHittedWorm() == the worm hit at the returned time, or null if no worm is hit.
+	 * @throws	NullPointerException()
+	 * 			| getWorld() == null
+	 * @throws	IllegalDirectionException(getDirection())
+	 * 			The projectile hits impassable terrain before it has left the
+	 * 			terrain adjacent to the worm that shot it.
+	 */
 	public double getJumpTime(double timeStep) 
 			throws NullPointerException, IllegalDirectionException{
 		if(this.getWorld() == null)
@@ -160,9 +206,6 @@ public class Projectile extends Position{
 		double tempTime = 0.0;
 		while(this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius) && tempTime < (1/8.0)
 				&& this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
-			if(this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) != null){
-				return tempTime;
-			}
 			tempTime = tempTime + temp;
 			tempXY = getJumpStep(tempTime);
 		}
@@ -174,28 +217,156 @@ public class Projectile extends Position{
 		}
 		//TODO deze exception verschillend aanpakken als een worm gehit is...
 		
-		// if 'temp' is smaller than 1/400000 the projectile will leave the world because there is no
-		// possible adjacent position.
-		while(!this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius) && temp >= (1/400000.0)
-				&& this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
-			while(!this.getWorld().isImpassable(tempXY[0], tempXY[1], radius)
-					&& this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
-				tempTime = tempTime + temp;
-				tempXY = getJumpStep(tempTime);
+		setHittedWorm(this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius));
+		if(getHittedWorm() != null || this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius))
+			return tempTime;
+		return getFlightTime(tempTime, timeStep);
+	}
+	
+	/**
+	 * Return the time at which the flight of this projectile, starting from
+	 * the given time at a passable position, ends.
+	 * 	The flight is followed along the parabola in steps that are as long as
+	 * 	the distance field of the world guarantees to be free of terrain, but never
+	 * 	shorter than the given time step. The first step that ends in impassable
+	 * 	terrain brackets the contact, which is then refined by bisection. Contact
+	 * 	with worms is solved in closed form for each step.
+	 * 
+	 * @param 	startTime
+	 * 			The time at which the flight starts.
+	 * @param 	timeStep
+	 * 			The shortest step to take along the parabola.
+	 * @return	The time of the first contact with a worm, if this contact comes before
+	 * 			the contact with impassable terrain. Otherwise the last time, up to
+	 * 			TIME_PRECISION, at which the projectile is not yet impassable.
+	 * @post	| new.getHittedWorm() == the worm hit at the returned time, or null if no worm is hit.
+	 */
+	@Model
+	private double getFlightTime(double startTime, double timeStep){
+		World world = this.getWorld();
+		double radius = this.getRadius();
+		double horizontalVelocity = getInitialVelocity() * Math.cos(this.getDirection());
+		double verticalVelocity = getInitialVelocity() * Math.sin(this.getDirection());
+		double time = startTime;
+		double[] xy = getJumpStep(time);
+		while(true){
+			double currentVerticalVelocity = verticalVelocity - STANDARD_ACCELERATION * time;
+			double maximalSpeed = Math.sqrt(horizontalVelocity * horizontalVelocity +
+					currentVerticalVelocity * currentVerticalVelocity) + STANDARD_ACCELERATION * MAXIMAL_STEP;
+			double step = world.getClearance(xy[0], xy[1], radius) / maximalSpeed;
+			step = Math.min(MAXIMAL_STEP, Math.max(timeStep, step));
+			double nextTime = time + step;
+			double[] nextXY = getJumpStep(nextTime);
+			
+			double contactTime = Double.POSITIVE_INFINITY;
+			Worm contactWorm = null;
+			double midX = (xy[0] + nextXY[0]) / 2.0;
+			double midY = (xy[1] + nextXY[1]) / 2.0;
+			double stepX = nextXY[0] - xy[0];
+			double stepY = nextXY[1] - xy[1];
+			double reach = Math.sqrt(stepX * stepX + stepY * stepY) / 2.0
+					+ STANDARD_ACCELERATION * step * step / 8.0 + radius;
+			for(Worm worm: world.getWormsNear(midX, midY, reach)){
+				double wormTime = getContactTime(worm, time, nextTime);
+				if(wormTime < contactTime || (wormTime == contactTime && contactWorm != null &&
+						world.getOrderOfWorm(worm) < world.getOrderOfWorm(contactWorm))){
+					contactTime = wormTime;
+					contactWorm = worm;
+				}
+			}
+			
+			if(world.isImpassable(nextXY[0], nextXY[1], radius)){
+				double freeTime = time;
+				double blockedTime = nextTime;
+				while(blockedTime - freeTime > TIME_PRECISION){
+					double middle = (freeTime + blockedTime) / 2.0;
+					double[] middleXY = getJumpStep(middle);
+					if(world.isImpassable(middleXY[0], middleXY[1], radius))
+						blockedTime = middle;
+					else
+						freeTime = middle;
+				}
+				if(contactWorm != null && contactTime <= freeTime){
+					setHittedWorm(contactWorm);
+					return contactTime;
+				}
+				setHittedWorm(null);
+				return freeTime;
 			}
-			temp = temp / 3.0;
-			while(this.getWorld().isImpassable(tempXY[0], tempXY[1], radius)){
-				tempTime = tempTime - temp;
-				tempXY = getJumpStep(tempTime);
+			if(contactWorm != null){
+				setHittedWorm(contactWorm);
+				return contactTime;
 			}
-			temp = temp / 3.0;
+			time = nextTime;
+			xy = nextXY;
 		}
-		
-		setHittedWorm(this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius));
-		
-		return tempTime;
 	}
 	
+	/**
+	 * Return the first time between the given times at which this projectile
+	 * touches the given worm.
+	 * 	The flight between both times is approximated by a straight line, for which
+	 * 	the contact of two circles is solved exactly. The contact time is then refined
+	 * 	along the parabola with Newton's method.
+	 * 
+	 * @param 	worm
+	 * 			The worm to check.
+	 * @param 	startTime
+	 * 			The start of the time interval.
+	 * @param 	endTime
+	 * 			The end of the time interval.
+	 * @return	The first time in the given interval at which the distance between this
+	 * 			projectile and the given worm equals the sum of their radii, or positive
+	 * 			infinity if they do not touch in the given interval.
+	 */
+	@Model
+	private double getContactTime(Worm worm, double startTime, double endTime){
+		double contactDistance = worm.getRadius() + this.getRadius();
+		double wormX = worm.getWormPosition().getX();
+		double wormY = worm.getWormPosition().getY();
+		double[] start = getJumpStep(startTime);
+		double[] end = getJumpStep(endTime);
+		double offsetX = start[0] - wormX;
+		double offsetY = start[1] - wormY;
+		double c = offsetX * offsetX + offsetY * offsetY - contactDistance * contactDistance;
+		if(c <= 0)
+			return startTime;
+		double directionX = end[0] - start[0];
+		double directionY = end[1] - start[1];
+		double a = directionX * directionX + directionY * directionY;
+		double b = 2 * (offsetX * directionX + offsetY * directionY);
+		double discriminant = b * b - 4 * a * c;
+		if(a == 0 || discriminant < 0)
+			return Double.POSITIVE_INFINITY;
+		double fraction = (-b - Math.sqrt(discriminant)) / (2 * a);
+		if(fraction < 0 || fraction > 1)
+			return Double.POSITIVE_INFINITY;
+		double time = startTime + fraction * (endTime - startTime);
+		double horizontalVelocity = getInitialVelocity() * Math.cos(this.getDirection());
+		double verticalVelocity = getInitialVelocity() * Math.sin(this.getDirection());
+		for(int i = 0; i < 3; i++){
+			double[] xy = getJumpStep(time);
+			double dx = xy[0] - wormX;
+			double dy = xy[1] - wormY;
+			double value = dx * dx + dy * dy - contactDistance * contactDistance;
+			double derivative = 2 * (dx * horizontalVelocity + dy * (verticalVelocity - STANDARD_ACCELERATION * time));
+			if(derivative == 0)
+				break;
+			time = Math.min(endTime, Math.max(startTime, time - value / derivative));
+		}
+		return time;
+	}
+	
+	/**
+	 * Final class variable registering the longest step (in seconds) taken along the parabola.
+	 */
+	private final static double MAXIMAL_STEP = 0.01;
+	
+	/**
+	 * Final class variable registering the precision (in seconds) of the time of contact with terrain.
+	 */
+	private final static double TIME_PRECISION = 1/400000.0;
+	
 	/**
 	 * Jump with the projectile, this represents the actual shot of the projectile.
 	 * 
@@ -206,6 +377,8 @@ public class Projectile extends Position{
 	 * 			|					getJumpStep(getJumpTime(timeStep))[1])
 	 * @effect	| if(getHittedWorm() != null)
 	 * 			|	then(getHittedWorm().reduceCurrentHitPoints(this.getDamage()))
+	 * @effect	| if(getCraterRadius() > 0 && the projectile lands inside its world)
+	 * 			|	then getWorld().carveCrater(new.getX(), new.getY(), getCraterRadius())
 	 * @effect	| deactivate()
 	 */
 	public void jump(double timeStep) 
@@ -214,9 +387,21 @@ public class Projectile extends Position{
 		setPosition(tempXY[0],tempXY[1]);
 		if(getHittedWorm() != null)
 			getHittedWorm().reduceCurrentHitPoints(this.getDamage());
+		if(getCraterRadius() > 0 && landsInWorld())
+			getWorld().carveCrater(getX(), getY(), getCraterRadius());
 		deactivate();
 	}
 	
+	/**
+	 * Check whether this projectile lies completely inside its world,
+	 * so that it has hit the terrain or a worm instead of leaving the world.
+	 */
+	@Model
+	private boolean landsInWorld(){
+		return getX() - getRadius() >= 0 && getX() + getRadius() <= getWorld().getWidth() &&
+				getY() - getRadius() >= 0 && getY() + getRadius() <= getWorld().getHeight();
+	}
+	
 	/**
 	 * Sets the initial position of the projectile.
 	 * 
@@ -284,6 +469,19 @@ public class Projectile extends Position{
 	 */
 	private final int damage;
 	
+	/**
+	 * Return the radius of the crater this projectile carves where it lands (in meter).
+	 */
+	@Basic @Raw
+	public double getCraterRadius(){
+		return this.craterRadius;
+	}
+	
+	/**
+	 * Variable registering the radius of the crater this projectile carves.
+	 */
+	private final double craterRadius;
+	
 	
 	
 	/**
@@ -397,4 +595,53 @@ public class Projectile extends Position{
 			return x>=0 && y>=0;
 		return !this.getWorld().isImpassable(x,y,this.getRadius());
 	}
+	
+	
+	
+	/**
+	 * A class registering the state of a projectile, so that it can be restored
+	 * when its world is restored from a snapshot.
+	 */
+	static class State {
+
+		State(Projectile projectile){
+			this.x = projectile.getX();
+			this.y = projectile.getY();
+			this.isActive = projectile.isActive;
+			this.hittedWorm = projectile.hittedWorm;
+		}
+
+		private final double x, y;
+
+		private final boolean isActive;
+
+		private final Worm hittedWorm;
+	}
+	
+	/**
+	 * Give this projectile the given state, and attach it to the given world.
+	 * 
+	 * @param 	state
+	 * 			The state to restore.
+	 * @param 	world
+	 * 			The world to which this projectile is attached, or null.
+	 */
+	@Raw
+	void restore(State state, World world){
+		restorePosition(state.x, state.y);
+		this.isActive = state.isActive;
+		this.hittedWorm = state.hittedWorm;
+		this.world = world;
+	}
+	
+	/**
+	 * Detach this projectile from its world and deactivate it without any checks.
+	 * 	This is only used for a projectile that did not belong to a world yet
+	 * 	when the snapshot from which that world is restored was taken.
+	 */
+	@Raw
+	void detach(){
+		this.world = null;
+		this.isActive = false;
+	}
 }
@@ -0,0 +1,276 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of spatial hash grids, registering elements by the square cell
+ * in which their center lies, so that the elements near a given point
+ * can be found without looking at all elements.
+ * 	Each element also registers the order in which it was added to the grid.
+ *
+ * @param	<T>
+ * 			The type of the elements in the grid.
+ *
+ * @invar	| getCellSize() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class SpatialGrid<T> {
+
+	/**
+	 * Create a new empty spatial grid with the given cell size.
+	 *
+	 * @param 	cellSize
+	 * 			The length of the sides of the cells of this grid (in meter).
+	 * @post	| new.getCellSize() == cellSize
+	 * @post	| new.size() == 0
+	 * @throws	IllegalArgumentException("The given cell size is not valid.")
+	 * 			| !(cellSize > 0)
+	 */
+	public SpatialGrid(double cellSize)
+			throws IllegalArgumentException{
+		if(!(cellSize > 0))
+			throw new IllegalArgumentException("The given cell size is not valid.");
+		this.cellSize = cellSize;
+	}
+
+
+
+	/**
+	 * Return the length of the sides of the cells of this grid (in meter).
+	 */
+	@Basic @Raw @Immutable
+	public double getCellSize(){
+		return this.cellSize;
+	}
+
+	/**
+	 * Variable registering the length of the sides of the cells (in meter).
+	 */
+	private final double cellSize;
+
+
+
+	/**
+	 * Return the number of elements in this grid.
+	 */
+	public int size(){
+		return this.cellOfElement.size();
+	}
+
+	/**
+	 * Check whether this grid contains the given element.
+	 *
+	 * @param 	element
+	 * 			The element to check.
+	 */
+	public boolean contains(T element){
+		return this.cellOfElement.containsKey(element);
+	}
+
+	/**
+	 * Return the order in which the given element was added to this grid.
+	 * 	Elements that were added later have a larger order.
+	 *
+	 * @param 	element
+	 * 			The element of which the order is asked.
+	 * @throws	IllegalArgumentException()
+	 * 			| !contains(element)
+	 */
+	public long getOrder(T element)
+			throws IllegalArgumentException{
+		Long order = this.orderOfElement.get(element);
+		if(order == null)
+			throw new IllegalArgumentException();
+		return order;
+	}
+
+	/**
+	 * Add the given element with the given center to this grid.
+	 *
+	 * @param 	element
+	 * 			The element to add.
+	 * @param 	x
+	 * 			The x-coordinate of the center of the element.
+	 * @param 	y
+	 * 			The y-coordinate of the center of the element.
+	 * @post	| new.contains(element)
+	 * @post	| for each other in T:
+	 * 			|	if(contains(other))
+	 * 			|		then new.getOrder(element) > getOrder(other)
+	 * @throws	IllegalArgumentException()
+	 * 			| element == null || contains(element)
+	 */
+	public void add(T element, double x, double y)
+			throws IllegalArgumentException{
+		if(element == null || contains(element))
+			throw new IllegalArgumentException();
+		long key = getKey(x, y);
+		getOrCreateCell(key).add(element);
+		this.cellOfElement.put(element, key);
+		this.orderOfElement.put(element, this.nextOrder++);
+	}
+
+	/**
+	 * Register the given center as the new center of the given element.
+	 *
+	 * @param 	element
+	 * 			The element that has moved.
+	 * @param 	x
+	 * 			The new x-coordinate of the center of the element.
+	 * @param 	y
+	 * 			The new y-coordinate of the center of the element.
+	 * @throws	IllegalArgumentException()
+	 * 			| !contains(element)
+	 */
+	public void move(T element, double x, double y)
+			throws IllegalArgumentException{
+		Long oldKey = this.cellOfElement.get(element);
+		if(oldKey == null)
+			throw new IllegalArgumentException();
+		long key = getKey(x, y);
+		if(key == oldKey)
+			return;
+		removeFromCell(oldKey, element);
+		getOrCreateCell(key).add(element);
+		this.cellOfElement.put(element, key);
+	}
+
+	/**
+	 * Remove the given element from this grid.
+	 *
+	 * @param 	element
+	 * 			The element to remove.
+	 * @post	| !new.contains(element)
+	 * @throws	IllegalArgumentException()
+	 * 			| !contains(element)
+	 */
+	public void remove(T element)
+			throws IllegalArgumentException{
+		Long key = this.cellOfElement.remove(element);
+		if(key == null)
+			throw new IllegalArgumentException();
+		this.orderOfElement.remove(element);
+		removeFromCell(key, element);
+	}
+
+	/**
+	 * Remove all elements from this grid.
+	 *
+	 * @post	| new.size() == 0
+	 */
+	public void clear(){
+		this.cells.clear();
+		this.cellOfElement.clear();
+		this.orderOfElement.clear();
+		this.nextOrder = 0;
+	}
+
+	/**
+	 * Add all elements of this grid whose center may lie within the given
+	 * distance from the given point to the given collection.
+	 * 	All elements in the cells that overlap the square around the circle with
+	 * 	the given center and distance are added, so the result may contain
+	 * 	elements that lie further away.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate of the point.
+	 * @param 	y
+	 * 			The y-coordinate of the point.
+	 * @param 	distance
+	 * 			The distance within which elements are looked for.
+	 * @param 	result
+	 * 			The collection to which the elements are added.
+	 * @post	| for each element in T:
+	 * 			|	if(contains(element) && distance(center(element), (x,y)) <= distance)
+	 * 			|		then (new result).contains(element)
+	 */
+	public void collect(double x, double y, double distance, Collection<? super T> result){
+		long firstColumn = (long)Math.floor((x - distance) / getCellSize());
+		long lastColumn = (long)Math.floor((x + distance) / getCellSize());
+		long firstRow = (long)Math.floor((y - distance) / getCellSize());
+		long lastRow = (long)Math.floor((y + distance) / getCellSize());
+		if(((double)lastColumn - firstColumn + 1) * ((double)lastRow - firstRow + 1) > this.cells.size()){
+			// more cells overlap the circle than there are non-empty cells
+			for(ArrayList<T> cell: this.cells.values())
+				result.addAll(cell);
+			return;
+		}
+		for(long column = firstColumn; column <= lastColumn; column++){
+			for(long row = firstRow; row <= lastRow; row++){
+				ArrayList<T> cell = this.cells.get(getKey(column, row));
+				if(cell != null)
+					result.addAll(cell);
+			}
+		}
+	}
+
+	/**
+	 * Return the key of the cell in which the given point lies.
+	 */
+	@Model
+	private long getKey(double x, double y){
+		return getKey((long)Math.floor(x / getCellSize()), (long)Math.floor(y / getCellSize()));
+	}
+
+	/**
+	 * Return the key of the cell at the given column and row.
+	 */
+	@Model
+	private static long getKey(long column, long row){
+		return (column << 32) ^ (row & 0xffffffffL);
+	}
+
+	/**
+	 * Return the cell with the given key, creating it if it does not exist yet.
+	 */
+	@Model
+	private ArrayList<T> getOrCreateCell(long key){
+		ArrayList<T> cell = this.cells.get(key);
+		if(cell == null){
+			cell = new ArrayList<T>(2);
+			this.cells.put(key, cell);
+		}
+		return cell;
+	}
+
+	/**
+	 * Remove the given element from the cell with the given key,
+	 * and remove that cell if it becomes empty.
+	 */
+	@Model
+	private void removeFromCell(long key, T element){
+		ArrayList<T> cell = this.cells.get(key);
+		cell.remove(element);
+		if(cell.isEmpty())
+			this.cells.remove(key);
+	}
+
+	/**
+	 * Map registering the non-empty cells of this grid by their key.
+	 */
+	private final HashMap<Long, ArrayList<T>> cells = new HashMap<Long, ArrayList<T>>();
+
+	/**
+	 * Map registering for each element the key of the cell in which it lies.
+	 */
+	private final HashMap<T, Long> cellOfElement = new HashMap<T, Long>();
+
+	/**
+	 * Map registering for each element the order in which it was added.
+	 */
+	private final HashMap<T, Long> orderOfElement = new HashMap<T, Long>();
+
+	/**
+	 * Variable registering the order to give to the next element that is added.
+	 */
+	private long nextOrder = 0;
+}
@@ -0,0 +1,424 @@
+package worms.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of spawn point finders, finding random locations in a world at which
+ * a circle of a given radius is adjacent to impassable terrain.
+ * 	Radii are grouped in classes, of which each next class starts at RADIUS_CLASS_RATIO
+ * 	times the start of the previous one. For each class of radii that is asked for, the
+ * 	finder collects the pixels of the terrain in which a circle with any radius of that
+ * 	class may be adjacent, using the distance field of the world.
+ * 	Spawn points are drawn from those pixels with the random number generator of the world
+ * 	and checked with World.isAdjacent, so the same seed always gives the same spawn points.
+ * 	After a bounded number of checks the finder gives up instead of searching forever.
+ * 	When the terrain of the world changes, only the pixels around the changed rectangle
+ * 	are collected again. The collected pixels are only kept for the classes of radii that
+ * 	were asked for last.
+ * 	For a distance field that computes its distances in tiles, the candidate pixels
+ * 	are not collected, since that would compute every tile and keep an array over the
+ * 	whole terrain. Pixels are then sampled at random instead, a block of the size of a
+ * 	tile at a time, and only the sampled pixels in which such a circle may be adjacent
+ * 	are checked.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class SpawnPointFinder {
+
+	/**
+	 * Create a new spawn point finder for the given world.
+	 *
+	 * @param 	world
+	 * 			The world in which spawn points are looked for.
+	 * @post	| new.getWorld() == world
+	 * @effect	This finder registers a terrain listener with the given world, which
+	 * 			collects the candidate pixels around the changed rectangle again.
+	 * 			| world.addTerrainListener(...)
+	 */
+	public SpawnPointFinder(World world){
+		this.world = world;
+		world.addTerrainListener(new TerrainListener(){
+			@Override
+			public void terrainChanged(World world, double minX, double minY, double maxX, double maxY){
+				updateCandidates(minX, minY, maxX, maxY);
+			}
+		});
+	}
+
+
+
+	/**
+	 * Return the world in which this finder looks for spawn points.
+	 */
+	@Basic @Raw @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Variable referencing the world in which this finder looks for spawn points.
+	 */
+	private final World world;
+
+
+
+	/**
+	 * Return a random location at which a circle with the given radius
+	 * is adjacent to the impassable terrain of the world of this finder.
+	 *
+	 * @param 	radius
+	 * 			The radius of the circle to place.
+	 * @return	| getWorld().isAdjacent(result[0], result[1], radius)
+	 * @throws	IllegalArgumentException("The given radius is not valid.")
+	 * 			| !(radius > 0) || Double.isInfinite(radius)
+	 * @throws	IllegalArgumentException("No adjacent location can be found for the given radius.")
+	 * 			No adjacent location is found within MAXIMAL_NB_ATTEMPTS checks.
+	 */
+	public double[] findSpawnPoint(double radius)
+			throws IllegalArgumentException{
+		int radiusClass = getRadiusClass(radius);
+		if(getWorld().getDistanceField().isTiled())
+			return findSampledSpawnPoint(radius);
+		Candidates candidates = getCandidates(radiusClass);
+		DistanceField field = getWorld().getDistanceField();
+		int nbColumns = field.getNbColumns();
+		double minimalDistance = radius - field.getTolerance();
+		double maximalDistance = radius * 1.1 + field.getTolerance();
+		for(int attempt = 0; attempt < MAXIMAL_NB_ATTEMPTS && candidates.size > 0; attempt++){
+			int cell = candidates.cells[getWorld().getRandom().nextInt(candidates.size)];
+			// the candidates of the class of the radius include pixels in which
+			// only a circle with another radius of that class can be adjacent
+			double distance = field.getDistanceAt(cell / nbColumns, cell % nbColumns);
+			if(distance < minimalDistance || distance > maximalDistance)
+				continue;
+			double[] location = getAdjacentLocation(cell / nbColumns, cell % nbColumns, radius);
+			if(location != null)
+				return location;
+		}
+		throw new IllegalArgumentException("No adjacent location can be found for the given radius.");
+	}
+
+	/**
+	 * Return a random location at which a circle with the given radius is adjacent to
+	 * the impassable terrain of the world of this finder, sampling the pixels of its
+	 * distance field instead of collecting the candidate pixels.
+	 * 	A random block of TILE_SIZE by TILE_SIZE pixels is chosen, of which NB_SAMPLES_PER_BLOCK
+	 * 	random pixels are looked up, so most lookups hit a tile that is already computed.
+	 * 	Every pixel of the terrain is equally likely to be sampled.
+	 *
+	 * @param 	radius
+	 * 			The radius of the circle to place.
+	 * @return	| getWorld().isAdjacent(result[0], result[1], radius)
+	 * @throws	IllegalArgumentException("No adjacent location can be found for the given radius.")
+	 * 			No adjacent location is found within MAXIMAL_NB_ATTEMPTS checks,
+	 * 			or within MAXIMAL_NB_SAMPLED_BLOCKS blocks.
+	 */
+	@Model
+	private double[] findSampledSpawnPoint(double radius)
+			throws IllegalArgumentException{
+		DistanceField field = getWorld().getDistanceField();
+		double tolerance = field.getTolerance();
+		double minimalDistance = radius - tolerance;
+		double maximalDistance = radius * 1.1 + tolerance;
+		int nbBlockRows = (field.getNbRows() + DistanceField.TILE_SIZE - 1) / DistanceField.TILE_SIZE;
+		int nbBlockColumns = (field.getNbColumns() + DistanceField.TILE_SIZE - 1) / DistanceField.TILE_SIZE;
+		int nbAttempts = 0;
+		for(int block = 0; block < MAXIMAL_NB_SAMPLED_BLOCKS && nbAttempts < MAXIMAL_NB_ATTEMPTS; block++){
+			int firstRow = getWorld().getRandom().nextInt(nbBlockRows) * DistanceField.TILE_SIZE;
+			int firstColumn = getWorld().getRandom().nextInt(nbBlockColumns) * DistanceField.TILE_SIZE;
+			for(int sample = 0; sample < NB_SAMPLES_PER_BLOCK && nbAttempts < MAXIMAL_NB_ATTEMPTS; sample++){
+				// blocks at the border are sampled as if they were whole, so that
+				// no pixel is more likely to be sampled than another
+				int row = firstRow + getWorld().getRandom().nextInt(DistanceField.TILE_SIZE);
+				int column = firstColumn + getWorld().getRandom().nextInt(DistanceField.TILE_SIZE);
+				if(row >= field.getNbRows() || column >= field.getNbColumns())
+					continue;
+				double distance = field.getDistanceAt(row, column);
+				if(distance < minimalDistance || distance > maximalDistance)
+					continue;
+				nbAttempts++;
+				double[] location = getAdjacentLocation(row, column, radius);
+				if(location != null)
+					return location;
+			}
+		}
+		throw new IllegalArgumentException("No adjacent location can be found for the given radius.");
+	}
+
+	/**
+	 * Return a random location inside the pixel at the given row and column at which a circle
+	 * with the given radius is adjacent, or null if it is not adjacent at that location.
+	 */
+	@Model
+	private double[] getAdjacentLocation(int row, int column, double radius){
+		DistanceField field = getWorld().getDistanceField();
+		// pixels can be much larger than the band of adjacent locations,
+		// so a random location inside the pixel is checked
+		double x = (column + getWorld().getRandom().nextDouble()) * field.getCellWidth();
+		double y = (field.getNbRows() - row - getWorld().getRandom().nextDouble()) * field.getCellHeight();
+		if(getWorld().isAdjacent(x, y, radius))
+			return new double[] {x, y};
+		return null;
+	}
+
+	/**
+	 * Final class variable registering the maximal number of locations that are checked
+	 * before giving up on finding a spawn point.
+	 */
+	public static final int MAXIMAL_NB_ATTEMPTS = 1000;
+
+	/**
+	 * Final class variable registering the maximal number of blocks that are sampled
+	 * before giving up on finding a spawn point, if the candidate pixels are not collected.
+	 */
+	public static final int MAXIMAL_NB_SAMPLED_BLOCKS = 256;
+
+	/**
+	 * Final class variable registering the number of pixels sampled in each block,
+	 * if the candidate pixels are not collected.
+	 */
+	public static final int NB_SAMPLES_PER_BLOCK = 1024;
+
+	/**
+	 * Return the number of pixels from which spawn points for circles with the given radius are drawn.
+	 * 	These are the candidate pixels of the class of the given radius. For a distance field
+	 * 	that computes its distances in tiles, these pixels are counted tile by tile, without
+	 * 	collecting them.
+	 *
+	 * @param 	radius
+	 * 			The radius of the circles.
+	 * @throws	IllegalArgumentException("The given radius is not valid.")
+	 * 			| !(radius > 0) || Double.isInfinite(radius)
+	 */
+	public int getNbCandidates(double radius)
+			throws IllegalArgumentException{
+		int radiusClass = getRadiusClass(radius);
+		DistanceField field = getWorld().getDistanceField();
+		if(!field.isTiled())
+			return getCandidates(radiusClass).size;
+		double minimalDistance = getMinimalDistance(radiusClass);
+		double maximalDistance = getMaximalDistance(radiusClass);
+		int result = 0;
+		for(int firstRow = 0; firstRow < field.getNbRows(); firstRow += DistanceField.TILE_SIZE)
+			for(int firstColumn = 0; firstColumn < field.getNbColumns(); firstColumn += DistanceField.TILE_SIZE)
+				for(int row = firstRow; row < Math.min(field.getNbRows(), firstRow + DistanceField.TILE_SIZE); row++)
+					for(int column = firstColumn; column < Math.min(field.getNbColumns(), firstColumn + DistanceField.TILE_SIZE); column++){
+						double distance = field.getDistanceAt(row, column);
+						if(distance >= minimalDistance && distance <= maximalDistance)
+							result++;
+					}
+		return result;
+	}
+
+	/**
+	 * Return the class of the given radius: the largest integer k such that
+	 * RADIUS_CLASS_RATIO to the power k is at most the given radius.
+	 *
+	 * @param 	radius
+	 * 			The radius of which the class is returned.
+	 * @throws	IllegalArgumentException("The given radius is not valid.")
+	 * 			| !(radius > 0) || Double.isInfinite(radius)
+	 */
+	@Model
+	private static int getRadiusClass(double radius)
+			throws IllegalArgumentException{
+		if(!(radius > 0) || Double.isInfinite(radius))
+			throw new IllegalArgumentException("The given radius is not valid.");
+		int result = (int)Math.floor(Math.log(radius) / Math.log(RADIUS_CLASS_RATIO));
+		// correct the rounding of the logarithms
+		if(Math.pow(RADIUS_CLASS_RATIO, result) > radius)
+			result--;
+		else if(Math.pow(RADIUS_CLASS_RATIO, result + 1) <= radius)
+			result++;
+		return result;
+	}
+
+	/**
+	 * Return the smallest distance to the terrain of the pixels in which a circle with a
+	 * radius of the given class may be adjacent: the smallest radius of that class, minus
+	 * the tolerance of the distance field.
+	 */
+	@Model
+	private double getMinimalDistance(int radiusClass){
+		return Math.pow(RADIUS_CLASS_RATIO, radiusClass) - getWorld().getDistanceField().getTolerance();
+	}
+
+	/**
+	 * Return the largest distance to the terrain of the pixels in which a circle with a
+	 * radius of the given class may be adjacent: 1.1 times the radius at which the next class
+	 * starts, plus the tolerance of the distance field.
+	 */
+	@Model
+	private double getMaximalDistance(int radiusClass){
+		return Math.pow(RADIUS_CLASS_RATIO, radiusClass + 1) * 1.1 + getWorld().getDistanceField().getTolerance();
+	}
+
+	/**
+	 * Final class variable registering the ratio between the smallest radii of two consecutive classes of radii.
+	 */
+	public static final double RADIUS_CLASS_RATIO = 1.1;
+
+	/**
+	 * Return the candidate pixels for circles with a radius of the given class,
+	 * collecting them if they have not been collected for the current terrain.
+	 */
+	@Model
+	private Candidates getCandidates(int radiusClass){
+		Candidates candidates = this.candidatesByClass.get(radiusClass);
+		if(candidates == null || candidates.terrainVersion != getWorld().getTerrainVersion()){
+			DistanceField field = getWorld().getDistanceField();
+			candidates = collectCandidates(radiusClass, null, 0, field.getNbRows() - 1, 0, field.getNbColumns() - 1);
+			this.candidatesByClass.put(radiusClass, candidates);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Collect the pixels in which a circle with a radius of the given class may be adjacent.
+	 * 	These are the pixels of which the distance to the terrain lies between
+	 * 	getMinimalDistance(radiusClass) and getMaximalDistance(radiusClass).
+	 * 	The pixels in the given rectangle of rows and columns are collected again; the others
+	 * 	are taken over from the given candidates, or not collected if no candidates are given.
+	 * 	The result lists the pixels row by row, as a full collection would list them.
+	 */
+	@Model
+	private Candidates collectCandidates(int radiusClass, Candidates previous,
+			int firstRow, int lastRow, int firstColumn, int lastColumn){
+		DistanceField field = getWorld().getDistanceField();
+		double minimalDistance = getMinimalDistance(radiusClass);
+		double maximalDistance = getMaximalDistance(radiusClass);
+		int nbColumns = field.getNbColumns();
+		int[] cells = new int[(previous == null) ? 16 : Math.max(16, previous.size)];
+		int size = 0;
+		int next = 0;
+		for(int row = firstRow; row <= lastRow; row++){
+			if(previous != null){
+				// take over the candidates before the rectangle, and skip those inside it
+				while(next < previous.size && previous.cells[next] < row * nbColumns + firstColumn){
+					cells = ensureCapacity(cells, size);
+					cells[size++] = previous.cells[next++];
+				}
+				while(next < previous.size && previous.cells[next] <= row * nbColumns + lastColumn)
+					next++;
+			}
+			for(int column = firstColumn; column <= lastColumn; column++){
+				double distance = field.getDistanceAt(row, column);
+				if(distance < minimalDistance || distance > maximalDistance)
+					continue;
+				cells = ensureCapacity(cells, size);
+				cells[size++] = row * nbColumns + column;
+			}
+		}
+		if(previous != null)
+			while(next < previous.size){
+				cells = ensureCapacity(cells, size);
+				cells[size++] = previous.cells[next++];
+			}
+		return new Candidates(getWorld().getTerrainVersion(), cells, size);
+	}
+
+	/**
+	 * Return the given array of cells if it can hold one more cell than the given size,
+	 * or a copy of it twice as large otherwise.
+	 */
+	@Model
+	private static int[] ensureCapacity(int[] cells, int size){
+		if(size < cells.length)
+			return cells;
+		int[] larger = new int[2 * cells.length];
+		System.arraycopy(cells, 0, larger, 0, size);
+		return larger;
+	}
+
+	/**
+	 * Collect the candidate pixels of each class of radii again around the given rectangle,
+	 * after the terrain of the world changed within that rectangle.
+	 * 	A pixel only becomes or stops being a candidate of a class if its distance to the
+	 * 	terrain changes while it is at most getMaximalDistance(radiusClass) before or after the
+	 * 	change, and then it lies within that distance of the changed rectangle.
+	 * 	Only the pixels within that distance, and one more pixel, are collected again.
+	 * 	If those cover most of the terrain, the candidates of the class are dropped instead,
+	 * 	and collected again when they are asked for.
+	 *
+	 * @param 	minX
+	 * 			The smallest x-coordinate of the changed rectangle (in meter).
+	 * @param 	minY
+	 * 			The smallest y-coordinate of the changed rectangle (in meter).
+	 * @param 	maxX
+	 * 			The largest x-coordinate of the changed rectangle (in meter).
+	 * @param 	maxY
+	 * 			The largest y-coordinate of the changed rectangle (in meter).
+	 */
+	@Model
+	private void updateCandidates(double minX, double minY, double maxX, double maxY){
+		if(this.candidatesByClass.isEmpty())
+			return;
+		DistanceField field = getWorld().getDistanceField();
+		int nbRows = field.getNbRows();
+		int nbColumns = field.getNbColumns();
+		Iterator<Map.Entry<Integer, Candidates>> entries = this.candidatesByClass.entrySet().iterator();
+		while(entries.hasNext()){
+			Map.Entry<Integer, Candidates> entry = entries.next();
+			double margin = getMaximalDistance(entry.getKey());
+			int firstColumn = Math.max(0, (int)Math.floor((minX - margin) / field.getCellWidth()) - 1);
+			int lastColumn = Math.min(nbColumns - 1, (int)Math.floor((maxX + margin) / field.getCellWidth()) + 1);
+			int firstRow = Math.max(0, nbRows - (int)Math.ceil((maxY + margin) / field.getCellHeight()) - 1);
+			int lastRow = Math.min(nbRows - 1, nbRows - 1 - (int)Math.floor((minY - margin) / field.getCellHeight()) + 1);
+			if(firstRow > lastRow || firstColumn > lastColumn)
+				entry.setValue(new Candidates(getWorld().getTerrainVersion(), entry.getValue().cells, entry.getValue().size));
+			else if(2L * (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > (long)nbRows * nbColumns)
+				entries.remove();
+			else
+				entry.setValue(collectCandidates(entry.getKey(), entry.getValue(), firstRow, lastRow, firstColumn, lastColumn));
+		}
+	}
+
+	/**
+	 * Map registering the candidate pixels collected for the classes of radii asked for last.
+	 * 	At most MAXIMAL_NB_RADIUS_CLASSES classes are kept, of which the least recently used is
+	 * 	dropped first, so asking for many different radii does not keep an array of candidates
+	 * 	for each of them.
+	 */
+	private final LinkedHashMap<Integer, Candidates> candidatesByClass =
+			new LinkedHashMap<Integer, Candidates>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Candidates> eldest){
+					return size() > MAXIMAL_NB_RADIUS_CLASSES;
+				}
+			};
+
+	/**
+	 * Final class variable registering the maximal number of classes of radii for which candidate pixels are kept.
+	 */
+	public static final int MAXIMAL_NB_RADIUS_CLASSES = 8;
+
+	/**
+	 * A class registering the candidate pixels for one class of radii, as indices in the
+	 * distance field in increasing order, together with the version of the terrain they
+	 * were collected for.
+	 */
+	private static class Candidates {
+
+		private Candidates(long terrainVersion, int[] cells, int size){
+			this.terrainVersion = terrainVersion;
+			this.cells = cells;
+			this.size = size;
+		}
+
+		private final long terrainVersion;
+
+		private final int[] cells;
+
+		private final int size;
+	}
+}
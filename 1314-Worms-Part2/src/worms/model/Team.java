@@ -270,4 +270,50 @@ public class Team {
 	 * Variable referencing the name of the team.
 	 */
 	private final String teamName;
+	
+	
+	
+	/**
+	 * A class registering the state of a team, so that it can be restored
+	 * when its world is restored from a snapshot.
+	 */
+	static class State {
+
+		State(Team team){
+			this.isActive = team.isActive;
+			this.worms = team.teamWorms.toArray(new Worm[team.teamWorms.size()]);
+		}
+
+		private final boolean isActive;
+
+		private final Worm[] worms;
+	}
+	
+	/**
+	 * Give this team the given state, and attach it to the given world.
+	 * 	The worms of the team are restored by the world.
+	 * 
+	 * @param 	state
+	 * 			The state to restore.
+	 * @param 	world
+	 * 			The world to which this team is attached, or null.
+	 */
+	@Raw
+	void restore(State state, World world){
+		this.isActive = state.isActive;
+		this.teamWorms.clear();
+		for(Worm worm: state.worms)
+			this.teamWorms.add(worm);
+		this.world = world;
+	}
+	
+	/**
+	 * Detach this team from its world without any checks.
+	 * 	This is only used for teams that did not belong to a world yet
+	 * 	when the snapshot from which that world is restored was taken.
+	 */
+	@Raw
+	void detach(){
+		this.world = null;
+	}
 }
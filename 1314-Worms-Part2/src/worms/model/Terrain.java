@@ -0,0 +1,700 @@
+package worms.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of terrains involving a number of rows and a number of columns of pixels,
+ * each of which is either passable or impassable.
+ * 	The pixels are stored row by row in words of 64 bits, in which a set bit marks an
+ * 	impassable pixel. Row 0 represents the top of the terrain and column 0 its left side,
+ * 	as in the passable map of a world.
+ * 	Copies of a terrain share its pixels and the distance field, column index and
+ * 	occupancy map derived from them, until either of them is changed: the terrain that changes first takes a private
+ * 	copy of the pixels, so a terrain that is never changed can be shared by any
+ * 	number of worlds, also on different threads.
+ * 	A terrain read from a compiled file can instead be mapped into memory in tiles,
+ * 	of which only a bounded number is mapped at the same time, so the heap used by
+ * 	the terrain does not depend on its size. Such a terrain only takes the tiles
+ * 	that are changed into the heap.
+ *
+ * @invar	| getNbRows() > 0 && getNbColumns() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class Terrain {
+
+	/**
+	 * Create a new terrain with the given number of rows and columns,
+	 * in which all pixels are passable.
+	 *
+	 * @param 	nbRows
+	 * 			The number of rows of this new terrain.
+	 * @param 	nbColumns
+	 * 			The number of columns of this new terrain.
+	 * @post	| new.getNbRows() == nbRows
+	 * @post	| new.getNbColumns() == nbColumns
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column)
+	 * @throws	IllegalArgumentException("The given dimensions are not valid.")
+	 * 			| nbRows <= 0 || nbColumns <= 0
+	 */
+	public Terrain(int nbRows, int nbColumns)
+			throws IllegalArgumentException{
+		if(nbRows <= 0 || nbColumns <= 0)
+			throw new IllegalArgumentException("The given dimensions are not valid.");
+		this.nbRows = nbRows;
+		this.nbColumns = nbColumns;
+		this.wordsPerRow = (nbColumns + 63) >>> 6;
+		this.pixels = new Pixels(new long[nbRows * wordsPerRow]);
+		this.words = pixels.words;
+	}
+
+	/**
+	 * Create a new terrain from the given passable map.
+	 *
+	 * @param 	passableMap
+	 * 			A rectangular matrix in which passableMap[r][c] is true if and only if the
+	 * 			pixel at row r and column c is passable.
+	 * @effect	| this(passableMap.length, passableMap[0].length)
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column) == passableMap[row][column]
+	 */
+	public Terrain(boolean[][] passableMap)
+			throws IllegalArgumentException{
+		this(passableMap.length, passableMap[0].length);
+		for(int row = 0; row < nbRows; row++){
+			for(int column = 0; column < nbColumns; column++){
+				if(!passableMap[row][column])
+					setPassable(row, column, false);
+			}
+		}
+	}
+
+	/**
+	 * Create a new terrain with the same pixels as the given terrain.
+	 * 	The pixels are not copied until one of both terrains is changed.
+	 *
+	 * @param 	other
+	 * 			The terrain to copy.
+	 * @post	| new.getNbRows() == other.getNbRows()
+	 * @post	| new.getNbColumns() == other.getNbColumns()
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column) == other.isPassable(row, column)
+	 */
+	public Terrain(Terrain other){
+		this.nbRows = other.getNbRows();
+		this.nbColumns = other.getNbColumns();
+		this.wordsPerRow = other.wordsPerRow;
+		if(other.tiles != null){
+			this.tiles = new TerrainTiles(other.tiles);
+			return;
+		}
+		if(!other.shared)
+			other.shared = true;
+		this.pixels = other.pixels;
+		this.words = other.words;
+		this.shared = true;
+	}
+
+
+
+	/**
+	 * Return the number of rows of this terrain.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of this terrain.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of this terrain.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * Variable registering the number of columns of this terrain.
+	 */
+	private final int nbColumns;
+
+
+
+	/**
+	 * Check whether the pixel at the given row and column is passable.
+	 *
+	 * @param 	row
+	 * 			The row of the pixel to check.
+	 * @param 	column
+	 * 			The column of the pixel to check.
+	 */
+	@Basic @Raw
+	public boolean isPassable(int row, int column){
+		if(tiles != null)
+			return (tiles.getWord(row, column >>> 6) & (1L << column)) == 0;
+		return (words[row * wordsPerRow + (column >>> 6)] & (1L << column)) == 0;
+	}
+
+	/**
+	 * Check whether all pixels of the given row between the given columns are passable.
+	 *
+	 * @param 	row
+	 * 			The row of the pixels to check.
+	 * @param 	firstColumn
+	 * 			The first column to check.
+	 * @param 	lastColumn
+	 * 			The last column to check (inclusive).
+	 * @return	| result == for each column in firstColumn..lastColumn:
+	 * 			|	isPassable(row, column)
+	 */
+	public boolean isPassable(int row, int firstColumn, int lastColumn){
+		return getNextImpassableColumn(row, firstColumn, lastColumn) > lastColumn;
+	}
+
+	/**
+	 * Return the first impassable column of the given row, starting from the given column.
+	 * 	The row is scanned a word of 64 pixels at a time.
+	 *
+	 * @param 	row
+	 * 			The row to scan.
+	 * @param 	firstColumn
+	 * 			The first column to scan.
+	 * @param 	lastColumn
+	 * 			The last column to scan (inclusive).
+	 * @return	The smallest column c with firstColumn <= c <= lastColumn and !isPassable(row, c),
+	 * 			or lastColumn + 1 if there is no such column.
+	 */
+	public int getNextImpassableColumn(int row, int firstColumn, int lastColumn){
+		if(firstColumn > lastColumn)
+			return lastColumn + 1;
+		int firstWord = firstColumn >>> 6;
+		int lastWord = lastColumn >>> 6;
+		long word = getWord(row, firstWord) & (-1L << firstColumn);
+		for(int index = firstWord; ; ){
+			if(index == lastWord)
+				word &= lastMask(lastColumn);
+			if(word != 0)
+				return (index << 6) + Long.numberOfTrailingZeros(word);
+			if(++index > lastWord)
+				return lastColumn + 1;
+			word = getWord(row, index);
+		}
+	}
+
+	/**
+	 * Return the first impassable row of the given column between the given rows,
+	 * scanning downwards.
+	 *
+	 * @param 	column
+	 * 			The column to scan.
+	 * @param 	firstRow
+	 * 			The first row to scan.
+	 * @param 	lastRow
+	 * 			The last row to scan (inclusive).
+	 * @return	The smallest row r with firstRow <= r <= lastRow and !isPassable(r, column),
+	 * 			or lastRow + 1 if there is no such row.
+	 */
+	public int getNextImpassableRow(int column, int firstRow, int lastRow){
+		int index = column >>> 6;
+		long bit = 1L << column;
+		for(int row = firstRow; row <= lastRow; row++)
+			if((getWord(row, index) & bit) != 0)
+				return row;
+		return lastRow + 1;
+	}
+
+	/**
+	 * Return the first impassable row of each of a range of columns, starting from
+	 * a given row for each column and scanning downwards.
+	 * 	The columns are scanned together, a word of 64 pixels of a row at a time.
+	 *
+	 * @param 	firstColumn
+	 * 			The first column of the range.
+	 * @param 	firstRows
+	 * 			The first row to scan in each column of the range, in order.
+	 * @param 	lastRow
+	 * 			The last row to scan (inclusive).
+	 * @return	| result.length == firstRows.length &&
+	 * 			| for each index in 0..firstRows.length-1:
+	 * 			|	result[index] == getNextImpassableRow(firstColumn + index,
+	 * 			|		firstRows[index], lastRow)
+	 */
+	public int[] getNextImpassableRows(int firstColumn, int[] firstRows, int lastRow){
+		int nbColumnsScanned = firstRows.length;
+		int[] result = new int[nbColumnsScanned];
+		Arrays.fill(result, lastRow + 1);
+		if(nbColumnsScanned == 0)
+			return result;
+		int firstWord = firstColumn >>> 6;
+		int lastWord = (firstColumn + nbColumnsScanned - 1) >>> 6;
+		// the columns are added to the scan in the order of their first row
+		long[] starts = new long[nbColumnsScanned];
+		for(int index = 0; index < nbColumnsScanned; index++)
+			starts[index] = ((long)firstRows[index] << 32) | index;
+		Arrays.sort(starts);
+		long[] scanned = new long[lastWord - firstWord + 1];
+		int nbScanned = 0, next = 0;
+		for(int row = firstRows[(int)starts[0]]; row <= lastRow; row++){
+			for(; next < nbColumnsScanned && (int)(starts[next] >>> 32) <= row; next++){
+				int column = firstColumn + (int)starts[next];
+				scanned[(column >>> 6) - firstWord] |= 1L << column;
+				nbScanned++;
+			}
+			if(nbScanned == 0){
+				if(next == nbColumnsScanned)
+					break;
+				row = (int)(starts[next] >>> 32) - 1;
+				continue;
+			}
+			for(int index = 0; index < scanned.length; index++){
+				long hits = scanned[index] & getWord(row, firstWord + index);
+				scanned[index] &= ~hits;
+				for(; hits != 0; hits &= hits - 1){
+					result[((firstWord + index) << 6) + Long.numberOfTrailingZeros(hits) - firstColumn] = row;
+					nbScanned--;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the word with the given index in the given row, in which bit (c mod 64)
+	 * is set if and only if the pixel in column 64 * index + (c mod 64) is impassable.
+	 */
+	long getWord(int row, int index){
+		if(tiles != null)
+			return tiles.getWord(row, index);
+		return words[row * wordsPerRow + index];
+	}
+
+	/**
+	 * Return the mask selecting the bits up to and including the given column within its word.
+	 */
+	@Model
+	private static long lastMask(int column){
+		return -1L >>> (63 - (column & 63));
+	}
+
+	/**
+	 * Set the pixel at the given row and column to be passable or impassable.
+	 *
+	 * @param 	row
+	 * 			The row of the pixel to set.
+	 * @param 	column
+	 * 			The column of the pixel to set.
+	 * @param 	passable
+	 * 			Whether the pixel must be passable.
+	 * @post	| new.isPassable(row, column) == passable
+	 */
+	@Raw
+	public void setPassable(int row, int column, boolean passable){
+		if(tiles != null){
+			long word = tiles.getWord(row, column >>> 6);
+			tiles.setWord(row, column >>> 6, passable ? word & ~(1L << column) : word | (1L << column));
+			return;
+		}
+		if(shared){
+			this.pixels = new Pixels(this.words.clone());
+			this.words = pixels.words;
+			this.shared = false;
+		}
+		else if(pixels.distanceField != null || pixels.columnIndex != null || pixels.occupancyMap != null){
+			synchronized(pixels){
+				pixels.distanceField = null;
+				pixels.columnIndex = null;
+				pixels.occupancyMap = null;
+			}
+		}
+		int index = row * wordsPerRow + (column >>> 6);
+		if(passable)
+			words[index] &= ~(1L << column);
+		else
+			words[index] |= (1L << column);
+	}
+
+	/**
+	 * Give this terrain the same pixels as the given terrain.
+	 * 	The pixels are not copied until one of both terrains is changed.
+	 *
+	 * @param 	other
+	 * 			The terrain of which the pixels are taken over.
+	 * @post	| for each row, column:
+	 * 			|	new.isPassable(row, column) == other.isPassable(row, column)
+	 * @throws	IllegalArgumentException("The given terrain does not have the dimensions of this terrain.")
+	 * 			| other.getNbRows() != getNbRows() || other.getNbColumns() != getNbColumns()
+	 */
+	public void setPixels(Terrain other)
+			throws IllegalArgumentException{
+		if(other.getNbRows() != getNbRows() || other.getNbColumns() != getNbColumns())
+			throw new IllegalArgumentException("The given terrain does not have the dimensions of this terrain.");
+		if(other == this)
+			return;
+		if(other.tiles != null){
+			this.tiles = new TerrainTiles(other.tiles);
+			return;
+		}
+		if(!other.shared)
+			other.shared = true;
+		this.pixels = other.pixels;
+		this.words = other.words;
+		this.shared = true;
+	}
+
+	/**
+	 * Return a new passable map with the contents of this terrain.
+	 *
+	 * @return	| result.length == getNbRows() && result[0].length == getNbColumns()
+	 * @return	| for each row, column:
+	 * 			|	result[row][column] == isPassable(row, column)
+	 */
+	public boolean[][] toPassableMap(){
+		boolean[][] result = new boolean[nbRows][nbColumns];
+		for(int row = 0; row < nbRows; row++){
+			for(int column = 0; column < nbColumns; column++)
+				result[row][column] = isPassable(row, column);
+		}
+		return result;
+	}
+
+	/**
+	 * Variable registering the number of words used for a single row.
+	 */
+	private final int wordsPerRow;
+
+	/**
+	 * Variable registering the pixels of this terrain, row by row, 64 pixels per word.
+	 * 	Bit (c mod 64) of word (r * wordsPerRow + c / 64) is set if and only if the pixel
+	 * 	at row r and column c is impassable.
+	 * 	This is the array of words of the pixels of this terrain, referenced directly
+	 * 	because it is read by every query.
+	 */
+	private long[] words;
+
+	/**
+	 * Variable referencing the pixels of this terrain, which may be shared with other terrains.
+	 */
+	private Pixels pixels;
+
+	/**
+	 * Variable referencing the tiles in which the pixels of this terrain are mapped into memory,
+	 * or null if the pixels of this terrain are kept in the heap.
+	 */
+	private TerrainTiles tiles = null;
+
+	/**
+	 * Variable registering whether the pixels of this terrain may be shared with other terrains,
+	 * in which case they must be copied before this terrain is changed.
+	 */
+	private volatile boolean shared = false;
+
+	/**
+	 * A class registering the words of the pixels of one or more terrains
+	 * together with the distance field, column index and occupancy map
+	 * computed for them, if any.
+	 */
+	private static class Pixels {
+
+		private Pixels(long[] words){
+			this.words = words;
+		}
+
+		private final long[] words;
+
+		private DistanceField distanceField = null;
+
+		private ColumnIndex columnIndex = null;
+
+		private OccupancyMap occupancyMap = null;
+	}
+
+
+
+	/**
+	 * Return a new distance field for this terrain, which covers a rectangular area
+	 * with the given width and height.
+	 * 	The distances are computed once for the pixels of this terrain and shared
+	 * 	by the distance fields returned for this terrain and its unchanged copies,
+	 * 	until such a distance field is updated.
+	 * 	For terrains that are mapped into memory in tiles, or that have more than
+	 * 	MAXIMAL_NB_PIXELS_WITH_DISTANCES pixels, the distance field computes its
+	 * 	distances in tiles when they are needed instead.
+	 *
+	 * @param 	width
+	 * 			The width of the area covered by this terrain (in meter).
+	 * @param 	height
+	 * 			The height of the area covered by this terrain (in meter).
+	 * @return	| result.getDistance(x, y) == new DistanceField(this, width, height).getDistance(x, y)
+	 */
+	public DistanceField createDistanceField(double width, double height){
+		if(!hasDistancesInHeap())
+			return DistanceField.createTiled(this, width, height);
+		Pixels pixels = this.pixels;
+		synchronized(pixels){
+			if(pixels.distanceField == null || !pixels.distanceField.covers(width, height))
+				pixels.distanceField = new DistanceField(this, width, height);
+			return new DistanceField(pixels.distanceField);
+		}
+	}
+
+
+
+	/**
+	 * Return a new column index for this terrain.
+	 * 	The transitions are computed once for the pixels of this terrain and shared
+	 * 	by the column indices returned for this terrain and its unchanged copies,
+	 * 	until such a column index is updated.
+	 * 	For terrains that are mapped into memory in tiles, no column index is kept,
+	 * 	since it would take every tile into the heap.
+	 *
+	 * @return	| if(the pixels of this terrain are mapped into memory in tiles)
+	 * 			|	then result == null
+	 * @return	| if(the pixels of this terrain are kept in the heap)
+	 * 			|	then for each row, column:
+	 * 			|		result.isPassable(row, column) == isPassable(row, column)
+	 */
+	public ColumnIndex createColumnIndex(){
+		if(tiles != null)
+			return null;
+		Pixels pixels = this.pixels;
+		synchronized(pixels){
+			if(pixels.columnIndex == null)
+				pixels.columnIndex = new ColumnIndex(this);
+			return new ColumnIndex(pixels.columnIndex);
+		}
+	}
+
+	/**
+	 * Return a new occupancy map for this terrain.
+	 * 	The blocks are classified once for the pixels of this terrain and shared
+	 * 	by the occupancy maps returned for this terrain and its unchanged copies,
+	 * 	until such an occupancy map is updated.
+	 * 	For terrains that are mapped into memory in tiles, no occupancy map is kept,
+	 * 	since it would take every tile into the heap.
+	 *
+	 * @return	| if(the pixels of this terrain are mapped into memory in tiles)
+	 * 			|	then result == null
+	 * @return	| if(the pixels of this terrain are kept in the heap)
+	 * 			|	then for each firstRow, firstColumn, lastRow, lastColumn:
+	 * 			|		result.getOccupancy(this, firstRow, firstColumn, lastRow, lastColumn) ==
+	 * 			|			new OccupancyMap(this).getOccupancy(this, firstRow, firstColumn, lastRow, lastColumn)
+	 */
+	public OccupancyMap createOccupancyMap(){
+		if(tiles != null)
+			return null;
+		Pixels pixels = this.pixels;
+		synchronized(pixels){
+			if(pixels.occupancyMap == null)
+				pixels.occupancyMap = new OccupancyMap(this);
+			return new OccupancyMap(pixels.occupancyMap);
+		}
+	}
+
+
+
+	/**
+	 * Check whether the distance field of this terrain is kept in the heap as a whole.
+	 */
+	@Model
+	private boolean hasDistancesInHeap(){
+		return tiles == null && (long)nbRows * nbColumns <= MAXIMAL_NB_PIXELS_WITH_DISTANCES;
+	}
+
+	/**
+	 * Final class variable registering the maximal number of pixels of a terrain
+	 * of which the distance field is computed and kept as a whole.
+	 */
+	public static final long MAXIMAL_NB_PIXELS_WITH_DISTANCES = 1L << 25;
+
+
+
+	/**
+	 * Return the number of bytes written by write(ByteBuffer, double, double) for this terrain.
+	 * 	The distances of the distance field are only written for terrains of which
+	 * 	the distance field is kept in the heap as a whole.
+	 */
+	public long getCompiledSize(){
+		long size = HEADER_SIZE + 8L * nbRows * wordsPerRow;
+		if(hasDistancesInHeap())
+			size += 4L * nbRows * nbColumns;
+		return size;
+	}
+
+	/**
+	 * Write this terrain to the given buffer, together with its distance field
+	 * for a rectangular area with the given width and height.
+	 * 	The buffer receives the number of rows and columns, the width and height,
+	 * 	whether the distances follow, the words of the pixels row by row and,
+	 * 	if the distance field is kept in the heap as a whole, its distances.
+	 *
+	 * @param 	buffer
+	 * 			The buffer to write to, which must have getCompiledSize() bytes remaining.
+	 * @param 	width
+	 * 			The width of the area covered by this terrain (in meter).
+	 * @param 	height
+	 * 			The height of the area covered by this terrain (in meter).
+	 */
+	public void write(ByteBuffer buffer, double width, double height){
+		boolean withDistances = hasDistancesInHeap();
+		buffer.putInt(nbRows).putInt(nbColumns).putDouble(width).putDouble(height).putInt(withDistances ? 1 : 0);
+		writePixels(buffer);
+		if(withDistances)
+			createDistanceField(width, height).write(buffer);
+	}
+
+	/**
+	 * Write the header of a terrain with the given number of rows and columns, of which
+	 * the distances are not written, to the given buffer.
+	 * 	Together with the pixels of that terrain, written a strip of rows at a time by
+	 * 	writePixels(ByteBuffer) for terrains with the rows of each strip, this gives the
+	 * 	format written by write(ByteBuffer, double, double), without having the whole
+	 * 	terrain in the heap at any time.
+	 *
+	 * @param 	buffer
+	 * 			The buffer to write to, which must have at least HEADER_SIZE bytes remaining.
+	 * @param 	nbRows
+	 * 			The number of rows of the terrain.
+	 * @param 	nbColumns
+	 * 			The number of columns of the terrain.
+	 * @param 	width
+	 * 			The width of the area covered by the terrain (in meter).
+	 * @param 	height
+	 * 			The height of the area covered by the terrain (in meter).
+	 * @throws	IllegalArgumentException("The given dimensions are not valid.")
+	 * 			| nbRows <= 0 || nbColumns <= 0 || width <= 0 || height <= 0
+	 */
+	public static void writeHeader(ByteBuffer buffer, int nbRows, int nbColumns, double width, double height)
+			throws IllegalArgumentException{
+		if(!isValidHeader(nbRows, nbColumns, width, height))
+			throw new IllegalArgumentException("The given dimensions are not valid.");
+		buffer.putInt(nbRows).putInt(nbColumns).putDouble(width).putDouble(height).putInt(0);
+	}
+
+	/**
+	 * Write the words of the pixels of this terrain to the given buffer, row by row.
+	 *
+	 * @param 	buffer
+	 * 			The buffer to write to, which must have 8 * getNbRows() * ((getNbColumns() + 63) / 64)
+	 * 			bytes remaining.
+	 */
+	public void writePixels(ByteBuffer buffer){
+		if(tiles == null){
+			buffer.asLongBuffer().put(this.words);
+			buffer.position(buffer.position() + 8 * this.words.length);
+		}
+		else{
+			for(int row = 0; row < nbRows; row++)
+				for(int index = 0; index < wordsPerRow; index++)
+					buffer.putLong(tiles.getWord(row, index));
+		}
+	}
+
+	/**
+	 * Return a new terrain read from the given buffer, of which the distance field
+	 * for the width and height read from the buffer is read as well, if it was written.
+	 *
+	 * @param 	buffer
+	 * 			The buffer to read from, in the format written by write(ByteBuffer, double, double).
+	 * @return	| result.createDistanceField(width, height) does not compute the distances again,
+	 * 			| if they were written
+	 * @throws	IllegalArgumentException("The given buffer does not hold a valid terrain.")
+	 * 			The buffer does not hold a terrain in the right format.
+	 */
+	public static Terrain read(ByteBuffer buffer)
+			throws IllegalArgumentException{
+		try{
+			int nbRows = buffer.getInt();
+			int nbColumns = buffer.getInt();
+			double width = buffer.getDouble();
+			double height = buffer.getDouble();
+			boolean withDistances = buffer.getInt() != 0;
+			if(!isValidHeader(nbRows, nbColumns, width, height) ||
+					(long)nbRows * ((nbColumns + 63) >>> 6) * 8 > buffer.remaining())
+				throw new IllegalArgumentException("The given buffer does not hold a valid terrain.");
+			Terrain result = new Terrain(nbRows, nbColumns);
+			buffer.asLongBuffer().get(result.words);
+			buffer.position(buffer.position() + 8 * result.words.length);
+			if(withDistances)
+				result.pixels.distanceField = DistanceField.read(buffer, result, width, height);
+			return result;
+		}
+		catch(BufferUnderflowException exc){
+			throw new IllegalArgumentException("The given buffer does not hold a valid terrain.");
+		}
+	}
+
+	/**
+	 * Return a new terrain of which the pixels are mapped into memory in tiles
+	 * from the given file, in which a terrain was written from the given position on
+	 * in the format written by write(ByteBuffer, double, double).
+	 * 	The file must not be changed or closed as long as the terrain is used.
+	 *
+	 * @param 	channel
+	 * 			The file from which the terrain is mapped.
+	 * @param 	position
+	 * 			The position in the file at which the terrain starts.
+	 * @return	| for each row, column:
+	 * 			|	result.isPassable(row, column) == read(buffer at position).isPassable(row, column)
+	 * @throws	IllegalArgumentException("The given file does not hold a valid terrain.")
+	 * 			The file does not hold a terrain in the right format at the given position.
+	 * @throws	IOException
+	 * 			The file could not be read.
+	 */
+	public static Terrain map(FileChannel channel, long position)
+			throws IllegalArgumentException, IOException{
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while(header.hasRemaining())
+			if(channel.read(header, position + header.position()) < 0)
+				throw new IllegalArgumentException("The given file does not hold a valid terrain.");
+		header.flip();
+		int nbRows = header.getInt();
+		int nbColumns = header.getInt();
+		double width = header.getDouble();
+		double height = header.getDouble();
+		if(!isValidHeader(nbRows, nbColumns, width, height) ||
+				position + HEADER_SIZE + 8L * nbRows * ((nbColumns + 63) >>> 6) > channel.size())
+			throw new IllegalArgumentException("The given file does not hold a valid terrain.");
+		return new Terrain(nbRows, nbColumns, new TerrainTiles(channel, position + HEADER_SIZE, nbRows, (nbColumns + 63) >>> 6));
+	}
+
+	/**
+	 * Create a new terrain with the given number of rows and columns,
+	 * of which the pixels are kept in the given tiles.
+	 */
+	@Model
+	private Terrain(int nbRows, int nbColumns, TerrainTiles tiles){
+		this.nbRows = nbRows;
+		this.nbColumns = nbColumns;
+		this.wordsPerRow = (nbColumns + 63) >>> 6;
+		this.tiles = tiles;
+	}
+
+	/**
+	 * Check whether the given values read from a compiled terrain are valid.
+	 */
+	@Model
+	private static boolean isValidHeader(int nbRows, int nbColumns, double width, double height){
+		return nbRows > 0 && nbColumns > 0 && width > 0 && height > 0;
+	}
+
+	/**
+	 * Final class variable registering the number of bytes written before the words of a terrain.
+	 */
+	public static final int HEADER_SIZE = 28;
+}
@@ -0,0 +1,28 @@
+package worms.model;
+
+/**
+ * An interface for listeners that want to be notified whenever
+ * the terrain of a world changes.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public interface TerrainListener {
+
+	/**
+	 * Notify this listener that the terrain of the given world has changed
+	 * within the given rectangle. The terrain outside that rectangle is unchanged.
+	 *
+	 * @param 	world
+	 * 			The world of which the terrain has changed.
+	 * @param 	minX
+	 * 			The smallest x-coordinate of the changed rectangle (in meter).
+	 * @param 	minY
+	 * 			The smallest y-coordinate of the changed rectangle (in meter).
+	 * @param 	maxX
+	 * 			The largest x-coordinate of the changed rectangle (in meter).
+	 * @param 	maxY
+	 * 			The largest y-coordinate of the changed rectangle (in meter).
+	 */
+	void terrainChanged(World world, double minX, double minY, double maxX, double maxY);
+}
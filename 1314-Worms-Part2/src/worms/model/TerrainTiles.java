@@ -0,0 +1,148 @@
+package worms.model;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of tiled stores of the words of the pixels of a terrain, which are
+ * read from a file that is mapped into memory one tile at a time.
+ * 	Each tile consists of ROWS_PER_TILE complete rows of words. At most
+ * 	MAXIMAL_NB_MAPPED_TILES tiles are mapped at the same time; the least recently
+ * 	used tile is unmapped first. A tile is copied into the heap the first time
+ * 	one of its words is changed, and the file itself is never changed.
+ * 	A store is confined to the terrain that owns it.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class TerrainTiles {
+
+	/**
+	 * Create a new tiled store for the words of a terrain with the given number of rows
+	 * and words per row, stored row by row in the given file from the given position on.
+	 */
+	TerrainTiles(FileChannel channel, long position, int nbRows, int wordsPerRow){
+		this.channel = channel;
+		this.position = position;
+		this.nbRows = nbRows;
+		this.wordsPerRow = wordsPerRow;
+		this.mappedTiles = createMappedTiles();
+	}
+
+	/**
+	 * Create a new tiled store with the same words as the given store,
+	 * which maps tiles of the same file but keeps its own changed tiles.
+	 */
+	TerrainTiles(TerrainTiles other){
+		this(other.channel, other.position, other.nbRows, other.wordsPerRow);
+		for(Integer tile: other.changedTiles.keySet())
+			this.changedTiles.put(tile, other.changedTiles.get(tile).clone());
+	}
+
+	/**
+	 * Return the word with the given index in the given row.
+	 */
+	long getWord(int row, int index){
+		int tile = row / ROWS_PER_TILE;
+		if(tile != this.lastTile)
+			selectTile(tile);
+		int offset = (row - tile * ROWS_PER_TILE) * wordsPerRow + index;
+		return (this.lastChangedWords != null) ? this.lastChangedWords[offset] : this.lastMappedWords.get(offset);
+	}
+
+	/**
+	 * Set the word with the given index in the given row to the given word.
+	 */
+	void setWord(int row, int index, long word){
+		int tile = row / ROWS_PER_TILE;
+		long[] words = this.changedTiles.get(tile);
+		if(words == null){
+			LongBuffer mapped = this.mappedTiles.get(tile).duplicate();
+			mapped.clear();
+			words = new long[mapped.capacity()];
+			mapped.get(words);
+			this.changedTiles.put(tile, words);
+			this.mappedTiles.invalidate(tile);
+			this.lastTile = -1;
+		}
+		words[(row - tile * ROWS_PER_TILE) * wordsPerRow + index] = word;
+	}
+
+	/**
+	 * Make the tile with the given index the tile of which words are looked up first.
+	 */
+	@Model
+	private void selectTile(int tile){
+		this.lastChangedWords = this.changedTiles.get(tile);
+		this.lastMappedWords = (this.lastChangedWords == null) ? this.mappedTiles.get(tile) : null;
+		this.lastTile = tile;
+	}
+
+	/**
+	 * Return a new cache of the tiles mapped from the file of this store.
+	 */
+	@Model
+	private TileCache<LongBuffer> createMappedTiles(){
+		return new TileCache<LongBuffer>(MAXIMAL_NB_MAPPED_TILES) {
+			@Override
+			protected LongBuffer load(int tile){
+				int firstRow = tile * ROWS_PER_TILE;
+				int nbTileRows = Math.min(ROWS_PER_TILE, nbRows - firstRow);
+				try{
+					return channel.map(FileChannel.MapMode.READ_ONLY,
+							position + 8L * firstRow * wordsPerRow, 8L * nbTileRows * wordsPerRow).asLongBuffer();
+				}
+				catch(IOException exc){
+					throw new IllegalStateException("The terrain file can no longer be read.", exc);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Variable referencing the file from which the words are read.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Variable registering the position of the first word in the file.
+	 */
+	private final long position;
+
+	/**
+	 * Variables registering the number of rows and the number of words per row.
+	 */
+	private final int nbRows, wordsPerRow;
+
+	/**
+	 * Variable referencing the cache of the tiles mapped from the file.
+	 */
+	private final TileCache<LongBuffer> mappedTiles;
+
+	/**
+	 * Map registering the tiles that have been changed, by their index.
+	 */
+	private final HashMap<Integer, long[]> changedTiles = new HashMap<Integer, long[]>();
+
+	/**
+	 * Variables referencing the tile of which words were last looked up,
+	 * either as a changed tile or as a mapped tile.
+	 */
+	private int lastTile = -1;
+	private long[] lastChangedWords = null;
+	private LongBuffer lastMappedWords = null;
+
+	/**
+	 * Final class variable registering the number of rows of words in a tile.
+	 */
+	static final int ROWS_PER_TILE = 64;
+
+	/**
+	 * Final class variable registering the maximal number of tiles that are mapped at the same time.
+	 */
+	static final int MAXIMAL_NB_MAPPED_TILES = 64;
+}
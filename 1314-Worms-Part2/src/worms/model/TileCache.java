@@ -0,0 +1,118 @@
+package worms.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of caches of tiles, loading tiles by their index when they are asked for
+ * and keeping at most a given number of them, of which the least recently used
+ * tile is dropped first.
+ *
+ * @param	<T>
+ * 			The type of the tiles in the cache.
+ *
+ * @invar	| getMaximalSize() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public abstract class TileCache<T> {
+
+	/**
+	 * Create a new empty tile cache keeping at most the given number of tiles.
+	 *
+	 * @param 	maximalSize
+	 * 			The maximal number of tiles in this cache.
+	 * @post	| new.getMaximalSize() == maximalSize
+	 * @throws	IllegalArgumentException("The given size is not valid.")
+	 * 			| maximalSize <= 0
+	 */
+	protected TileCache(final int maximalSize)
+			throws IllegalArgumentException{
+		if(maximalSize <= 0)
+			throw new IllegalArgumentException("The given size is not valid.");
+		this.maximalSize = maximalSize;
+		this.tiles = new LinkedHashMap<Integer, T>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest){
+				return size() > maximalSize;
+			}
+		};
+	}
+
+
+
+	/**
+	 * Return the maximal number of tiles in this cache.
+	 */
+	@Basic @Immutable
+	public int getMaximalSize(){
+		return this.maximalSize;
+	}
+
+	/**
+	 * Variable registering the maximal number of tiles in this cache.
+	 */
+	private final int maximalSize;
+
+	/**
+	 * Return the tile with the given index, loading it if it is not in this cache.
+	 *
+	 * @param 	index
+	 * 			The index of the tile.
+	 * @return	| result == load(index), if the tile was not in this cache
+	 */
+	public T get(int index){
+		T tile = this.tiles.get(index);
+		if(tile == null){
+			tile = load(index);
+			this.tiles.put(index, tile);
+		}
+		return tile;
+	}
+
+	/**
+	 * Remove the tile with the given index from this cache, so it is loaded again
+	 * the next time it is asked for.
+	 *
+	 * @param 	index
+	 * 			The index of the tile.
+	 */
+	public void invalidate(int index){
+		this.tiles.remove(index);
+	}
+
+	/**
+	 * Remove all tiles from this cache, so they are loaded again the next time
+	 * they are asked for.
+	 */
+	public void clear(){
+		this.tiles.clear();
+	}
+
+	/**
+	 * Return the number of tiles in this cache.
+	 */
+	public int size(){
+		return this.tiles.size();
+	}
+
+	/**
+	 * Load the tile with the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the tile.
+	 */
+	protected abstract T load(int index);
+
+	/**
+	 * Map registering the tiles in this cache by their index, from the least
+	 * to the most recently used tile.
+	 */
+	private final LinkedHashMap<Integer, T> tiles;
+}
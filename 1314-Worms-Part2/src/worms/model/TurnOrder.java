@@ -0,0 +1,174 @@
+package worms.model;
+
+import java.util.HashMap;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of turn orders, registering elements in a circular order in which
+ * they were added, so that the element after a given element can be found,
+ * and elements can be added and removed, in constant time.
+ * 	The order is kept as a doubly linked ring of which each element references
+ * 	the elements before and after it.
+ *
+ * @param	<T>
+ * 			The type of the elements in the turn order.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class TurnOrder<T> {
+
+	/**
+	 * Return the number of elements in this turn order.
+	 */
+	public int size(){
+		return this.next.size();
+	}
+
+	/**
+	 * Check whether this turn order contains the given element.
+	 *
+	 * @param 	element
+	 * 			The element to check.
+	 */
+	public boolean contains(T element){
+		return this.next.containsKey(element);
+	}
+
+	/**
+	 * Return the element that was added first among the elements of this turn order,
+	 * or null if this turn order is empty.
+	 */
+	public T getFirst(){
+		if(getLast() == null)
+			return null;
+		return this.next.get(getLast());
+	}
+
+	/**
+	 * Return the element that was added last among the elements of this turn order,
+	 * or null if this turn order is empty.
+	 */
+	@Basic @Raw
+	public T getLast(){
+		return this.last;
+	}
+
+	/**
+	 * Variable referencing the element that was added last.
+	 */
+	private T last = null;
+
+	/**
+	 * Return the element that comes after the given element.
+	 * 	The element after the last element is the first element.
+	 *
+	 * @param 	element
+	 * 			The element of which the next element is asked.
+	 * @throws	IllegalArgumentException()
+	 * 			| !contains(element)
+	 */
+	public T getNext(T element)
+			throws IllegalArgumentException{
+		T result = this.next.get(element);
+		if(result == null)
+			throw new IllegalArgumentException();
+		return result;
+	}
+
+	/**
+	 * Return the element that comes before the given element.
+	 * 	The element before the first element is the last element.
+	 *
+	 * @param 	element
+	 * 			The element of which the previous element is asked.
+	 * @throws	IllegalArgumentException()
+	 * 			| !contains(element)
+	 */
+	public T getPrevious(T element)
+			throws IllegalArgumentException{
+		T result = this.previous.get(element);
+		if(result == null)
+			throw new IllegalArgumentException();
+		return result;
+	}
+
+	/**
+	 * Add the given element after the last element of this turn order.
+	 *
+	 * @param 	element
+	 * 			The element to add.
+	 * @post	| new.getLast() == element
+	 * @post	| new.getNext(getLast()) == element
+	 * @throws	IllegalArgumentException()
+	 * 			| element == null || contains(element)
+	 */
+	public void add(T element)
+			throws IllegalArgumentException{
+		if(element == null || contains(element))
+			throw new IllegalArgumentException();
+		if(getLast() == null){
+			link(element, element);
+		}
+		else{
+			T first = getFirst();
+			link(getLast(), element);
+			link(element, first);
+		}
+		this.last = element;
+	}
+
+	/**
+	 * Remove the given element from this turn order.
+	 *
+	 * @param 	element
+	 * 			The element to remove.
+	 * @post	| !new.contains(element)
+	 * @post	| if(size() > 1)
+	 * 			|	then new.getNext(getPrevious(element)) == getNext(element)
+	 * @throws	IllegalArgumentException()
+	 * 			| !contains(element)
+	 */
+	public void remove(T element)
+			throws IllegalArgumentException{
+		T before = getPrevious(element);
+		T after = getNext(element);
+		this.next.remove(element);
+		this.previous.remove(element);
+		if(element == getLast())
+			this.last = (before == element) ? null : before;
+		if(before != element)
+			link(before, after);
+	}
+
+	/**
+	 * Remove all elements from this turn order.
+	 *
+	 * @post	| new.size() == 0
+	 */
+	public void clear(){
+		this.next.clear();
+		this.previous.clear();
+		this.last = null;
+	}
+
+	/**
+	 * Register the second given element as the element after the first given element.
+	 */
+	private void link(T before, T after){
+		this.next.put(before, after);
+		this.previous.put(after, before);
+	}
+
+	/**
+	 * Map registering for each element the element after it.
+	 */
+	private final HashMap<T, T> next = new HashMap<T, T>();
+
+	/**
+	 * Map registering for each element the element before it.
+	 */
+	private final HashMap<T, T> previous = new HashMap<T, T>();
+}
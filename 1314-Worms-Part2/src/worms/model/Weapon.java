@@ -6,9 +6,9 @@ import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
 /**
  * A class of weapons associated with a worm.
+ * 	The weapon types a worm can select are those of the weapon registry of its world,
+ * 	in the order of that registry.
  * 
- * @invar 	| isValidWeapon(getCurrentWeapon())
- *
  * @version 1.0
  * @author Laurens Loots, Pieter Vos
  */
@@ -39,192 +39,88 @@ public class Weapon {
 	private final Worm worm;
 	
 	/**
-	 * checks whether or not the given String is a valid weapon.
+	 * Returns the name of the weapon that is currently active for the given worm,
+	 * or null if no weapon is active.
 	 * 
-	 * @param 	weapon
-	 * 			the String to check.
-
-	 * @return	| weapon.equals(" ") || weapon.equals("Bazooka") || weapon.equals("Rifle")
+	 * @return	| if(getCurrentWeaponType() == null)
+	 * 			|	then result == null
+	 * 			| else result == getCurrentWeaponType().getName()
 	 */
-	@Model
-	private boolean isValidWeapon(String weapon){
-		return (weapon.equals(" ") || weapon.equals("Bazooka") || weapon.equals("Rifle"));
+	@Raw
+	public String getCurrentWeapon(){
+		if(this.currentWeaponType == null)
+			return null;
+		return this.currentWeaponType.getName();
 	}
 	
 	/**
-	 * Returns the name of the weapon that is currently active for the given worm,
+	 * Returns the type of the weapon that is currently active for the worm,
 	 * or null if no weapon is active.
 	 */
 	@Basic @Raw
-	public String getCurrentWeapon(){
-		if(this.currentWeapon.equals(" "))
-			return null;
-		return this.currentWeapon;
+	public WeaponType getCurrentWeaponType(){
+		return this.currentWeaponType;
+	}
+	
+	/**
+	 * Set the type of the active weapon to the given weapon type.
+	 * 
+	 * @param 	weaponType
+	 * 			The weapon type to activate, or null.
+	 * @post	| new.getCurrentWeaponType() == weaponType
+	 */
+	@Raw
+	void setCurrentWeaponType(WeaponType weaponType){
+		this.currentWeaponType = weaponType;
+	}
+	
+	/**
+	 * Returns the registry of the weapon types the worm can select: the registry
+	 * of the world of the worm, or the default registry if the worm has no world.
+	 */
+	@Model
+	private WeaponRegistry getWeaponRegistry(){
+		World world = getWorm().getWorld();
+		if(world == null)
+			return WeaponRegistry.DEFAULT;
+		return world.getWeaponRegistry();
 	}
 	
 	/**
 	 * Activates the next weapon for the worm.
 	 * 
-	 * @post 	|if(getCurrentWeapon() == null
-	 * 			|	then new.getCurrentWeapon().equals("Bazooka")
-	 * @post	|if(getCurrentWeapon() == "Bazooka"
-	 * 			|	then new.getCurrentWeapon().equals("Rifle)
-	 * @post	|if(getCurrentWeapon() == "Rifle'
-	 * 			| 	then new.getCurrentWeapon().equals(" ")
+	 * @post 	| new.getCurrentWeaponType() == getWeaponRegistry().getNext(getCurrentWeaponType())
 	 */
 	public void selectNextWeapon()
 	{
-		if(this.getCurrentWeapon() == null)
-			setCurrentWeapon("Bazooka");
-		else if(this.getCurrentWeapon().equals("Bazooka"))
-			setCurrentWeapon("Rifle");
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			setCurrentWeapon(" ");
+		this.currentWeaponType = getWeaponRegistry().getNext(getCurrentWeaponType());
 	}
 	
 	/**
-	 * Creates a new Projectile if and only if the cost of action points of the weapon is smaller or
-	 * equal to the current action points of the worm.
+	 * Creates a new Projectile if and only if a weapon is active and the cost of action points
+	 * of the weapon is smaller or equal to the current action points of the worm.
 	 * 
 	 * @param 	propulsion
-	 * 			The initial velocity the new Projectile starts with.
+	 * 			The propulsion yield with which the projectile is shot.
 	 * @post	a new object of the class projectile is created.
 	 */
 	public void shoot(int propulsion){
-		if(getCostOfActionPointsOfWeapon() <= getWorm().getCurrentActionPoints()){
+		WeaponType type = getCurrentWeaponType();
+		if(type != null && type.getCostOfActionPoints() <= getWorm().getCurrentActionPoints()){
 			try{
 				@SuppressWarnings("unused")
-				Projectile projectile = new Projectile(this.getWorm(),this.getInitialVelocity(propulsion),
-						this.getRadiusOfWeapon(), this.getDamageOfWeapon());
-				this.getWorm().reduceCurrentActionPoints(getCostOfActionPointsOfWeapon());
+				Projectile projectile = new Projectile(this.getWorm(), type.getInitialVelocity(propulsion),
+						type.getRadius(), type.getDamage(), type.getCraterRadius());
+				this.getWorm().reduceCurrentActionPoints(type.getCostOfActionPoints());
 			}
 			catch(IllegalRadiusException exc){}
 			catch(IllegalArgumentException exc){}
+			catch(IllegalPositionException exc){}
 		}
 	}
 	
-
-	
-	/**
-	 * Calculates and returns the radius of this weapon.
-	 */
-	@Model
-	private double getRadiusOfWeapon(){
-		double newRadius;
-		if(this.getMassOfWeapon() > 0.0){
-			newRadius = Math.pow((3.0/4.0)*this.getMassOfWeapon()/
-					(DENSITY * Math.PI), (1/3.0));
-		}
-		else
-			newRadius = 0.0;
-		return newRadius;
-	}
-	
-	
-	/**
-	 * returns the mass of this weapon based on the current weapon.
-	 * 
-	 * @return	the mass of the weapon
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			| 		then ( return 0.300 )
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then ( return 0.010)
-	 * 			| else	( return 0 )
-	 */
-	@Model
-	private double getMassOfWeapon(){
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			return 0.300;
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			return 0.010;
-		else
-			return 0;
-	}
-	/**
-	 * Calculate the initial velocity for the projectile based on the propulsion.
-	 * 
-	 * @return	The initial velocity of the projectile
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			|		then ( initialVelocity = 2.5 + 7.0*(propulsion/100.0) )
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then ( initialVelocity = 1.5 )
-	 */
-	@Model
-	private double getInitialVelocity(int propulsion){
-		double initialVelocity = 0.0;
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			initialVelocity = 2.5 + 7.0*(propulsion/100.0);
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			initialVelocity = 1.5;
-		
-		return (initialVelocity / getMassOfWeapon()) * 0.5;
-	}
-	
-	/**
-	 * returns the cost of action points of the weapon, based on the currently selected weapon.
-	 * 
-	 * @return	the cost of action points 
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			|		then ( return 50 )
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then ( return 10 )
-	 * 			| else
-	 * 			|		(return 0)
-	 */
-	@Model
-	private int getCostOfActionPointsOfWeapon(){
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			return 50;
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			return 10;
-		else
-			return 0;
-	}
-	
-	/**
-	 * returns the damage of the weapon based on the weapon.
-	 * 
-	 * @return	The damage of the weapon
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			|		then ( return 80 )
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then ( return 20 )
-	 * 			| else
-	 * 			|		(return 0)
-	 */
-	@Model
-	private int getDamageOfWeapon(){
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			return 80;
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			return 20;
-		else
-			return 0;
-	}
-	
-	/**
-	 * sets the current weapon to the given weapon if and only if the given weapon is
-	 * a valid weapon.
-	 * 
-	 * @param 	weapon
-	 * 			The given weapon
-	 * @post	the new weapon is the given weapon if and only if the given weapon is a valid weapon.
-	 * 			|if(isValidWeapon(weapon)
-	 * 			|	then (new.getCurrentWeapon() == weapon
-	 */
-	@Raw @Model
-	private void setCurrentWeapon(String weapon){
-		if(isValidWeapon(weapon))
-			this.currentWeapon = weapon;
-	}
-	
-	/**
-	 * Variable referencing the weapon of a worm.
-	 */
-	private String currentWeapon = " ";
-	
 	/**
-	 * Final class variable registering the density of all weapons (in kg/m^3).
+	 * Variable referencing the type of the active weapon of a worm, or null if no weapon is active.
 	 */
-	private final static double DENSITY = 7800.0;
+	private WeaponType currentWeaponType = null;
 }
@@ -0,0 +1,131 @@
+package worms.model;
+
+import java.util.HashMap;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of weapon registries, registering the weapon types that worms can
+ * select, in the order in which they are selected.
+ * 	A registry never changes; a registry with an additional weapon type is
+ * 	made with the method with.
+ *
+ * @invar	| for each index in 0..size()-1:
+ * 			|	getWeaponTypeAt(index) != null
+ * @invar	| for each index in 0..size()-1:
+ * 			|	getWeaponType(getWeaponTypeAt(index).getName()) == getWeaponTypeAt(index)
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class WeaponRegistry {
+
+	/**
+	 * Create a new weapon registry with the given weapon types.
+	 */
+	private WeaponRegistry(WeaponType[] weaponTypes){
+		this.weaponTypes = weaponTypes;
+		for(int index = 0; index < weaponTypes.length; index++)
+			this.indexByName.put(weaponTypes[index].getName(), index);
+	}
+
+	/**
+	 * The registry with the weapons of the game: the bazooka and the rifle, in that order.
+	 */
+	public static final WeaponRegistry DEFAULT =
+			new WeaponRegistry(new WeaponType[] {WeaponType.BAZOOKA, WeaponType.RIFLE});
+
+
+
+	/**
+	 * Return the number of weapon types in this registry.
+	 */
+	@Basic @Immutable
+	public int size(){
+		return this.weaponTypes.length;
+	}
+
+	/**
+	 * Return the weapon type at the given index in this registry.
+	 *
+	 * @param 	index
+	 * 			The index of the weapon type.
+	 * @throws	IndexOutOfBoundsException()
+	 * 			| index < 0 || index >= size()
+	 */
+	@Basic @Immutable
+	public WeaponType getWeaponTypeAt(int index)
+			throws IndexOutOfBoundsException{
+		return this.weaponTypes[index];
+	}
+
+	/**
+	 * Return the weapon type with the given name in this registry, or null if there is none.
+	 *
+	 * @param 	name
+	 * 			The name of the weapon type.
+	 */
+	public WeaponType getWeaponType(String name){
+		Integer index = this.indexByName.get(name);
+		return (index == null) ? null : this.weaponTypes[index];
+	}
+
+	/**
+	 * Return the weapon type that is selected after the given weapon type.
+	 * 	After no weapon type comes the first weapon type, and after the last
+	 * 	weapon type comes no weapon type.
+	 *
+	 * @param 	weaponType
+	 * 			The weapon type that is currently selected, or null if none is.
+	 * @return	| if(weaponType == null && size() > 0)
+	 * 			|	then result == getWeaponTypeAt(0)
+	 * @return	| for each index in 0..size()-2:
+	 * 			|	if(weaponType == getWeaponTypeAt(index))
+	 * 			|		then result == getWeaponTypeAt(index + 1)
+	 * @return	| if(weaponType != null && !(for some index in 0..size()-2: weaponType == getWeaponTypeAt(index)))
+	 * 			|	then result == null
+	 */
+	public WeaponType getNext(WeaponType weaponType){
+		if(weaponType == null)
+			return (size() == 0) ? null : this.weaponTypes[0];
+		Integer index = this.indexByName.get(weaponType.getName());
+		if(index == null || this.weaponTypes[index] != weaponType || index + 1 == size())
+			return null;
+		return this.weaponTypes[index + 1];
+	}
+
+	/**
+	 * Return a registry with the weapon types of this registry, followed by the given weapon type.
+	 *
+	 * @param 	weaponType
+	 * 			The weapon type to add.
+	 * @return	| result.size() == size() + 1
+	 * @return	| result.getWeaponTypeAt(size()) == weaponType
+	 * @return	| for each index in 0..size()-1:
+	 * 			|	result.getWeaponTypeAt(index) == getWeaponTypeAt(index)
+	 * @throws	IllegalArgumentException("The given weapon type cannot be added.")
+	 * 			| weaponType == null || getWeaponType(weaponType.getName()) != null
+	 */
+	public WeaponRegistry with(WeaponType weaponType)
+			throws IllegalArgumentException{
+		if(weaponType == null || getWeaponType(weaponType.getName()) != null)
+			throw new IllegalArgumentException("The given weapon type cannot be added.");
+		WeaponType[] result = new WeaponType[size() + 1];
+		System.arraycopy(this.weaponTypes, 0, result, 0, size());
+		result[size()] = weaponType;
+		return new WeaponRegistry(result);
+	}
+
+	/**
+	 * Array registering the weapon types of this registry in the order in which they are selected.
+	 */
+	private final WeaponType[] weaponTypes;
+
+	/**
+	 * Map registering the index of each weapon type of this registry by its name.
+	 */
+	private final HashMap<String, Integer> indexByName = new HashMap<String, Integer>();
+}
@@ -0,0 +1,208 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of weapon types, registering the properties of the projectiles that
+ * a weapon of that type shoots.
+ * 	The radius of the projectiles and their initial velocity for each propulsion
+ * 	yield between 0 and 100 are computed once, when the weapon type is created.
+ *
+ * @invar	| getName() != null
+ * @invar	| getMass() > 0
+ * @invar	| getCostOfActionPoints() >= 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class WeaponType {
+
+	/**
+	 * Create a new weapon type with the given properties.
+	 *
+	 * @param 	name
+	 * 			The name of the new weapon type.
+	 * @param 	mass
+	 * 			The mass of the projectiles (in kg).
+	 * @param 	minimalForce
+	 * 			The force with which a projectile is shot with propulsion yield 0 (in N).
+	 * @param 	maximalForce
+	 * 			The force with which a projectile is shot with propulsion yield 100 (in N).
+	 * @param 	costOfActionPoints
+	 * 			The amount of action points a shot costs.
+	 * @param 	damage
+	 * 			The amount of hit points a projectile takes from the worm it hits.
+	 * @param 	craterRadius
+	 * 			The radius of the crater a projectile carves into the terrain (in meter).
+	 * @post	| new.getName() == name
+	 * @post	| new.getMass() == mass
+	 * @post	| new.getCostOfActionPoints() == costOfActionPoints
+	 * @post	| new.getDamage() == damage
+	 * @post	| new.getCraterRadius() == craterRadius
+	 * @post	| new.getRadius() == Math.pow((3.0/4.0) * mass / (DENSITY * Math.PI), 1/3.0)
+	 * @throws	IllegalArgumentException("The given weapon type is not valid.")
+	 * 			| name == null || !(mass > 0) || costOfActionPoints < 0
+	 */
+	public WeaponType(String name, double mass, double minimalForce, double maximalForce,
+			int costOfActionPoints, int damage, double craterRadius)
+			throws IllegalArgumentException{
+		if(name == null || !(mass > 0) || costOfActionPoints < 0)
+			throw new IllegalArgumentException("The given weapon type is not valid.");
+		this.name = name;
+		this.mass = mass;
+		this.minimalForce = minimalForce;
+		this.maximalForce = maximalForce;
+		this.costOfActionPoints = costOfActionPoints;
+		this.damage = damage;
+		this.craterRadius = craterRadius;
+		this.radius = Math.pow((3.0/4.0) * mass / (DENSITY * Math.PI), 1/3.0);
+		for(int propulsion = 0; propulsion <= 100; propulsion++)
+			this.initialVelocities[propulsion] = computeInitialVelocity(propulsion);
+	}
+
+	/**
+	 * The type of the bazooka: heavy projectiles whose force depends on the
+	 * propulsion yield and that carve a crater where they land.
+	 */
+	public static final WeaponType BAZOOKA = new WeaponType("Bazooka", 0.300, 2.5, 9.5, 50, 80, 0.5);
+
+	/**
+	 * The type of the rifle: light projectiles that are always shot with the same force.
+	 */
+	public static final WeaponType RIFLE = new WeaponType("Rifle", 0.010, 1.5, 1.5, 10, 20, 0);
+
+	/**
+	 * Final class variable registering the density of all projectiles (in kg/m^3).
+	 */
+	public static final double DENSITY = 7800.0;
+
+
+
+	/**
+	 * Return the name of this weapon type.
+	 */
+	@Basic @Immutable
+	public String getName(){
+		return this.name;
+	}
+
+	/**
+	 * Variable registering the name of this weapon type.
+	 */
+	private final String name;
+
+	/**
+	 * Return the mass of the projectiles of this weapon type (in kg).
+	 */
+	@Basic @Immutable
+	public double getMass(){
+		return this.mass;
+	}
+
+	/**
+	 * Variable registering the mass of the projectiles (in kg).
+	 */
+	private final double mass;
+
+	/**
+	 * Return the radius of the projectiles of this weapon type (in meter).
+	 */
+	@Basic @Immutable
+	public double getRadius(){
+		return this.radius;
+	}
+
+	/**
+	 * Variable registering the radius of the projectiles (in meter).
+	 */
+	private final double radius;
+
+	/**
+	 * Return the amount of action points a shot with this weapon type costs.
+	 */
+	@Basic @Immutable
+	public int getCostOfActionPoints(){
+		return this.costOfActionPoints;
+	}
+
+	/**
+	 * Variable registering the amount of action points a shot costs.
+	 */
+	private final int costOfActionPoints;
+
+	/**
+	 * Return the amount of hit points a projectile of this weapon type takes from the worm it hits.
+	 */
+	@Basic @Immutable
+	public int getDamage(){
+		return this.damage;
+	}
+
+	/**
+	 * Variable registering the damage of the projectiles.
+	 */
+	private final int damage;
+
+	/**
+	 * Return the radius of the crater a projectile of this weapon type carves
+	 * into the terrain where it lands (in meter).
+	 */
+	@Basic @Immutable
+	public double getCraterRadius(){
+		return this.craterRadius;
+	}
+
+	/**
+	 * Variable registering the radius of the craters (in meter).
+	 */
+	private final double craterRadius;
+
+
+
+	/**
+	 * Return the initial velocity of a projectile of this weapon type shot with the given propulsion yield.
+	 * 	The force with which the projectile is shot goes linearly from the minimal force
+	 * 	at yield 0 to the maximal force at yield 100, and is exerted for half a second.
+	 *
+	 * @param 	propulsion
+	 * 			The propulsion yield of the shot.
+	 * @return	| result == ((minimalForce + (maximalForce - minimalForce) * (propulsion/100.0)) / getMass()) * 0.5
+	 */
+	@Immutable
+	public double getInitialVelocity(int propulsion){
+		if(propulsion >= 0 && propulsion <= 100)
+			return this.initialVelocities[propulsion];
+		return computeInitialVelocity(propulsion);
+	}
+
+	/**
+	 * Compute the initial velocity of a projectile shot with the given propulsion yield.
+	 */
+	private double computeInitialVelocity(int propulsion){
+		double force = minimalForce + (maximalForce - minimalForce) * (propulsion/100.0);
+		return (force / mass) * 0.5;
+	}
+
+	/**
+	 * Variables registering the forces with which projectiles are shot with propulsion yield 0 and 100 (in N).
+	 */
+	private final double minimalForce, maximalForce;
+
+	/**
+	 * Array registering the initial velocity of the projectiles for each propulsion yield between 0 and 100.
+	 */
+	private final double[] initialVelocities = new double[101];
+
+
+
+	/**
+	 * Return a textual representation of this weapon type.
+	 */
+	@Override
+	public String toString(){
+		return getName();
+	}
+}
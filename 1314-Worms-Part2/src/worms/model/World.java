@@ -1,8 +1,8 @@
 package worms.model;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Random;
 
@@ -54,11 +54,40 @@ public class World {
 	 */
 	public World(double width, double height,
 			boolean[][] passableMap, Random random){
+		this(width, height, new Terrain(passableMap), random);
+		this.passableMap = passableMap;
+		this.isGivenPassableMap = true;
+	}
+	
+	/**
+	 * Creates a new world with the given terrain.
+	 * 
+	 * @param 	width 
+	 * 			The width of this new world (in meter)
+	 * @param 	height 
+	 * 			The height of this new world (in meter)
+	 * @param 	terrain
+	 * 			The terrain of this new world, with the same row and column
+	 * 			conventions as a passable map.
+	 * @param 	random
+	 * 			Random number generator that can be used to randomize aspects
+	 * 			of the world in a repeatable way.
+	 * @post	| new.getWidth() == width
+	 * @post	| new.getHeight() == height
+	 * @post	| new.getTerrain() == terrain
+	 * @throws	IllegalArgumentException("The given width or height is not valid.")
+	 * 			| !canHaveAsWidthOrHeight(width) || !canHaveAsWidthOrHeight(height)
+	 */
+	public World(double width, double height,
+			Terrain terrain, Random random){
 		if(!canHaveAsWidthOrHeight(width) || !canHaveAsWidthOrHeight(height))
 			throw new IllegalArgumentException("The given width or height is invalid.");
 		this.width = width;
 		this.height = height;
-		this.passableMap = passableMap;
+		this.terrain = terrain;
+		this.distanceField = terrain.createDistanceField(width, height);
+		this.columnIndex = terrain.createColumnIndex();
+		this.occupancyMap = terrain.createOccupancyMap();
 		this.random = random;
 	}
 	
@@ -149,36 +178,6 @@ public class World {
 		return this.width;
 	}
 	
-	/**
-	 * returns a new X value.
-	 * 
-	 * @param 	oldX
-	 * 			the old X value on which the new one is based.
-	 * @return	returns the new X value.
-	 * 			| if(oldx > getWidth()/2)
-	 * 			|		then ( return oldX - 0.014)
-	 * 			| if(oldX < getWidth()/2 )
-	 * 			| 		then ( return oldX + 0.014)
-	 */
-	private double newX(double oldX)
-	{
-		if(oldX > this.getWidth()/2)
-			return oldX - 0.014;
-		if(oldX < this.getWidth()/2)
-			return oldX + 0.014;
-	
-		return oldX;
-	}
-	/**
-	 * returns a random integer between 0 and the width of the world.
-	 * 
-	 * @return	|random.nextInt((int)getWidth())
-	 */
-	private int randomStartX()
-	{
-		return random.nextInt((int)this.getWidth());		
-	}
-	
 	/**
 	 * Variable registering the width of this world.
 	 */
@@ -195,48 +194,67 @@ public class World {
 	}
 	
 	/**
-	 * returns a new Y value.
-	 * 
-	 * @param 	oldY
-	 * 			the old Y value on which the new one is based.
-	 * @return	returns the new Y value.
-	 * 			| if(oldY > getHeight()/2)
-	 * 			|		then ( return oldY - 0.014)
-	 * 			| if(oldY < getHeight()/2 )
-	 * 			| 		then ( return oldY + 0.014)
-	 */
-	private double newY(double oldY)
-	{
-		if(oldY > this.getHeight()/2)
-			return oldY - 0.014;
-		if(oldY < this.getHeight()/2)
-			return oldY + 0.014;
-
-		return oldY;
-	}
+	 * Variable registering the height of this world.
+	 */
+	private final double height;
+	
+	
+	
 	/**
-	 * returns a random integer between 0 and the height of the world.
+	 * Return the passable map of this world.
+	 * 	The passable map is a view on the terrain of this world, which is
+	 * 	only built when it is asked for. The map given when this world was created
+	 * 	serves as the view until the terrain changes: it belongs to the caller,
+	 * 	so this world never writes into it.
 	 * 
-	 * @return	|random.nextInt((int)getHeight())
+	 * @return	| for each row, column:
+	 * 			|	result[row][column] == getTerrain().isPassable(row, column)
 	 */
-	private int randomStartY()
-	{
-		return random.nextInt((int)this.getHeight());
+	@Raw
+	public boolean[][] getPassableMap(){
+		if(passableMap == null)
+			passableMap = getTerrain().toPassableMap();
+		return passableMap;
 	}
 	
 	/**
-	 * Variable registering the height of this world.
+	 * Variable referencing the passable map of this world, if it has been built.
 	 */
-	private final double height;
+	private boolean[][] passableMap = null;
 	
+	/**
+	 * Variable registering whether the passable map of this world is the map given
+	 * when this world was created.
+	 */
+	private boolean isGivenPassableMap = false;
 	
+	/**
+	 * Bring the passable map of this world up to date with the pixels of the terrain
+	 * in the given rectangle of rows and columns, which have changed.
+	 * 	The map given when this world was created is dropped instead, to be built
+	 * 	again from the terrain when it is asked for.
+	 */
+	@Model
+	private void updatePassableMap(int firstRow, int firstColumn, int lastRow, int lastColumn){
+		if(this.isGivenPassableMap){
+			this.passableMap = null;
+			this.isGivenPassableMap = false;
+		}
+		if(this.passableMap != null){
+			for(int row = firstRow; row <= lastRow; row++)
+				for(int column = firstColumn; column <= lastColumn; column++)
+					this.passableMap[row][column] = getTerrain().isPassable(row, column);
+		}
+	}
 	
 	/**
-	 * Return the passable map of this world.
+	 * Return the terrain of this world.
+	 * 	The terrain must only be changed through this world, so that the data
+	 * 	derived from it and the terrain listeners are kept up to date.
 	 */
 	@Basic @Raw
-	public boolean[][] getPassableMap(){
-		return passableMap;
+	public Terrain getTerrain(){
+		return terrain;
 	}
 	
 	/**
@@ -251,6 +269,11 @@ public class World {
 	 * @param 	radius 
 	 * 			The radius of the circle to check
 	 * @return 	True if the given region is impassable, false otherwise.
+	 * 			Circles lying further than the tolerance of the distance field from
+	 * 			the surface of the terrain are decided by the distance field alone,
+	 * 			and circles further away than the distance field registers, of which the
+	 * 			bounding box lies entirely in passable or in impassable pixels, by the
+	 * 			occupancy map. Only the other circles are sampled.
 	 * 			|if(isImpassable(x,y,radius)
 	 * 			|	then (return true)
 	 * 			|else
@@ -263,11 +286,22 @@ public class World {
 	public boolean isImpassable(double x, double y, double radius){
 		if(x-radius<0 || x+radius>getWidth() || y-radius<0 || y+radius>getHeight() || radius <= 0)
 			return true;
-		for(double angle = 0;angle<2*Math.PI;angle+=(Math.PI/180)){
-			if (isImpassablePoint(x+(Math.cos(angle)*radius*0.99999999), y+(Math.sin(angle))*radius*0.99999999))
-				return true;
+		// the distance field decides every circle that lies clearly in the open
+		// or clearly inside the terrain, only circles near the surface are sampled.
+		double distance = getDistanceField().getDistance(x, y);
+		double tolerance = getDistanceField().getTolerance();
+		if(distance - tolerance >= radius)
+			return false;
+		if(-distance - tolerance >= radius)
+			return true;
+		// circles further from the surface than the distance field registers are decided
+		// by the occupancy of their bounding box, which is mixed for circles near the surface
+		if(getOccupancyMap() != null && Math.abs(distance) + tolerance >= getDistanceField().getMaximalDistance()){
+			int occupancy = getCircumferenceOccupancy(x, y, radius*0.99999999);
+			if(occupancy != OccupancyMap.MIXED)
+				return occupancy == OccupancyMap.FULL;
 		}
-		return false;
+		return isImpassableCircumference(x, y, radius*0.99999999);
 	}
 	
 	/**
@@ -288,18 +322,44 @@ public class World {
 	public boolean isAdjacent(double x, double y, double radius){
 		if(isImpassable(x,y,radius))
 			return false;
-		else
-		{
-			for(double angle = 0; angle < 2*Math.PI ; angle = angle + (Math.PI/180))
-			{
-				if (isImpassablePoint(x+(Math.cos(angle)*radius*1.1), y+(Math.sin(angle))*radius*1.1))
-					return true;
-			}
+		double distance = getDistanceField().getDistance(x, y);
+		double tolerance = getDistanceField().getTolerance();
+		if(distance - tolerance > radius*1.1)
 			return false;
+		if(getOccupancyMap() != null && distance + tolerance >= getDistanceField().getMaximalDistance()){
+			int occupancy = getCircumferenceOccupancy(x, y, radius*1.1);
+			if(occupancy != OccupancyMap.MIXED)
+				return occupancy == OccupancyMap.FULL;
 		}
+		return isImpassableCircumference(x, y, radius*1.1);
 	}
 	
 	
+	/**
+	 * Returns a lower bound on the distance between the given circle
+	 * and the impassable terrain or the borders of this world.
+	 * 
+	 * @param 	x 
+	 * 			The x-coordinate of the center of the circle
+	 * @param 	y 
+	 * 			The y-coordinate of the center of the circle
+	 * @param 	radius 
+	 * 			The radius of the circle
+	 * @return	The circle can move over the returned distance in any direction
+	 * 			without becoming impassable. The result is not positive if the
+	 * 			circle is impassable or lies near impassable terrain.
+	 * 			| if(result > 0)
+	 * 			|	then (for each dx, dy:
+	 * 			|		if(dx*dx + dy*dy <= result*result)
+	 * 			|			then !isImpassable(x + dx, y + dy, radius))
+	 */
+	public double getClearance(double x, double y, double radius){
+		double clearance = getDistanceField().getDistance(x, y) - getDistanceField().getTolerance();
+		clearance = Math.min(clearance, Math.min(x, getWidth() - x));
+		clearance = Math.min(clearance, Math.min(y, getHeight() - y));
+		return clearance - radius;
+	}
+	
 	/**
 	 * returns if the worm can fall or not.
 	 * 
@@ -320,36 +380,390 @@ public class World {
 		return true;
 	}
 
+	/**
+	 * Return a height above which a circle with the given radius, falling straight down
+	 * from the given position, neither becomes impassable nor adjacent to impassable terrain,
+	 * as long as it does not leave this world.
+	 * 	All points sampled by isImpassable and isAdjacent lie in the box around the circle
+	 * 	with the radius checked by isAdjacent. While the circle falls, this box sweeps the
+	 * 	columns it covers downwards from its top row at the given height. The first impassable
+	 * 	pixel in these columns is looked up in the column index of this world, or in its terrain
+	 * 	if this world has no column index, and the circle
+	 * 	falls freely as long as the bottom of the box stays above that pixel. The box is
+	 * 	widened by a pixel at each side, so that rounding the samples cannot take them out of it.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate of the center of the circle.
+	 * @param 	y
+	 * 			The y-coordinate of the center of the circle before the fall.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @return	| if(canFall(x, y, radius))
+	 * 			|	then (for each y' in ]result, y]:
+	 * 			|		y' - radius < 0 || canFall(x, y', radius))
+	 */
+	public double getFreeFallHeight(double x, double y, double radius){
+		ColumnIndex columnIndex = getColumnIndex();
+		int nbRows = getTerrain().getNbRows();
+		int nbColumns = getTerrain().getNbColumns();
+		double columnsPerMeter = nbColumns / getWidth();
+		double rowsPerMeter = nbRows / getHeight();
+		double columnRadius = radius*1.1 * columnsPerMeter;
+		double rowRadius = radius*1.1 * rowsPerMeter;
+		int firstColumn = Math.max(0, (int)Math.floor(x * columnsPerMeter - columnRadius) - 1);
+		int lastColumn = Math.min(nbColumns - 1, (int)Math.floor(x * columnsPerMeter + columnRadius) + 1);
+		int topRow = Math.max(0, Math.min(nbRows - 1, nbRows - (int)Math.ceil(y * rowsPerMeter + rowRadius) - 1));
+		int surfaceRow = nbRows;
+		for(int column = firstColumn; column <= lastColumn; column++){
+			if(columnIndex != null)
+				surfaceRow = Math.min(surfaceRow, columnIndex.getNextImpassableRow(column, topRow, surfaceRow - 1));
+			else
+				surfaceRow = Math.min(surfaceRow, getTerrain().getNextImpassableRow(column, topRow, surfaceRow - 1));
+		}
+		// the bottom row of the widened box lies above the surface row at every height above the result
+		return (nbRows - surfaceRow + 1 + rowRadius) / rowsPerMeter;
+	}
+
 	
 	/**
-	 * calculates the right positions int he passable map and
-	 * returns whether the point is impassable or not.
+	 * Check whether any of the points sampled on the circumference of the given circle
+	 * lies in an impassable pixel of the terrain.
+	 * 	The points are sampled with the stencil of this world for the given radius,
+	 * 	and points that lie in the same pixel as the previous point are skipped.
+	 * 	The samples are checked in turn starting from the one that hit the terrain last,
+	 * 	which does not change the result.
 	 * 
 	 * @param	x
-	 * 			the given x value
+	 * 			The x-coordinate of the center of the circle.
 	 * @param 	y
-	 * 			the given y value
-	 * @return	|!getPassableMap()[intX][intY]
+	 * 			The y-coordinate of the center of the circle.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @return	| result == (for some sample in 0..CircleStencil.NB_SAMPLES-1:
+	 * 			|	!getTerrain().isPassable(row, column)
+	 * 			|	with row == getTerrain().getNbRows() - ceil((y + radius*sin) * rows per meter)
+	 * 			|	and column == floor((x + radius*cos) * columns per meter)
+	 * 			|	clamped to the pixels of the terrain)
 	 */
-	@Raw
-	private boolean isImpassablePoint(double x, double y){
-		int intX, intY;
-		double temp = y*getPassableMap().length/getHeight();
-		intX = getPassableMap().length - (int)Math.ceil(temp);
-		temp = x*getPassableMap()[0].length/getWidth();
-		intY = (int)Math.floor(temp);
-		if(intX >= getPassableMap().length)
-			intX = getPassableMap().length - 1;
-		if(intY >= getPassableMap()[0].length)
-			intY = getPassableMap()[0].length - 1;
-		return !getPassableMap()[intX][intY];
+	@Raw @Model
+	private boolean isImpassableCircumference(double x, double y, double radius){
+		CircleStencil stencil = getStencil(radius);
+		Terrain terrain = getTerrain();
+		int nbRows = terrain.getNbRows();
+		int nbColumns = terrain.getNbColumns();
+		double centerColumn = x * stencil.getColumnsPerMeter();
+		double centerRow = y * stencil.getRowsPerMeter();
+		double[] columnOffsets = stencil.columnOffsets;
+		double[] rowOffsets = stencil.rowOffsets;
+		int previousRow = -1, previousColumn = -1;
+		// consecutive queries mostly hit the terrain at the same side of the circle,
+		// so the samples are checked starting from the sample that hit last
+		int first = this.lastImpassableSample;
+		for(int sample = first; sample < first + CircleStencil.NB_SAMPLES; sample++){
+			int row = nbRows - (int)Math.ceil(centerRow + rowOffsets[sample]);
+			int column = (int)Math.floor(centerColumn + columnOffsets[sample]);
+			// points outside the world are mapped on the nearest pixel at the border,
+			// as in the distance field
+			if(row >= nbRows)
+				row = nbRows - 1;
+			else if(row < 0)
+				row = 0;
+			if(column >= nbColumns)
+				column = nbColumns - 1;
+			else if(column < 0)
+				column = 0;
+			if(row == previousRow && column == previousColumn)
+				continue;
+			if(!terrain.isPassable(row, column)){
+				this.lastImpassableSample = (sample < CircleStencil.NB_SAMPLES) ?
+						sample : sample - CircleStencil.NB_SAMPLES;
+				return true;
+			}
+			previousRow = row;
+			previousColumn = column;
+		}
+		return false;
+	}
+	
+	/**
+	 * Variable registering the index of the sample that lay in an impassable pixel
+	 * in the last circle found to be impassable.
+	 */
+	private int lastImpassableSample = 0;
+	
+	/**
+	 * Return the occupancy of the smallest rectangle of pixels that contains all points
+	 * sampled on the circumference of the given circle.
+	 * 	The corners of the rectangle are computed in the same way as the samples at angles
+	 * 	0, 90, 180 and 270 degrees, so no sample lies outside the rectangle.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the center of the circle.
+	 * @param 	y
+	 * 			The y-coordinate of the center of the circle.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @return	| if(result == OccupancyMap.EMPTY)
+	 * 			|	then !isImpassableCircumference(x, y, radius)
+	 * @return	| if(result == OccupancyMap.FULL)
+	 * 			|	then isImpassableCircumference(x, y, radius)
+	 */
+	@Raw @Model
+	private int getCircumferenceOccupancy(double x, double y, double radius){
+		int nbRows = getTerrain().getNbRows();
+		int nbColumns = getTerrain().getNbColumns();
+		double columnsPerMeter = nbColumns / getWidth();
+		double rowsPerMeter = nbRows / getHeight();
+		double centerColumn = x * columnsPerMeter;
+		double centerRow = y * rowsPerMeter;
+		double columnRadius = radius * columnsPerMeter;
+		double rowRadius = radius * rowsPerMeter;
+		int firstRow = Math.max(0, Math.min(nbRows - 1, nbRows - (int)Math.ceil(centerRow + rowRadius)));
+		int lastRow = Math.max(0, Math.min(nbRows - 1, nbRows - (int)Math.ceil(centerRow - rowRadius)));
+		int firstColumn = Math.max(0, Math.min(nbColumns - 1, (int)Math.floor(centerColumn - columnRadius)));
+		int lastColumn = Math.max(0, Math.min(nbColumns - 1, (int)Math.floor(centerColumn + columnRadius)));
+		return getOccupancyMap().getOccupancy(getTerrain(), firstRow, firstColumn, lastRow, lastColumn);
+	}
+	
+	/**
+	 * Return the stencil for a circle with the given radius on the terrain of this world.
+	 * 	The last few stencils are kept, since the same worms are checked over and over.
+	 * 
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @return	| result.matches(radius, getTerrain().getNbColumns() / getWidth(),
+	 * 			|	getTerrain().getNbRows() / getHeight())
+	 */
+	@Model
+	private CircleStencil getStencil(double radius){
+		double columnsPerMeter = getTerrain().getNbColumns() / getWidth();
+		double rowsPerMeter = getTerrain().getNbRows() / getHeight();
+		for(CircleStencil stencil: this.stencils)
+			if(stencil != null && stencil.matches(radius, columnsPerMeter, rowsPerMeter))
+				return stencil;
+		CircleStencil stencil = new CircleStencil(radius, columnsPerMeter, rowsPerMeter);
+		this.stencils[this.nextStencil] = stencil;
+		this.nextStencil = (this.nextStencil + 1) % this.stencils.length;
+		return stencil;
+	}
+	
+	/**
+	 * Array referencing the stencils used last, replaced in turn.
+	 */
+	private final CircleStencil[] stencils = new CircleStencil[8];
+	
+	/**
+	 * Variable registering the index of the stencil that is replaced next.
+	 */
+	private int nextStencil = 0;
+	
+	/**
+	 * Variable referencing the terrain of this world, in which each pixel
+	 * is registered as passable or impassable.
+	 */
+	private final Terrain terrain;
+	
+	/**
+	 * Return the signed distance field derived from the passable map of this world.
+	 */
+	@Basic @Raw
+	public DistanceField getDistanceField(){
+		return this.distanceField;
+	}
+	
+	/**
+	 * Variable referencing the signed distance field derived from the passable map,
+	 * which is used to decide most terrain queries without sampling the map.
+	 */
+	private final DistanceField distanceField;
+	
+	/**
+	 * Return the run-length index of the columns of the terrain of this world,
+	 * or null if the terrain of this world is mapped into memory in tiles.
+	 */
+	@Basic @Raw
+	public ColumnIndex getColumnIndex(){
+		return this.columnIndex;
+	}
+	
+	/**
+	 * Variable referencing the run-length index of the columns of the terrain,
+	 * which is used to find the terrain above or below a point without sampling the map.
+	 */
+	private final ColumnIndex columnIndex;
+	
+	/**
+	 * Return the occupancy map of the terrain of this world,
+	 * or null if the terrain of this world is mapped into memory in tiles.
+	 */
+	@Basic @Raw
+	public OccupancyMap getOccupancyMap(){
+		return this.occupancyMap;
+	}
+	
+	/**
+	 * Variable referencing the occupancy map of the terrain, which is used to decide
+	 * circles lying in the open air or deep in the terrain without sampling the map.
+	 */
+	private final OccupancyMap occupancyMap;
+	
+	/**
+	 * Set the pixel at the given row and column of the terrain of this world
+	 * to passable or impassable.
+	 * 
+	 * @param 	row
+	 * 			The row of the pixel.
+	 * @param 	column
+	 * 			The column of the pixel.
+	 * @param 	passable
+	 * 			Whether the pixel becomes passable.
+	 * @post	| new.getTerrain().isPassable(row, column) == passable
+	 * @effect	| if(getTerrain().isPassable(row, column) != passable)
+	 * 			|	then terrainChanged(row, column, row, column)
+	 * @throws	IllegalArgumentException("The given pixel does not lie in the terrain.")
+	 * 			| row < 0 || row >= getTerrain().getNbRows() ||
+	 * 			| column < 0 || column >= getTerrain().getNbColumns()
+	 */
+	public void setPassable(int row, int column, boolean passable)
+			throws IllegalArgumentException{
+		if(row < 0 || row >= getTerrain().getNbRows() || column < 0 || column >= getTerrain().getNbColumns())
+			throw new IllegalArgumentException("The given pixel does not lie in the terrain.");
+		if(getTerrain().isPassable(row, column) == passable)
+			return;
+		getTerrain().setPassable(row, column, passable);
+		terrainChanged(row, column, row, column);
 	}
 	
 	/**
-	 * Variable referencing a rectangular matrix indicating which parts 
-	 * of the terrain are passable and impassable (true or false).
+	 * Carve a circular crater with the given center and radius into the terrain of this world.
+	 * 
+	 * @param 	x
+	 * 			The x-coordinate of the center of the crater.
+	 * @param 	y
+	 * 			The y-coordinate of the center of the crater.
+	 * @param 	radius
+	 * 			The radius of the crater.
+	 * @post	Each pixel of the terrain of which the center lies within the given
+	 * 			circle is passable.
+	 * 			| for each row, column:
+	 * 			|	if(distance(center(row, column), (x,y)) <= radius)
+	 * 			|		then new.getTerrain().isPassable(row, column)
+	 * @effect	| if(some pixel in the circle was impassable)
+	 * 			|	then terrainChanged(firstRow, firstColumn, lastRow, lastColumn)
+	 * 			| 	with the smallest rectangle around the changed pixels
 	 */
-	private final boolean[][] passableMap;
+	public void carveCrater(double x, double y, double radius){
+		if(!(radius > 0))
+			return;
+		int nbRows = getTerrain().getNbRows();
+		int nbColumns = getTerrain().getNbColumns();
+		double cellWidth = getWidth() / nbColumns;
+		double cellHeight = getHeight() / nbRows;
+		int fromRow = Math.max(0, (int)Math.floor(nbRows - (y + radius) / cellHeight));
+		int toRow = Math.min(nbRows - 1, (int)Math.ceil(nbRows - (y - radius) / cellHeight));
+		int fromColumn = Math.max(0, (int)Math.floor((x - radius) / cellWidth));
+		int toColumn = Math.min(nbColumns - 1, (int)Math.ceil((x + radius) / cellWidth));
+		int firstRow = nbRows, firstColumn = nbColumns, lastRow = -1, lastColumn = -1;
+		for(int row = fromRow; row <= toRow; row++){
+			double dy = (nbRows - row - 0.5) * cellHeight - y;
+			for(int column = fromColumn; column <= toColumn; column++){
+				double dx = (column + 0.5) * cellWidth - x;
+				if(dx*dx + dy*dy <= radius*radius && !getTerrain().isPassable(row, column)){
+					getTerrain().setPassable(row, column, true);
+					firstRow = Math.min(firstRow, row);
+					lastRow = Math.max(lastRow, row);
+					firstColumn = Math.min(firstColumn, column);
+					lastColumn = Math.max(lastColumn, column);
+				}
+			}
+		}
+		if(lastRow >= 0)
+			terrainChanged(firstRow, firstColumn, lastRow, lastColumn);
+	}
+	
+	/**
+	 * Register that the pixels of the terrain of this world in the given
+	 * rectangle of rows and columns have changed.
+	 * 
+	 * @param 	firstRow
+	 * 			The first changed row.
+	 * @param 	firstColumn
+	 * 			The first changed column.
+	 * @param 	lastRow
+	 * 			The last changed row.
+	 * @param 	lastColumn
+	 * 			The last changed column.
+	 * @post	| new.getTerrainVersion() == getTerrainVersion() + 1
+	 * @post	The distance field, the column index, the occupancy map and the passable map
+	 * 			of this world reflect the changed terrain.
+	 * 			Only the parts of them that depend on the changed pixels are updated.
+	 * @effect	Each terrain listener of this world is notified of the rectangle
+	 * 			covered by the changed pixels (in meter).
+	 */
+	@Model
+	private void terrainChanged(int firstRow, int firstColumn, int lastRow, int lastColumn){
+		this.terrainVersion++;
+		updatePassableMap(firstRow, firstColumn, lastRow, lastColumn);
+		getDistanceField().update(getTerrain(), firstRow, firstColumn, lastRow, lastColumn);
+		if(getColumnIndex() != null)
+			getColumnIndex().update(getTerrain(), firstRow, firstColumn, lastRow, lastColumn);
+		if(getOccupancyMap() != null)
+			getOccupancyMap().update(getTerrain(), firstRow, firstColumn, lastRow, lastColumn);
+		double cellWidth = getWidth() / getTerrain().getNbColumns();
+		double cellHeight = getHeight() / getTerrain().getNbRows();
+		double minX = firstColumn * cellWidth;
+		double maxX = (lastColumn + 1) * cellWidth;
+		double minY = (getTerrain().getNbRows() - 1 - lastRow) * cellHeight;
+		double maxY = (getTerrain().getNbRows() - firstRow) * cellHeight;
+		for(TerrainListener listener: new ArrayList<TerrainListener>(this.terrainListeners))
+			listener.terrainChanged(this, minX, minY, maxX, maxY);
+	}
+	
+	/**
+	 * Return the version of the terrain of this world.
+	 * 	The version starts at zero and is incremented each time the terrain changes,
+	 * 	so data derived from the terrain can be checked for being out of date
+	 * 	by comparing the version it was derived from with the current version.
+	 */
+	@Basic @Raw
+	public long getTerrainVersion(){
+		return this.terrainVersion;
+	}
+	
+	/**
+	 * Variable registering the version of the terrain of this world.
+	 */
+	private long terrainVersion = 0;
+	
+	/**
+	 * Register the given listener to be notified whenever the terrain of this world changes.
+	 * 
+	 * @param 	listener
+	 * 			The listener to register.
+	 * @throws	IllegalArgumentException("The given listener is not valid.")
+	 * 			| listener == null
+	 */
+	public void addTerrainListener(TerrainListener listener)
+			throws IllegalArgumentException{
+		if(listener == null)
+			throw new IllegalArgumentException("The given listener is not valid.");
+		this.terrainListeners.add(listener);
+	}
+	
+	/**
+	 * Stop notifying the given listener when the terrain of this world changes.
+	 * 
+	 * @param 	listener
+	 * 			The listener to remove.
+	 */
+	public void removeTerrainListener(TerrainListener listener){
+		this.terrainListeners.remove(listener);
+	}
+	
+	/**
+	 * List referencing the listeners that are notified whenever the terrain of this world changes.
+	 */
+	private final ArrayList<TerrainListener> terrainListeners = new ArrayList<TerrainListener>();
 	
 
 	
@@ -547,7 +961,7 @@ public class World {
 	 * 			|	(team.getWorld() == this))
 	 * @invar	| teams.size() <= 10
 	 */
-	private HashSet<Team> teams = new HashSet<Team>();
+	private LinkedHashSet<Team> teams = new LinkedHashSet<Team>();
 
 	
 	
@@ -572,14 +986,14 @@ public class World {
 	 * 
 	 */
 	public Food hitAnyFood(double x, double y, double radius){
-		if(isImpassable(x,y,radius))
-			return null;
-		for(Food food: foodRations){
-			if(Math.pow(Math.pow((food.getX() - x), 2.0) + 
-				Math.pow((food.getY() - y), 2.0),(1.0/2.0)) <= 
-					(Food.getRadius() + radius)){
-				return food;
-			}
+		double reach = Food.getRadius() + radius;
+		ArrayList<Food> candidates = new ArrayList<Food>();
+		foodGrid.collect(x, y, reach, candidates);
+		for(Food food: candidates){
+			double dx = food.getX() - x;
+			double dy = food.getY() - y;
+			if(Math.abs(dx) <= reach && Math.abs(dy) <= reach && Math.sqrt(dx*dx + dy*dy) <= reach)
+				return isImpassable(x,y,radius) ? null : food;
 		}
 		return null;
 	}
@@ -647,42 +1061,17 @@ public class World {
 	 * Create and add a new food ration to the given world.
 	 * The food must be placed at a random adjacent location.
 	 * 
-	 * 
+	 * @effect	| addAsFood(new Food(location[0], location[1]))
+	 * 			| with location == getSpawnPointFinder().findSpawnPoint(Food.getRadius())
+	 * @throws	IllegalArgumentException
+	 * 			No adjacent location for the food can be found.
+	 * 			| getSpawnPointFinder().findSpawnPoint(Food.getRadius()) throws IllegalArgumentException
 	 */
-	//TODO moeilijker docu
 	public void addNewFood() 
 			throws IllegalArgumentException{
-		//find a location for the food
-				//determine at which wall we will start searching for a proper place
-				// 0: left wall  1: right wall,  2: bottom wall,  3: top wall
-				double getal = random.nextInt(4);
-				double testX = 0, testY = 0;
-				if(getal == 0){
-					testX = 0;
-					testY = randomStartY();
-				}
-				if(getal == 1){
-					testX = this.getWidth();
-					testY = randomStartY();
-				}
-				if(getal == 2){
-					testX = randomStartX();
-					testY = 0;
-				}
-				if(getal == 3){
-					testX = randomStartX();
-					testY = this.getHeight();
-				}
-				//determine the exact location by constantly checking a place, and going closer to the middle
-				// as suggested in the assignment.
-
-				while (! isAdjacent(testX, testY, 0.20 ))
-				{
-					testX = newX(testX);
-					testY = newY(testY);
-				}
-				Food newFood = new Food(testX, testY);
-				this.addAsFood(newFood);
+		double[] location = getSpawnPointFinder().findSpawnPoint(Food.getRadius());
+		Food newFood = new Food(location[0], location[1]);
+		this.addAsFood(newFood);
 	}
 	
 	/**
@@ -706,6 +1095,8 @@ public class World {
 			throw new IllegalArgumentException("You can't add this food.");
 		this.foodRations.add(food);
 		food.setWorld(this);
+		this.foodGrid.add(food, food.getX(), food.getY());
+		food.addListener(foodListener);
 	}
 	
 	/**
@@ -726,6 +1117,8 @@ public class World {
 			throw new IllegalArgumentException();
 		this.foodRations.remove(food);
 		food.setWorld(null);
+		this.foodGrid.remove(food);
+		food.removeListener(foodListener);
 	}
 	
 	
@@ -739,6 +1132,30 @@ public class World {
 	 * 			|	(foodRations.getWorld() == this)
 	 */
 	private HashSet<Food> foodRations = new HashSet<Food>();
+	
+	/**
+	 * Spatial grid registering the food rations of this world by their position.
+	 * 
+	 * @invar	| for each food in Food:
+	 * 			|	foodGrid.contains(food) == hasAsFood(food)
+	 */
+	private final SpatialGrid<Food> foodGrid = new SpatialGrid<Food>(GRID_CELL_SIZE);
+	
+	/**
+	 * Listener keeping the spatial grid of food rations up to date
+	 * when a food ration of this world changes its position.
+	 */
+	private final PositionListener foodListener = new PositionListener(){
+		@Override
+		public void positionChanged(Position position){
+			foodGrid.move((Food)position, position.getX(), position.getY());
+		}
+	};
+	
+	/**
+	 * Final class variable registering the size of the cells of the spatial grids (in meter).
+	 */
+	private static final double GRID_CELL_SIZE = 1.0;
 	//FOOD
 	
 	
@@ -751,51 +1168,27 @@ public class World {
 	}
 	
 	/**
-	 * Starts the next turn in the given world by finding the current worm in the linkedHashSet
-	 * and selecting the next worm as new current Worm
+	 * Starts the next turn in the given world by selecting the worm that comes
+	 * after the current worm in the turn order as the new current worm.
+	 * 	If the current worm has been removed from this world, the turn goes to the
+	 * 	worm that came after it. The first turn goes to the first worm that was added.
+	 * 
+	 * @post	| if(getWorms().isEmpty())
+	 * 			|	then new.getCurrentWorm() == getCurrentWorm()
+	 * @post	| if(getCurrentWorm() != null)
+	 * 			|	then new.getCurrentWorm() == the worm after getCurrentWorm() in the turn order
+	 * @effect	| if(!getWorms().isEmpty())
+	 * 			|	then startNextTurn_Aux(new.getCurrentWorm())
 	 */
-	//vorige worm checken, zoeken in linkedHashSet, en de volgende in de set nemen als current worm.
-	//TODO documentation
 	public void startNextTurn(){
-		Iterator<Worm> it = worms.iterator();
-		if (this.currentWorm == null)
-		{
-			currentWorm = it.next();
-		}
+		if(turnOrder.size() == 0)
+			return;
+		Worm previousWorm = (currentWorm != null) ? currentWorm : removedCurrentWormPredecessor;
+		if(previousWorm == null)
+			currentWorm = turnOrder.getFirst();
 		else
-		{
-			String lastWormName = currentWorm.getName();
-			boolean flag = false;
-			Worm testWorm = null;
-			while(!flag)
-			{
-				testWorm = it.next();
-				if(testWorm.getName().equals(lastWormName))
-					flag = true;
-								
-			}
-			
-			if(it.hasNext())
-				currentWorm = it.next();
-			else
-			{
-				Iterator<Worm> it2 = worms.iterator();
-				currentWorm = it2.next();		
-			}
-			while(currentWorm == null&& it.hasNext())
-			{
-				currentWorm = it.next();
-			}
-			if(currentWorm == null)
-			{
-				Iterator<Worm> it3 = worms.iterator();
-				while(currentWorm == null &&it3.hasNext())
-				{
-					currentWorm = it3.next();
-				}
-			}
-		}
-		
+			currentWorm = turnOrder.getNext(previousWorm);
+		removedCurrentWormPredecessor = null;
 		this.startNextTurn_Aux(currentWorm);
 	}
 	
@@ -828,6 +1221,20 @@ public class World {
 	
 	private Worm currentWorm = null;
 	
+	/**
+	 * Turn order registering the worms of this world in the order in which they were added.
+	 * 
+	 * @invar	| for each worm in Worm:
+	 * 			|	turnOrder.contains(worm) == hasAsWorm(worm)
+	 */
+	private final TurnOrder<Worm> turnOrder = new TurnOrder<Worm>();
+	
+	/**
+	 * Variable referencing the worm after which the next turn starts, if the
+	 * current worm has been removed from this world since the last turn started.
+	 */
+	private Worm removedCurrentWormPredecessor = null;
+	
 	
 	/**
 	 * returns the worm object if it is in within the given radius on the given position.
@@ -850,16 +1257,58 @@ public class World {
 	 * 
 	 */
 	public Worm hitAnyWorm(double x, double y, double radius){
-		if(isImpassable(x,y,radius))
-			return null;
-		for(Worm worm: worms){
-			if(Math.pow(Math.pow((worm.getWormPosition().getX() - x), 2) + 
-				Math.pow((worm.getWormPosition().getY() - y), 2),(1/2.0)) <= 
-					(worm.getRadius() + radius)){
-				return worm;
+		ArrayList<Worm> candidates = new ArrayList<Worm>();
+		wormGrid.collect(x, y, maximalWormRadius + radius, candidates);
+		// the first worm that was added to this world is returned, as if the worms were scanned in order
+		Worm result = null;
+		for(Worm worm: candidates){
+			double reach = worm.getRadius() + radius;
+			double dx = worm.getWormPosition().getX() - x;
+			double dy = worm.getWormPosition().getY() - y;
+			if(Math.abs(dx) <= reach && Math.abs(dy) <= reach && Math.sqrt(dx*dx + dy*dy) <= reach){
+				if(result == null || wormGrid.getOrder(worm) < wormGrid.getOrder(result))
+					result = worm;
 			}
 		}
-		return null;
+		// the terrain is only checked once a worm is hit, since most positions hit no worm
+		if(result == null || isImpassable(x,y,radius))
+			return null;
+		return result;
+	}
+	
+	/**
+	 * Returns the worms of this world that may lie within the given distance
+	 * from the given point. Worms that lie further away may be returned as well.
+	 * 
+	 * @param 	x
+	 * 			the given x-position
+	 * @param 	y
+	 * 			the given y-position
+	 * @param 	distance
+	 * 			the given distance
+	 * @return	| for each worm in worms:
+	 * 			|	if(Math.sqrt(Math.pow(worm.getWormPosition().getX() - x, 2) +
+	 * 			|		Math.pow(worm.getWormPosition().getY() - y, 2)) - worm.getRadius() <= distance)
+	 * 			|		then result.contains(worm)
+	 */
+	public Collection<Worm> getWormsNear(double x, double y, double distance){
+		ArrayList<Worm> result = new ArrayList<Worm>();
+		wormGrid.collect(x, y, maximalWormRadius + distance, result);
+		return result;
+	}
+	
+	/**
+	 * Returns the order in which the given worm was added to this world.
+	 * Worms that were added later have a larger order.
+	 * 
+	 * @param 	worm
+	 * 			the given worm
+	 * @throws	IllegalArgumentException()
+	 * 			| !hasAsWorm(worm)
+	 */
+	public long getOrderOfWorm(Worm worm)
+			throws IllegalArgumentException{
+		return wormGrid.getOrder(worm);
 	}
 	
 	/**
@@ -916,45 +1365,21 @@ public class World {
 	
 	/**
 	 * Create and add a new worm to the given world.
+	 * The worm is placed at a random adjacent location and added to the smallest team, if any.
 	 * 
-	 * 
+	 * @effect	| addAsWorm(new Worm(location[0], location[1], 0, 0.25, name))
+	 * 			| with location == getSpawnPointFinder().findSpawnPoint(0.25)
+	 * @throws	IllegalArgumentException
+	 * 			No adjacent location for the worm can be found.
+	 * 			| getSpawnPointFinder().findSpawnPoint(0.25) throws IllegalArgumentException
 	 */
-	//TODO moeilijke docu
 	public void addNewWorm() 
 			throws IllegalArgumentException{
-		//find a location for the worm
-		//determine at which wall we will start searching for a proper place
-		// 0: left wall  1: right wall,  2: bottom wall,  3: top wall
-		double getal = random.nextInt(4);
-		double testX = 0, testY = 0;
-		if(getal == 0){
-			testX = 0;
-			testY = randomStartY();
-		}
-		if(getal == 1){
-			testX = this.getWidth();
-			testY = randomStartY();
-		}
-		if(getal == 2){
-			testX = randomStartX();
-			testY = 0;
-		}
-		if(getal == 3){
-			testX = randomStartX();
-			testY = this.getHeight();
-		}
-		//determine the exact location by constantly checking a place, and going closer to the middle
-		// as suggested in the assignment.
-
-		while (! isAdjacent(testX, testY, 0.25 ))
-		{
-			testX = newX(testX);
-			testY = newY(testY);
-		}
+		double[] location = getSpawnPointFinder().findSpawnPoint(0.25);
 		int grootte = worms.size() + 1;
 		String name = "Not Yet Named " + grootte;
 				
-		Worm newWorm = new Worm(testX, testY, 0, 0.25, name);
+		Worm newWorm = new Worm(location[0], location[1], 0, 0.25, name);
 		this.addAsWorm(newWorm);
 		
 		if(teams.size() > 1){
@@ -973,6 +1398,19 @@ public class World {
 	
 
 	
+	/**
+	 * Return the spawn point finder used to place new worms and food rations in this world.
+	 */
+	@Basic @Raw
+	public SpawnPointFinder getSpawnPointFinder(){
+		return this.spawnPointFinder;
+	}
+	
+	/**
+	 * Variable referencing the spawn point finder of this world.
+	 */
+	private final SpawnPointFinder spawnPointFinder = new SpawnPointFinder(this);
+	
 	/**
 	 * add the given worm to the set of worms attached to this world.
 	 * 
@@ -998,7 +1436,11 @@ public class World {
 		if(worm.getWorld() != null)
 			throw new IllegalArgumentException();
 		this.worms.add(worm);
+		this.turnOrder.add(worm);
 		worm.setWorld(this);
+		this.wormGrid.add(worm, worm.getWormPosition().getX(), worm.getWormPosition().getY());
+		this.maximalWormRadius = Math.max(this.maximalWormRadius, worm.getRadius());
+		worm.getWormPosition().addListener(wormListener);
 	}
 	
 	/**
@@ -1008,6 +1450,10 @@ public class World {
 	 * 			the worm to be removed
 	 * @post	this world does not have the given worm as one of its worms
 	 * 			| !new.hasAsWorm(worm)
+	 * @post	if the given worm is the current worm, there is no current worm
+	 * 			until the next turn starts, which goes to the worm after the given worm.
+	 * 			| if(worm == getCurrentWorm())
+	 * 			|	then new.getCurrentWorm() == null
 	 * @post 	if this world has the given worm as one of its worms,
 	 * 			the given worm is no longer attached to any world.
 	 * 			|if (hasAsWorm(worm))
@@ -1019,8 +1465,17 @@ public class World {
 			throws IllegalArgumentException{
 		if(!hasAsWorm(worm))
 			throw new IllegalArgumentException();
+		if(worm == this.currentWorm || worm == this.removedCurrentWormPredecessor){
+			// the next turn starts after the worm before the removed worm
+			Worm before = this.turnOrder.getPrevious(worm);
+			this.removedCurrentWormPredecessor = (before == worm) ? null : before;
+			this.currentWorm = null;
+		}
+		this.turnOrder.remove(worm);
 		this.worms.remove(worm);
 		worm.setWorld(null);
+		this.wormGrid.remove(worm);
+		worm.getWormPosition().removeListener(wormListener);
 	}
 	
 	/**
@@ -1036,6 +1491,36 @@ public class World {
 	 * 			| 	(worm.getWorld() == this)
 	 */
 	private LinkedHashSet<Worm> worms = new LinkedHashSet<Worm>();
+	
+	/**
+	 * Spatial grid registering the worms of this world by their position,
+	 * in the same order as the set of worms.
+	 * 
+	 * @invar	| for each worm in Worm:
+	 * 			|	wormGrid.contains(worm) == hasAsWorm(worm)
+	 */
+	private final SpatialGrid<Worm> wormGrid = new SpatialGrid<Worm>(GRID_CELL_SIZE);
+	
+	/**
+	 * Variable registering an upper bound on the radius of the worms in this world.
+	 * 
+	 * @invar	| for each worm in worms:
+	 * 			|	worm.getRadius() <= maximalWormRadius
+	 */
+	private double maximalWormRadius = 0;
+	
+	/**
+	 * Listener keeping the spatial grid of worms up to date when a worm
+	 * of this world changes its position or its radius.
+	 */
+	private final PositionListener wormListener = new PositionListener(){
+		@Override
+		public void positionChanged(Position position){
+			Worm worm = ((WormPosition)position).getWorm();
+			wormGrid.move(worm, position.getX(), position.getY());
+			maximalWormRadius = Math.max(maximalWormRadius, worm.getRadius());
+		}
+	};
 
 	
 	//WORM
@@ -1102,6 +1587,180 @@ public class World {
 	}
 	private Random random = null;
 	//RANDOM
+	
+	/**
+	 * Return the registry of the weapon types the worms in this world can select.
+	 */
+	@Basic @Raw
+	public WeaponRegistry getWeaponRegistry(){
+		return this.weaponRegistry;
+	}
+	
+	/**
+	 * Set the registry of the weapon types the worms in this world can select
+	 * to the given registry.
+	 * 	Worms that have selected a weapon type that is not in the given registry
+	 * 	select no weapon when they select their next weapon.
+	 * 
+	 * @param 	weaponRegistry
+	 * 			The new registry of weapon types.
+	 * @post	| new.getWeaponRegistry() == weaponRegistry
+	 * @throws	IllegalArgumentException("Invalid weapon registry")
+	 * 			| weaponRegistry == null
+	 */
+	public void setWeaponRegistry(WeaponRegistry weaponRegistry)
+			throws IllegalArgumentException{
+		if(weaponRegistry == null)
+			throw new IllegalArgumentException("Invalid weapon registry");
+		this.weaponRegistry = weaponRegistry;
+	}
+	
+	private WeaponRegistry weaponRegistry = WeaponRegistry.DEFAULT;
+	//WEAPONS
 
 	
+
+	/**
+	 * Return a snapshot of the current state of this world, from which this world
+	 * can be restored later on.
+	 * 	The terrain and the distance field of the snapshot are shared with this world
+	 * 	and with the previous snapshot, as long as the terrain of this world has not changed.
+	 * 
+	 * @return	| result.getWorld() == this
+	 * @return	| result.getNbWorms() == getWorms().size()
+	 */
+	public WorldSnapshot createSnapshot(){
+		if(this.snapshotTerrain == null || this.snapshotTerrainVersion != getTerrainVersion()){
+			this.snapshotTerrain = new Terrain(getTerrain());
+			this.snapshotDistanceField = new DistanceField(getDistanceField());
+			this.snapshotColumnIndex = (getColumnIndex() == null) ? null : new ColumnIndex(getColumnIndex());
+			this.snapshotOccupancyMap = (getOccupancyMap() == null) ? null : new OccupancyMap(getOccupancyMap());
+			this.snapshotTerrainVersion = getTerrainVersion();
+		}
+		Team[] teams = this.teams.toArray(new Team[this.teams.size()]);
+		Team.State[] teamStates = new Team.State[teams.length];
+		for(int i = 0; i < teams.length; i++)
+			teamStates[i] = new Team.State(teams[i]);
+		Worm[] worms = this.worms.toArray(new Worm[this.worms.size()]);
+		Worm.State[] wormStates = new Worm.State[worms.length];
+		for(int i = 0; i < worms.length; i++)
+			wormStates[i] = new Worm.State(worms[i]);
+		Food[] foodRations = this.foodRations.toArray(new Food[this.foodRations.size()]);
+		Food.State[] foodStates = new Food.State[foodRations.length];
+		for(int i = 0; i < foodRations.length; i++)
+			foodStates[i] = new Food.State(foodRations[i]);
+		return new WorldSnapshot(this, this.isActive, this.isStarted,
+				this.snapshotTerrain, this.snapshotDistanceField, this.snapshotColumnIndex, this.snapshotOccupancyMap,
+				teams, teamStates, worms, wormStates, foodRations, foodStates,
+				this.currentWorm, this.removedCurrentWormPredecessor, this.maximalWormRadius,
+				this.projectile, (this.projectile == null) ? null : new Projectile.State(this.projectile));
+	}
+	
+	/**
+	 * Restore this world to the state registered in the given snapshot.
+	 * 	Worms, teams, food rations and a projectile that were added to this world after
+	 * 	the snapshot was taken are no longer attached to this world.
+	 * 	The state of the random number generator of this world is not restored.
+	 * 	If the terrain has changed since the snapshot was taken, the terrain is restored
+	 * 	and each terrain listener of this world is notified of a change of the whole world.
+	 * 	The version of the terrain is then incremented and never goes back, so data derived
+	 * 	from the terrain before the restore is not mistaken for being up to date.
+	 * 	The terrain is known to be unchanged, and is left as it is, if no crater was carved
+	 * 	since the given snapshot was taken, or since it or a snapshot sharing its terrain
+	 * 	was last restored.
+	 * 
+	 * @param 	snapshot
+	 * 			The snapshot to restore.
+	 * @post	| new.getWorms().size() == snapshot.getNbWorms()
+	 * @post	| if(the terrain of this world is known to be unchanged since the given snapshot)
+	 * 			|	then new.getTerrainVersion() == getTerrainVersion()
+	 * 			|	else new.getTerrainVersion() == getTerrainVersion() + 1
+	 * @throws	IllegalArgumentException("The given snapshot is not a snapshot of this world.")
+	 * 			| snapshot == null || snapshot.getWorld() != this
+	 */
+	public void restore(WorldSnapshot snapshot)
+			throws IllegalArgumentException{
+		if(snapshot == null || snapshot.getWorld() != this)
+			throw new IllegalArgumentException("The given snapshot is not a snapshot of this world.");
+		this.isActive = snapshot.isActive;
+		this.isStarted = snapshot.isStarted;
+		
+		for(Team team: this.teams)
+			team.detach();
+		this.teams.clear();
+		for(int i = 0; i < snapshot.teams.length; i++){
+			snapshot.teams[i].restore(snapshot.teamStates[i], this);
+			this.teams.add(snapshot.teams[i]);
+		}
+		
+		for(Worm worm: this.worms){
+			worm.getWormPosition().removeListener(wormListener);
+			worm.detach();
+		}
+		this.worms.clear();
+		this.turnOrder.clear();
+		this.wormGrid.clear();
+		for(int i = 0; i < snapshot.worms.length; i++){
+			Worm worm = snapshot.worms[i];
+			worm.restore(snapshot.wormStates[i], this);
+			this.worms.add(worm);
+			this.turnOrder.add(worm);
+			this.wormGrid.add(worm, worm.getWormPosition().getX(), worm.getWormPosition().getY());
+			worm.getWormPosition().addListener(wormListener);
+		}
+		this.currentWorm = snapshot.currentWorm;
+		this.removedCurrentWormPredecessor = snapshot.removedCurrentWormPredecessor;
+		this.maximalWormRadius = snapshot.maximalWormRadius;
+		
+		for(Food food: this.foodRations){
+			food.removeListener(foodListener);
+			food.detach();
+		}
+		this.foodRations.clear();
+		this.foodGrid.clear();
+		for(int i = 0; i < snapshot.foodRations.length; i++){
+			Food food = snapshot.foodRations[i];
+			food.restore(snapshot.foodStates[i], this);
+			this.foodRations.add(food);
+			this.foodGrid.add(food, food.getX(), food.getY());
+			food.addListener(foodListener);
+		}
+		
+		if(this.projectile != null && this.projectile != snapshot.projectile)
+			this.projectile.detach();
+		if(snapshot.projectile != null)
+			snapshot.projectile.restore(snapshot.projectileState, this);
+		this.projectile = snapshot.projectile;
+		
+		if(this.snapshotTerrain != snapshot.terrain || this.snapshotTerrainVersion != getTerrainVersion()){
+			getTerrain().setPixels(snapshot.terrain);
+			getDistanceField().setDistances(snapshot.distanceField);
+			if(getColumnIndex() != null)
+				getColumnIndex().setTransitions(snapshot.columnIndex);
+			if(getOccupancyMap() != null)
+				getOccupancyMap().setBlocks(snapshot.occupancyMap);
+			updatePassableMap(0, 0, getTerrain().getNbRows() - 1, getTerrain().getNbColumns() - 1);
+			this.terrainVersion++;
+			this.snapshotTerrain = snapshot.terrain;
+			this.snapshotDistanceField = snapshot.distanceField;
+			this.snapshotColumnIndex = snapshot.columnIndex;
+			this.snapshotOccupancyMap = snapshot.occupancyMap;
+			this.snapshotTerrainVersion = getTerrainVersion();
+			for(TerrainListener listener: new ArrayList<TerrainListener>(this.terrainListeners))
+				listener.terrainChanged(this, 0, 0, getWidth(), getHeight());
+		}
+	}
+	
+	/**
+	 * Variables referencing the terrain and the data derived from it shared with the last
+	 * snapshot taken or restored, and registering the version of the terrain of this world
+	 * they match.
+	 */
+	private Terrain snapshotTerrain = null;
+	private DistanceField snapshotDistanceField = null;
+	private ColumnIndex snapshotColumnIndex = null;
+	private OccupancyMap snapshotOccupancyMap = null;
+	private long snapshotTerrainVersion = -1;
+	//SNAPSHOTS
+
 }
@@ -0,0 +1,126 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of snapshots of the state of a world, from which that world can be restored.
+ * 	A snapshot registers the state of the world itself, of its teams, worms, food rations
+ * 	and projectile, and the terrain of the world with its distance field, column index and
+ * 	occupancy map. These are shared with the world and with other snapshots of the world
+ * 	until the terrain changes, so taking a snapshot and restoring it take time in proportion
+ * 	to the number of worms, teams and food rations, and not to the size of the terrain.
+ * 	A snapshot does not register the state of the random number generator of the world,
+ * 	which is only used to place new worms and food rations.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class WorldSnapshot {
+
+	/**
+	 * Create a new snapshot of the given world, with the given state.
+	 * 	Snapshots are created by World.createSnapshot.
+	 */
+	WorldSnapshot(World world, boolean isActive, boolean isStarted,
+			Terrain terrain, DistanceField distanceField, ColumnIndex columnIndex, OccupancyMap occupancyMap,
+			Team[] teams, Team.State[] teamStates,
+			Worm[] worms, Worm.State[] wormStates,
+			Food[] foodRations, Food.State[] foodStates,
+			Worm currentWorm, Worm removedCurrentWormPredecessor, double maximalWormRadius,
+			Projectile projectile, Projectile.State projectileState){
+		this.world = world;
+		this.isActive = isActive;
+		this.isStarted = isStarted;
+		this.terrain = terrain;
+		this.distanceField = distanceField;
+		this.columnIndex = columnIndex;
+		this.occupancyMap = occupancyMap;
+		this.teams = teams;
+		this.teamStates = teamStates;
+		this.worms = worms;
+		this.wormStates = wormStates;
+		this.foodRations = foodRations;
+		this.foodStates = foodStates;
+		this.currentWorm = currentWorm;
+		this.removedCurrentWormPredecessor = removedCurrentWormPredecessor;
+		this.maximalWormRadius = maximalWormRadius;
+		this.projectile = projectile;
+		this.projectileState = projectileState;
+	}
+
+
+
+	/**
+	 * Return the world of which this is a snapshot.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Variable referencing the world of which this is a snapshot.
+	 */
+	final World world;
+
+	/**
+	 * Return the number of worms in the world when this snapshot was taken.
+	 */
+	@Immutable
+	public int getNbWorms(){
+		return this.worms.length;
+	}
+
+	/**
+	 * Variables registering whether the world was active and whether its game was started.
+	 */
+	final boolean isActive, isStarted;
+
+	/**
+	 * Variables referencing the terrain of the world and the data derived from it,
+	 * which are never changed themselves.
+	 */
+	final Terrain terrain;
+	final DistanceField distanceField;
+	final ColumnIndex columnIndex;
+	final OccupancyMap occupancyMap;
+
+	/**
+	 * Arrays referencing the teams of the world in their order, and their states.
+	 */
+	final Team[] teams;
+	final Team.State[] teamStates;
+
+	/**
+	 * Arrays referencing the worms of the world in the order in which they were added,
+	 * which is also their turn order, and their states.
+	 */
+	final Worm[] worms;
+	final Worm.State[] wormStates;
+
+	/**
+	 * Arrays referencing the food rations of the world in the order in which they were added,
+	 * and their states.
+	 */
+	final Food[] foodRations;
+	final Food.State[] foodStates;
+
+	/**
+	 * Variables referencing the worms that determine the next turn.
+	 */
+	final Worm currentWorm, removedCurrentWormPredecessor;
+
+	/**
+	 * Variable registering the largest radius of the worms that were in the world.
+	 */
+	final double maximalWormRadius;
+
+	/**
+	 * Variables referencing the projectile of the world, if any, and its state.
+	 */
+	final Projectile projectile;
+	final Projectile.State projectileState;
+}
@@ -230,6 +230,81 @@ public class WorldTest {
 		assertTrue(!testWorld1.canFall(2, 2, 1));
 	}
 	
+	@Test
+	public void getFreeFallHeight_legalCase(){
+		double freeFallHeight = testWorld1.getFreeFallHeight(3, 3.5, 0.25);
+		assertEquals(2.275, freeFallHeight, 1E-9);
+		for(double y = 3.5; y > freeFallHeight; y -= 0.01)
+			assertTrue(testWorld1.canFall(3, y, 0.25));
+	}
+	
+	@Test
+	public void getFreeFallHeight_noTerrainBelow(){
+		boolean[][] passableMap = {{true,true,true},
+								   {true,true,true},
+								   {true,true,true}};
+		World myWorld = new World(3,3,passableMap,new Random());
+		double freeFallHeight = myWorld.getFreeFallHeight(1.5, 2, 0.25);
+		assertEquals(1.275, freeFallHeight, 1E-9);
+		for(double y = 2; y > freeFallHeight; y -= 0.01)
+			assertTrue(myWorld.canFall(1.5, y, 0.25));
+	}
+	
+	@Test
+	public void getColumnIndex_legalCase(){
+		ColumnIndex index = testWorld1.getColumnIndex();
+		assertEquals(3, index.getNbTransitions(2));
+		assertEquals(0, index.getNextImpassableRow(2, 0, 5));
+		assertEquals(5, index.getNextImpassableRow(2, 1, 5));
+		assertEquals(4, index.getNextImpassableRow(2, 1, 3));
+		assertTrue(index.isPassable(3, 2));
+		assertFalse(index.isPassable(5, 2));
+	}
+	
+	@Test
+	public void getColumnIndex_terrainChanged(){
+		WorldSnapshot snapshot = testWorld1.createSnapshot();
+		testWorld1.carveCrater(3, 0.5, 0.6);
+		testWorld1.setPassable(2, 3, false);
+		assertSameAsTerrain(testWorld1);
+		assertEquals(2, testWorld1.getColumnIndex().getNextImpassableRow(3, 1, 5));
+		assertEquals(6, testWorld1.getColumnIndex().getNextImpassableRow(2, 1, 5));
+		testWorld1.restore(snapshot);
+		assertSameAsTerrain(testWorld1);
+		assertEquals(5, testWorld1.getColumnIndex().getNextImpassableRow(2, 1, 5));
+	}
+	
+	/**
+	 * Check that the column index of the given world registers the pixels of its terrain.
+	 */
+	private static void assertSameAsTerrain(World world){
+		Terrain terrain = world.getTerrain();
+		for(int row = 0; row < terrain.getNbRows(); row++)
+			for(int column = 0; column < terrain.getNbColumns(); column++)
+				assertEquals(terrain.isPassable(row, column), world.getColumnIndex().isPassable(row, column));
+	}
+
+	@Test
+	public void getOccupancyMap_legalCase(){
+		OccupancyMap map = testWorld1.getOccupancyMap();
+		Terrain terrain = testWorld1.getTerrain();
+		assertEquals(OccupancyMap.EMPTY, map.getOccupancy(terrain, 1, 1, 4, 4));
+		assertEquals(OccupancyMap.FULL, map.getOccupancy(terrain, 0, 0, 0, 5));
+		assertEquals(OccupancyMap.MIXED, map.getOccupancy(terrain, 0, 0, 5, 5));
+	}
+
+	@Test
+	public void getOccupancyMap_terrainChanged(){
+		WorldSnapshot snapshot = testWorld1.createSnapshot();
+		testWorld1.setPassable(2, 3, false);
+		OccupancyMap map = testWorld1.getOccupancyMap();
+		Terrain terrain = testWorld1.getTerrain();
+		assertEquals(OccupancyMap.FULL, map.getOccupancy(terrain, 2, 3, 2, 3));
+		assertEquals(OccupancyMap.MIXED, map.getOccupancy(terrain, 1, 1, 4, 4));
+		testWorld1.restore(snapshot);
+		assertEquals(OccupancyMap.EMPTY, testWorld1.getOccupancyMap().getOccupancy(testWorld1.getTerrain(), 1, 1, 4, 4));
+	}
+
 	@Test
 	public void hasAsTeam_legalCase(){
 		Team team = new Team("Pieter");
@@ -262,4 +337,191 @@ public class WorldTest {
 			assertTrue(Food.getRadius() == 0.20);
 		}
 	}
+	
+	@Test
+	public void setPassable_legalCase(){
+		final double[] changedRegion = new double[4];
+		testWorld1.addTerrainListener(new TerrainListener(){
+			@Override
+			public void terrainChanged(World world, double minX, double minY, double maxX, double maxY){
+				changedRegion[0] = minX;
+				changedRegion[1] = minY;
+				changedRegion[2] = maxX;
+				changedRegion[3] = maxY;
+			}
+		});
+		assertEquals(0, testWorld1.getTerrainVersion());
+		testWorld1.setPassable(2, 2, false);
+		assertEquals(1, testWorld1.getTerrainVersion());
+		assertFalse(testWorld1.getPassableMap()[2][2]);
+		assertTrue(testWorld1.isImpassable(2.5, 3.5, 0.1));
+		assertEquals(2, changedRegion[0], 1E-9);
+		assertEquals(3, changedRegion[1], 1E-9);
+		assertEquals(3, changedRegion[2], 1E-9);
+		assertEquals(4, changedRegion[3], 1E-9);
+	}
+	
+	@Test
+	public void setPassable_unchangedPixel(){
+		testWorld1.setPassable(0, 0, false);
+		assertEquals(0, testWorld1.getTerrainVersion());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void setPassable_illegalPixel(){
+		testWorld1.setPassable(6, 0, true);
+	}
+	
+	@Test
+	public void carveCrater_legalCase(){
+		testWorld1.carveCrater(0.5, 0.5, 0.8);
+		assertEquals(1, testWorld1.getTerrainVersion());
+		assertTrue(testWorld1.getPassableMap()[5][0]);
+		assertFalse(testWorld1.getPassableMap()[5][1]);
+		assertFalse(testWorld1.getPassableMap()[4][0]);
+		assertTrue(testWorld1.getDistanceField().getDistance(0.5, 0.5) > 0);
+	}
+	
+	@Test
+	public void carveCrater_passableTerrain(){
+		testWorld1.carveCrater(3, 3, 0.8);
+		assertEquals(0, testWorld1.getTerrainVersion());
+	}
+
+	@Test
+	public void carveCrater_givenPassableMapUnchanged(){
+		boolean[][] passableMap = {{false,false,false},
+								   {false,true,false},
+								   {false,false,false}};
+		World world = new World(3,3,passableMap,new Random());
+		World otherWorld = new World(3,3,passableMap,new Random());
+		WorldSnapshot snapshot = world.createSnapshot();
+		world.carveCrater(0.5, 0.5, 0.8);
+		assertFalse(passableMap[2][0]);
+		assertTrue(world.getPassableMap() != passableMap);
+		assertTrue(world.getPassableMap()[2][0]);
+		assertTrue(otherWorld.getPassableMap() == passableMap);
+		assertTrue(otherWorld.getTerrain().isPassable(1, 1) && !otherWorld.getTerrain().isPassable(2, 0));
+		world.restore(snapshot);
+		assertFalse(passableMap[2][0]);
+		assertFalse(world.getPassableMap()[2][0]);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void addNewWorm_noAdjacentLocation(){
+		boolean[][] passableMap = {{true,true,true},
+								   {true,true,true},
+								   {true,true,true}};
+		World openWorld = new World(3,3,passableMap,new Random());
+		openWorld.addNewWorm();
+	}
+	
+	@Test
+	public void addNewWorm_sameSeed(){
+		World world1 = new World(6,6,testWorld1.getPassableMap(),new Random(7));
+		World world2 = new World(6,6,testWorld1.getPassableMap(),new Random(7));
+		world1.addNewWorm();
+		world2.addNewWorm();
+		Worm worm1 = world1.getWorms().iterator().next();
+		Worm worm2 = world2.getWorms().iterator().next();
+		assertEquals(worm1.getWormPosition().getX(), worm2.getWormPosition().getX(), 0);
+		assertEquals(worm1.getWormPosition().getY(), worm2.getWormPosition().getY(), 0);
+	}
+	
+	@Test
+	public void startNextTurn_sameNames(){
+		Worm worm1 = new Worm(2, 2, 0, 0.5, "Same");
+		Worm worm2 = new Worm(3, 2, 0, 0.5, "Same");
+		Worm worm3 = new Worm(4, 2, 0, 0.5, "Same");
+		testWorld1.addAsWorm(worm1);
+		testWorld1.addAsWorm(worm2);
+		testWorld1.addAsWorm(worm3);
+		testWorld1.startNextTurn();
+		assertTrue(testWorld1.getCurrentWorm() == worm1);
+		testWorld1.startNextTurn();
+		assertTrue(testWorld1.getCurrentWorm() == worm2);
+		testWorld1.startNextTurn();
+		assertTrue(testWorld1.getCurrentWorm() == worm3);
+		testWorld1.startNextTurn();
+		assertTrue(testWorld1.getCurrentWorm() == worm1);
+	}
+	
+	@Test
+	public void startNextTurn_removedCurrentWorm(){
+		Worm worm1 = new Worm(2, 2, 0, 0.5, "Eerste");
+		Worm worm2 = new Worm(3, 2, 0, 0.5, "Tweede");
+		Worm worm3 = new Worm(4, 2, 0, 0.5, "Derde");
+		testWorld1.addAsWorm(worm1);
+		testWorld1.addAsWorm(worm2);
+		testWorld1.addAsWorm(worm3);
+		testWorld1.startNextTurn();
+		testWorld1.startNextTurn();
+		testWorld1.removeAsWorm(worm2);
+		assertNull(testWorld1.getCurrentWorm());
+		testWorld1.startNextTurn();
+		assertTrue(testWorld1.getCurrentWorm() == worm3);
+	}
+	
+	@Test
+	public void restore_legalCase(){
+		Worm worm1 = new Worm(2, 2, 0, 0.5, "Eerste");
+		Worm worm2 = new Worm(3, 2, 0, 0.5, "Tweede");
+		testWorld1.addAsWorm(worm1);
+		testWorld1.addAsWorm(worm2);
+		testWorld1.startNextTurn();
+		double distance = testWorld1.getDistanceField().getDistance(0.5, 0.5);
+		WorldSnapshot snapshot = testWorld1.createSnapshot();
+		worm1.turn(1);
+		worm1.reduceCurrentHitPoints(10);
+		testWorld1.startNextTurn();
+		testWorld1.removeAsWorm(worm2);
+		Worm worm3 = new Worm(4, 2, 0, 0.5, "Derde");
+		testWorld1.addAsWorm(worm3);
+		testWorld1.carveCrater(0.5, 0.5, 0.8);
+		long version = testWorld1.getTerrainVersion();
+		testWorld1.restore(snapshot);
+		assertEquals(2, testWorld1.getWorms().size());
+		assertTrue(testWorld1.hasAsWorm(worm2));
+		assertTrue(worm2.getWorld() == testWorld1);
+		assertNull(worm3.getWorld());
+		assertEquals(0, worm1.getDirection(), 0);
+		assertEquals(worm1.getMaxHitPoints(), worm1.getCurrentHitPoints());
+		assertTrue(testWorld1.getCurrentWorm() == worm1);
+		assertTrue(testWorld1.hitAnyWorm(3, 2, 0.1) == worm2);
+		assertFalse(testWorld1.getPassableMap()[5][0]);
+		assertEquals(distance, testWorld1.getDistanceField().getDistance(0.5, 0.5), 0);
+		assertTrue(testWorld1.getTerrainVersion() > version);
+		testWorld1.startNextTurn();
+		assertTrue(testWorld1.getCurrentWorm() == worm2);
+	}
+	
+	@Test
+	public void restore_twice(){
+		WorldSnapshot snapshot = testWorld1.createSnapshot();
+		testWorld1.carveCrater(0.5, 0.5, 0.8);
+		WorldSnapshot carved = testWorld1.createSnapshot();
+		testWorld1.restore(snapshot);
+		assertFalse(testWorld1.getTerrain().isPassable(5, 0));
+		testWorld1.restore(carved);
+		assertTrue(testWorld1.getTerrain().isPassable(5, 0));
+		testWorld1.restore(snapshot);
+		assertFalse(testWorld1.getTerrain().isPassable(5, 0));
+	}
+	
+	@Test
+	public void restore_terrainUnchanged(){
+		WorldSnapshot snapshot = testWorld1.createSnapshot();
+		long version = testWorld1.getTerrainVersion();
+		testWorld1.restore(snapshot);
+		assertEquals(version, testWorld1.getTerrainVersion());
+		testWorld1.carveCrater(0.5, 0.5, 0.8);
+		testWorld1.restore(snapshot);
+		assertEquals(version + 2, testWorld1.getTerrainVersion());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void restore_otherWorld(){
+		World otherWorld = new World(6,6,testWorld1.getPassableMap(),new Random());
+		testWorld1.restore(otherWorld.createSnapshot());
+	}
 }
@@ -177,6 +177,8 @@ public class Worm {
 	 * 			| this.setMass()
 	 * 			| this.setMaxActionPoints()
 	 * 			| this.setMaxHitPoints()
+	 * @effect	The listeners of the position of this worm are notified of the new radius.
+	 * 			| getWormPosition().firePositionChanged()
 	 * @throws	IllegalRadiusException(radius,this)
 	 * 			The given radius is not a valid radius for this worm.
 	 * 			| !canHaveAsRadius(radius)
@@ -191,6 +193,7 @@ public class Worm {
 		setMass();
 		setMaxActionPoints();
 		setMaxHitPoints();
+		getWormPosition().firePositionChanged();
 	}
 	
 	/**
@@ -335,7 +338,7 @@ public class Worm {
 	 * 			decremented with the used action points
 	 * 			| this.setCurrentActionPoints(
 	 * 			|			getCurrentActionPoints - (int)(Math.ceil(Math.abs(angle) / (2*Math.PI) * 60)))
-	 * 			| if ((this.getDirection() + angle) > 2*Math.PI)
+	 * 			| if ((this.getDirection() + angle) >= 2*Math.PI)
 	 * 			|	then (this.setDirection(getDirection() + angle - 2*Math.PI))
 	 * 			| else if ((this.getDirection() + angle) < 0)
 	 * 			|	then (this.setDirection(getDirection() + angle + 2*Math.PI))
@@ -348,10 +351,13 @@ public class Worm {
 		double orientation = getDirection() + angle;
 		if(!isValidDirection(orientation))
 		{
-			if(orientation > 2*Math.PI)
+			if(orientation >= 2*Math.PI)
 				orientation -= 2*Math.PI;
 			if(orientation < 0)	
 				orientation += 2*Math.PI;
+			if(!isValidDirection(orientation))
+				// a tiny negative orientation rounds up to two pi
+				orientation = 0;
 		}
 		setDirection(orientation);
 		setCurrentActionPoints(getCurrentActionPoints() - (int)(Math.ceil(Math.abs(angle) / (2*Math.PI) * 60)));
@@ -797,5 +803,81 @@ public class Worm {
 	 * A boolean indicating whether or not the worm is alive.
 	 */
 	private boolean isAlive = true;
-}
+	
+	
+	
+	/**
+	 * A class registering the state of a worm, so that it can be restored
+	 * when its world is restored from a snapshot.
+	 */
+	static class State {
+
+		State(Worm worm){
+			this.x = worm.getWormPosition().getX();
+			this.y = worm.getWormPosition().getY();
+			this.radius = worm.radius;
+			this.minRadius = worm.minRadius;
+			this.direction = worm.direction;
+			this.mass = worm.mass;
+			this.maxActionPoints = worm.maxActionPoints;
+			this.currentActionPoints = worm.currentActionPoints;
+			this.name = worm.name;
+			this.weaponType = worm.weapon.getCurrentWeaponType();
+			this.currentHitPoints = worm.currentHitPoints;
+			this.maxHitPoints = worm.maxHitPoints;
+			this.team = worm.team;
+			this.isAlive = worm.isAlive;
+		}
+
+		private final double x, y, radius, minRadius, direction, mass;
+
+		private final int maxActionPoints, currentActionPoints, currentHitPoints, maxHitPoints;
+
+		private final String name;
 
+		private final WeaponType weaponType;
+
+		private final Team team;
+
+		private final boolean isAlive;
+	}
+	
+	/**
+	 * Give this worm the given state, and attach it to the given world.
+	 * 	The consistency with the world and the team of this worm is
+	 * 	restored by the world.
+	 * 
+	 * @param 	state
+	 * 			The state to restore.
+	 * @param 	world
+	 * 			The world to which this worm is attached, or null.
+	 */
+	@Raw
+	void restore(State state, World world){
+		getWormPosition().restorePosition(state.x, state.y);
+		this.radius = state.radius;
+		this.minRadius = state.minRadius;
+		this.direction = state.direction;
+		this.mass = state.mass;
+		this.maxActionPoints = state.maxActionPoints;
+		this.currentActionPoints = state.currentActionPoints;
+		this.name = state.name;
+		this.weapon.setCurrentWeaponType(state.weaponType);
+		this.currentHitPoints = state.currentHitPoints;
+		this.maxHitPoints = state.maxHitPoints;
+		this.team = state.team;
+		this.isAlive = state.isAlive;
+		this.world = world;
+	}
+	
+	/**
+	 * Detach this worm from its world and its team without any checks.
+	 * 	This is only used for worms that did not belong to a world yet
+	 * 	when the snapshot from which that world is restored was taken.
+	 */
+	@Raw
+	void detach(){
+		this.world = null;
+		this.team = null;
+	}
+}
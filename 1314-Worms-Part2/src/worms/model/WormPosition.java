@@ -50,23 +50,36 @@ public class WormPosition extends Position{
 	
 	/**
 	 * Check whether the worm can move or not.
+	 * 
+	 * @return	| result == getMovePlan().isPossible()
 	 */
-	//TODO documentation
 	@Raw
 	public boolean canMove() 
 	{
-		double testDirection = this.getWorm().getDirection() + 0.7875;
-		
-		while(testDirection >= this.getWorm().getDirection() - 0.7875)
-		{
-			if(this.move_newDistance(testDirection) != -2){
-				return true;
-			}
-			testDirection -= 0.0175;
-		}
-		return false;
+		return getMovePlan().isPossible();
+	}
+	
+	/**
+	 * Return the plan of a move in the current state of the worm.
+	 * 	The plan is computed once and reused for as long as the position,
+	 * 	direction, action points, radius and world of the worm and the
+	 * 	terrain of that world do not change, so checking whether the worm
+	 * 	can move and moving it compute the move only once.
+	 * 
+	 * @return	| result.appliesTo(this)
+	 * @return	The plan is the plan computed by computeMovePlan().
+	 */
+	public MovePlan getMovePlan(){
+		if(movePlan == null || !movePlan.appliesTo(this))
+			movePlan = computeMovePlan();
+		return movePlan;
 	}
 	
+	/**
+	 * Variable referencing the plan of the last move computed for the worm.
+	 */
+	private MovePlan movePlan = null;
+	
 	/**
 	 * Check whether the worm with the current position can fall.
 	 * 
@@ -123,6 +136,64 @@ public class WormPosition extends Position{
 	//TODO documentatie veranderen!!!
 	public double getJumpTime() 
 			throws IllegalActionPointsException, IllegalDirectionException
+	{
+		return getJumpTrajectory().getTime();
+	}
+	
+	/**
+	 * Return the trajectory of a jump in the current state of the worm.
+	 * 	The trajectory is computed once and reused for as long as the position,
+	 * 	direction, action points, mass, radius and world of the worm and the
+	 * 	terrain of that world do not change.
+	 * 
+	 * @return	| result.appliesTo(this)
+	 * @return	The time of the trajectory is the time computed by computeJumpTime(),
+	 * 			or the trajectory registers the exception thrown by that method.
+	 */
+	public JumpTrajectory getJumpTrajectory(){
+		if(jumpTrajectory == null || !jumpTrajectory.appliesTo(this)){
+			try{
+				double time = computeJumpTime();
+				int n = 1 + (int) (time / JUMP_POLYLINE_TIME_DISTANCE);
+				double[][] points = new double[n][];
+				for(int i = 1; i <= n; i++)
+					points[i-1] = getJumpStep(i * time / n);
+				jumpTrajectory = new JumpTrajectory(this, time, points, null);
+			}
+			catch(IllegalActionPointsException exc){
+				jumpTrajectory = new JumpTrajectory(this, 0, null, exc);
+			}
+			catch(IllegalDirectionException exc){
+				jumpTrajectory = new JumpTrajectory(this, 0, null, exc);
+			}
+		}
+		return jumpTrajectory;
+	}
+	
+	/**
+	 * Variable referencing the trajectory of the last jump computed for the worm.
+	 */
+	private JumpTrajectory jumpTrajectory = null;
+	
+	/**
+	 * Final class variable registering the largest time between two consecutive
+	 * positions on the polyline of a jump trajectory (in seconds).
+	 */
+	public final static double JUMP_POLYLINE_TIME_DISTANCE = 0.1;
+	
+	/**
+	 * Calculate the jump time from a jump in the current direction of the worm
+	 * with the number of remaining action points of the worm.
+	 * 
+	 * @return	The time needed for a jump in the current state of the worm.
+	 * @throws	IllegalActionPointsException(0,worm)
+	 * 			| worm.getCurrentActionPoints() == 0
+	 * @throws 	IllegalDirectionException(worm.getDirection(),worm)
+	 * 			| Math.PI < worm.getDirection()
+	 */
+	@Model
+	private double computeJumpTime() 
+			throws IllegalActionPointsException, IllegalDirectionException
 	{
 		double[] tempXY = {getX(),getY()};
 		double radius = this.getWorm().getRadius();
@@ -222,69 +293,103 @@ public class WormPosition extends Position{
 	//TODO documentation
 	public void move()
 		throws IllegalDirectionException, IllegalPositionException{
-		//find the highest possible distance in a valid direction.
-			//use tempDirection to cycle through all the valid directions
-			// and store the direction with the highest distance in bestDirection
-				//initiate the bestDirection with an invalid direction.
-		double bestDirection = -1; 
-		double tempDirection = getWorm().getDirection() - 0.7875;
-		double tempDistance = -1;
-		double bestDistance = -1;
+		MovePlan plan = getMovePlan();
+		//throw exception if no proper distance was found.
+		if(!plan.isPossible())
+			throw new IllegalDirectionException(this.getWorm().getDirection(),this.getWorm());
 	
+		//move the worm to the position found by the plan.
+		double bestDirection = plan.getDirection();
+		setPosition(plan.getEndX(), plan.getEndY());
+		this.getWorm().reduceCurrentActionPoints((int) (Math.ceil(Math.abs(Math.cos(bestDirection))
+				+ Math.abs(Math.sin(4*bestDirection)))));
+		eatPossibleFood();
+	}
+	
+	/**
+	 * Compute the plan of a move in the current state of the worm.
+	 * 	A move tries the directions within NB_MOVE_STEPS steps of MOVE_STEP on either side
+	 * 	of the direction of the worm, for which the worm has enough action points.
+	 * 	In each direction, it tries the distances from the radius of the worm down to
+	 * 	0.1 meter in steps of 0.02 meter, and the worm moves over the largest distance at
+	 * 	which it is passable in any direction, in the direction closest to its own direction.
+	 * 	Of two directions equally close, the one with the smaller angle wins.
+	 * 	The distances are tried from the largest down, and the directions from the closest
+	 * 	outwards, so the first passable position found is the one the worm moves to and most
+	 * 	moves only check a few positions.
+	 * 
+	 * @return	If no position is passable, the plan is not possible.
+	 */
+	@Model
+	private MovePlan computeMovePlan(){
+		Worm worm = this.getWorm();
+		World world = worm.getWorld();
+		double radius = worm.getRadius();
+		double cos = Math.cos(worm.getDirection());
+		double sin = Math.sin(worm.getDirection());
 		
-		//check whether the worm can Move
-		if(!this.canMove())
-			throw new IllegalDirectionException(this.getWorm().getDirection(),this.getWorm());;
-		
-		//cycle through the different possible directions.
-		while(tempDirection <= getWorm().getDirection() + 0.7875)
+		//collect the directions for which the worm has enough action points,
+		//closest to the direction of the worm first.
+		int[] steps = new int[2*NB_MOVE_STEPS + 1];
+		double[] stepCos = new double[steps.length], stepSin = new double[steps.length];
+		int nbSteps = 0;
+		for(int i = 0; i < steps.length; i++)
 		{
-			tempDistance = move_newDistance(tempDirection);
-			if( tempDistance > bestDistance )
+			int step = (i % 2 == 1) ? -(i + 1) / 2 : i / 2;
+			double tempCos = getMoveCos(cos, sin, step), tempSin = getMoveSin(cos, sin, step);
+			if(canMove_Aux(tempCos, tempSin))
 			{
-				bestDistance = tempDistance; 
-				bestDirection = tempDirection ;
+				steps[nbSteps] = step;
+				stepCos[nbSteps] = tempCos;
+				stepSin[nbSteps] = tempSin;
+				nbSteps++;
 			}
-			if(bestDistance == tempDistance && (Math.abs(getWorm().getDirection() - bestDirection) > Math.abs(getWorm().getDirection() - tempDirection)))
-				bestDirection = tempDirection;	
-							
-			tempDirection += 0.0175;
 		}
-		//throw exception if no proper distance was found.
-		if(bestDistance == -1)
-			throw new IllegalDirectionException(this.getWorm().getDirection(),this.getWorm());
-	
-		//find the proper x and y coordinate and move the worm to this place.
 		
-		setPosition(this.move_CalculateX(bestDirection, bestDistance), 
-						this.move_CalculateY(bestDirection, bestDistance));
-		this.getWorm().reduceCurrentActionPoints((int) (Math.ceil(Math.abs(Math.cos(bestDirection))
-				+ Math.abs(Math.sin(4*bestDirection)))));
-		eatPossibleFood();
+		//find the largest distance at which any of these directions is passable.
+		if(nbSteps > 0)
+		{
+			for(double testDistance = radius; testDistance >= 0.1; testDistance -= 0.02)
+			{
+				for(int i = 0; i < nbSteps; i++)
+				{
+					double testX = move_CalculateX(stepCos[i], testDistance);
+					double testY = move_CalculateY(stepSin[i], testDistance);
+					if(!world.isImpassable(testX, testY, radius))
+						return new MovePlan(this, worm.getDirection() + steps[i] * MOVE_STEP,
+								testDistance, testX, testY);
+				}
+			}
+		}
+		return new MovePlan(this, worm.getDirection(), -1, getX(), getY());
 	}
 	
-	//TODO moeilijke documentatie aanvullen lusinvarianten...
+	/**
+	 * Let the worm fall straight down until it is adjacent to impassable terrain.
+	 * 	The landing height is searched by lowering the worm in steps that become ever
+	 * 	smaller. The world computes from the columns of pixels below the worm down to which
+	 * 	height the worm surely falls freely, and the steps above that height are taken
+	 * 	without checking the terrain.
+	 * 
+	 * @effect	If the worm does not land before it leaves the world, it dies.
+	 * 			| if(the worm does not become adjacent to impassable terrain)
+	 * 			|	then (setY(getWorm().getRadius() + 0.01) && getWorm().wormDeath())
+	 * @effect	Otherwise the worm lands and loses three hit points per meter it fell,
+	 * 			if the game is started, and eats the food it may hit.
+	 * 			| else (setY(landingY) && eatPossibleFood())
+	 * @throws	IllegalPositionException(getX(), getY())
+	 * 			The worm cannot fall.
+	 * 			| !canFall()
+	 */
 	public void fall() 
 			throws IllegalPositionException{
 		if(!canFall())
 			throw new IllegalPositionException(getX(), getY());
 		double radius = this.getWorm().getRadius();
-		double tempY = getY();
-		double temp = 0.5;
-		while(canFall(getX(),tempY) && temp >= (1.0/500.0)){
-			while(inMap(getX(),tempY) && canFall(getX(),tempY))
-				tempY -= temp;
-			if(!inMap(getX(),tempY))
-				tempY += temp;
-			temp = temp / 3.0;
-			while(!canFall(getX(),tempY) &&
-					!getWorm().getWorld().isAdjacent(getX(), tempY, radius) )
-				tempY += temp;
-			temp = temp / 3.0;
-		}
-		// if 'temp' is smaller than 1/300 there will be no adjacent position after the fall,
+		double tempY = fall_SearchLandingHeight();
+		// if there is no adjacent position after the fall,
 		// the worm will fall of the world and die.
-		if(canFall(getX(),tempY)){
+		if(tempY == Double.NEGATIVE_INFINITY){
 			setY(radius + 0.01);
 			this.getWorm().wormDeath();
 		}
@@ -297,14 +402,56 @@ public class WormPosition extends Position{
 		}
 	}
 	
+	/**
+	 * Return the height at which the worm lands after a fall, searched by lowering
+	 * the worm in steps that become ever smaller, or negative infinity if the worm
+	 * does not land before it leaves the world.
+	 */
+	@Model
+	private double fall_SearchLandingHeight(){
+		double radius = this.getWorm().getRadius();
+		double startY = getY();
+		double freeFallHeight = this.getWorm().getWorld().getFreeFallHeight(getX(), startY, radius);
+		double tempY = startY;
+		double temp = 0.5;
+		while(fall_CanFall(tempY, startY, freeFallHeight) && temp >= (1.0/500.0)){
+			while(inMap(getX(),tempY) && fall_CanFall(tempY, startY, freeFallHeight))
+				tempY -= temp;
+			if(!inMap(getX(),tempY))
+				tempY += temp;
+			temp = temp / 3.0;
+			while(!fall_CanFall(tempY, startY, freeFallHeight) &&
+					!getWorm().getWorld().isAdjacent(getX(), tempY, radius) )
+				tempY += temp;
+			temp = temp / 3.0;
+		}
+		// if 'temp' is smaller than 1/300 there will be no adjacent position after the fall
+		if(fall_CanFall(tempY, startY, freeFallHeight))
+			return Double.NEGATIVE_INFINITY;
+		return tempY;
+	}
+	
+	/**
+	 * Check whether the worm can fall at the given height, during a fall from the
+	 * given start height in which it falls freely above the given height.
+	 * 
+	 * @return	| result == canFall(getX(), y)
+	 */
+	@Model
+	private boolean fall_CanFall(double y, double startY, double freeFallHeight){
+		if(y > freeFallHeight && y <= startY)
+			return y - this.getWorm().getRadius() >= 0;
+		return canFall(getX(), y);
+	}
+	
 	/**
 	 * check whether a worm has enough action points to move to the given location.
 	 */
 	//TODO documentation
 	@Model
-	private boolean canMove_Aux(double direction)
+	private boolean canMove_Aux(double cos, double sin)
 	{
-		if (  (Math.abs(Math.cos(direction)) + Math.abs(Math.sin(direction)*4)  ) >
+		if (  (Math.abs(cos) + Math.abs(sin*4)  ) >
 								this.getWorm().getCurrentActionPoints() )
 			return false;
 		return true;
@@ -358,58 +505,74 @@ public class WormPosition extends Position{
 	}
 	
 	/**
-	 * Calculates the proper x-coordinate for a gives direction and distance.
+	 * Calculates the proper x-coordinate for a direction with the given cosine and a given distance.
 	 * 
-	 * @return	| result == this.getX() + (Math.cos(direction)*distance)
+	 * @return	| result == this.getX() + (cos*distance)
 	 */
 	@Model
-	private double move_CalculateX(double direction, double distance)
+	private double move_CalculateX(double cos, double distance)
 	{
-		return this.getX() + (Math.cos(direction)*distance);
+		return this.getX() + (cos*distance);
 	}
 	
 	/**
-	 * Calculates the proper y-coordinate for a gives direction and distance.
+	 * Calculates the proper y-coordinate for a direction with the given sine and a given distance.
 	 * 
-	 * @return	| result == this.getY() + (Math.sin(direction)*distance)
+	 * @return	| result == this.getY() + (sin*distance)
 	 */
 	@Model
-	private double move_CalculateY(double direction, double distance)
+	private double move_CalculateY(double sin, double distance)
 	{
-		return this.getY() + (Math.sin(direction)*distance);
+		return this.getY() + (sin*distance);
 	}
 	
 	/**
-	 * Calculates the next possible distance for the move method in a certain direction.
-	 * Returns -2 if there is no possible distance.
+	 * Return the cosine of the direction with the given cosine and sine,
+	 * turned over the given number of move steps.
+	 * 
+	 * @return	| result == Math.cos(Math.atan2(sin, cos) + step * MOVE_STEP)
 	 */
-	//TODO documentation
 	@Model
-	private double move_newDistance(double direction)
+	private static double getMoveCos(double cos, double sin, int step)
 	{
-		//find the highest possible distance which is in a passable location.
-			//initialize the testDistance with the maximum distance
-		
-			//keep reducing the testDistance by a small amount
-			//untill it finds a passable location.
-		boolean flag = false;
-		double testX = 0, testY = 0;
-		double testDistance;
-		for(testDistance = this.getWorm().getRadius(); testDistance >= 0.1 && flag == false ; testDistance -= 0.02)
-		{
-			testX = move_CalculateX(direction, testDistance);
-			testY = move_CalculateY(direction, testDistance);
-			if(canMove_Aux (direction) && !this.getWorm().getWorld().isImpassable(testX, testY, this.getWorm().getRadius()))
-			{
-				flag = true;
-				return testDistance;
-			}
+		return cos * MOVE_STEP_COS[step + NB_MOVE_STEPS] - sin * MOVE_STEP_SIN[step + NB_MOVE_STEPS];
+	}
+	
+	/**
+	 * Return the sine of the direction with the given cosine and sine,
+	 * turned over the given number of move steps.
+	 * 
+	 * @return	| result == Math.sin(Math.atan2(sin, cos) + step * MOVE_STEP)
+	 */
+	@Model
+	private static double getMoveSin(double cos, double sin, int step)
+	{
+		return sin * MOVE_STEP_COS[step + NB_MOVE_STEPS] + cos * MOVE_STEP_SIN[step + NB_MOVE_STEPS];
+	}
+	
+	/**
+	 * Final class variable registering the angle between two directions tried by a move (in radians).
+	 */
+	private static final double MOVE_STEP = 0.0175;
+	
+	/**
+	 * Final class variable registering the number of steps a move tries on either side
+	 * of the direction of the worm.
+	 */
+	private static final int NB_MOVE_STEPS = 45;
+	
+	/**
+	 * Final class variables registering the cosine and sine of the angles over which a move
+	 * turns, from -NB_MOVE_STEPS to NB_MOVE_STEPS steps.
+	 */
+	private static final double[] MOVE_STEP_COS = new double[2*NB_MOVE_STEPS + 1],
+			MOVE_STEP_SIN = new double[2*NB_MOVE_STEPS + 1];
+	
+	static{
+		for(int step = -NB_MOVE_STEPS; step <= NB_MOVE_STEPS; step++){
+			MOVE_STEP_COS[step + NB_MOVE_STEPS] = Math.cos(step * MOVE_STEP);
+			MOVE_STEP_SIN[step + NB_MOVE_STEPS] = Math.sin(step * MOVE_STEP);
 		}
-		if(flag == false)
-			return -2;
-		if(canMove_Aux(direction))
-			return testDistance;
-		return -2;
 	}
 	
 	/**
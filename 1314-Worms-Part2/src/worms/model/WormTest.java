@@ -201,6 +201,21 @@ public class WormTest {
 		assertTrue(worm.getWeapon().getCurrentWeapon() == null);
 	}
 	
+	@Test
+	public void selectNextWeapon_registryOfWorld(){
+		World grenadeWorld = new World(4.0, 4.0, passableMap, new Random(0));
+		WeaponType grenade = new WeaponType("Grenade", 0.200, 1.5, 6.5, 40, 60, 0.75);
+		grenadeWorld.setWeaponRegistry(WeaponRegistry.DEFAULT.with(grenade));
+		grenadeWorld.addAsWorm(wormDirection0);
+		wormDirection0.getWeapon().selectNextWeapon();
+		wormDirection0.getWeapon().selectNextWeapon();
+		wormDirection0.getWeapon().selectNextWeapon();
+		assertTrue(wormDirection0.getWeapon().getCurrentWeaponType() == grenade);
+		assertEquals("Grenade", wormDirection0.getWeapon().getCurrentWeapon());
+		wormDirection0.getWeapon().selectNextWeapon();
+		assertTrue(wormDirection0.getWeapon().getCurrentWeapon() == null);
+	}
+	
 	@Test
 	public void reduceCurrentActionPoints(){
 		Worm worm = new Worm(1, 2, Math.PI/2, 1, "Test");
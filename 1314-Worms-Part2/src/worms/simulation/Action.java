@@ -0,0 +1,142 @@
+package worms.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of actions a worm can take during its turn in a simulated game,
+ * corresponding to the commands of the graphical user interface.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class Action {
+
+	/**
+	 * An enumeration of the kinds of actions.
+	 */
+	public static enum Kind {
+		MOVE, JUMP, TURN, SHOOT, SELECT_NEXT_WEAPON, END_TURN
+	}
+
+	/**
+	 * Create a new action of the given kind with the given angle and propulsion yield.
+	 */
+	private Action(Kind kind, double angle, int propulsionYield){
+		this.kind = kind;
+		this.angle = angle;
+		this.propulsionYield = propulsionYield;
+	}
+
+	/**
+	 * Return an action that moves the worm in its current direction,
+	 * after which the worm falls if it can.
+	 */
+	public static Action move(){
+		return MOVE;
+	}
+
+	/**
+	 * Return an action that makes the worm jump in its current direction.
+	 */
+	public static Action jump(){
+		return JUMP;
+	}
+
+	/**
+	 * Return an action that turns the worm over the given angle.
+	 *
+	 * @param 	angle
+	 * 			The angle to turn over (in radians).
+	 */
+	public static Action turn(double angle){
+		return new Action(Kind.TURN, angle, 0);
+	}
+
+	/**
+	 * Return an action that shoots the selected weapon of the worm with the given propulsion yield.
+	 *
+	 * @param 	propulsionYield
+	 * 			The propulsion yield, between 0 and 100.
+	 */
+	public static Action shoot(int propulsionYield){
+		return new Action(Kind.SHOOT, 0, propulsionYield);
+	}
+
+	/**
+	 * Return an action that selects the next weapon of the worm.
+	 */
+	public static Action selectNextWeapon(){
+		return SELECT_NEXT_WEAPON;
+	}
+
+	/**
+	 * Return an action that ends the turn of the worm.
+	 */
+	public static Action endTurn(){
+		return END_TURN;
+	}
+
+	/**
+	 * Final class variables referencing the actions without arguments.
+	 */
+	private static final Action MOVE = new Action(Kind.MOVE, 0, 0),
+			JUMP = new Action(Kind.JUMP, 0, 0),
+			SELECT_NEXT_WEAPON = new Action(Kind.SELECT_NEXT_WEAPON, 0, 0),
+			END_TURN = new Action(Kind.END_TURN, 0, 0);
+
+
+
+	/**
+	 * Return the kind of this action.
+	 */
+	@Basic @Immutable
+	public Kind getKind(){
+		return this.kind;
+	}
+
+	/**
+	 * Variable registering the kind of this action.
+	 */
+	private final Kind kind;
+
+	/**
+	 * Return the angle to turn over, if this is a turn action.
+	 */
+	@Basic @Immutable
+	public double getAngle(){
+		return this.angle;
+	}
+
+	/**
+	 * Variable registering the angle of this action.
+	 */
+	private final double angle;
+
+	/**
+	 * Return the propulsion yield, if this is a shoot action.
+	 */
+	@Basic @Immutable
+	public int getPropulsionYield(){
+		return this.propulsionYield;
+	}
+
+	/**
+	 * Variable registering the propulsion yield of this action.
+	 */
+	private final int propulsionYield;
+
+	/**
+	 * Return a textual representation of this action.
+	 */
+	@Override
+	public String toString(){
+		if(getKind() == Kind.TURN)
+			return "TURN(" + getAngle() + ")";
+		if(getKind() == Kind.SHOOT)
+			return "SHOOT(" + getPropulsionYield() + ")";
+		return getKind().toString();
+	}
+}
@@ -0,0 +1,96 @@
+package worms.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of results of simulated games, involving the winner, the number of turns
+ * and actions that were played and whether the game was finished.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class GameResult {
+
+	/**
+	 * Create a new game result with the given winner, number of turns and actions.
+	 *
+	 * @param 	winner
+	 * 			The name of the winning worm or team, or null if the game was not finished.
+	 * @param 	nbTurns
+	 * 			The number of turns that were started.
+	 * @param 	nbActions
+	 * 			The number of actions that were chosen.
+	 * @param 	finished
+	 * 			Whether the game was finished before the maximal number of actions.
+	 */
+	public GameResult(String winner, int nbTurns, int nbActions, boolean finished){
+		this.winner = winner;
+		this.nbTurns = nbTurns;
+		this.nbActions = nbActions;
+		this.finished = finished;
+	}
+
+	/**
+	 * Return the name of the winning worm or team, or null if there is no winner.
+	 */
+	@Basic @Immutable
+	public String getWinner(){
+		return this.winner;
+	}
+
+	/**
+	 * Variable registering the name of the winner.
+	 */
+	private final String winner;
+
+	/**
+	 * Return the number of turns that were started during the game.
+	 */
+	@Basic @Immutable
+	public int getNbTurns(){
+		return this.nbTurns;
+	}
+
+	/**
+	 * Variable registering the number of turns.
+	 */
+	private final int nbTurns;
+
+	/**
+	 * Return the number of actions that were chosen during the game.
+	 */
+	@Basic @Immutable
+	public int getNbActions(){
+		return this.nbActions;
+	}
+
+	/**
+	 * Variable registering the number of actions.
+	 */
+	private final int nbActions;
+
+	/**
+	 * Check whether the game was finished before the maximal number of actions was reached.
+	 */
+	@Basic @Immutable
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	 * Variable registering whether the game was finished.
+	 */
+	private final boolean finished;
+
+	/**
+	 * Return a textual representation of this result.
+	 */
+	@Override
+	public String toString(){
+		return (isFinished() ? "winner " + getWinner() : "unfinished") +
+				" after " + getNbTurns() + " turns and " + getNbActions() + " actions";
+	}
+}
@@ -0,0 +1,427 @@
+package worms.simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import worms.gui.GUIConstants;
+import worms.model.IFacade;
+import worms.model.Projectile;
+import worms.model.Team;
+import worms.model.World;
+import worms.model.WorldSnapshot;
+import worms.model.Worm;
+
+/**
+ * A class of policies that plan the actions of a worm by trying them out.
+ * 	Each plan consists of an optional turn followed by a move, a jump or a shot
+ * 	of the selected weapon. A fixed set of plans is tried first, covering the
+ * 	directions and propulsion yields evenly, after which plans with random angles
+ * 	and yields are tried until the time budget or the maximal number of evaluations
+ * 	of the policy is used up.
+ * 	Each plan is applied to the world directly through the model, scored, and undone
+ * 	by restoring a snapshot of the world, so the world is the same before and after
+ * 	the worm chooses its action and the facade never sees the plans that were tried.
+ * 	A plan is scored by the damage it does to the worms of other teams, minus the damage
+ * 	it does to the worms of the own team, with bonuses for killing worms and winning the
+ * 	game, and a small penalty for the distance to the nearest enemy.
+ * 	The first action of the best plan is returned, and its second action is returned
+ * 	the next time the same worm chooses an action, if the first action was applied.
+ * 	A policy without a time budget only depends on its seed, and always chooses the same actions.
+ *
+ * @invar	| getMaximalNbEvaluations() > 0
+ * @invar	| getTimeBudget() >= 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class PlannerPolicy implements WormPolicy {
+
+	/**
+	 * Create a new planner policy with the given seed, time budget and maximal number of
+	 * evaluations per decision.
+	 *
+	 * @param 	seed
+	 * 			The seed of the random number generator of this policy.
+	 * @param 	timeBudget
+	 * 			The time after which a decision is made (in milliseconds), or zero if
+	 * 			only the number of evaluations is limited.
+	 * @param 	maximalNbEvaluations
+	 * 			The maximal number of plans that is tried for a decision.
+	 * @post	| new.getTimeBudget() == timeBudget
+	 * @post	| new.getMaximalNbEvaluations() == maximalNbEvaluations
+	 * @throws	IllegalArgumentException("The given limits are not valid.")
+	 * 			| timeBudget < 0 || maximalNbEvaluations <= 0
+	 */
+	public PlannerPolicy(long seed, long timeBudget, int maximalNbEvaluations)
+			throws IllegalArgumentException{
+		if(timeBudget < 0 || maximalNbEvaluations <= 0)
+			throw new IllegalArgumentException("The given limits are not valid.");
+		this.random = new Random(seed);
+		this.timeBudget = timeBudget;
+		this.maximalNbEvaluations = maximalNbEvaluations;
+	}
+
+	/**
+	 * Create a new planner policy with the given seed, the default time budget
+	 * and the default maximal number of evaluations.
+	 *
+	 * @param 	seed
+	 * 			The seed of the random number generator of this policy.
+	 * @effect	| this(seed, DEFAULT_TIME_BUDGET, DEFAULT_MAXIMAL_NB_EVALUATIONS)
+	 */
+	public PlannerPolicy(long seed){
+		this(seed, DEFAULT_TIME_BUDGET, DEFAULT_MAXIMAL_NB_EVALUATIONS);
+	}
+
+
+
+	/**
+	 * Return the time after which this policy makes a decision (in milliseconds),
+	 * or zero if only the number of evaluations is limited.
+	 */
+	@Basic @Immutable
+	public long getTimeBudget(){
+		return this.timeBudget;
+	}
+
+	/**
+	 * Variable registering the time budget of this policy.
+	 */
+	private final long timeBudget;
+
+	/**
+	 * Final class variable registering the default time budget (in milliseconds).
+	 */
+	public static final long DEFAULT_TIME_BUDGET = 40;
+
+	/**
+	 * Return the maximal number of plans this policy tries for a decision.
+	 */
+	@Basic @Immutable
+	public int getMaximalNbEvaluations(){
+		return this.maximalNbEvaluations;
+	}
+
+	/**
+	 * Variable registering the maximal number of evaluations per decision.
+	 */
+	private final int maximalNbEvaluations;
+
+	/**
+	 * Final class variable registering the default maximal number of evaluations per decision.
+	 */
+	public static final int DEFAULT_MAXIMAL_NB_EVALUATIONS = 2000;
+
+	/**
+	 * Return the number of plans tried for the last decision of this policy.
+	 */
+	@Basic
+	public int getNbEvaluations(){
+		return this.nbEvaluations;
+	}
+
+	/**
+	 * Variable registering the number of plans tried for the last decision.
+	 */
+	private int nbEvaluations = 0;
+
+	/**
+	 * Return the random number generator of this policy.
+	 */
+	@Basic @Immutable
+	public Random getRandom(){
+		return this.random;
+	}
+
+	/**
+	 * Variable referencing the random number generator of this policy.
+	 */
+	private final Random random;
+
+
+
+	/**
+	 * Return the action of the best plan found for the given worm.
+	 * 	A worm without a selected weapon selects one before planning.
+	 */
+	@Override
+	public Action chooseAction(IFacade facade, World world, Worm worm){
+		if(worm == this.pendingWorm && world == this.pendingWorld &&
+				worm.getCurrentActionPoints() == this.pendingActionPoints &&
+				worm.getDirection() == this.pendingDirection){
+			Action action = this.pendingAction;
+			this.pendingWorm = null;
+			return action;
+		}
+		this.pendingWorm = null;
+		if(worm.getWeapon().getCurrentWeaponType() == null)
+			return Action.selectNextWeapon();
+
+		long deadline = System.nanoTime() + getTimeBudget() * 1000000L;
+		Planner planner = new Planner(world, worm);
+		Action[] best = null;
+		double bestScore = planner.getScoreOfEndingTurn();
+		this.nbEvaluations = 0;
+		List<Action[]> plans = getFixedPlans();
+		while(this.nbEvaluations < getMaximalNbEvaluations() &&
+				(getTimeBudget() == 0 || System.nanoTime() < deadline)){
+			Action[] plan = (this.nbEvaluations < plans.size()) ?
+					plans.get(this.nbEvaluations) : getRandomPlan();
+			double score = planner.evaluate(plan);
+			this.nbEvaluations++;
+			if(score > bestScore){
+				best = plan;
+				bestScore = score;
+				this.pendingActionPoints = planner.getActionPointsAfterFirstAction();
+				this.pendingDirection = planner.getDirectionAfterFirstAction();
+			}
+		}
+		if(best == null)
+			return Action.endTurn();
+		if(best.length > 1){
+			this.pendingWorm = worm;
+			this.pendingWorld = world;
+			this.pendingAction = best[1];
+		}
+		return best[0];
+	}
+
+	/**
+	 * Variables referencing the worm and the world for which the second action of the
+	 * best plan is pending, that action, and the action points and direction the worm
+	 * has after the first action of that plan.
+	 */
+	private Worm pendingWorm = null;
+	private World pendingWorld = null;
+	private Action pendingAction = null;
+	private int pendingActionPoints;
+	private double pendingDirection;
+
+	/**
+	 * Return the plans that are tried first for each decision.
+	 * 	These are moves, jumps and shots after turns over multiples of a sixteenth
+	 * 	of a circle, short of half a circle either way.
+	 */
+	@Model
+	private static List<Action[]> getFixedPlans(){
+		if(fixedPlans == null){
+			List<Action[]> plans = new ArrayList<Action[]>();
+			for(int step = -7; step <= 7; step++){
+				double angle = step * Math.PI / 8;
+				for(Action action: new Action[] {Action.move(), Action.jump()})
+					plans.add(createPlan(angle, action));
+				for(int yield = 25; yield <= 100; yield += 25)
+					plans.add(createPlan(angle, Action.shoot(yield)));
+			}
+			fixedPlans = plans;
+		}
+		return fixedPlans;
+	}
+
+	/**
+	 * Variable referencing the plans that are tried first, computed when they are first needed.
+	 */
+	private static volatile List<Action[]> fixedPlans = null;
+
+	/**
+	 * Return a plan with a random turn and a random move, jump or shot.
+	 */
+	@Model
+	private Action[] getRandomPlan(){
+		double angle = (getRandom().nextDouble() * 2 - 1) * Math.PI;
+		int choice = getRandom().nextInt(4);
+		if(choice == 0)
+			return createPlan(angle, Action.move());
+		if(choice == 1)
+			return createPlan(angle, Action.jump());
+		return createPlan(angle, Action.shoot(getRandom().nextInt(101)));
+	}
+
+	/**
+	 * Return a plan that turns over the given angle, unless it is zero, and then takes the given action.
+	 */
+	@Model
+	private static Action[] createPlan(double angle, Action action){
+		if(angle == 0)
+			return new Action[] {action};
+		return new Action[] {Action.turn(angle), action};
+	}
+
+
+
+	/**
+	 * A class of planners trying out plans for a worm in its world.
+	 * 	The world is restored to the snapshot taken when the planner was created after each plan.
+	 */
+	private static class Planner {
+
+		/**
+		 * Create a new planner for the given worm in the given world.
+		 */
+		Planner(World world, Worm worm){
+			this.world = world;
+			this.worm = worm;
+			this.team = worm.getTeam();
+			this.snapshot = world.createSnapshot();
+			this.worms = new ArrayList<Worm>(world.getWorms());
+			for(Worm other: this.worms)
+				this.hitPoints.put(other, other.getCurrentHitPoints());
+			this.scoreOfEndingTurn = score();
+		}
+
+		/**
+		 * Return the score of the world when the worm ends its turn without acting.
+		 */
+		double getScoreOfEndingTurn(){
+			return this.scoreOfEndingTurn;
+		}
+
+		/**
+		 * Return the action points of the worm after the first action of the last plan.
+		 */
+		int getActionPointsAfterFirstAction(){
+			return this.actionPointsAfterFirstAction;
+		}
+
+		/**
+		 * Return the direction of the worm after the first action of the last plan.
+		 */
+		double getDirectionAfterFirstAction(){
+			return this.directionAfterFirstAction;
+		}
+
+		/**
+		 * Apply the given plan, score the resulting world and restore the world.
+		 *
+		 * @return	The score of the world after the plan, or negative infinity if
+		 * 			an action of the plan could not be applied.
+		 */
+		double evaluate(Action[] plan){
+			double result = Double.NEGATIVE_INFINITY;
+			try{
+				boolean applied = true;
+				for(int i = 0; i < plan.length && applied; i++){
+					applied = apply(plan[i]);
+					if(i == 0){
+						this.actionPointsAfterFirstAction = this.worm.getCurrentActionPoints();
+						this.directionAfterFirstAction = this.worm.getDirection();
+					}
+				}
+				if(applied)
+					result = score();
+			}
+			catch(RuntimeException exc){
+				// the plan cannot be carried out from this position
+			}
+			this.world.restore(this.snapshot);
+			return result;
+		}
+
+		/**
+		 * Apply the given action to the worm, as a simulation does.
+		 *
+		 * @return	True if and only if the action could be applied.
+		 */
+		private boolean apply(Action action){
+			switch(action.getKind()){
+			case MOVE:
+				if(!this.worm.getWormPosition().canMove())
+					return false;
+				this.worm.getWormPosition().move();
+				if(this.worm.isAlive() && this.worm.getWormPosition().canFall())
+					this.worm.getWormPosition().fall();
+				return true;
+			case JUMP:
+				this.worm.getWormPosition().jump();
+				return true;
+			case TURN:
+				if(!this.worm.canTurn(action.getAngle()))
+					return false;
+				this.worm.turn(action.getAngle());
+				return true;
+			case SHOOT:
+				this.worm.getWeapon().shoot(action.getPropulsionYield());
+				Projectile projectile = this.world.getProjectile();
+				if(projectile == null)
+					return false;
+				projectile.jump(GUIConstants.JUMP_TIME_STEP);
+				return true;
+			default:
+				return false;
+			}
+		}
+
+		/**
+		 * Return the score of the current state of the world for the worm.
+		 */
+		private double score(){
+			double result = 0;
+			double nearestEnemy = Double.POSITIVE_INFINITY;
+			for(Worm other: this.worms){
+				boolean alive = other.isAlive() && other.getWorld() == this.world;
+				int damage = this.hitPoints.get(other) - (alive ? other.getCurrentHitPoints() : 0);
+				if(isEnemy(other)){
+					result += damage + (alive ? 0 : KILL_BONUS);
+					if(alive && this.worm.isAlive())
+						nearestEnemy = Math.min(nearestEnemy, getDistance(other));
+				}
+				else{
+					double weight = (other == this.worm) ? OWN_DAMAGE_WEIGHT : 1;
+					result -= weight * (damage + (alive ? 0 : KILL_BONUS));
+				}
+			}
+			if(this.world.isGameFinished() && this.worm.isAlive() && this.team != null &&
+					this.team.getTeamName().equals(this.world.getWinner()))
+				result += WIN_BONUS;
+			if(nearestEnemy < Double.POSITIVE_INFINITY)
+				result -= DISTANCE_WEIGHT * nearestEnemy;
+			return result;
+		}
+
+		/**
+		 * Check whether the given worm is an enemy of the worm of this planner.
+		 */
+		private boolean isEnemy(Worm other){
+			if(other == this.worm)
+				return false;
+			return this.team == null || other.getTeam() != this.team;
+		}
+
+		/**
+		 * Return the distance between the worm of this planner and the given worm.
+		 */
+		private double getDistance(Worm other){
+			double dx = other.getWormPosition().getX() - this.worm.getWormPosition().getX();
+			double dy = other.getWormPosition().getY() - this.worm.getWormPosition().getY();
+			return Math.sqrt(dx*dx + dy*dy);
+		}
+
+		private final World world;
+		private final Worm worm;
+		private final Team team;
+		private final WorldSnapshot snapshot;
+
+		/**
+		 * The worms of the world when the planner was created, and their hit points.
+		 */
+		private final List<Worm> worms;
+		private final HashMap<Worm, Integer> hitPoints = new HashMap<Worm, Integer>();
+
+		private final double scoreOfEndingTurn;
+		private int actionPointsAfterFirstAction;
+		private double directionAfterFirstAction;
+	}
+
+	/**
+	 * Final class variables registering the weights of the score of a plan:
+	 * the bonus for killing a worm, the bonus for winning the game, the weight of the damage
+	 * to the worm itself and the penalty per meter to the nearest enemy.
+	 */
+	private static final double KILL_BONUS = 50, WIN_BONUS = 1000,
+			OWN_DAMAGE_WEIGHT = 1.5, DISTANCE_WEIGHT = 0.5;
+}
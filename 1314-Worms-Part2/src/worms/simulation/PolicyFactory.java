@@ -0,0 +1,23 @@
+package worms.simulation;
+
+/**
+ * An interface for factories of policies, creating the policies of the teams
+ * of each game in a tournament, so that games played at the same time
+ * do not share policies.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public interface PolicyFactory {
+
+	/**
+	 * Return a new policy for the team with the given index in the game with the given seed.
+	 * 	The same team and seed must always give a policy that chooses the same actions.
+	 *
+	 * @param 	team
+	 * 			The index of the team, starting from zero.
+	 * @param 	seed
+	 * 			The seed of the game in which the policy is used.
+	 */
+	WormPolicy createPolicy(int team, long seed);
+}
@@ -0,0 +1,64 @@
+package worms.simulation;
+
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of policies that choose a random action for each worm.
+ * 	Worms turn, move, jump and shoot with random arguments, and end
+ * 	their turn now and then. The choices only depend on the seed of the policy.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class RandomPolicy implements WormPolicy {
+
+	/**
+	 * Create a new random policy with the given seed.
+	 *
+	 * @param 	seed
+	 * 			The seed of the random number generator of this policy.
+	 */
+	public RandomPolicy(long seed){
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Return a random action for the given worm.
+	 * 	A worm without a selected weapon selects one before shooting.
+	 */
+	@Override
+	public Action chooseAction(IFacade facade, World world, Worm worm){
+		int choice = getRandom().nextInt(20);
+		if(choice < 5)
+			return Action.turn((getRandom().nextDouble() * 2 - 1) * Math.PI);
+		if(choice < 10)
+			return Action.move();
+		if(choice < 13)
+			return Action.jump();
+		if(choice < 18){
+			if(facade.getSelectedWeapon(worm) == null)
+				return Action.selectNextWeapon();
+			return Action.shoot(getRandom().nextInt(101));
+		}
+		return Action.endTurn();
+	}
+
+	/**
+	 * Return the random number generator of this policy.
+	 */
+	@Basic @Immutable
+	public Random getRandom(){
+		return this.random;
+	}
+
+	/**
+	 * Variable referencing the random number generator of this policy.
+	 */
+	private final Random random;
+}
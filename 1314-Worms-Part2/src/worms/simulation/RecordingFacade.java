@@ -0,0 +1,403 @@
+package worms.simulation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
+import worms.model.Facade;
+import worms.model.Food;
+import worms.model.Projectile;
+import worms.model.Terrain;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of facades that write a replay log of the game played through them.
+ * 	The log starts with the level file and the seed of the random number generator
+ * 	of the world, followed by one entry for each call that changes the first world
+ * 	created through the facade, in the order of the calls.
+ * 	Worms are identified in the log by their index among the worms of that world.
+ * 	A call is logged before it is made, so calls that fail are logged as well.
+ * 	The log is flushed after each entry, so it is complete up to the last call
+ * 	when the program crashes.
+ * 	The world must be created with the terrain of the logged level and with a
+ * 	random number generator created with the logged seed, for the log to be replayed.
+ * 	Failing to write the log is not an error of the game: the facade stops logging
+ * 	and registers the exception instead.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class RecordingFacade extends Facade {
+
+	/**
+	 * Create a new recording facade that writes its log to the given output stream.
+	 *
+	 * @param 	output
+	 * 			The stream to write the log to.
+	 * @param 	levelFile
+	 * 			The level file of the recorded game.
+	 * @param 	seed
+	 * 			The seed of the random number generator of the recorded world.
+	 * @throws	IOException
+	 * 			The header of the log cannot be written.
+	 */
+	public RecordingFacade(OutputStream output, File levelFile, long seed)
+			throws IOException{
+		this.output = new DataOutputStream(new BufferedOutputStream(output));
+		this.output.writeInt(Replay.MAGIC);
+		this.output.writeInt(Replay.VERSION);
+		this.output.writeUTF(levelFile.getPath());
+		this.output.writeLong(seed);
+		this.output.flush();
+	}
+
+
+
+	/**
+	 * Return the world that is recorded, or null if no world has been created yet.
+	 */
+	@Basic
+	public World getRecordedWorld(){
+		return this.recordedWorld;
+	}
+
+	/**
+	 * Variable referencing the recorded world.
+	 */
+	private World recordedWorld = null;
+
+	/**
+	 * Return the exception that stopped the logging, or null if the log has been written
+	 * without errors.
+	 */
+	@Basic
+	public IOException getError(){
+		return this.error;
+	}
+
+	/**
+	 * Variable referencing the exception that stopped the logging.
+	 */
+	private IOException error = null;
+
+	/**
+	 * Close the log. Later calls are not logged.
+	 */
+	public void close(){
+		if(this.output == null)
+			return;
+		try{
+			this.output.close();
+		}
+		catch(IOException exc){
+			if(this.error == null)
+				this.error = exc;
+		}
+		this.output = null;
+	}
+
+	/**
+	 * Variable referencing the stream to which the log is written, or null if logging has stopped.
+	 */
+	private DataOutputStream output;
+
+
+
+	@Override
+	public World createWorld(double width, double height,
+			boolean[][] passableMap, Random random){
+		World world = super.createWorld(width, height, passableMap, random);
+		if(this.recordedWorld == null)
+			this.recordedWorld = world;
+		return world;
+	}
+
+	@Override
+	public World createWorldFromTerrain(double width, double height,
+			Terrain terrain, Random random){
+		World world = super.createWorldFromTerrain(width, height, terrain, random);
+		if(this.recordedWorld == null)
+			this.recordedWorld = world;
+		return world;
+	}
+
+	@Override
+	public void addEmptyTeam(World world, String newName){
+		if(startEntry(world, Replay.ADD_EMPTY_TEAM)){
+			try{
+				writeString(newName);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		super.addEmptyTeam(world, newName);
+	}
+
+	@Override
+	public void addNewFood(World world){
+		if(startEntry(world, Replay.ADD_NEW_FOOD))
+			endEntry();
+		super.addNewFood(world);
+	}
+
+	@Override
+	public void addNewWorm(World world){
+		if(startEntry(world, Replay.ADD_NEW_WORM))
+			endEntry();
+		super.addNewWorm(world);
+	}
+
+	@Override
+	public Food createFood(World world, double x, double y){
+		if(startEntry(world, Replay.CREATE_FOOD)){
+			try{
+				this.output.writeDouble(x);
+				this.output.writeDouble(y);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		return super.createFood(world, x, y);
+	}
+
+	@Override
+	public Worm createWorm(World world, double x, double y, double direction,
+			double radius, String name){
+		if(startEntry(world, Replay.CREATE_WORM)){
+			try{
+				this.output.writeDouble(x);
+				this.output.writeDouble(y);
+				this.output.writeDouble(direction);
+				this.output.writeDouble(radius);
+				writeString(name);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		return super.createWorm(world, x, y, direction, radius, name);
+	}
+
+	@Override
+	public void fall(Worm worm){
+		if(startEntry(worm, Replay.FALL))
+			endEntry();
+		super.fall(worm);
+	}
+
+	@Override
+	public void jump(Projectile projectile, double timeStep){
+		if(startEntry((projectile == null) ? null : projectile.getWorld(), Replay.JUMP_PROJECTILE)){
+			try{
+				this.output.writeDouble(timeStep);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		super.jump(projectile, timeStep);
+	}
+
+	@Override
+	public void jump(Worm worm, double timeStep){
+		if(startEntry(worm, Replay.JUMP_WORM)){
+			try{
+				this.output.writeDouble(timeStep);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		super.jump(worm, timeStep);
+	}
+
+	@Override
+	public void move(Worm worm){
+		if(startEntry(worm, Replay.MOVE))
+			endEntry();
+		super.move(worm);
+	}
+
+	@Override
+	public void rename(Worm worm, String newName){
+		if(startEntry(worm, Replay.RENAME)){
+			try{
+				writeString(newName);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		super.rename(worm, newName);
+	}
+
+	@Override
+	public void selectNextWeapon(Worm worm){
+		if(startEntry(worm, Replay.SELECT_NEXT_WEAPON))
+			endEntry();
+		super.selectNextWeapon(worm);
+	}
+
+	@Override
+	public void setRadius(Worm worm, double newRadius){
+		if(startEntry(worm, Replay.SET_RADIUS)){
+			try{
+				this.output.writeDouble(newRadius);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		super.setRadius(worm, newRadius);
+	}
+
+	@Override
+	public void shoot(Worm worm, int yield){
+		if(startEntry(worm, Replay.SHOOT)){
+			try{
+				this.output.writeInt(yield);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		super.shoot(worm, yield);
+	}
+
+	@Override
+	public void startGame(World world){
+		if(startEntry(world, Replay.START_GAME))
+			endEntry();
+		super.startGame(world);
+	}
+
+	@Override
+	public void startNextTurn(World world){
+		if(startEntry(world, Replay.START_NEXT_TURN))
+			endEntry();
+		super.startNextTurn(world);
+	}
+
+	@Override
+	public void turn(Worm worm, double angle){
+		if(startEntry(worm, Replay.TURN)){
+			try{
+				this.output.writeDouble(angle);
+			}
+			catch(IOException exc){
+				fail(exc);
+			}
+			endEntry();
+		}
+		super.turn(worm, angle);
+	}
+
+
+
+	/**
+	 * Start a log entry of the given kind for a call on the given world,
+	 * if that world is recorded and logging has not stopped.
+	 *
+	 * @return	True if and only if the entry has been started.
+	 */
+	@Model
+	private boolean startEntry(World world, byte kind){
+		if(this.output == null || world == null || world != this.recordedWorld)
+			return false;
+		try{
+			this.output.writeByte(kind);
+			return true;
+		}
+		catch(IOException exc){
+			fail(exc);
+			return false;
+		}
+	}
+
+	/**
+	 * Start a log entry of the given kind for a call on the given worm, followed by
+	 * the index of that worm among the worms of the recorded world,
+	 * if that worm lives in the recorded world and logging has not stopped.
+	 *
+	 * @return	True if and only if the entry has been started.
+	 */
+	@Model
+	private boolean startEntry(Worm worm, byte kind){
+		if(worm == null || !startEntry(worm.getWorld(), kind))
+			return false;
+		int index = 0;
+		for(Worm other: getWorms(this.recordedWorld)){
+			if(other == worm)
+				break;
+			index++;
+		}
+		try{
+			this.output.writeShort(index);
+			return true;
+		}
+		catch(IOException exc){
+			fail(exc);
+			return false;
+		}
+	}
+
+	/**
+	 * Write the given string, which may be null, to the log.
+	 */
+	@Model
+	private void writeString(String string)
+			throws IOException{
+		this.output.writeBoolean(string != null);
+		if(string != null)
+			this.output.writeUTF(string);
+	}
+
+	/**
+	 * End the current log entry.
+	 */
+	@Model
+	private void endEntry(){
+		if(this.output == null)
+			return;
+		try{
+			this.output.flush();
+		}
+		catch(IOException exc){
+			fail(exc);
+		}
+	}
+
+	/**
+	 * Stop logging because of the given exception.
+	 */
+	@Model
+	private void fail(IOException exc){
+		if(this.error == null)
+			this.error = exc;
+		DataOutputStream output = this.output;
+		if(output == null)
+			return;
+		this.output = null;
+		try{
+			output.close();
+		}
+		catch(IOException ignored){
+		}
+	}
+}
@@ -0,0 +1,354 @@
+package worms.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import worms.gui.Level;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Terrain;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of replays, playing a game again from a replay log written by a recording facade.
+ * 	The world is created on the logged level with a random number generator created
+ * 	with the logged seed, and the logged calls are made on it through a facade, as fast
+ * 	as possible and without a graphical user interface.
+ * 	Calls that fail with a ModelException are skipped, as the graphical user interface
+ * 	does; any other exception is thrown by the method that plays the call, so a crash
+ * 	of a recorded game happens again at the same call.
+ * 	A turn starts when the game starts, when the next turn is started explicitly,
+ * 	and when the current worm changes after another call.
+ * 	A replay only plays forward: to go back, a new replay is created from the same log.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class Replay {
+
+	/**
+	 * Constants identifying replay logs and their format.
+	 */
+	static final int MAGIC = 0x5752504c; // "WRPL"
+	static final int VERSION = 1;
+
+	/**
+	 * Constants identifying the kinds of entries in a replay log.
+	 */
+	static final byte ADD_EMPTY_TEAM = 1, ADD_NEW_FOOD = 2, ADD_NEW_WORM = 3,
+			CREATE_FOOD = 4, CREATE_WORM = 5, FALL = 6, JUMP_PROJECTILE = 7,
+			JUMP_WORM = 8, MOVE = 9, RENAME = 10, SELECT_NEXT_WEAPON = 11,
+			SET_RADIUS = 12, SHOOT = 13, START_GAME = 14, START_NEXT_TURN = 15,
+			TURN = 16;
+
+	/**
+	 * Create a new replay of the log read from the given input stream,
+	 * and create its world through the given facade.
+	 *
+	 * @param 	facade
+	 * 			The facade through which the game is played again.
+	 * @param 	input
+	 * 			The stream from which the log is read.
+	 * @post	| new.getTurn() == 0
+	 * @throws	IOException
+	 * 			The header of the log cannot be read, or the input is not a replay log.
+	 */
+	public Replay(IFacade facade, InputStream input)
+			throws IOException{
+		this.facade = facade;
+		this.input = new DataInputStream(new BufferedInputStream(input));
+		if(this.input.readInt() != MAGIC || this.input.readInt() != VERSION)
+			throw new IOException("The input is not a replay log of this version.");
+		this.levelFile = new File(this.input.readUTF());
+		this.seed = this.input.readLong();
+		Level level = new Level(this.levelFile);
+		level.load();
+		this.world = facade.createWorldFromTerrain(level.getWorldWidth(), level.getWorldHeight(),
+				new Terrain(level.getTerrain()), new Random(this.seed));
+	}
+
+
+
+	/**
+	 * Return the facade through which the game is played again.
+	 */
+	@Basic @Immutable
+	public IFacade getFacade(){
+		return this.facade;
+	}
+
+	/**
+	 * Variable referencing the facade through which the game is played again.
+	 */
+	private final IFacade facade;
+
+	/**
+	 * Return the level file of the recorded game.
+	 */
+	@Basic @Immutable
+	public File getLevelFile(){
+		return this.levelFile;
+	}
+
+	/**
+	 * Variable referencing the level file of the recorded game.
+	 */
+	private final File levelFile;
+
+	/**
+	 * Return the seed of the random number generator of the recorded world.
+	 */
+	@Basic @Immutable
+	public long getSeed(){
+		return this.seed;
+	}
+
+	/**
+	 * Variable registering the seed of the random number generator of the recorded world.
+	 */
+	private final long seed;
+
+	/**
+	 * Return the world in which the game is played again.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Variable referencing the world in which the game is played again.
+	 */
+	private final World world;
+
+
+
+	/**
+	 * Return the number of turns that have started.
+	 */
+	@Basic
+	public int getTurn(){
+		return this.turn;
+	}
+
+	/**
+	 * Variable registering the number of turns that have started.
+	 */
+	private int turn = 0;
+
+	/**
+	 * Return the number of calls of the log that have been played.
+	 */
+	@Basic
+	public int getNbCalls(){
+		return this.nbCalls;
+	}
+
+	/**
+	 * Variable registering the number of calls that have been played.
+	 */
+	private int nbCalls = 0;
+
+	/**
+	 * Check whether all calls of the log have been played.
+	 */
+	@Basic
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	 * Variable registering whether all calls of the log have been played.
+	 */
+	private boolean finished = false;
+
+
+
+	/**
+	 * Play the next call of the log.
+	 * 	A log that ends in the middle of an entry ends before that entry.
+	 *
+	 * @return	True if and only if a call was played.
+	 * @throws	IOException
+	 * 			The log cannot be read, or contains an unknown kind of entry.
+	 */
+	public boolean step()
+			throws IOException{
+		if(isFinished())
+			return false;
+		int kind = this.input.read();
+		if(kind < 0){
+			this.finished = true;
+			return false;
+		}
+		Worm currentWorm = getFacade().getCurrentWorm(getWorld());
+		try{
+			play((byte)kind);
+		}
+		catch(EOFException exc){
+			this.finished = true;
+			return false;
+		}
+		this.nbCalls++;
+		if(kind == START_GAME || kind == START_NEXT_TURN ||
+				getFacade().getCurrentWorm(getWorld()) != currentWorm)
+			this.turn++;
+		return true;
+	}
+
+	/**
+	 * Play the calls of the log until the given turn has started or the log has been played.
+	 *
+	 * @param 	turn
+	 * 			The turn to seek to.
+	 * @post	| new.getTurn() >= turn || new.isFinished()
+	 * @throws	IOException
+	 * 			The log cannot be read.
+	 */
+	public void seekToTurn(int turn)
+			throws IOException{
+		while(getTurn() < turn && step());
+	}
+
+	/**
+	 * Play all remaining calls of the log.
+	 *
+	 * @post	| new.isFinished()
+	 * @throws	IOException
+	 * 			The log cannot be read.
+	 */
+	public void playToEnd()
+			throws IOException{
+		while(step());
+	}
+
+	/**
+	 * Close the log.
+	 */
+	public void close()
+			throws IOException{
+		this.input.close();
+	}
+
+	/**
+	 * Read the arguments of an entry of the given kind and make its call.
+	 */
+	@Model
+	private void play(byte kind)
+			throws IOException{
+		IFacade facade = getFacade();
+		World world = getWorld();
+		Worm worm = null;
+		if(kind == FALL || kind == JUMP_WORM || kind == MOVE || kind == RENAME ||
+				kind == SELECT_NEXT_WEAPON || kind == SET_RADIUS || kind == SHOOT || kind == TURN)
+			worm = getWorm(this.input.readUnsignedShort());
+		try{
+			switch(kind){
+			case ADD_EMPTY_TEAM:
+				String teamName = readString();
+				facade.addEmptyTeam(world, teamName);
+				break;
+			case ADD_NEW_FOOD:
+				facade.addNewFood(world);
+				break;
+			case ADD_NEW_WORM:
+				facade.addNewWorm(world);
+				break;
+			case CREATE_FOOD:
+				double foodX = this.input.readDouble();
+				double foodY = this.input.readDouble();
+				facade.createFood(world, foodX, foodY);
+				break;
+			case CREATE_WORM:
+				double x = this.input.readDouble();
+				double y = this.input.readDouble();
+				double direction = this.input.readDouble();
+				double radius = this.input.readDouble();
+				String name = readString();
+				facade.createWorm(world, x, y, direction, radius, name);
+				break;
+			case FALL:
+				facade.fall(worm);
+				break;
+			case JUMP_PROJECTILE:
+				double projectileTimeStep = this.input.readDouble();
+				facade.jump(facade.getActiveProjectile(world), projectileTimeStep);
+				break;
+			case JUMP_WORM:
+				double timeStep = this.input.readDouble();
+				facade.jump(worm, timeStep);
+				break;
+			case MOVE:
+				facade.move(worm);
+				break;
+			case RENAME:
+				String newName = readString();
+				facade.rename(worm, newName);
+				break;
+			case SELECT_NEXT_WEAPON:
+				facade.selectNextWeapon(worm);
+				break;
+			case SET_RADIUS:
+				double newRadius = this.input.readDouble();
+				facade.setRadius(worm, newRadius);
+				break;
+			case SHOOT:
+				int yield = this.input.readInt();
+				facade.shoot(worm, yield);
+				break;
+			case START_GAME:
+				facade.startGame(world);
+				break;
+			case START_NEXT_TURN:
+				facade.startNextTurn(world);
+				break;
+			case TURN:
+				double angle = this.input.readDouble();
+				facade.turn(worm, angle);
+				break;
+			default:
+				throw new IOException("Unknown kind of entry " + kind + " in the replay log.");
+			}
+		}
+		catch(ModelException exc){
+			// the call failed in the recorded game as well
+		}
+	}
+
+	/**
+	 * Return the worm at the given index among the worms of the world, or null if there is none.
+	 */
+	@Model
+	private Worm getWorm(int index){
+		for(Worm worm: getFacade().getWorms(getWorld())){
+			if(index-- == 0)
+				return worm;
+		}
+		return null;
+	}
+
+	/**
+	 * Read a string, which may be null, from the log.
+	 */
+	@Model
+	private String readString()
+			throws IOException{
+		if(!this.input.readBoolean())
+			return null;
+		return this.input.readUTF();
+	}
+
+	/**
+	 * Variable referencing the stream from which the log is read.
+	 */
+	private final DataInputStream input;
+}
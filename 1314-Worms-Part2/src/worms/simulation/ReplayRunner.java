@@ -0,0 +1,69 @@
+package worms.simulation;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class to play a replay log from the command line, as fast as possible,
+ * and report the state of the world at the end of the log or at the start of a given turn.
+ * 	The state of each worm is printed with all digits, so the output of two runs
+ * 	can be compared to find where a game goes out of sync.
+ * 	Usage: ReplayRunner file [-turn t]
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class ReplayRunner {
+
+	public static void main(String[] args)
+			throws IOException{
+		String replayFile = null;
+		int turn = -1;
+		for(int i = 0; i < args.length; i++){
+			String arg = args[i];
+			if("-turn".equals(arg))
+				turn = Integer.parseInt(args[++i]);
+			else
+				replayFile = arg;
+		}
+		if(replayFile == null){
+			System.out.println("Usage: ReplayRunner file [-turn t]");
+			return;
+		}
+
+		IFacade facade = new Facade();
+		FileInputStream input = new FileInputStream(replayFile);
+		Replay replay;
+		long start = System.nanoTime();
+		try{
+			replay = new Replay(facade, input);
+			if(turn >= 0)
+				replay.seekToTurn(turn);
+			else
+				replay.playToEnd();
+		}
+		finally{
+			input.close();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		World world = replay.getWorld();
+		System.out.println(replay.getLevelFile() + " with seed " + replay.getSeed() + ": " +
+				replay.getNbCalls() + " calls, turn " + replay.getTurn() +
+				(replay.isFinished() ? " (end of log)" : "") + " in " + seconds + " s");
+		for(Worm worm: facade.getWorms(world)){
+			System.out.println(facade.getName(worm) + " [" + facade.getTeamName(worm) + "] at (" +
+					facade.getX(worm) + ", " + facade.getY(worm) + ") direction " +
+					facade.getOrientation(worm) + ", " + facade.getHitPoints(worm) + " HP, " +
+					facade.getActionPoints(worm) + " AP" +
+					(worm == facade.getCurrentWorm(world) ? " (current)" : ""));
+		}
+		if(facade.isGameFinished(world))
+			System.out.println("Winner: " + facade.getWinner(world));
+	}
+}
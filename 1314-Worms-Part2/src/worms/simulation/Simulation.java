@@ -0,0 +1,282 @@
+package worms.simulation;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import worms.gui.GUIConstants;
+import worms.gui.Level;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Projectile;
+import worms.model.Terrain;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of simulations, playing complete games on a level without a graphical user interface.
+ * 	The world of each game is created through the facade, and the actions chosen by the
+ * 	policy of the team of the current worm are applied as soon as they are chosen,
+ * 	instead of being animated at the frame rate of the graphical user interface.
+ * 	A game with the same seed always plays the same way, provided the policies are
+ * 	deterministic as well.
+ * 	Each game creates its own world, so games can be played at the same time on different
+ * 	threads, provided the facade can be used from several threads and each game is played
+ * 	with policies of its own.
+ *
+ * @invar	| getNbTeams() > 0 && getNbTeams() <= MAXIMAL_NB_TEAMS
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class Simulation {
+
+	/**
+	 * Create a new simulation on the given level.
+	 *
+	 * @param 	facade
+	 * 			The facade through which the games are played.
+	 * @param 	level
+	 * 			The level on which the games are played. The level is loaded by this constructor.
+	 * @param 	teamPolicies
+	 * 			The policies of the teams, one for each team.
+	 * @param 	nbWormsPerTeam
+	 * 			The number of worms of each team.
+	 * @param 	nbFood
+	 * 			The number of food rations placed in the world at the start of each game.
+	 * @param 	maximalNbActions
+	 * 			The number of actions after which a game is given up.
+	 * @throws	IllegalArgumentException("The given number of teams is not valid.")
+	 * 			| teamPolicies.length == 0 || teamPolicies.length > MAXIMAL_NB_TEAMS
+	 */
+	public Simulation(IFacade facade, Level level, WormPolicy[] teamPolicies,
+			int nbWormsPerTeam, int nbFood, int maximalNbActions)
+					throws IllegalArgumentException{
+		if(teamPolicies.length == 0 || teamPolicies.length > MAXIMAL_NB_TEAMS)
+			throw new IllegalArgumentException("The given number of teams is not valid.");
+		this.facade = facade;
+		this.level = level;
+		this.teamPolicies = teamPolicies.clone();
+		this.nbWormsPerTeam = nbWormsPerTeam;
+		this.nbFood = nbFood;
+		this.maximalNbActions = maximalNbActions;
+		level.load();
+		this.terrain = level.getTerrain();
+	}
+
+
+
+	/**
+	 * Return the facade through which the games of this simulation are played.
+	 */
+	@Basic @Immutable
+	public IFacade getFacade(){
+		return this.facade;
+	}
+
+	/**
+	 * Variable referencing the facade of this simulation.
+	 */
+	private final IFacade facade;
+
+	/**
+	 * Return the level on which the games of this simulation are played.
+	 */
+	@Basic @Immutable
+	public Level getLevel(){
+		return this.level;
+	}
+
+	/**
+	 * Variable referencing the level of this simulation.
+	 */
+	private final Level level;
+
+	/**
+	 * Variable referencing the terrain of the level as it was loaded,
+	 * which is copied for each game because shots change the terrain.
+	 */
+	private final Terrain terrain;
+
+	/**
+	 * Return the number of teams in the games of this simulation.
+	 */
+	public int getNbTeams(){
+		return this.teamPolicies.length;
+	}
+
+	/**
+	 * Return the name of the team with the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the team, starting from zero.
+	 */
+	public static String getTeamName(int index){
+		return "Team" + (char)('A' + index);
+	}
+
+	/**
+	 * Final class variable registering the maximal number of teams,
+	 * limited by the letters available for their names.
+	 */
+	public static final int MAXIMAL_NB_TEAMS = 26;
+
+	/**
+	 * Variable referencing the policies of the teams.
+	 */
+	private final WormPolicy[] teamPolicies;
+
+	/**
+	 * Variables registering the number of worms per team, the number of food rations
+	 * and the number of actions after which a game is given up.
+	 */
+	private final int nbWormsPerTeam, nbFood, maximalNbActions;
+
+	/**
+	 * Final class variable registering the number of actions after which the turn of a worm is ended.
+	 */
+	public static final int MAXIMAL_NB_ACTIONS_PER_TURN = 10;
+
+
+
+	/**
+	 * Play a complete game with the given seed, using the policies of this simulation.
+	 *
+	 * @param 	seed
+	 * 			The seed of the random number generator of the world.
+	 * @return	The result of the game, which is not finished if the maximal number
+	 * 			of actions was reached first.
+	 * 			| result == runGame(seed, teamPolicies)
+	 */
+	public GameResult runGame(long seed){
+		return runGame(seed, this.teamPolicies);
+	}
+
+	/**
+	 * Play a complete game with the given seed, using the given policies.
+	 *
+	 * @param 	seed
+	 * 			The seed of the random number generator of the world.
+	 * @param 	teamPolicies
+	 * 			The policies of the teams, one for each team.
+	 * @return	The result of the game, which is not finished if the maximal number
+	 * 			of actions was reached first.
+	 * @throws	IllegalArgumentException("The given number of teams is not valid.")
+	 * 			| teamPolicies.length != getNbTeams()
+	 */
+	public GameResult runGame(long seed, WormPolicy[] teamPolicies)
+			throws IllegalArgumentException{
+		if(teamPolicies.length != getNbTeams())
+			throw new IllegalArgumentException("The given number of teams is not valid.");
+		World world = createWorld(seed);
+		HashMap<Worm, WormPolicy> policyOfWorm = new HashMap<Worm, WormPolicy>();
+		int nbActions = 0, nbTurns = 0, nbActionsInTurn = 0;
+		Worm previousWorm = null;
+		while(!getFacade().isGameFinished(world) && nbActions < maximalNbActions){
+			Worm worm = getFacade().getCurrentWorm(world);
+			if(worm == null){
+				getFacade().startNextTurn(world);
+				continue;
+			}
+			if(worm != previousWorm){
+				nbTurns++;
+				nbActionsInTurn = 0;
+				previousWorm = worm;
+			}
+			Action action = getPolicy(worm, teamPolicies, policyOfWorm).chooseAction(getFacade(), world, worm);
+			nbActions++;
+			nbActionsInTurn++;
+			boolean applied = apply(world, worm, action);
+			if(action.getKind() == Action.Kind.END_TURN ||
+					((!applied || nbActionsInTurn >= MAXIMAL_NB_ACTIONS_PER_TURN) &&
+							getFacade().isAlive(worm) && getFacade().getCurrentWorm(world) == worm)){
+				// a worm that cannot do what it wants does not get stuck in its turn
+				getFacade().startNextTurn(world);
+				previousWorm = null;
+			}
+		}
+		boolean finished = getFacade().isGameFinished(world);
+		return new GameResult(finished ? getFacade().getWinner(world) : null, nbTurns, nbActions, finished);
+	}
+
+	/**
+	 * Create and populate a new world on the level of this simulation, and start the game.
+	 */
+	@Model
+	private World createWorld(long seed){
+		World world = getFacade().createWorldFromTerrain(getLevel().getWorldWidth(),
+				getLevel().getWorldHeight(), new Terrain(this.terrain), new Random(seed));
+		if(getNbTeams() > 1){
+			for(int team = 0; team < getNbTeams(); team++)
+				getFacade().addEmptyTeam(world, getTeamName(team));
+		}
+		for(int i = 0; i < getNbTeams() * nbWormsPerTeam; i++)
+			getFacade().addNewWorm(world);
+		for(int i = 0; i < nbFood; i++)
+			getFacade().addNewFood(world);
+		getFacade().startGame(world);
+		return world;
+	}
+
+	/**
+	 * Return the policy among the given policies of the team of the given worm.
+	 * 	Worms without a team use the policy of the first team.
+	 * 	The policy of each worm is registered in the given map the first time it is asked for.
+	 */
+	@Model
+	private WormPolicy getPolicy(Worm worm, WormPolicy[] teamPolicies, HashMap<Worm, WormPolicy> policyOfWorm){
+		WormPolicy policy = policyOfWorm.get(worm);
+		if(policy == null){
+			String teamName = getFacade().getTeamName(worm);
+			policy = teamPolicies[(teamName == null) ? 0 : teamName.charAt(teamName.length() - 1) - 'A'];
+			policyOfWorm.put(worm, policy);
+		}
+		return policy;
+	}
+
+	/**
+	 * Apply the given action to the given worm in the given world,
+	 * as the corresponding command of the graphical user interface does.
+	 *
+	 * @return	True if and only if the action could be applied.
+	 */
+	@Model
+	private boolean apply(World world, Worm worm, Action action){
+		try{
+			switch(action.getKind()){
+			case MOVE:
+				if(!getFacade().canMove(worm))
+					return false;
+				getFacade().move(worm);
+				if(getFacade().isAlive(worm) && getFacade().canFall(worm))
+					getFacade().fall(worm);
+				return true;
+			case JUMP:
+				getFacade().jump(worm, GUIConstants.JUMP_TIME_STEP);
+				return true;
+			case TURN:
+				if(!getFacade().canTurn(worm, action.getAngle()))
+					return false;
+				getFacade().turn(worm, action.getAngle());
+				return true;
+			case SHOOT:
+				getFacade().shoot(worm, action.getPropulsionYield());
+				Projectile projectile = getFacade().getActiveProjectile(world);
+				if(projectile == null)
+					return false;
+				getFacade().jump(projectile, GUIConstants.JUMP_TIME_STEP);
+				return true;
+			case SELECT_NEXT_WEAPON:
+				getFacade().selectNextWeapon(worm);
+				return true;
+			default:
+				return true;
+			}
+		}
+		catch(ModelException exc){
+			return false;
+		}
+	}
+}
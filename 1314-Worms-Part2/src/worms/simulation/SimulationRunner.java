@@ -0,0 +1,100 @@
+package worms.simulation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import worms.gui.Level;
+import worms.model.Facade;
+
+/**
+ * A class to run simulated games from the command line and report
+ * how many games are played per second.
+ * 	The games are played as a tournament on as many threads as there are processors,
+ * 	unless another number of threads is given.
+ * 	With -record, only the game with the given seed is played, and its replay log
+ * 	is written to the given file.
+ * 	With -planner, the given number of teams is played by planner policies that decide
+ * 	within the given budget (in milliseconds); the other teams play randomly.
+ * 	Usage: SimulationRunner [-level file] [-games n] [-seed s] [-teams t]
+ * 	[-worms w] [-food f] [-actions a] [-threads n] [-record file]
+ * 	[-planner n] [-budget ms]
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class SimulationRunner {
+
+	public static void main(String[] args)
+			throws IOException{
+		String levelFile = "levels/Simple.lvl";
+		int nbGames = 100, nbTeams = 2, nbWorms = 3, nbFood = 5, nbActions = 2000;
+		int nbThreads = Runtime.getRuntime().availableProcessors();
+		long seed = 0;
+		String recordFile = null;
+		int nbPlannerTeams = 0;
+		long budget = PlannerPolicy.DEFAULT_TIME_BUDGET;
+		for(int i = 0; i < args.length; i++){
+			String arg = args[i];
+			if("-level".equals(arg))
+				levelFile = args[++i];
+			else if("-games".equals(arg))
+				nbGames = Integer.parseInt(args[++i]);
+			else if("-seed".equals(arg))
+				seed = Long.parseLong(args[++i]);
+			else if("-teams".equals(arg))
+				nbTeams = Integer.parseInt(args[++i]);
+			else if("-worms".equals(arg))
+				nbWorms = Integer.parseInt(args[++i]);
+			else if("-food".equals(arg))
+				nbFood = Integer.parseInt(args[++i]);
+			else if("-actions".equals(arg))
+				nbActions = Integer.parseInt(args[++i]);
+			else if("-threads".equals(arg))
+				nbThreads = Integer.parseInt(args[++i]);
+			else if("-record".equals(arg))
+				recordFile = args[++i];
+			else if("-planner".equals(arg))
+				nbPlannerTeams = Integer.parseInt(args[++i]);
+			else if("-budget".equals(arg))
+				budget = Long.parseLong(args[++i]);
+		}
+
+		final int nbPlanners = nbPlannerTeams;
+		final long timeBudget = budget;
+		PolicyFactory policyFactory = new PolicyFactory() {
+			@Override
+			public WormPolicy createPolicy(int team, long gameSeed){
+				if(team < nbPlanners)
+					return new PlannerPolicy(gameSeed * Simulation.MAXIMAL_NB_TEAMS + team,
+							timeBudget, PlannerPolicy.DEFAULT_MAXIMAL_NB_EVALUATIONS);
+				return new RandomPolicy(gameSeed * Simulation.MAXIMAL_NB_TEAMS + team);
+			}
+		};
+		if(recordFile != null){
+			FileOutputStream output = new FileOutputStream(recordFile);
+			RecordingFacade facade = new RecordingFacade(output, new File(levelFile), seed);
+			Simulation simulation = new Simulation(facade, new Level(new File(levelFile)),
+					new WormPolicy[nbTeams], nbWorms, nbFood, nbActions);
+			WormPolicy[] teamPolicies = new WormPolicy[nbTeams];
+			for(int team = 0; team < nbTeams; team++)
+				teamPolicies[team] = policyFactory.createPolicy(team, seed);
+			GameResult result = simulation.runGame(seed, teamPolicies);
+			facade.close();
+			if(facade.getError() != null)
+				throw facade.getError();
+			System.out.println(result + ", recorded in " + recordFile);
+			return;
+		}
+
+		Simulation simulation = new Simulation(new Facade(), new Level(new File(levelFile)),
+				new WormPolicy[nbTeams], nbWorms, nbFood, nbActions);
+		Tournament tournament = new Tournament(simulation, policyFactory, nbThreads);
+
+		long start = System.nanoTime();
+		TournamentResult result = tournament.run(seed, nbGames);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(result + " in " + seconds + " s on " + nbThreads + " threads: " +
+				(nbGames / seconds) + " games/s");
+	}
+}
@@ -0,0 +1,182 @@
+package worms.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of tournaments, playing a series of seeded games of a simulation
+ * at the same time on a pool of threads.
+ * 	Each game creates its own world from the terrain the simulation loaded once,
+ * 	and uses policies created for that game only, so games share no changing state
+ * 	and the results do not depend on the number of threads.
+ *
+ * @invar	| getNbThreads() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class Tournament {
+
+	/**
+	 * Create a new tournament playing games of the given simulation on the given number of threads.
+	 *
+	 * @param 	simulation
+	 * 			The simulation of which the games are played.
+	 * @param 	policyFactory
+	 * 			The factory creating the policies of the teams for each game.
+	 * @param 	nbThreads
+	 * 			The number of threads on which games are played at the same time.
+	 * @post	| new.getSimulation() == simulation
+	 * @post	| new.getPolicyFactory() == policyFactory
+	 * @post	| new.getNbThreads() == nbThreads
+	 * @throws	IllegalArgumentException("The given number of threads is not valid.")
+	 * 			| nbThreads <= 0
+	 */
+	public Tournament(Simulation simulation, PolicyFactory policyFactory, int nbThreads)
+			throws IllegalArgumentException{
+		if(nbThreads <= 0)
+			throw new IllegalArgumentException("The given number of threads is not valid.");
+		this.simulation = simulation;
+		this.policyFactory = policyFactory;
+		this.nbThreads = nbThreads;
+	}
+
+	/**
+	 * Create a new tournament playing games of the given simulation
+	 * on as many threads as there are processors available.
+	 *
+	 * @param 	simulation
+	 * 			The simulation of which the games are played.
+	 * @param 	policyFactory
+	 * 			The factory creating the policies of the teams for each game.
+	 * @effect	| this(simulation, policyFactory, Runtime.getRuntime().availableProcessors())
+	 */
+	public Tournament(Simulation simulation, PolicyFactory policyFactory){
+		this(simulation, policyFactory, Runtime.getRuntime().availableProcessors());
+	}
+
+
+
+	/**
+	 * Return the simulation of which this tournament plays games.
+	 */
+	@Basic @Immutable
+	public Simulation getSimulation(){
+		return this.simulation;
+	}
+
+	/**
+	 * Variable referencing the simulation of this tournament.
+	 */
+	private final Simulation simulation;
+
+	/**
+	 * Return the factory creating the policies of the teams for each game.
+	 */
+	@Basic @Immutable
+	public PolicyFactory getPolicyFactory(){
+		return this.policyFactory;
+	}
+
+	/**
+	 * Variable referencing the policy factory of this tournament.
+	 */
+	private final PolicyFactory policyFactory;
+
+	/**
+	 * Return the number of threads on which this tournament plays games at the same time.
+	 */
+	@Basic @Immutable
+	public int getNbThreads(){
+		return this.nbThreads;
+	}
+
+	/**
+	 * Variable registering the number of threads of this tournament.
+	 */
+	private final int nbThreads;
+
+
+
+	/**
+	 * Play the given number of games, with consecutive seeds starting from the given seed.
+	 *
+	 * @param 	firstSeed
+	 * 			The seed of the first game.
+	 * @param 	nbGames
+	 * 			The number of games to play.
+	 * @return	The results of the games, in the order of their seeds.
+	 * 			| for each i in 0..nbGames-1:
+	 * 			|	result.getGameResult(i).equals(getSimulation().runGame(firstSeed + i,
+	 * 			|		policies created by getPolicyFactory() for firstSeed + i))
+	 * @throws	IllegalArgumentException("The given number of games is not valid.")
+	 * 			| nbGames < 0
+	 * @throws	RuntimeException
+	 * 			A game failed with an exception, which is rethrown after the other games are cancelled.
+	 */
+	public TournamentResult run(long firstSeed, int nbGames)
+			throws IllegalArgumentException, RuntimeException{
+		if(nbGames < 0)
+			throw new IllegalArgumentException("The given number of games is not valid.");
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(getNbThreads(), nbGames)));
+		try{
+			List<Future<GameResult>> futures = new ArrayList<Future<GameResult>>(nbGames);
+			for(int game = 0; game < nbGames; game++)
+				futures.add(executor.submit(createGame(firstSeed + game)));
+			GameResult[] results = new GameResult[nbGames];
+			for(int game = 0; game < nbGames; game++)
+				results[game] = getResult(futures.get(game));
+			return new TournamentResult(getSimulation().getNbTeams(), results);
+		}
+		finally{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Return a task playing the game with the given seed, with new policies for that game.
+	 */
+	@Model
+	private Callable<GameResult> createGame(final long seed){
+		return new Callable<GameResult>() {
+			@Override
+			public GameResult call(){
+				WormPolicy[] policies = new WormPolicy[getSimulation().getNbTeams()];
+				for(int team = 0; team < policies.length; team++)
+					policies[team] = getPolicyFactory().createPolicy(team, seed);
+				return getSimulation().runGame(seed, policies);
+			}
+		};
+	}
+
+	/**
+	 * Wait for the given game and return its result, rethrowing the exception with which it failed.
+	 */
+	@Model
+	private static GameResult getResult(Future<GameResult> future)
+			throws RuntimeException{
+		try{
+			return future.get();
+		}
+		catch(InterruptedException exc){
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(exc);
+		}
+		catch(ExecutionException exc){
+			if(exc.getCause() instanceof RuntimeException)
+				throw (RuntimeException)exc.getCause();
+			if(exc.getCause() instanceof Error)
+				throw (Error)exc.getCause();
+			throw new RuntimeException(exc.getCause());
+		}
+	}
+}
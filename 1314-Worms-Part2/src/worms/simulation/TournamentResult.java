@@ -0,0 +1,131 @@
+package worms.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of results of tournaments, registering the results of the games
+ * that were played together with totals over those games.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class TournamentResult {
+
+	/**
+	 * Create a new tournament result for games between the given number of teams with the given results.
+	 *
+	 * @param 	nbTeams
+	 * 			The number of teams in the games.
+	 * @param 	gameResults
+	 * 			The results of the games.
+	 */
+	public TournamentResult(int nbTeams, GameResult[] gameResults){
+		this.gameResults = gameResults.clone();
+		this.nbWins = new int[nbTeams];
+		for(GameResult result: gameResults){
+			if(result.isFinished()){
+				nbFinished++;
+				for(int team = 0; team < nbTeams; team++)
+					if(Simulation.getTeamName(team).equals(result.getWinner()))
+						nbWins[team]++;
+			}
+			nbTurns += result.getNbTurns();
+			nbActions += result.getNbActions();
+		}
+	}
+
+
+
+	/**
+	 * Return the number of games that were played.
+	 */
+	public int getNbGames(){
+		return this.gameResults.length;
+	}
+
+	/**
+	 * Return the result of the game with the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the game, in the order of the seeds of the games.
+	 */
+	public GameResult getGameResult(int index){
+		return this.gameResults[index];
+	}
+
+	/**
+	 * Variable referencing the results of the games.
+	 */
+	private final GameResult[] gameResults;
+
+	/**
+	 * Return the number of games that were finished before the maximal number of actions was reached.
+	 */
+	@Basic @Immutable
+	public int getNbFinished(){
+		return this.nbFinished;
+	}
+
+	/**
+	 * Variable registering the number of finished games.
+	 */
+	private int nbFinished = 0;
+
+	/**
+	 * Return the number of games won by the team with the given index.
+	 * 	In games without teams the winner is a worm, which is not counted here.
+	 *
+	 * @param 	team
+	 * 			The index of the team, starting from zero.
+	 */
+	public int getNbWins(int team){
+		return this.nbWins[team];
+	}
+
+	/**
+	 * Variable registering the number of games won by each team.
+	 */
+	private final int[] nbWins;
+
+	/**
+	 * Return the total number of turns over all games.
+	 */
+	@Basic @Immutable
+	public long getNbTurns(){
+		return this.nbTurns;
+	}
+
+	/**
+	 * Variable registering the total number of turns.
+	 */
+	private long nbTurns = 0;
+
+	/**
+	 * Return the total number of actions over all games.
+	 */
+	@Basic @Immutable
+	public long getNbActions(){
+		return this.nbActions;
+	}
+
+	/**
+	 * Variable registering the total number of actions.
+	 */
+	private long nbActions = 0;
+
+	/**
+	 * Return a textual representation of this tournament result.
+	 */
+	@Override
+	public String toString(){
+		StringBuilder result = new StringBuilder();
+		result.append(getNbGames() + " games (" + getNbFinished() + " finished, " +
+				getNbTurns() + " turns, " + getNbActions() + " actions)");
+		for(int team = 0; team < this.nbWins.length; team++)
+			result.append(", " + Simulation.getTeamName(team) + " won " + getNbWins(team));
+		return result.toString();
+	}
+}
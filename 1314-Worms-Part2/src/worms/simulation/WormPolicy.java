@@ -0,0 +1,27 @@
+package worms.simulation;
+
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * An interface for policies that choose the actions of worms in a simulated game.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public interface WormPolicy {
+
+	/**
+	 * Return the next action for the given worm, whose turn it is in the given world.
+	 * 	The world must only be inspected, not changed, through the given facade.
+	 *
+	 * @param 	facade
+	 * 			The facade through which the world is inspected.
+	 * @param 	world
+	 * 			The world in which the game is played.
+	 * @param 	worm
+	 * 			The worm whose turn it is.
+	 */
+	Action chooseAction(IFacade facade, World world, Worm worm);
+}
@@ -0,0 +1,75 @@
+package worms.gui;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class LevelCatalogueTest {
+
+	/**
+	 * Preload the given level in the given catalogue, and wait until it is preloaded.
+	 */
+	private static void preloadAndWait(LevelCatalogue catalogue, Level level) throws InterruptedException{
+		catalogue.preload(level);
+		long deadline = System.currentTimeMillis() + 60000;
+		while(!catalogue.isPreloaded(level)){
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void readSubsampledMapImage_legalCase() throws IOException{
+		Level level = new Level(new File("levels/Simple.lvl"));
+		BufferedImage image = ImageIO.read(new File("levels/Simple.png"));
+		BufferedImage subsampled = level.readSubsampledMapImage(3);
+		assertEquals((image.getWidth() + 2) / 3, subsampled.getWidth());
+		assertEquals((image.getHeight() + 2) / 3, subsampled.getHeight());
+		for(int row = 0; row < subsampled.getHeight(); row++)
+			for(int column = 0; column < subsampled.getWidth(); column++)
+				assertEquals(image.getRGB(3 * column, 3 * row), subsampled.getRGB(column, row));
+	}
+
+	@Test
+	public void preload_thumbnail() throws InterruptedException{
+		Level level = new Level(new File("levels/Skulls.lvl"));
+		LevelCatalogue catalogue = new LevelCatalogue(new Level[] {level});
+		preloadAndWait(catalogue, level);
+		BufferedImage thumbnail = catalogue.getThumbnail(level);
+		assertTrue(thumbnail.getWidth() <= LevelCatalogue.THUMBNAIL_WIDTH);
+		assertTrue(thumbnail.getHeight() <= LevelCatalogue.THUMBNAIL_HEIGHT);
+		assertTrue(thumbnail.getWidth() == LevelCatalogue.THUMBNAIL_WIDTH ||
+				thumbnail.getHeight() == LevelCatalogue.THUMBNAIL_HEIGHT);
+	}
+
+	@Test
+	public void preload_leastRecentlyHighlightedUnloaded() throws InterruptedException{
+		Level[] levels = new Level[LevelCatalogue.MAXIMAL_NB_PRELOADED_LEVELS + 2];
+		for(int i = 0; i < levels.length; i++)
+			levels[i] = new Level(new File(i % 2 == 0 ? "levels/Simple.lvl" : "levels/Skulls-lowres.lvl"));
+		LevelCatalogue catalogue = new LevelCatalogue(levels);
+		for(int i = 0; i < LevelCatalogue.MAXIMAL_NB_PRELOADED_LEVELS; i++)
+			preloadAndWait(catalogue, levels[i]);
+		// highlighting the first level again makes it the most recently highlighted one
+		catalogue.preload(levels[0]);
+		for(int i = LevelCatalogue.MAXIMAL_NB_PRELOADED_LEVELS; i < levels.length; i++)
+			preloadAndWait(catalogue, levels[i]);
+		assertTrue(levels[0].isLoaded());
+		assertTrue(catalogue.isPreloaded(levels[0]));
+		assertFalse(levels[1].isLoaded());
+		assertFalse(levels[2].isLoaded());
+		assertFalse(catalogue.isPreloaded(levels[1]));
+		for(int i = 3; i < levels.length; i++)
+			assertTrue(levels[i].isLoaded());
+		assertNotNull(catalogue.getThumbnail(levels[2]));
+		// an unloaded level loads itself again when its terrain is asked for
+		assertEquals(levels[0].getMapHeight(), levels[2].getTerrain().getNbRows());
+		assertTrue(levels[2].isLoaded());
+	}
+}
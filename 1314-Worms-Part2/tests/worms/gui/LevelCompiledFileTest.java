@@ -0,0 +1,238 @@
+package worms.gui;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LevelCompiledFileTest {
+
+	/**
+	 * Create a temporary level directory holding a copy of the map image of the level Simple,
+	 * a level file for it, and a compiled level file newer than both.
+	 */
+	@Before
+	public void setUp() throws IOException{
+		directory = File.createTempFile("levels", "");
+		directory.delete();
+		directory.mkdir();
+		mapFile = new File(directory, "Test.png");
+		copy(new File("levels/Simple.png"), mapFile);
+		levelFile = new File(directory, "Test.lvl");
+		FileWriter writer = new FileWriter(levelFile);
+		writer.write("# A test map\nmap:Test.png\nheight:20\n");
+		writer.close();
+		compiledFile = new File(directory, "Test.lvlc");
+		mapFile.setLastModified(TIME - 20000);
+		levelFile.setLastModified(TIME - 20000);
+		load();
+		assertTrue(compiledFile.isFile());
+		compiledFile.setLastModified(TIME);
+		expectedPassableMap = createExpectedPassableMap();
+	}
+
+	/**
+	 * Delete the temporary level directory.
+	 */
+	@After
+	public void tearDown(){
+		for(File file : directory.listFiles())
+			file.delete();
+		directory.delete();
+	}
+
+	/**
+	 * Variable referencing the temporary level directory.
+	 */
+	private File directory;
+
+	/**
+	 * Variables referencing the map image, level file and compiled level file in the temporary level directory.
+	 */
+	private File mapFile, levelFile, compiledFile;
+
+	/**
+	 * Variable referencing the passable map decoded from the map image as a whole.
+	 */
+	private boolean[][] expectedPassableMap;
+
+	/**
+	 * Final class variable registering the time at which the compiled level file was last modified.
+	 */
+	private static final long TIME = (System.currentTimeMillis() / 1000 - 3600) * 1000;
+
+	/**
+	 * Final class variable registering the scale written over the scale in the compiled level file
+	 * to tell whether a level was loaded from that file.
+	 */
+	private static final double PATCHED_SCALE = 0.5;
+
+	/**
+	 * Copy the given file to the given destination.
+	 */
+	private static void copy(File source, File destination) throws IOException{
+		InputStream input = new FileInputStream(source);
+		OutputStream output = new FileOutputStream(destination);
+		byte[] buffer = new byte[8192];
+		int length;
+		while((length = input.read(buffer)) > 0)
+			output.write(buffer, 0, length);
+		input.close();
+		output.close();
+	}
+
+	/**
+	 * Return the passable map of the map image of the temporary level, decoded as a whole.
+	 */
+	private boolean[][] createExpectedPassableMap() throws IOException{
+		BufferedImage image = ImageIO.read(mapFile);
+		boolean[][] result = new boolean[image.getHeight()][image.getWidth()];
+		for(int row = 0; row < image.getHeight(); row++)
+			for(int column = 0; column < image.getWidth(); column++)
+				result[row][column] = ((image.getRGB(column, row) >>> 24) & 0xf0) == 0;
+		return result;
+	}
+
+	/**
+	 * Return the temporary level, loaded.
+	 */
+	private Level load(){
+		Level level = new Level(levelFile);
+		level.load();
+		return level;
+	}
+
+	/**
+	 * Write the given value at the given position in the compiled level file,
+	 * without changing the time at which it was last modified.
+	 */
+	private void patchInt(long position, int value) throws IOException{
+		RandomAccessFile file = new RandomAccessFile(compiledFile, "rw");
+		file.seek(position);
+		file.writeInt(value);
+		file.close();
+		compiledFile.setLastModified(TIME);
+	}
+
+	/**
+	 * Write the patched scale over the scale in the compiled level file,
+	 * without changing the time at which it was last modified.
+	 */
+	private void patchScale() throws IOException{
+		RandomAccessFile file = new RandomAccessFile(compiledFile, "rw");
+		file.seek(16);
+		file.writeDouble(PATCHED_SCALE);
+		file.close();
+		compiledFile.setLastModified(TIME);
+	}
+
+	/**
+	 * Check that the given level was decoded from its map image: its terrain is that of the map
+	 * image, its scale is that of its level file, and a valid compiled level file was written again.
+	 */
+	private void assertLoadedFromMap(Level level) throws IOException{
+		assertEquals(20.0 / expectedPassableMap.length, level.getScale(), 0);
+		assertTrue(Arrays.deepEquals(expectedPassableMap, level.getTerrain().toPassableMap()));
+		assertTrue(compiledFile.lastModified() != TIME);
+		compiledFile.setLastModified(TIME);
+		Level reloaded = load();
+		assertEquals(level.getScale(), reloaded.getScale(), 0);
+		assertTrue(Arrays.deepEquals(expectedPassableMap, reloaded.getTerrain().toPassableMap()));
+	}
+
+	@Test
+	public void load_roundTrip() throws IOException{
+		Level level = load();
+		assertEquals(expectedPassableMap[0].length, level.getMapWidth());
+		assertEquals(expectedPassableMap.length, level.getMapHeight());
+		assertEquals(20.0 / expectedPassableMap.length, level.getScale(), 0);
+		assertTrue(Arrays.deepEquals(expectedPassableMap, level.getTerrain().toPassableMap()));
+		assertEquals(TIME, compiledFile.lastModified());
+	}
+
+	@Test
+	public void load_fromCompiledFile() throws IOException{
+		patchScale();
+		Level level = load();
+		assertEquals(PATCHED_SCALE, level.getScale(), 0);
+		assertTrue(Arrays.deepEquals(expectedPassableMap, level.getTerrain().toPassableMap()));
+	}
+
+	@Test
+	public void load_mapNewerThanCompiledFile() throws IOException{
+		patchScale();
+		mapFile.setLastModified(TIME + 2000);
+		assertLoadedFromMap(load());
+	}
+
+	@Test
+	public void load_levelFileNewerThanCompiledFile() throws IOException{
+		patchScale();
+		levelFile.setLastModified(TIME + 2000);
+		assertLoadedFromMap(load());
+	}
+
+	@Test
+	public void load_sameTimeAsCompiledFile() throws IOException{
+		patchScale();
+		mapFile.setLastModified(TIME);
+		assertLoadedFromMap(load());
+	}
+
+	@Test
+	public void load_replacedWhileInUse() throws IOException{
+		Level inUse = load();
+		assertTrue(Arrays.deepEquals(expectedPassableMap, inUse.getTerrain().toPassableMap()));
+		patchScale();
+		mapFile.setLastModified(TIME + 2000);
+		assertLoadedFromMap(load());
+		assertTrue(Arrays.deepEquals(expectedPassableMap, inUse.getTerrain().toPassableMap()));
+	}
+
+	@Test
+	public void load_wrongMagic() throws IOException{
+		patchScale();
+		patchInt(0, 0x504e4700);
+		assertLoadedFromMap(load());
+	}
+
+	@Test
+	public void load_wrongVersion() throws IOException{
+		patchScale();
+		patchInt(4, 1);
+		assertLoadedFromMap(load());
+	}
+
+	@Test
+	public void load_truncatedTerrain() throws IOException{
+		patchScale();
+		RandomAccessFile file = new RandomAccessFile(compiledFile, "rw");
+		file.setLength(file.length() / 2);
+		file.close();
+		compiledFile.setLastModified(TIME);
+		assertLoadedFromMap(load());
+	}
+
+	@Test
+	public void load_truncatedHeader() throws IOException{
+		RandomAccessFile file = new RandomAccessFile(compiledFile, "rw");
+		file.setLength(10);
+		file.close();
+		compiledFile.setLastModified(TIME);
+		assertLoadedFromMap(load());
+	}
+}
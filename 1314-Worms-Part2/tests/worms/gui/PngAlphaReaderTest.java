@@ -0,0 +1,64 @@
+package worms.gui;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class PngAlphaReaderTest {
+
+	/**
+	 * Check that the alpha values read row by row from the given image
+	 * are those of the image decoded as a whole.
+	 */
+	private static void assertSameAlpha(File file) throws IOException{
+		BufferedImage image = ImageIO.read(file);
+		PngAlphaReader reader = new PngAlphaReader(file);
+		try{
+			assertEquals(image.getWidth(), reader.getWidth());
+			assertEquals(image.getHeight(), reader.getHeight());
+			byte[] alpha = new byte[reader.getWidth()];
+			for(int row = 0; row < reader.getHeight(); row++){
+				reader.readRow(alpha);
+				for(int column = 0; column < reader.getWidth(); column++)
+					assertEquals(image.getRGB(column, row) >>> 24, alpha[column] & 0xff);
+			}
+		}
+		finally{
+			reader.close();
+		}
+	}
+
+	@Test
+	public void readRow_Simple() throws IOException{
+		assertSameAlpha(new File("levels/Simple.png"));
+	}
+
+	@Test
+	public void readRow_Skulls() throws IOException{
+		assertSameAlpha(new File("levels/Skulls.png"));
+	}
+
+	@Test(expected = IOException.class)
+	public void readRow_noMoreRows() throws IOException{
+		PngAlphaReader reader = new PngAlphaReader(new File("levels/Skulls-lowres.png"));
+		try{
+			byte[] alpha = new byte[reader.getWidth()];
+			for(int row = 0; row <= reader.getHeight(); row++)
+				reader.readRow(alpha);
+		}
+		finally{
+			reader.close();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void constructor_notAnImage() throws IOException{
+		new PngAlphaReader(new File("levels/Simple.lvl"));
+	}
+}
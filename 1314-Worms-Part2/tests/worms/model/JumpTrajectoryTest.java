@@ -0,0 +1,99 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class JumpTrajectoryTest {
+
+	/**
+	 * Add a worm facing the given direction to the world, at a spawn point.
+	 */
+	private Worm addWorm(double direction){
+		double[] location = world.getSpawnPointFinder().findSpawnPoint(0.25);
+		Worm worm = new Worm(location[0], location[1], direction, 0.25, "Jumper");
+		world.addAsWorm(worm);
+		return worm;
+	}
+
+	@Before
+	public void setUp(){
+		world = LevelWorlds.createWorld("Simple", 5, 0);
+	}
+
+	/**
+	 * Variable referencing the world in which the worms jump.
+	 */
+	private World world;
+
+	@Test
+	public void getPoints_copied(){
+		Worm worm = addWorm(1.0);
+		// a worm at a spawn point right below impassable terrain cannot jump
+		while(!worm.getWormPosition().getJumpTrajectory().isPossible()){
+			world.removeAsWorm(worm);
+			worm = addWorm(1.0);
+		}
+		JumpTrajectory trajectory = worm.getWormPosition().getJumpTrajectory();
+		double[][] points = trajectory.getPoints();
+		double x = points[0][0];
+		points[0][0] = x + 1;
+		points[1] = null;
+		double[][] again = trajectory.getPoints();
+		assertEquals(x, again[0][0], 0);
+		assertNotNull(again[1]);
+		assertNotSame(again[0], trajectory.getPoints()[0]);
+	}
+
+	@Test
+	public void getTime_newDirectionExceptionEachTime(){
+		Worm worm = addWorm(4.0);
+		JumpTrajectory trajectory = worm.getWormPosition().getJumpTrajectory();
+		assertFalse(trajectory.isPossible());
+		IllegalDirectionException first = null, second = null;
+		try{
+			trajectory.getTime();
+		}
+		catch(IllegalDirectionException exc){
+			first = exc;
+		}
+		try{
+			trajectory.getPoints();
+		}
+		catch(IllegalDirectionException exc){
+			second = exc;
+		}
+		assertNotNull(first);
+		assertNotNull(second);
+		assertNotSame(first, second);
+		assertEquals(4.0, second.getDirection(), 0);
+		assertSame(worm, second.getWorm());
+	}
+
+	@Test
+	public void getTime_newActionPointsExceptionEachTime(){
+		Worm worm = addWorm(1.0);
+		worm.reduceCurrentActionPoints(worm.getCurrentActionPoints());
+		JumpTrajectory trajectory = worm.getWormPosition().getJumpTrajectory();
+		assertFalse(trajectory.isPossible());
+		IllegalActionPointsException first = null, second = null;
+		try{
+			trajectory.getTime();
+		}
+		catch(IllegalActionPointsException exc){
+			first = exc;
+		}
+		try{
+			trajectory.getTime();
+		}
+		catch(IllegalActionPointsException exc){
+			second = exc;
+		}
+		assertNotNull(first);
+		assertNotNull(second);
+		assertNotSame(first, second);
+		assertEquals(0, second.getActionPoints());
+		assertSame(worm, second.getWorm());
+	}
+}
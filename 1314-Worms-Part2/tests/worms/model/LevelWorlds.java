@@ -0,0 +1,38 @@
+package worms.model;
+
+import java.io.File;
+import java.util.Random;
+
+import worms.gui.Level;
+
+/**
+ * A class of helpers creating worlds on the shipped levels, for the tests that
+ * compare the model with the way it computed its results before.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class LevelWorlds {
+
+	/**
+	 * Return a world on the shipped level with the given name, with the given number of
+	 * worms added at random, and started if it has more than one worm.
+	 *
+	 * @param 	name
+	 * 			The name of the level, of which the file is in the folder of levels.
+	 * @param 	seed
+	 * 			The seed of the random generator of the world.
+	 * @param 	nbWorms
+	 * 			The number of worms added to the world.
+	 */
+	static World createWorld(String name, long seed, int nbWorms){
+		Level level = new Level(new File("levels", name + ".lvl"));
+		level.load();
+		World world = new World(level.getWorldWidth(), level.getWorldHeight(),
+				new Terrain(level.getTerrain()), new Random(seed));
+		for(int i = 0; i < nbWorms; i++)
+			world.addNewWorm();
+		world.startGame();
+		return world;
+	}
+}
@@ -0,0 +1,119 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ProjectileFlightTest {
+
+	/**
+	 * Return the time after which the shot of the given projectile ends, as
+	 * Projectile.getJumpTime computed it before it solved the flight along the parabola:
+	 * in time steps that shrink by a factor of three each time the projectile overshoots.
+	 */
+	private static double getSteppedJumpTime(Projectile projectile, double timeStep)
+			throws IllegalDirectionException{
+		World world = projectile.getWorld();
+		double[] tempXY = {projectile.getX(),projectile.getY()};
+		double radius = projectile.getRadius();
+		double temp = timeStep;
+		double tempTime = 0.0;
+		while(world.isAdjacent(tempXY[0], tempXY[1], radius) && tempTime < (1/8.0)
+				&& world.hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
+			tempTime = tempTime + temp;
+			tempXY = projectile.getJumpStep(tempTime);
+		}
+		if(world.isImpassable(tempXY[0], tempXY[1], radius)){
+			tempTime = tempTime - (temp/2.0);
+			tempXY = projectile.getJumpStep(tempTime);
+			if(world.hitAnyWorm(tempXY[0], tempXY[1], radius) == null)
+				throw new IllegalDirectionException(projectile.getDirection());
+		}
+		while(!world.isAdjacent(tempXY[0], tempXY[1], radius) && temp >= (1/400000.0)
+				&& world.hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
+			while(!world.isImpassable(tempXY[0], tempXY[1], radius)
+					&& world.hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
+				tempTime = tempTime + temp;
+				tempXY = projectile.getJumpStep(tempTime);
+			}
+			temp = temp / 3.0;
+			while(world.isImpassable(tempXY[0], tempXY[1], radius)){
+				tempTime = tempTime - temp;
+				tempXY = projectile.getJumpStep(tempTime);
+			}
+			temp = temp / 3.0;
+		}
+		return tempTime;
+	}
+
+	/**
+	 * Fire shots of both weapons in random directions from random spawn points in the given
+	 * world, and check that each shot ends within a time step of the time found by the stepping
+	 * solver, hits the same worm, and is refused in the same cases. The bazooka shells carve
+	 * craters, so later shots fly through a changed terrain.
+	 */
+	private static void assertSameShots(World world, long seed){
+		Random random = new Random(seed);
+		for(int shot = 0; shot < 300; shot++){
+			double[] location = world.getSpawnPointFinder().findSpawnPoint(0.25);
+			Worm shooter = new Worm(location[0], location[1], random.nextDouble() * 2 * Math.PI, 0.25, "Shooter");
+			world.addAsWorm(shooter);
+			shooter.getWeapon().selectNextWeapon();
+			if(shot % 2 == 1)
+				shooter.getWeapon().selectNextWeapon();
+			shooter.getWeapon().shoot(random.nextInt(101));
+			Projectile projectile = world.getProjectile();
+			if(projectile != null){
+				double steppedTime;
+				Worm steppedWorm;
+				try{
+					steppedTime = getSteppedJumpTime(projectile, TIME_STEP);
+					double[] xy = projectile.getJumpStep(steppedTime);
+					steppedWorm = world.hitAnyWorm(xy[0], xy[1], projectile.getRadius());
+				}
+				catch(IllegalDirectionException exc){
+					steppedTime = Double.NaN;
+					steppedWorm = null;
+				}
+				try{
+					assertEquals(steppedTime, projectile.getJumpTime(TIME_STEP), TIME_STEP);
+					List<Worm> worms = new ArrayList<Worm>(world.getWorms());
+					int[] hitPoints = new int[worms.size()];
+					for(int i = 0; i < worms.size(); i++)
+						hitPoints[i] = worms.get(i).getCurrentHitPoints();
+					projectile.jump(TIME_STEP);
+					Worm hitWorm = null;
+					for(int i = 0; i < worms.size(); i++)
+						if(worms.get(i).getCurrentHitPoints() != hitPoints[i])
+							hitWorm = worms.get(i);
+					assertTrue(hitWorm == steppedWorm);
+				}
+				catch(IllegalDirectionException exc){
+					assertTrue(Double.isNaN(steppedTime));
+					projectile.deactivate();
+				}
+			}
+			if(world.hasAsWorm(shooter))
+				world.removeAsWorm(shooter);
+		}
+	}
+
+	/**
+	 * Final class variable registering the time step with which the shots are computed.
+	 */
+	private static final double TIME_STEP = 0.0001;
+
+	@Test
+	public void getJumpTime_sameAsStepping_Simple(){
+		assertSameShots(LevelWorlds.createWorld("Simple", 11, 30), 1);
+	}
+
+	@Test
+	public void getJumpTime_sameAsStepping_Skulls(){
+		assertSameShots(LevelWorlds.createWorld("Skulls", 11, 30), 2);
+	}
+}
@@ -0,0 +1,114 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SpawnPointFinderTest {
+
+	/**
+	 * Return a terrain of 600 rows and 900 columns, of which the bottom third is
+	 * impassable, mapped from a temporary file to which it is written.
+	 */
+	private static Terrain createMappedTerrain() throws IOException{
+		Terrain terrain = new Terrain(600, 900);
+		for(int row = 400; row < 600; row++)
+			for(int column = 0; column < 900; column++)
+				terrain.setPassable(row, column, false);
+		File file = File.createTempFile("terrain", ".lvlc");
+		file.deleteOnExit();
+		RandomAccessFile output = new RandomAccessFile(file, "rw");
+		ByteBuffer buffer = output.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, terrain.getCompiledSize());
+		terrain.write(buffer, 90, 60);
+		output.close();
+		return Terrain.map(new RandomAccessFile(file, "r").getChannel(), 0);
+	}
+
+	@Test
+	public void findSpawnPoint_sampled() throws IOException{
+		World world = new World(90, 60, createMappedTerrain(), new Random(3));
+		assertTrue(world.getDistanceField().isTiled());
+		for(int i = 0; i < 20; i++){
+			double[] location = world.getSpawnPointFinder().findSpawnPoint(0.5);
+			assertTrue(world.isAdjacent(location[0], location[1], 0.5));
+		}
+	}
+
+	@Test
+	public void findSpawnPoint_sampledSameSeed() throws IOException{
+		World world1 = new World(90, 60, createMappedTerrain(), new Random(4));
+		World world2 = new World(90, 60, createMappedTerrain(), new Random(4));
+		double[] location1 = world1.getSpawnPointFinder().findSpawnPoint(0.5);
+		double[] location2 = world2.getSpawnPointFinder().findSpawnPoint(0.5);
+		assertEquals(location1[0], location2[0], 0);
+		assertEquals(location1[1], location2[1], 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void findSpawnPoint_sampledTooLarge() throws IOException{
+		new World(90, 60, createMappedTerrain(), new Random(5)).getSpawnPointFinder().findSpawnPoint(25);
+	}
+
+	@Test
+	public void getNbCandidates_sampledSameAsCollected() throws IOException{
+		Terrain mapped = createMappedTerrain();
+		World tiledWorld = new World(90, 60, mapped, new Random(6));
+		World world = new World(90, 60, new Terrain(mapped.toPassableMap()), new Random(6));
+		assertFalse(world.getDistanceField().isTiled());
+		assertEquals(world.getSpawnPointFinder().getNbCandidates(0.5),
+				tiledWorld.getSpawnPointFinder().getNbCandidates(0.5));
+	}
+
+	@Test
+	public void findSpawnPoint_manyRadii(){
+		Terrain terrain = new Terrain(600, 900);
+		for(int row = 400; row < 600; row++)
+			for(int column = 0; column < 900; column++)
+				terrain.setPassable(row, column, false);
+		World world = new World(90, 60, terrain, new Random(9));
+		for(int i = 0; i < 3 * SpawnPointFinder.MAXIMAL_NB_RADIUS_CLASSES; i++){
+			double radius = 0.5 + i * 0.01;
+			double[] location = world.getSpawnPointFinder().findSpawnPoint(radius);
+			assertTrue(world.isAdjacent(location[0], location[1], radius));
+		}
+	}
+
+	@Test
+	public void getNbCandidates_sameClass(){
+		SpawnPointFinder finder = LevelWorlds.createWorld("Simple", 10, 0).getSpawnPointFinder();
+		// 1.1 to the power -8 and -7 bound the class of both radii
+		assertEquals(finder.getNbCandidates(0.48), finder.getNbCandidates(0.5));
+		assertTrue(finder.getNbCandidates(0.48) != finder.getNbCandidates(0.6));
+	}
+
+	@Test
+	public void getNbCandidates_updatedAroundCraters(){
+		World world = LevelWorlds.createWorld("Skulls", 11, 0);
+		WorldSnapshot snapshot = world.createSnapshot();
+		double[] radii = {0.2, 0.25, 0.5, 1.0, 2.0};
+		for(double radius: radii)
+			world.getSpawnPointFinder().getNbCandidates(radius);
+		Random random = new Random(12);
+		for(int i = 0; i < 10; i++){
+			world.carveCrater(random.nextDouble() * world.getWidth(), random.nextDouble() * world.getHeight(),
+					0.5 + 3 * random.nextDouble());
+			if(i == 7)
+				world.restore(snapshot);
+			SpawnPointFinder collected = new SpawnPointFinder(world);
+			for(double radius: radii)
+				assertEquals(collected.getNbCandidates(radius), world.getSpawnPointFinder().getNbCandidates(radius));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void findSpawnPoint_zeroRadius(){
+		LevelWorlds.createWorld("Simple", 13, 0).getSpawnPointFinder().findSpawnPoint(0);
+	}
+}
@@ -0,0 +1,246 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TerrainTest {
+
+	/**
+	 * Variable referencing a terrain that is wider than a single word.
+	 */
+	private Terrain terrain;
+
+	/**
+	 * Set up a mutable test fixture.
+	 *
+	 * @post	The variable terrain references a new terrain of 3 rows and 150 columns,
+	 * 			in which the columns 0, 63, 64 and 149 of row 1 are impassable.
+	 */
+	@Before
+	public void setUpMutableFixture(){
+		terrain = new Terrain(3, 150);
+		terrain.setPassable(1, 0, false);
+		terrain.setPassable(1, 63, false);
+		terrain.setPassable(1, 64, false);
+		terrain.setPassable(1, 149, false);
+	}
+
+	@Test
+	public void constructor_legalCase(){
+		boolean[][] passableMap = {{true,false,true},
+								   {false,true,true}};
+		Terrain myTerrain = new Terrain(passableMap);
+		assertEquals(2, myTerrain.getNbRows());
+		assertEquals(3, myTerrain.getNbColumns());
+		assertTrue(myTerrain.isPassable(0, 0));
+		assertFalse(myTerrain.isPassable(0, 1));
+		assertFalse(myTerrain.isPassable(1, 0));
+		assertTrue(myTerrain.isPassable(1, 2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_illegalDimensions(){
+		new Terrain(0, 10);
+	}
+
+	@Test
+	public void setPassable_legalCase(){
+		assertFalse(terrain.isPassable(1, 64));
+		terrain.setPassable(1, 64, true);
+		assertTrue(terrain.isPassable(1, 64));
+		assertFalse(terrain.isPassable(1, 63));
+	}
+
+	@Test
+	public void getNextImpassableColumn_legalCase(){
+		assertEquals(0, terrain.getNextImpassableColumn(1, 0, 149));
+		assertEquals(63, terrain.getNextImpassableColumn(1, 1, 149));
+		assertEquals(64, terrain.getNextImpassableColumn(1, 64, 149));
+		assertEquals(149, terrain.getNextImpassableColumn(1, 65, 149));
+		assertEquals(149, terrain.getNextImpassableColumn(0, 0, 148));
+	}
+
+	@Test
+	public void getNextImpassableRow_legalCase(){
+		assertEquals(1, terrain.getNextImpassableRow(63, 0, 2));
+		assertEquals(1, terrain.getNextImpassableRow(63, 1, 2));
+		assertEquals(3, terrain.getNextImpassableRow(63, 2, 2));
+		assertEquals(1, terrain.getNextImpassableRow(62, 0, 0));
+		assertEquals(3, terrain.getNextImpassableRow(62, 0, 2));
+	}
+
+	@Test
+	public void getNextImpassableRows_sameAsSingleColumns(){
+		int[] firstRows = new int[150];
+		for(int column = 0; column < 150; column++)
+			firstRows[column] = column % 3;
+		int[] rows = terrain.getNextImpassableRows(0, firstRows, 2);
+		for(int column = 0; column < 150; column++)
+			assertEquals(terrain.getNextImpassableRow(column, firstRows[column], 2), rows[column]);
+		assertEquals(1, rows[63]);
+		assertEquals(3, rows[149]);
+	}
+
+	@Test
+	public void isPassable_range(){
+		assertTrue(terrain.isPassable(1, 1, 62));
+		assertFalse(terrain.isPassable(1, 1, 63));
+		assertTrue(terrain.isPassable(1, 65, 148));
+		assertTrue(terrain.isPassable(2, 0, 149));
+	}
+
+	@Test
+	public void toPassableMap_legalCase(){
+		boolean[][] passableMap = terrain.toPassableMap();
+		assertEquals(3, passableMap.length);
+		assertEquals(150, passableMap[0].length);
+		assertFalse(passableMap[1][63]);
+		assertTrue(passableMap[1][62]);
+		assertTrue(passableMap[0][0]);
+	}
+
+	@Test
+	public void copyConstructor_changesAreNotShared(){
+		Terrain copy = new Terrain(terrain);
+		copy.setPassable(1, 63, true);
+		terrain.setPassable(0, 5, false);
+		assertFalse(terrain.isPassable(1, 63));
+		assertTrue(copy.isPassable(1, 63));
+		assertTrue(copy.isPassable(0, 5));
+		assertFalse(copy.isPassable(1, 64));
+	}
+
+	@Test
+	public void createDistanceField_sharedUntilUpdated(){
+		Terrain copy = new Terrain(terrain);
+		World world1 = new World(15, 0.3, terrain, new Random(1));
+		World world2 = new World(15, 0.3, copy, new Random(1));
+		double before = world2.getDistanceField().getDistanceAt(1, 64);
+		world1.carveCrater(6.45, 0.15, 0.2);
+		assertTrue(terrain.isPassable(1, 64));
+		assertFalse(copy.isPassable(1, 64));
+		assertTrue(world1.getDistanceField().getDistanceAt(1, 64) > 0);
+		assertEquals(before, world2.getDistanceField().getDistanceAt(1, 64), 0);
+		assertEquals(new DistanceField(terrain, 15, 0.3).getDistanceAt(1, 64),
+				world1.getDistanceField().getDistanceAt(1, 64), 0);
+	}
+
+	@Test
+	public void createColumnIndex_sharedUntilUpdated(){
+		Terrain copy = new Terrain(terrain);
+		World world1 = new World(15, 0.3, terrain, new Random(1));
+		World world2 = new World(15, 0.3, copy, new Random(1));
+		world1.carveCrater(6.45, 0.15, 0.2);
+		assertTrue(world1.getColumnIndex().isPassable(1, 64));
+		assertFalse(world2.getColumnIndex().isPassable(1, 64));
+		assertEquals(OccupancyMap.EMPTY, world1.getOccupancyMap().getOccupancy(terrain, 1, 64, 1, 64));
+		assertEquals(OccupancyMap.FULL, world2.getOccupancyMap().getOccupancy(copy, 1, 64, 1, 64));
+		assertFalse(copy.createColumnIndex().isPassable(1, 64));
+		assertTrue(terrain.createColumnIndex().isPassable(1, 64));
+	}
+
+	@Test
+	public void createColumnIndex_changedTerrain(){
+		ColumnIndex before = terrain.createColumnIndex();
+		OccupancyMap beforeMap = terrain.createOccupancyMap();
+		terrain.setPassable(0, 5, false);
+		assertTrue(before.isPassable(0, 5));
+		assertEquals(OccupancyMap.EMPTY, beforeMap.getOccupancy(terrain, 0, 1, 0, 2));
+		assertFalse(terrain.createColumnIndex().isPassable(0, 5));
+		assertEquals(OccupancyMap.FULL, terrain.createOccupancyMap().getOccupancy(terrain, 0, 5, 0, 5));
+	}
+
+	@Test
+	public void createColumnIndex_mapped() throws IOException{
+		Terrain original = createRandomTerrain(200, 300, new Random(7));
+		Terrain mapped = writeAndMap(original, 30, 20);
+		assertNull(mapped.createColumnIndex());
+		assertNull(mapped.createOccupancyMap());
+		World heapWorld = new World(30, 20, original, new Random(1));
+		World mappedWorld = new World(30, 20, mapped, new Random(1));
+		Random random = new Random(8);
+		for(int i = 0; i < 500; i++){
+			double x = random.nextDouble() * 30;
+			double y = random.nextDouble() * 20;
+			assertEquals(heapWorld.isImpassable(x, y, 0.5), mappedWorld.isImpassable(x, y, 0.5));
+			assertEquals(heapWorld.isAdjacent(x, y, 0.5), mappedWorld.isAdjacent(x, y, 0.5));
+			assertEquals(heapWorld.getFreeFallHeight(x, y, 0.5), mappedWorld.getFreeFallHeight(x, y, 0.5), 0);
+		}
+	}
+
+	/**
+	 * Return a new terrain with the given number of rows and columns,
+	 * of which each pixel is impassable with a probability of one in four.
+	 */
+	private static Terrain createRandomTerrain(int nbRows, int nbColumns, Random random){
+		Terrain result = new Terrain(nbRows, nbColumns);
+		for(int row = 0; row < nbRows; row++)
+			for(int column = 0; column < nbColumns; column++)
+				if(random.nextInt(4) == 0)
+					result.setPassable(row, column, false);
+		return result;
+	}
+
+	/**
+	 * Return a terrain mapped from a temporary file to which the given terrain is written.
+	 */
+	private static Terrain writeAndMap(Terrain terrain, double width, double height) throws IOException{
+		File file = File.createTempFile("terrain", ".lvlc");
+		file.deleteOnExit();
+		RandomAccessFile output = new RandomAccessFile(file, "rw");
+		ByteBuffer buffer = output.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, terrain.getCompiledSize());
+		terrain.write(buffer, width, height);
+		output.close();
+		return Terrain.map(new RandomAccessFile(file, "r").getChannel(), 0);
+	}
+
+	@Test
+	public void map_legalCase() throws IOException{
+		Terrain original = createRandomTerrain(200, 300, new Random(3));
+		Terrain mapped = writeAndMap(original, 30, 20);
+		assertEquals(200, mapped.getNbRows());
+		assertEquals(300, mapped.getNbColumns());
+		for(int row = 0; row < 200; row++){
+			for(int column = 0; column < 300; column++)
+				assertEquals(original.isPassable(row, column), mapped.isPassable(row, column));
+			assertEquals(original.getNextImpassableColumn(row, 10, 290), mapped.getNextImpassableColumn(row, 10, 290));
+		}
+	}
+
+	@Test
+	public void map_changesAreNotShared() throws IOException{
+		Terrain mapped = writeAndMap(terrain, 15, 0.3);
+		Terrain copy = new Terrain(mapped);
+		copy.setPassable(1, 64, true);
+		mapped.setPassable(2, 100, false);
+		assertFalse(mapped.isPassable(1, 64));
+		assertTrue(copy.isPassable(1, 64));
+		assertFalse(mapped.isPassable(2, 100));
+		assertTrue(copy.isPassable(2, 100));
+	}
+
+	@Test
+	public void createTiled_sameDistancesAfterUpdate() throws IOException{
+		Terrain original = createRandomTerrain(200, 300, new Random(5));
+		Terrain mapped = writeAndMap(original, 30, 20);
+		DistanceField tiled = mapped.createDistanceField(30, 20);
+		assertEquals(new DistanceField(original, 30, 20).getDistanceAt(50, 260), tiled.getDistanceAt(50, 260), 0);
+		for(int row = 40; row < 60; row++)
+			for(int column = 250; column < 270; column++)
+				mapped.setPassable(row, column, true);
+		tiled.update(mapped, 40, 250, 59, 269);
+		DistanceField full = new DistanceField(mapped, 30, 20);
+		for(int row = 0; row < 200; row++)
+			for(int column = 0; column < 300; column++)
+				assertEquals(full.getDistanceAt(row, column), tiled.getDistanceAt(row, column), 0);
+	}
+}
@@ -0,0 +1,104 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WorldTerrainQueryTest {
+
+	/**
+	 * Check whether the point at the given coordinates lies in an impassable pixel
+	 * of the terrain of the given world, as World checked it before it used a distance field.
+	 * 	Points outside the world, which the circles checked by isAdjacent can reach,
+	 * 	are mapped on the nearest pixel at the border.
+	 */
+	private static boolean isImpassablePoint(World world, double x, double y){
+		Terrain terrain = world.getTerrain();
+		int row = terrain.getNbRows() - (int)Math.ceil(y*terrain.getNbRows()/world.getHeight());
+		int column = (int)Math.floor(x*terrain.getNbColumns()/world.getWidth());
+		if(row >= terrain.getNbRows())
+			row = terrain.getNbRows() - 1;
+		else if(row < 0)
+			row = 0;
+		if(column >= terrain.getNbColumns())
+			column = terrain.getNbColumns() - 1;
+		else if(column < 0)
+			column = 0;
+		return !terrain.isPassable(row, column);
+	}
+
+	/**
+	 * Check whether the given circle is impassable in the given world, by sampling
+	 * 360 points on its circumference as World checked it before it used a distance field.
+	 */
+	private static boolean isImpassable(World world, double x, double y, double radius){
+		if(x-radius<0 || x+radius>world.getWidth() || y-radius<0 || y+radius>world.getHeight() || radius <= 0)
+			return true;
+		for(double angle = 0;angle<2*Math.PI;angle+=(Math.PI/180)){
+			if (isImpassablePoint(world, x+(Math.cos(angle)*radius*0.99999999), y+(Math.sin(angle))*radius*0.99999999))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Check whether the given circle is adjacent in the given world, by sampling
+	 * 360 points on its circumference as World checked it before it used a distance field.
+	 */
+	private static boolean isAdjacent(World world, double x, double y, double radius){
+		if(isImpassable(world, x, y, radius))
+			return false;
+		for(double angle = 0; angle < 2*Math.PI ; angle = angle + (Math.PI/180)){
+			if (isImpassablePoint(world, x+(Math.cos(angle)*radius*1.1), y+(Math.sin(angle))*radius*1.1))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Check the terrain queries of the given world against the sampled queries, at random
+	 * circles and at circles close to adjacent locations, carving craters in between.
+	 */
+	private static void assertSameQueries(World world, long seed){
+		Random random = new Random(seed);
+		for(int round = 0; round < 10; round++){
+			for(int i = 0; i < 500; i++){
+				double radius = 0.1 + random.nextDouble() * 0.9;
+				double x = random.nextDouble() * world.getWidth();
+				double y = random.nextDouble() * world.getHeight();
+				if(i % 2 == 1){
+					radius = 0.25 * (1 + random.nextInt(4));
+					try{
+						double[] location = world.getSpawnPointFinder().findSpawnPoint(radius);
+						x = location[0] + (random.nextDouble() - 0.5) * radius * 0.2;
+						y = location[1] + (random.nextDouble() - 0.5) * radius * 0.2;
+					}
+					catch(IllegalArgumentException exc){
+						// no adjacent location for this radius, the random circle is checked
+					}
+				}
+				assertEquals(isImpassable(world, x, y, radius), world.isImpassable(x, y, radius));
+				assertEquals(isAdjacent(world, x, y, radius), world.isAdjacent(x, y, radius));
+			}
+			world.carveCrater(random.nextDouble() * world.getWidth(),
+					random.nextDouble() * world.getHeight(), 1 + random.nextDouble() * 2);
+		}
+	}
+
+	@Test
+	public void isImpassable_sameAsSampled_Simple(){
+		assertSameQueries(LevelWorlds.createWorld("Simple", 7, 0), 1);
+	}
+
+	@Test
+	public void isImpassable_sameAsSampled_Skulls(){
+		assertSameQueries(LevelWorlds.createWorld("Skulls", 7, 0), 2);
+	}
+
+	@Test
+	public void isImpassable_sameAsSampled_SkullsLowres(){
+		assertSameQueries(LevelWorlds.createWorld("Skulls-lowres", 7, 0), 3);
+	}
+}
@@ -0,0 +1,84 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WormPositionFallTest {
+
+	/**
+	 * Return the height at which a worm with the given radius that falls from the given
+	 * position lands, or negative infinity if it falls out of the given world, searched
+	 * as WormPosition.fall searched it before the search skipped the free fall.
+	 */
+	private static double searchLandingHeight(World world, double x, double y, double radius){
+		double tempY = y;
+		double temp = 0.5;
+		while(world.canFall(x, tempY, radius) && temp >= (1.0/500.0)){
+			while(inMap(world, x, tempY, radius) && world.canFall(x, tempY, radius))
+				tempY -= temp;
+			if(!inMap(world, x, tempY, radius))
+				tempY += temp;
+			temp = temp / 3.0;
+			while(!world.canFall(x, tempY, radius) && !world.isAdjacent(x, tempY, radius))
+				tempY += temp;
+			temp = temp / 3.0;
+		}
+		if(world.canFall(x, tempY, radius))
+			return Double.NEGATIVE_INFINITY;
+		return tempY;
+	}
+
+	/**
+	 * Check whether a worm with the given radius at the given position lies within the given world.
+	 */
+	private static boolean inMap(World world, double x, double y, double radius){
+		return x > radius && x < world.getWidth() - radius &&
+				y > radius && y < world.getHeight() - radius;
+	}
+
+	/**
+	 * Let worms fall from random positions in the given world, carving craters in
+	 * between, and check that they land where the search lands them and lose the hit
+	 * points that go with that fall.
+	 */
+	private static void assertSameFalls(World world, long seed){
+		Random random = new Random(seed);
+		int nbFalls = 0;
+		while(nbFalls < 400){
+			double radius = 0.25 + random.nextDouble() * 0.35;
+			double x = random.nextDouble() * world.getWidth();
+			double y = random.nextDouble() * world.getHeight();
+			if(!world.canFall(x, y, radius))
+				continue;
+			double landingY = searchLandingHeight(world, x, y, radius);
+			Worm worm = new Worm(x, y, 0, radius, "Faller");
+			world.addAsWorm(worm);
+			int hitPoints = worm.getCurrentHitPoints();
+			worm.getWormPosition().fall();
+			if(landingY == Double.NEGATIVE_INFINITY)
+				assertFalse(worm.isAlive());
+			else{
+				assertEquals(landingY, worm.getWormPosition().getY(), 0);
+				assertEquals(hitPoints - (int)Math.floor(3.0 * (y - landingY)), worm.getCurrentHitPoints());
+			}
+			if(world.hasAsWorm(worm))
+				world.removeAsWorm(worm);
+			if(++nbFalls % 50 == 0)
+				world.carveCrater(random.nextDouble() * world.getWidth(),
+						random.nextDouble() * world.getHeight(), 0.5 + random.nextDouble());
+		}
+	}
+
+	@Test
+	public void fall_sameAsSearch_Simple(){
+		assertSameFalls(LevelWorlds.createWorld("Simple", 5, 2), 1);
+	}
+
+	@Test
+	public void fall_sameAsSearch_Skulls(){
+		assertSameFalls(LevelWorlds.createWorld("Skulls", 5, 2), 2);
+	}
+}
@@ -0,0 +1,101 @@
+package worms.simulation;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.Terrain;
+import worms.model.World;
+import worms.model.Worm;
+
+public class PlannerPolicyTest {
+
+	private static final File LEVEL_FILE = new File("levels/Simple.lvl");
+
+	/**
+	 * Variable referencing the facade through which the world is inspected.
+	 */
+	private IFacade facade;
+
+	/**
+	 * Variable referencing a world.
+	 */
+	private World world;
+
+	/**
+	 * Set up a mutable test fixture.
+	 *
+	 * @post	The variable world references a started world on the simple level,
+	 * 			with two teams of three worms.
+	 */
+	@Before
+	public void setUpMutableFixture(){
+		facade = new Facade();
+		Level level = new Level(LEVEL_FILE);
+		level.load();
+		world = facade.createWorldFromTerrain(level.getWorldWidth(), level.getWorldHeight(),
+				new Terrain(level.getTerrain()), new Random(3));
+		facade.addEmptyTeam(world, "TeamA");
+		facade.addEmptyTeam(world, "TeamB");
+		for(int i = 0; i < 6; i++)
+			facade.addNewWorm(world);
+		facade.startGame(world);
+	}
+
+	@Test
+	public void chooseAction_worldUnchanged(){
+		Worm worm = facade.getCurrentWorm(world);
+		facade.selectNextWeapon(worm);
+		List<String> state = getState();
+		long version = world.getTerrainVersion();
+		PlannerPolicy policy = new PlannerPolicy(1, 0, 200);
+		assertNotNull(policy.chooseAction(facade, world, worm));
+		assertEquals(200, policy.getNbEvaluations());
+		assertEquals(state, getState());
+		assertTrue(facade.getCurrentWorm(world) == worm);
+		assertNull(facade.getActiveProjectile(world));
+		assertTrue(world.getTerrainVersion() >= version);
+	}
+
+	@Test
+	public void chooseAction_sameSeed(){
+		Worm worm = facade.getCurrentWorm(world);
+		facade.selectNextWeapon(worm);
+		Action action1 = new PlannerPolicy(5, 0, 200).chooseAction(facade, world, worm);
+		Action action2 = new PlannerPolicy(5, 0, 200).chooseAction(facade, world, worm);
+		assertEquals(action1.toString(), action2.toString());
+	}
+
+	@Test
+	public void chooseAction_noWeapon(){
+		Worm worm = facade.getCurrentWorm(world);
+		assertEquals(Action.Kind.SELECT_NEXT_WEAPON,
+				new PlannerPolicy(1, 0, 200).chooseAction(facade, world, worm).getKind());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_noEvaluations(){
+		new PlannerPolicy(1, 0, 0);
+	}
+
+	/**
+	 * Return the names, positions, directions, action points and hit points of the worms in the world.
+	 */
+	private List<String> getState(){
+		List<String> result = new ArrayList<String>();
+		for(Worm worm: facade.getWorms(world))
+			result.add(facade.getName(worm) + " " + facade.getX(worm) + " " + facade.getY(worm) + " " +
+					facade.getOrientation(worm) + " " + facade.getActionPoints(worm) + " " +
+					facade.getHitPoints(worm));
+		return result;
+	}
+}
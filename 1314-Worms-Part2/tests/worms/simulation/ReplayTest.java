@@ -0,0 +1,109 @@
+package worms.simulation;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+public class ReplayTest {
+
+	private static final File LEVEL_FILE = new File("levels/Simple.lvl");
+
+	private static final long SEED = 11;
+
+	/**
+	 * Variable referencing the log of a simulated game.
+	 */
+	private byte[] log;
+
+	/**
+	 * Variable referencing the facade through which the simulated game was played.
+	 */
+	private RecordingFacade recordingFacade;
+
+	/**
+	 * Set up a mutable test fixture.
+	 *
+	 * @post	The variable log references the replay log of a simulated game
+	 * 			of two teams of three worms on the simple level, played through
+	 * 			the facade referenced by the variable recordingFacade.
+	 */
+	@Before
+	public void setUpMutableFixture()
+			throws IOException{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		recordingFacade = new RecordingFacade(output, LEVEL_FILE, SEED);
+		Simulation simulation = new Simulation(recordingFacade, new Level(LEVEL_FILE),
+				new WormPolicy[] {new RandomPolicy(1), new RandomPolicy(2)}, 3, 5, 500);
+		simulation.runGame(SEED);
+		recordingFacade.close();
+		assertNull(recordingFacade.getError());
+		log = output.toByteArray();
+	}
+
+	@Test
+	public void playToEnd_sameWorld()
+			throws IOException{
+		IFacade facade = new Facade();
+		Replay replay = new Replay(facade, new ByteArrayInputStream(log));
+		replay.playToEnd();
+		assertTrue(replay.isFinished());
+		assertEquals(getState(recordingFacade, recordingFacade.getRecordedWorld()),
+				getState(facade, replay.getWorld()));
+	}
+
+	@Test
+	public void seekToTurn_sameWorldAsStepping()
+			throws IOException{
+		IFacade facade = new Facade();
+		Replay replay = new Replay(facade, new ByteArrayInputStream(log));
+		replay.seekToTurn(5);
+		assertEquals(5, replay.getTurn());
+		IFacade otherFacade = new Facade();
+		Replay other = new Replay(otherFacade, new ByteArrayInputStream(log));
+		for(int call = 0; call < replay.getNbCalls(); call++)
+			assertTrue(other.step());
+		assertEquals(getState(facade, replay.getWorld()), getState(otherFacade, other.getWorld()));
+		assertFalse(replay.isFinished());
+	}
+
+	@Test
+	public void step_truncatedLog()
+			throws IOException{
+		Replay replay = new Replay(new Facade(), new ByteArrayInputStream(Arrays.copyOf(log, log.length - 1)));
+		replay.playToEnd();
+		assertTrue(replay.isFinished());
+		assertFalse(replay.step());
+	}
+
+	@Test(expected = IOException.class)
+	public void constructor_notALog()
+			throws IOException{
+		new Replay(new Facade(), new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+	}
+
+	/**
+	 * Return the names, positions and hit points of the worms in the given world.
+	 */
+	private static List<String> getState(IFacade facade, World world){
+		List<String> result = new ArrayList<String>();
+		for(Worm worm: facade.getWorms(world))
+			result.add(facade.getName(worm) + " " + facade.getX(worm) + " " +
+					facade.getY(worm) + " " + facade.getHitPoints(worm));
+		return result;
+	}
+}